@@ -0,0 +1,330 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.nativegit;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Pool of long-lived {@code git cat-file --batch} processes. Each repository has own set of processes, process is borrowed from the
+ * pool for one read and returned back after that. It lets read content of git objects without start of new git process for each
+ * request. Processes that aren't used for {@link #IDLE_TIMEOUT_SECONDS} are stopped. Process that doesn't answer request for
+ * {@link #READ_TIMEOUT_SECONDS} is considered as hung and is stopped also.
+ * <p/>
+ * Pool serves only reads of blobs. If object doesn't exist, isn't blob or process fails {@link #readBlob(File, String)} returns
+ * {@code null} and caller should fall back to regular git command which also provides proper error message. Log, list of branches
+ * and status still run separate git command: they need walking of history and refs and comparison of work tree with index, that
+ * {@code git cat-file} doesn't provide.
+ *
+ * @author andrew00x
+ */
+public final class CatFileBatchPool {
+    private static final Logger LOG = LoggerFactory.getLogger(CatFileBatchPool.class);
+
+    /** Max number of idle processes kept for one repository. */
+    static final int  MAX_IDLE_PER_REPOSITORY = 2;
+    /** Idle processes are stopped after this timeout. */
+    static final long IDLE_TIMEOUT_SECONDS    = 60;
+    /** Process is stopped if reading of one object takes longer than this timeout. */
+    static final long READ_TIMEOUT_SECONDS    = 30;
+
+    /** Stops idle processes and processes that don't answer in time. */
+    private static final ScheduledExecutorService SCHEDULER;
+
+    static {
+        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(
+                1, new ThreadFactoryBuilder().setNameFormat("CatFileBatchScheduler").setDaemon(true).build());
+        // Deadline of each read is cancelled when read completes, don't keep cancelled tasks in queue.
+        scheduler.setRemoveOnCancelPolicy(true);
+        SCHEDULER = scheduler;
+    }
+
+    private static final CatFileBatchPool INSTANCE = new CatFileBatchPool(TimeUnit.SECONDS.toMillis(IDLE_TIMEOUT_SECONDS),
+                                                                          TimeUnit.SECONDS.toMillis(READ_TIMEOUT_SECONDS));
+
+    static {
+        SCHEDULER.scheduleWithFixedDelay(INSTANCE::evictIdle, IDLE_TIMEOUT_SECONDS, IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static CatFileBatchPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Idle processes by repository. Processes are added to deque and empty deque is removed from map only inside of atomic operations
+     * of the map, so process can't be added to deque that is already removed from the map.
+     */
+    private final ConcurrentMap<File, Deque<CatFileBatch>> idle;
+    private final long                                     idleTimeout;
+    private final long                                     readTimeout;
+    private final AtomicInteger                            running;
+    private volatile boolean                               stopped;
+
+    /**
+     * @param idleTimeout
+     *         time in milliseconds after that idle process is stopped with {@link #evictIdle()}
+     * @param readTimeout
+     *         time in milliseconds after that process that is reading object is stopped
+     */
+    @VisibleForTesting
+    CatFileBatchPool(long idleTimeout, long readTimeout) {
+        this.idleTimeout = idleTimeout;
+        this.readTimeout = readTimeout;
+        idle = new ConcurrentHashMap<>();
+        running = new AtomicInteger();
+    }
+
+    /**
+     * Reads content of blob.
+     *
+     * @param repository
+     *         git repository
+     * @param object
+     *         name of object in any form supported by git, e.g. SHA-1 or {@code <revision>:<path>}
+     * @return content of blob or {@code null} if object doesn't exist, isn't blob or can't be read with {@code git cat-file --batch}
+     */
+    public byte[] readBlob(File repository, String object) {
+        if (object.indexOf('\n') >= 0) {
+            // Not supported by batch protocol.
+            return null;
+        }
+        CatFileBatch batch = borrow(repository);
+        if (batch == null) {
+            return null;
+        }
+        // Blocked read is interrupted when process is stopped.
+        final ScheduledFuture<?> deadline = SCHEDULER.schedule(() -> {
+            LOG.warn("git cat-file in repository {} doesn't answer in {} ms, process is stopped", repository, readTimeout);
+            stop(batch);
+        }, readTimeout, TimeUnit.MILLISECONDS);
+        final byte[] content;
+        try {
+            content = batch.readBlob(object);
+        } catch (IOException e) {
+            LOG.warn("Unable read object {} from repository {} with git cat-file: {}", object, repository, e.getMessage());
+            stop(batch);
+            return null;
+        } finally {
+            deadline.cancel(false);
+        }
+        release(batch);
+        return content;
+    }
+
+    private CatFileBatch borrow(File repository) {
+        final Deque<CatFileBatch> workers = idle.get(repository);
+        if (workers != null) {
+            CatFileBatch batch;
+            while ((batch = workers.pollFirst()) != null) {
+                if (batch.isAlive()) {
+                    return batch;
+                }
+                stop(batch);
+            }
+        }
+        try {
+            final CatFileBatch batch = new CatFileBatch(repository);
+            running.incrementAndGet();
+            return batch;
+        } catch (IOException e) {
+            LOG.warn("Unable start git cat-file in repository {}: {}", repository, e.getMessage());
+            return null;
+        }
+    }
+
+    private void release(CatFileBatch batch) {
+        final boolean[] pooled = new boolean[1];
+        if (batch.isAlive()) {
+            batch.lastUsed = System.currentTimeMillis();
+            idle.compute(batch.repository, (repository, workers) -> {
+                if (stopped) {
+                    return workers;
+                }
+                if (workers == null) {
+                    workers = new ConcurrentLinkedDeque<>();
+                }
+                if (workers.size() < MAX_IDLE_PER_REPOSITORY) {
+                    // Recently used process is reused first, that lets the rest of processes become idle and be stopped.
+                    workers.offerFirst(batch);
+                    pooled[0] = true;
+                }
+                return workers;
+            });
+        }
+        if (!pooled[0]) {
+            stop(batch);
+        }
+    }
+
+    /** Stops processes that aren't used longer than idle timeout. */
+    @VisibleForTesting
+    void evictIdle() {
+        final long expired = System.currentTimeMillis() - idleTimeout;
+        for (File repository : idle.keySet()) {
+            final Deque<CatFileBatch> workers = idle.get(repository);
+            if (workers == null) {
+                continue;
+            }
+            for (CatFileBatch batch : workers) {
+                // Process may be borrowed concurrently, stop it only if we managed to remove it from the pool.
+                if (batch.lastUsed < expired && workers.removeFirstOccurrence(batch)) {
+                    stop(batch);
+                }
+            }
+            idle.computeIfPresent(repository, (r, d) -> d.isEmpty() ? null : d);
+        }
+    }
+
+    /**
+     * Stops all idle processes. Processes that are borrowed at the moment are stopped when they are returned back, pool doesn't
+     * keep processes after that.
+     */
+    @VisibleForTesting
+    void stop() {
+        stopped = true;
+        for (File repository : idle.keySet()) {
+            final Deque<CatFileBatch> workers = idle.remove(repository);
+            if (workers != null) {
+                workers.forEach(this::stop);
+            }
+        }
+    }
+
+    private void stop(CatFileBatch batch) {
+        if (batch.close()) {
+            running.decrementAndGet();
+        }
+    }
+
+    /** Gets number of started and not stopped yet processes, including borrowed processes. */
+    @VisibleForTesting
+    int getRunningProcesses() {
+        return running.get();
+    }
+
+    /** Gets idle processes of repository. */
+    @VisibleForTesting
+    List<Process> getIdleProcesses(File repository) {
+        final Deque<CatFileBatch> workers = idle.get(repository);
+        return workers == null ? Collections.emptyList() : workers.stream().map(batch -> batch.process).collect(Collectors.toList());
+    }
+
+    /** Running {@code git cat-file --batch} process. Not thread safe, used by one thread at a time. */
+    private static class CatFileBatch {
+        final File          repository;
+        final Process       process;
+        final OutputStream  input;
+        final InputStream   output;
+        final AtomicBoolean closed;
+        volatile long       lastUsed;
+
+        CatFileBatch(File repository) throws IOException {
+            this.repository = repository;
+            final ProcessBuilder pb = new ProcessBuilder("git", "cat-file", "--batch").directory(repository)
+                                                                                      .redirectError(ProcessBuilder.Redirect.INHERIT);
+            pb.environment().put("HOME", System.getProperty("user.home"));
+            process = pb.start();
+            input = process.getOutputStream();
+            output = new BufferedInputStream(process.getInputStream());
+            closed = new AtomicBoolean();
+        }
+
+        boolean isAlive() {
+            return !closed.get() && process.isAlive();
+        }
+
+        /**
+         * Requests object and reads response. Response is {@code <sha1> SP <type> SP <size> LF <content> LF} or {@code <object> SP
+         * missing LF}.
+         */
+        byte[] readBlob(String object) throws IOException {
+            input.write((object + '\n').getBytes(StandardCharsets.UTF_8));
+            input.flush();
+            final String header = readLine();
+            if (header.endsWith(" missing") || header.endsWith(" ambiguous")) {
+                return null;
+            }
+            final String[] parts = header.split(" ");
+            if (parts.length != 3) {
+                throw new IOException("Unexpected output of git cat-file: " + header);
+            }
+            final int size;
+            try {
+                size = Integer.parseInt(parts[2]);
+            } catch (NumberFormatException e) {
+                throw new IOException("Unexpected output of git cat-file: " + header);
+            }
+            final byte[] content = new byte[size];
+            int offset = 0;
+            while (offset < size) {
+                final int n = output.read(content, offset, size - offset);
+                if (n < 0) {
+                    throw new EOFException();
+                }
+                offset += n;
+            }
+            if (output.read() != '\n') {
+                throw new IOException("Unexpected output of git cat-file");
+            }
+            return "blob".equals(parts[1]) ? content : null;
+        }
+
+        private String readLine() throws IOException {
+            final ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+            int b;
+            while ((b = output.read()) != '\n') {
+                if (b < 0) {
+                    throw new EOFException();
+                }
+                line.write(b);
+            }
+            return new String(line.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        /** Stops process. Returns {@code false} if process is already stopped with this method. */
+        boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            try {
+                input.close();
+            } catch (IOException ignored) {
+            }
+            process.destroy();
+            return true;
+        }
+    }
+}
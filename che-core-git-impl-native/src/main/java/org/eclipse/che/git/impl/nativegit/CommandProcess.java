@@ -11,13 +11,11 @@
 package org.eclipse.che.git.impl.nativegit;
 
 
-import org.eclipse.che.api.core.util.CancellableProcessWrapper;
 import org.eclipse.che.api.core.util.CommandLine;
 import org.eclipse.che.api.core.util.CompositeLineConsumer;
 import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.api.core.util.LineConsumerFactory;
 import org.eclipse.che.api.core.util.ProcessUtil;
-import org.eclipse.che.api.core.util.Watchdog;
 import org.eclipse.che.api.git.GitException;
 import org.eclipse.che.git.impl.nativegit.commands.GitCommand;
 import org.slf4j.Logger;
@@ -26,7 +24,10 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Executes GitCommand.
@@ -69,26 +70,20 @@ public class CommandProcess {
 
         // Add an external line consumer that comes with factory. It is typically a consumer that sends message events to the client.
         try (LineConsumer consumer = new CompositeLineConsumer(lineConsumer, command)) {
-            Process process;
+            // Output is read in background and process will be stopped after timeout even if it hangs without any output.
+            CompletableFuture<Integer> exitValue;
             try {
-                process = ProcessUtil.execute(pb, consumer);
+                exitValue = ProcessUtil.executeAsync(pb, consumer, command.getTimeout(), TimeUnit.SECONDS);
             } catch (IOException e) {
                 LOG.error("Process creating failed", e);
                 throw new GitException("It is not possible to execute command");
             }
-            // process will be stopped after timeout
-            Watchdog watcher = null;
-            if (command.getTimeout() > 0) {
-                watcher = new Watchdog(command.getTimeout(), TimeUnit.SECONDS);
-                watcher.start(new CancellableProcessWrapper(process));
-            }
 
             try {
-                process.waitFor();
                 /*
                  * Check process exit value and search for correct error message without hint and warning messages ant throw it to user.
                  */
-                if (process.exitValue() != 0) {
+                if (exitValue.get() != 0) {
                     String message = searchErrorMessage(command.getLines());
                     LOG.debug(String.format("Command failed!\ncommand: %s\nerror: %s", commandLine.toString(), message));
                     throw new GitException(message);
@@ -96,11 +91,16 @@ public class CommandProcess {
                     LOG.debug(String.format("Command successful!\ncommand: %s", commandLine.toString()));
                 }
             } catch (InterruptedException e) {
-                Thread.interrupted();
-            } finally {
-                if (watcher != null) {
-                    watcher.stop();
+                exitValue.cancel(true);
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof TimeoutException) {
+                    LOG.debug(String.format("Command timed out!\ncommand: %s", commandLine.toString()));
+                    throw new GitException(String.format("Command '%s' is not completed in %d seconds", commandLine.toString(),
+                                                         command.getTimeout()));
                 }
+                LOG.error("An error occurred while reading output of the command", e.getCause());
+                throw new GitException(e.getCause());
             }
         } catch (IOException e) {
             LOG.error("An error occurred while trying to close the lineConsumer", e);
@@ -104,6 +104,7 @@ public class NativeGitConnection implements GitConnection {
             "you have the correct access rights\\nand the repository exists\\.\\n.*",
             Pattern.MULTILINE);
     private static final Pattern notInGitRepoErrorPattern = Pattern.compile("^fatal: Not a git repository.*(\\n.*)*$", Pattern.MULTILINE);
+    private static final Pattern commitIdPattern          = Pattern.compile("[0-9a-f]{40}");
     private final NativeGit         nativeGit;
     private final CredentialsLoader credentialsLoader;
     private final GitUserResolver   userResolver;
@@ -377,7 +378,42 @@ public class NativeGitConnection implements GitConnection {
 
     @Override
     public LogPage log(LogRequest request) throws GitException {
-        return new LogPage(nativeGit.createLogCommand().setFileFilter(request.getFileFilter()).execute());
+        final LogCommand command = nativeGit.createLogCommand().setFileFilter(request.getFileFilter());
+        final int maxCount = request.getMaxCount();
+        if (maxCount <= 0 && request.getPageToken() == null) {
+            return new LogPage(command.setSkip(request.getSkip()).execute());
+        }
+        // Page token pins the commit history was started from, so next pages aren't shifted by new commits.
+        final String start;
+        final int skip;
+        if (request.getPageToken() != null) {
+            final String token = request.getPageToken();
+            final int separator = token.indexOf(':');
+            try {
+                start = token.substring(0, separator);
+                skip = Integer.parseInt(token.substring(separator + 1));
+            } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                throw new GitException(String.format("Invalid page token %s. ", token));
+            }
+            if (skip < 0 || !commitIdPattern.matcher(start).matches()) {
+                throw new GitException(String.format("Invalid page token %s. ", token));
+            }
+        } else {
+            final EmptyGitCommand revParse = nativeGit.createEmptyGitCommand().setNextParameter("rev-parse").setNextParameter("HEAD");
+            revParse.execute();
+            start = revParse.getText();
+            skip = Math.max(0, request.getSkip());
+        }
+        command.setBranch(start).setSkip(skip);
+        if (maxCount <= 0) {
+            return new LogPage(command.execute());
+        }
+        // Request one more revision to find out whether there is next page.
+        final List<Revision> revisions = command.setCount(maxCount + 1).execute();
+        if (revisions.size() > maxCount) {
+            return new LogPage(new ArrayList<>(revisions.subList(0, maxCount)), start + ':' + (skip + maxCount));
+        }
+        return new LogPage(revisions);
     }
 
     @Override
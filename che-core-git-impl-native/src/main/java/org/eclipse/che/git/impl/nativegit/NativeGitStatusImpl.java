@@ -54,6 +54,9 @@ public class NativeGitStatusImpl implements Status, InfoPage {
     
     private String repositoryState;
 
+    /** Output of porcelain status that is used for loading of status information. */
+    private String porcelainText;
+
     /**
      * @param branchName
      *         current repository branch name
@@ -74,6 +77,11 @@ public class NativeGitStatusImpl implements Status, InfoPage {
     /** @see InfoPage#writeTo(java.io.OutputStream) */
     @Override
     public void writeTo(OutputStream out) throws IOException {
+        if (format == StatusFormat.PORCELAIN && porcelainText != null) {
+            // Porcelain status is already loaded, don't run the same command once again.
+            out.write(porcelainText.getBytes());
+            return;
+        }
         StatusCommand status = nativeGit.createStatusCommand().setFormat(format);
         try {
             status.execute();
@@ -260,6 +268,7 @@ public class NativeGitStatusImpl implements Status, InfoPage {
     public void load() throws GitException {
         StatusCommand status = nativeGit.createStatusCommand().setFormat(StatusFormat.PORCELAIN);
         List<String> statusOutput = status.execute();
+        porcelainText = status.getText();
         setClean(statusOutput.size() == 0);
         if (!isClean()) {
             added = new ArrayList<>();
@@ -16,19 +16,28 @@ import org.eclipse.che.api.git.shared.GitUser;
 import org.eclipse.che.api.git.shared.Revision;
 
 import java.io.File;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
- * Show commit logs
+ * Show commit logs. Revisions are parsed as soon as git prints them, output of command is not buffered.
  *
  * @author Eugene Voevodin
  */
 public class LogCommand extends GitCommand<List<Revision>> {
+    /** Marks lines that describe revisions, all other lines, e.g. error messages, are collected as usual. */
+    private static final char   REVISION_MARKER = '\u001e';
+    private static final String FIELD_SEPARATOR = "\u001f";
+    /** id, parents, author name, author email, committer name, committer email, commit time, subject */
+    private static final String FORMAT          = "--format=%x1e%H%x1f%P%x1f%an%x1f%ae%x1f%cn%x1f%ce%x1f%ct%x1f%s";
 
-    private int          count;
-    private String       branch;
-    private List<String> fileFilter;
+    private int            count;
+    private int            skip;
+    private String         branch;
+    private List<String>   fileFilter;
+    private List<Revision> revisions;
 
     public LogCommand(File place) {
         super(place);
@@ -38,36 +47,55 @@ public class LogCommand extends GitCommand<List<Revision>> {
     @Override
     public List<Revision> execute() throws GitException {
         reset();
+        revisions = new ArrayList<>(count > 0 ? count : 16);
         commandLine.add("log")
-                   .add("--format=%an#%ae#%cn#%ce#%cd#%H#%s")
-                   .add("--date=raw");
-        if (branch != null) {
-            commandLine.add(branch);
+                   .add(FORMAT);
+        if (skip > 0) {
+            commandLine.add("--skip=" + skip);
         }
         if (count > 0) {
             commandLine.add("-" + count);
         }
+        if (branch != null) {
+            commandLine.add(branch);
+        }
         commandLine.add(fileFilter);
         start();
-        List<Revision> list = new LinkedList<>();
-        final DtoFactory dtoFactory = DtoFactory.getInstance();
-        for (String oneRev : lines) {
-            String[] elements = oneRev.split("#");
-            GitUser committer = dtoFactory.createDto(GitUser.class).withName(elements[2]).withEmail(elements[3]);
-            long commitTime = Long.parseLong(elements[4].substring(0, elements[4].indexOf(" "))) * 1000L;
-            String commitId = elements[5];
-            StringBuilder commitMessage = new StringBuilder();
-            for (int i = 6; i < elements.length; i++) {
-                commitMessage.append(elements[i]);
-            }
-            Revision revision = dtoFactory.createDto(Revision.class)
-                                          .withId(commitId)
-                                          .withMessage(commitMessage.toString())
-                                          .withCommitTime(commitTime)
-                                          .withCommitter(committer);
-            list.add(revision);
+        return revisions;
+    }
+
+    @Override
+    public void writeLine(String line) {
+        if (line.isEmpty() || line.charAt(0) != REVISION_MARKER) {
+            super.writeLine(line);
+            return;
+        }
+        final String[] elements = line.substring(1).split(FIELD_SEPARATOR, 8);
+        if (elements.length < 8) {
+            super.writeLine(line);
+            return;
         }
-        return list;
+        final DtoFactory dtoFactory = DtoFactory.getInstance();
+        final GitUser author = dtoFactory.createDto(GitUser.class).withName(elements[2]).withEmail(elements[3]);
+        final GitUser committer = dtoFactory.createDto(GitUser.class).withName(elements[4]).withEmail(elements[5]);
+        final List<String> parents = elements[1].isEmpty() ? Collections.<String>emptyList() : Arrays.asList(elements[1].split(" "));
+        revisions.add(dtoFactory.createDto(Revision.class)
+                                .withId(elements[0])
+                                .withParents(parents)
+                                .withAuthor(author)
+                                .withCommitter(committer)
+                                .withCommitTime(Long.parseLong(elements[6]) * 1000L)
+                                .withMessage(elements[7]));
+    }
+
+    /**
+     * @param skip
+     *         number of revisions to skip before starting to show revisions
+     * @return LogCommand with established number of revisions to skip
+     */
+    public LogCommand setSkip(int skip) {
+        this.skip = skip;
+        return this;
     }
 
     /**
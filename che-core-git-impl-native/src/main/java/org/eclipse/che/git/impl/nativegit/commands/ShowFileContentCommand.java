@@ -12,10 +12,15 @@ package org.eclipse.che.git.impl.nativegit.commands;
 
 import org.eclipse.che.api.git.GitException;
 import org.eclipse.che.api.git.shared.ShowFileContentResponse;
+import org.eclipse.che.git.impl.nativegit.CatFileBatchPool;
 
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
 
 /**
  * Used for getting content of the file from specified revision or branch.
@@ -39,6 +44,11 @@ public class ShowFileContentCommand extends GitCommand<ShowFileContentResponse>
         if (file == null) {
             throw new GitException("No file was set.");
         }
+        final byte[] blob = CatFileBatchPool.getInstance().readBlob(getRepository(), version + ":" + file);
+        if (blob != null) {
+            return newDto(ShowFileContentResponse.class).withContent(toContent(blob));
+        }
+        // Fall back to git show, it also gives proper error message if file doesn't exist.
         reset();
         commandLine.add("show");
         commandLine.add(version + ":" + file);
@@ -53,6 +63,21 @@ public class ShowFileContentCommand extends GitCommand<ShowFileContentResponse>
         return newDto(ShowFileContentResponse.class).withContent(content);
     }
 
+    /** Converts content of blob in the same way as output of git show is converted: each line is terminated with '\n'. */
+    private static String toContent(byte[] blob) {
+        final StringBuilder content = new StringBuilder(blob.length);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(blob)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                content.append(line).append('\n');
+            }
+        } catch (IOException e) {
+            // Not expected for byte array.
+            throw new IllegalStateException(e);
+        }
+        return content.toString();
+    }
+
     /**
      * Set up file for show file content command.
      *
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.nativegit;
+
+import com.google.common.io.Files;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author andrew00x
+ */
+public class CatFileBatchPoolTest {
+    private static final String CONTENT = "to be or not to be";
+
+    private File                   repository;
+    private String                 blob;
+    private List<CatFileBatchPool> pools;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        repository = Files.createTempDir();
+        git("init");
+        final File file = new File(repository, "README");
+        Files.write(CONTENT, file, StandardCharsets.UTF_8);
+        blob = git("hash-object", "-w", "README").trim();
+        pools = new ArrayList<>();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        pools.forEach(CatFileBatchPool::stop);
+        deleteRecursive(repository);
+    }
+
+    @Test
+    public void reusesProcessForSubsequentReads() throws Exception {
+        CatFileBatchPool pool = newPool(TimeUnit.MINUTES.toMillis(1));
+
+        assertEquals(new String(pool.readBlob(repository, blob), StandardCharsets.UTF_8), CONTENT);
+        List<Process> idle = pool.getIdleProcesses(repository);
+        assertEquals(idle.size(), 1);
+        assertEquals(new String(pool.readBlob(repository, blob), StandardCharsets.UTF_8), CONTENT);
+
+        assertEquals(pool.getRunningProcesses(), 1);
+        assertEquals(pool.getIdleProcesses(repository), idle);
+        pool.evictIdle();
+        assertEquals(pool.getIdleProcesses(repository), idle);
+    }
+
+    @Test
+    public void returnsNullForMissingObject() throws Exception {
+        CatFileBatchPool pool = newPool(TimeUnit.MINUTES.toMillis(1));
+
+        assertNull(pool.readBlob(repository, "0000000000000000000000000000000000000000"));
+        assertEquals(pool.getRunningProcesses(), 1);
+    }
+
+    @Test
+    public void stopsIdleProcess() throws Exception {
+        CatFileBatchPool pool = newPool(0);
+        pool.readBlob(repository, blob);
+        List<Process> idle = pool.getIdleProcesses(repository);
+        assertEquals(idle.size(), 1);
+
+        Thread.sleep(10);
+        pool.evictIdle();
+
+        assertEquals(pool.getRunningProcesses(), 0);
+        assertTrue(pool.getIdleProcesses(repository).isEmpty());
+        assertTrue(idle.get(0).waitFor(5, TimeUnit.SECONDS));
+        assertFalse(idle.get(0).isAlive());
+    }
+
+    @Test
+    public void doesNotLeakProcessesWhenReleaseRacesWithEviction() throws Exception {
+        final CatFileBatchPool pool = newPool(0);
+        final int readers = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean done = new AtomicBoolean();
+        try {
+            final List<Future<?>> reads = new ArrayList<>(readers);
+            for (int i = 0; i < readers; i++) {
+                reads.add(executor.submit(() -> {
+                    start.await();
+                    for (int n = 0; n < 50; n++) {
+                        assertEquals(new String(pool.readBlob(repository, blob), StandardCharsets.UTF_8), CONTENT);
+                    }
+                    return null;
+                }));
+            }
+            final Future<?> evictions = executor.submit(() -> {
+                start.await();
+                while (!done.get()) {
+                    pool.evictIdle();
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> read : reads) {
+                read.get(1, TimeUnit.MINUTES);
+            }
+            done.set(true);
+            evictions.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(pool.getRunningProcesses() <= CatFileBatchPool.MAX_IDLE_PER_REPOSITORY);
+        assertEquals(pool.getIdleProcesses(repository).size(), pool.getRunningProcesses());
+        Thread.sleep(10);
+        pool.evictIdle();
+        assertEquals(pool.getRunningProcesses(), 0);
+    }
+
+    @Test
+    public void stopsProcessThatDoesNotAnswerInTime() throws Exception {
+        // Reading of loose object that is named pipe blocks git until anybody writes to the pipe.
+        final String hung = "1234567890123456789012345678901234567890";
+        final File objects = new File(repository, ".git/objects/" + hung.substring(0, 2));
+        assertTrue(objects.mkdirs());
+        final Process mkfifo = new ProcessBuilder("mkfifo", new File(objects, hung.substring(2)).getPath()).start();
+        assertEquals(mkfifo.waitFor(), 0);
+        CatFileBatchPool pool = new CatFileBatchPool(TimeUnit.MINUTES.toMillis(1), 100);
+        pools.add(pool);
+
+        assertNull(pool.readBlob(repository, hung));
+        assertEquals(pool.getRunningProcesses(), 0);
+        assertTrue(pool.getIdleProcesses(repository).isEmpty());
+    }
+
+    @Test
+    public void stopsIdleProcessesWhenPoolIsStopped() throws Exception {
+        CatFileBatchPool pool = newPool(TimeUnit.MINUTES.toMillis(1));
+        pool.readBlob(repository, blob);
+        List<Process> idle = pool.getIdleProcesses(repository);
+
+        pool.stop();
+
+        assertEquals(pool.getRunningProcesses(), 0);
+        assertTrue(idle.get(0).waitFor(5, TimeUnit.SECONDS));
+        assertEquals(new String(pool.readBlob(repository, blob), StandardCharsets.UTF_8), CONTENT);
+        assertEquals(pool.getRunningProcesses(), 0);
+    }
+
+    private CatFileBatchPool newPool(long idleTimeout) {
+        final CatFileBatchPool pool = new CatFileBatchPool(idleTimeout, TimeUnit.MINUTES.toMillis(1));
+        pools.add(pool);
+        return pool;
+    }
+
+    private String git(String... args) throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>(args.length + 1);
+        command.add("git");
+        for (String arg : args) {
+            command.add(arg);
+        }
+        final Process process = new ProcessBuilder(command).directory(repository).redirectErrorStream(true).start();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream in = process.getInputStream()) {
+            byte[] buf = new byte[1024];
+            int r;
+            while ((r = in.read(buf)) != -1) {
+                output.write(buf, 0, r);
+            }
+        }
+        assertEquals(process.waitFor(), 0, output.toString());
+        return output.toString(StandardCharsets.UTF_8.name());
+    }
+
+    private static void deleteRecursive(File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursive(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -39,16 +39,19 @@ public class AutoMountVirtualFileSystemRegistry extends VirtualFileSystemRegistr
     private final EventService         eventService;
     private final SearcherProvider     searcherProvider;
     private final SystemPathsFilter    systemFilter;
+    private final FSMountPointSettings settings;
 
     @Inject
     public AutoMountVirtualFileSystemRegistry(LocalFSMountStrategy mountStrategy,
                                               EventService eventService,
                                               SystemPathsFilter systemFilter,
-                                              @Nullable SearcherProvider searcherProvider) {
+                                              @Nullable SearcherProvider searcherProvider,
+                                              FSMountPointSettings settings) {
         this.mountStrategy = mountStrategy;
         this.eventService = eventService;
         this.searcherProvider = searcherProvider;
         this.systemFilter = systemFilter;
+        this.settings = settings;
     }
 
     @Override
@@ -58,6 +61,6 @@ public class AutoMountVirtualFileSystemRegistry extends VirtualFileSystemRegistr
             return null;
         }
         LOG.debug("Using {} as mount point for workspace {} ", wsPath.getAbsolutePath(), vfsId);
-        return new LocalFileSystemProvider(vfsId, mountStrategy, eventService, searcherProvider, systemFilter, this);
+        return new LocalFileSystemProvider(vfsId, mountStrategy, eventService, searcherProvider, systemFilter, this, settings);
     }
 }
@@ -11,50 +11,74 @@
 package org.eclipse.che.vfs.impl.fs;
 
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.server.LazyIterator;
 import org.eclipse.che.api.vfs.server.MountPoint;
+import org.eclipse.che.api.vfs.server.VirtualFile;
 import org.eclipse.che.api.vfs.server.VirtualFileFilter;
+import org.eclipse.che.api.vfs.server.observation.IndexingProgressEvent;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ExecutorService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
 
 /**
  * Filesystem based LuceneSearcher which cleans index directory after call method {@link #close()}.
+ * <p/>
+ * Initial index is built in background. Folders are walked in parallel with {@link ForkJoinPool} of {@link
+ * CleanableSearcherProvider} and content of files is read by the same pool, so number of concurrent readers is bounded by
+ * parallelism of pool. Progress of indexing is published with {@link IndexingProgressEvent}. Queries may be executed while initial
+ * indexing is running, results of such queries are marked as partial.
  *
  * @author andrew00x
  */
 public class CleanableSearcher extends FSIndexSearcher {
     private static final Logger LOG = LoggerFactory.getLogger(CleanableSearcher.class);
+
+    /** Publish progress of initial indexing after each PROGRESS_STEP indexed files. */
+    private static final int PROGRESS_STEP = 1000;
+
     private final CleanableSearcherProvider searcherService;
 
     private final AtomicBoolean              initFlag;
     private final AtomicReference<Exception> initError;
+    private final AtomicInteger              indexedFiles;
 
     CleanableSearcher(CleanableSearcherProvider searcherService, java.io.File indexDir, VirtualFileFilter filter) {
-        super(indexDir, filter);
+        super(indexDir, filter, searcherService.getIndexExecutor(), searcherService.getIndexRefreshPeriod());
         this.searcherService = searcherService;
         initFlag = new AtomicBoolean();
         initError = new AtomicReference<>();
+        indexedFiles = new AtomicInteger();
     }
 
     @Override
     public void init(final MountPoint mountPoint) throws ServerException {
-        doInit();
-        final ExecutorService executor = searcherService.getExecutor();
+        doInit(mountPoint);
+        final ForkJoinPool executor = searcherService.getExecutor();
         if (!executor.isShutdown()) {
             executor.execute(new Runnable() {
                 @Override
                 public void run() {
+                    final long start = System.currentTimeMillis();
                     try {
-                        CleanableSearcher.this.addTree(mountPoint.getRoot());
+                        new AddFolderTask(mountPoint, mountPoint.getRoot()).invoke();
+                        // Make initial index visible without waiting for periodic refresh.
+                        CleanableSearcher.this.flush();
                         initFlag.set(true);
-                    } catch (ServerException e) {
-                        initError.set(e);
+                        mountPoint.getEventService().publish(
+                                new IndexingProgressEvent(mountPoint.getWorkspaceId(), indexedFiles.get(), true));
+                        LOG.debug("Indexed {} files, time: {} ms", indexedFiles.get(), (System.currentTimeMillis() - start));
+                    } catch (ServerException | RuntimeException e) {
+                        initError.compareAndSet(null, e);
                         LOG.error(e.getMessage());
                     }
                 }
@@ -62,6 +86,54 @@ public class CleanableSearcher extends FSIndexSearcher {
         }
     }
 
+    @Override
+    protected boolean isIndexPartial() {
+        return !initFlag.get();
+    }
+
+    /** Adds files of folder to index and forks new task for each child folder. */
+    private class AddFolderTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final MountPoint  mountPoint;
+        private final VirtualFile folder;
+
+        AddFolderTask(MountPoint mountPoint, VirtualFile folder) {
+            this.mountPoint = mountPoint;
+            this.folder = folder;
+        }
+
+        @Override
+        protected void compute() {
+            if (initError.get() != null) {
+                return;
+            }
+            final List<AddFolderTask> subTasks = new ArrayList<>();
+            try {
+                if (folder.exists()) {
+                    final LazyIterator<VirtualFile> children = folder.getChildren(VirtualFileFilter.ALL);
+                    while (children.hasNext()) {
+                        final VirtualFile child = children.next();
+                        if (child.isFolder()) {
+                            subTasks.add(new AddFolderTask(mountPoint, child));
+                        } else {
+                            addFile(child);
+                            if (indexedFiles.incrementAndGet() % PROGRESS_STEP == 0) {
+                                mountPoint.getEventService().publish(
+                                        new IndexingProgressEvent(mountPoint.getWorkspaceId(), indexedFiles.get(), false));
+                            }
+                        }
+                    }
+                }
+            } catch (ServerException e) {
+                initError.compareAndSet(null, e);
+                LOG.error(e.getMessage());
+                return;
+            }
+            invokeAll(subTasks);
+        }
+    }
+
     // for test
     Exception initializationError() {
         return initError.get();
@@ -11,6 +11,7 @@
 package org.eclipse.che.vfs.impl.fs;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
 
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.server.MountPoint;
@@ -21,7 +22,6 @@ import org.eclipse.che.api.vfs.server.util.MediaTypeFilter;
 import org.eclipse.che.api.vfs.server.util.VirtualFileFilters;
 
 import javax.annotation.PreDestroy;
-import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.IOException;
@@ -30,8 +30,10 @@ import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * NOTE: This implementation always create new index in new directory. Index is not reused after call {@link
@@ -41,22 +43,49 @@ import java.util.concurrent.Executors;
  */
 @Singleton
 public class CleanableSearcherProvider extends LuceneSearcherProvider {
+    /** Default period in milliseconds of refreshing of index readers. */
+    static final long DEFAULT_INDEX_REFRESH_PERIOD = 1000;
+
     private final ConcurrentMap<java.io.File, CleanableSearcher> instances;
-    private final ExecutorService                                executor;
+    private final ForkJoinPool                                   executor;
+    private final ScheduledExecutorService                       indexExecutor;
     private final java.io.File                                   indexRootDir;
     private final Set<VirtualFileFilter>                         filters;
 
+    private long indexRefreshPeriod = DEFAULT_INDEX_REFRESH_PERIOD;
+
     @Inject
     CleanableSearcherProvider(@Named("vfs.local.fs_index_root_dir") java.io.File indexRootDir,
                               @Named("vfs.index_filter") Set<VirtualFileFilter> filters) {
         this.indexRootDir = indexRootDir;
         this.filters = filters;
-        executor = Executors.newFixedThreadPool(1 + Runtime.getRuntime().availableProcessors(),
-                                                new ThreadFactoryBuilder().setNameFormat("LocalVirtualFileSystem-CleanableSearcher-%d")
-                                                                          .setDaemon(true).build());
+        executor = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("LocalVirtualFileSystem-CleanableSearcher-" + thread.getPoolIndex());
+                return thread;
+            }
+        }, null, false);
+        indexExecutor = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(),
+                                                         new ThreadFactoryBuilder().setNameFormat("LocalVirtualFileSystem-IndexWriter-%d")
+                                                                                   .setDaemon(true).build());
         instances = new ConcurrentHashMap<>();
     }
 
+    /**
+     * @param indexRefreshPeriod
+     *         period in milliseconds of refreshing of index readers, modifications of index become visible for search not later
+     *         than after this period. Default is {@link #DEFAULT_INDEX_REFRESH_PERIOD}
+     */
+    @Inject(optional = true)
+    public void setIndexRefreshPeriod(@Named("vfs.local.index_refresh_period") long indexRefreshPeriod) {
+        if (indexRefreshPeriod <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid index refresh period: %d. ", indexRefreshPeriod));
+        }
+        this.indexRefreshPeriod = indexRefreshPeriod;
+    }
+
     @Override
     public Searcher getSearcher(final MountPoint mountPoint, boolean create) throws ServerException {
         final java.io.File vfsIoRoot = ((VirtualFileImpl)mountPoint.getRoot()).getIoFile();
@@ -101,15 +130,24 @@ public class CleanableSearcherProvider extends LuceneSearcherProvider {
     }
 
     @PreDestroy
-    private void stop() {
+    void stop() {
         executor.shutdownNow();
+        indexExecutor.shutdownNow();
         for (CleanableSearcher searcher : instances.values()) {
             searcher.close();
         }
     }
 
-    ExecutorService getExecutor() {
+    ForkJoinPool getExecutor() {
         return executor;
     }
+
+    ScheduledExecutorService getIndexExecutor() {
+        return indexExecutor;
+    }
+
+    long getIndexRefreshPeriod() {
+        return indexRefreshPeriod;
+    }
 }
 
@@ -19,6 +19,7 @@ import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.SingleInstanceLockFactory;
 
 import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Implementation of LuceneSearcher which stores index in the filesystem.
@@ -33,6 +34,14 @@ public class FSIndexSearcher extends LuceneSearcher {
         this.indexDir = indexDir;
     }
 
+    public FSIndexSearcher(java.io.File indexDir,
+                           VirtualFileFilter filter,
+                           ScheduledExecutorService indexExecutor,
+                           long refreshPeriod) {
+        super(filter, indexExecutor, refreshPeriod);
+        this.indexDir = indexDir;
+    }
+
     @Override
     protected Directory makeDirectory() throws ServerException {
         try {
@@ -12,9 +12,7 @@ package org.eclipse.che.vfs.impl.fs;
 
 import com.google.common.annotations.Beta;
 import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hashing;
-import com.google.common.io.ByteSource;
-import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
 
 import org.apache.commons.codec.binary.Base64;
 import org.eclipse.che.api.core.ConflictException;
@@ -40,10 +38,12 @@ import org.eclipse.che.api.vfs.server.observation.RenameEvent;
 import org.eclipse.che.api.vfs.server.observation.UpdateACLEvent;
 import org.eclipse.che.api.vfs.server.observation.UpdateContentEvent;
 import org.eclipse.che.api.vfs.server.observation.UpdatePropertiesEvent;
+import org.eclipse.che.api.vfs.server.observation.VirtualFileEvent;
 import org.eclipse.che.api.vfs.server.search.SearcherProvider;
 import org.eclipse.che.api.vfs.server.util.DeleteOnCloseFileInputStream;
+import org.eclipse.che.api.vfs.server.util.FileChannelInputStream;
 import org.eclipse.che.api.vfs.server.util.NotClosableInputStream;
-import org.eclipse.che.api.vfs.server.util.ZipContent;
+import org.eclipse.che.api.vfs.server.util.ZipBombDetectingInputStream;
 import org.eclipse.che.api.vfs.shared.PropertyFilter;
 import org.eclipse.che.api.vfs.shared.dto.AccessControlEntry;
 import org.eclipse.che.api.vfs.shared.dto.Principal;
@@ -70,15 +70,35 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -107,12 +127,13 @@ public class FSMountPoint implements MountPoint {
      * This is required some additional parameters, e.g. protected and probationary size.
      * See details about SLRU algorithm: http://en.wikipedia.org/wiki/Cache_algorithms#Segmented_LRU
      */
-    private static final int CACHE_PARTITIONS_NUM        = 1 << 3;
-    private static final int CACHE_PROTECTED_SIZE        = 100;
-    private static final int CACHE_PROBATIONARY_SIZE     = 200;
-    private static final int MASK                        = CACHE_PARTITIONS_NUM - 1;
-    private static final int PARTITION_PROTECTED_SIZE    = CACHE_PROTECTED_SIZE / CACHE_PARTITIONS_NUM;
-    private static final int PARTITION_PROBATIONARY_SIZE = CACHE_PROBATIONARY_SIZE / CACHE_PARTITIONS_NUM;
+    private static final int CACHE_PARTITIONS_NUM = 1 << 3;
+    private static final int MASK                 = CACHE_PARTITIONS_NUM - 1;
+    /**
+     * Default number of items which metadata and locks are cached. Metadata of the whole folder is loaded in cache when folder is
+     * listed, so cache should be able to keep at least few big folders.
+     */
+    static final         int DEFAULT_CACHE_SIZE   = 12 * 1024;
     // end cache parameters
 
     private static final int MAX_BUFFER_SIZE  = 200 * 1024; // 200k
@@ -129,6 +150,11 @@ public class FSMountPoint implements MountPoint {
     static final String LOCKS_DIR        = SERVICE_DIR + java.io.File.separatorChar + "locks";
     static final String LOCK_FILE_SUFFIX = "_lock";
 
+    static final String UNZIP_BACKUP_DIR = SERVICE_DIR + java.io.File.separatorChar + "unzip";
+
+    /** Directory for new content of files, new content is written in this directory and then moved over the original file. */
+    static final String CONTENT_TMP_DIR = SERVICE_DIR + java.io.File.separatorChar + "tmp";
+
     static final String PROPS_DIR              = SERVICE_DIR + java.io.File.separatorChar + "props";
     static final String PROPERTIES_FILE_SUFFIX = "_props";
 
@@ -163,11 +189,38 @@ public class FSMountPoint implements MountPoint {
         }
     }
 
+    /** Defines what is flushed to the storage device before update of content of file is completed. */
+    enum ContentDurability {
+        /** Nothing is flushed, operating system decides when new content gets to the storage device. */
+        NONE,
+        /** New content is flushed before it replaces the previous content of file. */
+        CONTENT,
+        /** The same as {@link #CONTENT} and parent directory is flushed after the previous content of file is replaced. */
+        CONTENT_AND_DIRECTORY
+    }
+
+    /** Media types of files that are stored in zip archive without compression. */
+    private static final Set<String> COMPRESSED_MEDIA_TYPES = new HashSet<>(Arrays.asList("application/zip",
+                                                                                          "application/java-archive",
+                                                                                          "application/x-gzip",
+                                                                                          "application/gzip",
+                                                                                          "application/x-bzip2",
+                                                                                          "application/x-xz",
+                                                                                          "application/x-7z-compressed",
+                                                                                          "application/rar",
+                                                                                          "application/x-rar-compressed",
+                                                                                          "image/png",
+                                                                                          "image/jpeg",
+                                                                                          "image/gif",
+                                                                                          "audio/mp3",
+                                                                                          "audio/mpeg",
+                                                                                          "video/mp4"));
+
     private static final FileLock NO_LOCK = new FileLock("no_lock", 0);
 
     private class FileLockCache extends LoadingValueSLRUCache<Path, FileLock> {
-        FileLockCache() {
-            super(PARTITION_PROTECTED_SIZE, PARTITION_PROBATIONARY_SIZE);
+        FileLockCache(int protectedSize, int probationarySize) {
+            super(protectedSize, probationarySize);
         }
 
         @Override
@@ -200,8 +253,8 @@ public class FSMountPoint implements MountPoint {
 
 
     private class FileMetadataCache extends LoadingValueSLRUCache<Path, Map<String, String[]>> {
-        FileMetadataCache() {
-            super(PARTITION_PROTECTED_SIZE, PARTITION_PROBATIONARY_SIZE);
+        FileMetadataCache(int protectedSize, int probationarySize) {
+            super(protectedSize, probationarySize);
         }
 
         @Override
@@ -237,6 +290,7 @@ public class FSMountPoint implements MountPoint {
     private final EventService     eventService;
     private final SearcherProvider searcherProvider;
     private final SystemPathsFilter systemFilter;
+    private final ContentDurability contentDurability;
 
     /* NOTE -- This does not related to virtual file system locking in any kind. -- */
     private final PathLockFactory pathLockFactory;
@@ -250,6 +304,21 @@ public class FSMountPoint implements MountPoint {
     /* ----- File metadata. ----- */
     private final FileMetadataSerializer               metadataSerializer;
     private final Cache<Path, Map<String, String[]>>[] metadataCache;
+    /**
+     * Number of changes of metadata and locks, including changes that are made not through caches, e.g. copying of metadata files.
+     * Absence of metadata that is found with listing of metadata directories isn't cached if anything is changed during listing.
+     */
+    private final AtomicLong                           metadataChanges;
+
+    /* ----- Hash sums of files. ----- */
+    /** Hash sums by path of file. Map is sorted by path, so all files of folder are adjacent and may be removed without full scan. */
+    private final ConcurrentNavigableMap<String, ContentHashes> contentHashesCache;
+
+    /* ----- Temporary files with new content of files. ----- */
+    /** Time when this mount point is created, in whole seconds since some file systems keep modification time with such precision. */
+    private final long              startTime;
+    /** Directories for new content of files that are already cleaned from temporary files left by crash of server. */
+    private final Set<java.io.File> cleanedContentTmpDirs;
 
     private final VirtualFileSystemUserContext userContext;
 
@@ -265,13 +334,35 @@ public class FSMountPoint implements MountPoint {
      *         root directory for virtual file system. Any file in higher level than root are not accessible through
      *         virtual file system API.
      */
-    @SuppressWarnings("unchecked")
     FSMountPoint(String workspaceId, java.io.File ioRoot, EventService eventService, SearcherProvider searcherProvider, SystemPathsFilter systemFilter) {
+        this(workspaceId, ioRoot, eventService, searcherProvider, systemFilter, DEFAULT_CACHE_SIZE, ContentDurability.NONE);
+    }
+
+    /**
+     * @param workspaceId
+     *         id of workspace to which this MountPoint belongs to
+     * @param ioRoot
+     *         root directory for virtual file system. Any file in higher level than root are not accessible through
+     *         virtual file system API.
+     * @param cacheSize
+     *         max number of items which metadata and locks are cached
+     * @param contentDurability
+     *         defines what is flushed to the storage device when content of file is updated
+     */
+    @SuppressWarnings("unchecked")
+    FSMountPoint(String workspaceId,
+                 java.io.File ioRoot,
+                 EventService eventService,
+                 SearcherProvider searcherProvider,
+                 SystemPathsFilter systemFilter,
+                 int cacheSize,
+                 ContentDurability contentDurability) {
         this.workspaceId = workspaceId;
         this.ioRoot = ioRoot;
         this.eventService = eventService;
         this.searcherProvider = searcherProvider;
         this.systemFilter = systemFilter;
+        this.contentDurability = contentDurability;
 
         root = new VirtualFileImpl(ioRoot, Path.ROOT, pathToId(Path.ROOT), this);
         pathLockFactory = new PathLockFactory(FILE_LOCK_MAX_THREADS);
@@ -282,10 +373,18 @@ public class FSMountPoint implements MountPoint {
         metadataSerializer = new FileMetadataSerializer();
         metadataCache = new Cache[CACHE_PARTITIONS_NUM];
 
+        // Keep proportion of protected and probationary areas of SLRU cache, see details about SLRU algorithm:
+        // http://en.wikipedia.org/wiki/Cache_algorithms#Segmented_LRU
+        final int partitionProtectedSize = Math.max(cacheSize / 3 / CACHE_PARTITIONS_NUM, 1);
+        final int partitionProbationarySize = Math.max(cacheSize * 2 / 3 / CACHE_PARTITIONS_NUM, 1);
         for (int i = 0; i < CACHE_PARTITIONS_NUM; i++) {
-            lockTokensCache[i] = new SynchronizedCache(new FileLockCache());
-            metadataCache[i] = new SynchronizedCache(new FileMetadataCache());
+            lockTokensCache[i] = new SynchronizedCache(new FileLockCache(partitionProtectedSize, partitionProbationarySize));
+            metadataCache[i] = new SynchronizedCache(new FileMetadataCache(partitionProtectedSize, partitionProbationarySize));
         }
+        metadataChanges = new AtomicLong();
+        contentHashesCache = new ConcurrentSkipListMap<>();
+        startTime = System.currentTimeMillis() / 1000 * 1000;
+        cleanedContentTmpDirs = ConcurrentHashMap.newKeySet();
         userContext = VirtualFileSystemUserContext.newInstance();
 
         List<AccessControlEntry> acl = new ArrayList<>(2);
@@ -301,6 +400,20 @@ public class FSMountPoint implements MountPoint {
                                                .withType(Principal.Type.GROUP))
                         .withPermissions(singletonList("all")));
         defaultAcl.update(acl, true);
+
+        deleteUnzipBackups();
+    }
+
+    /** Removes backups of files that are left in the service directory by import of zip interrupted with crash of server. */
+    private void deleteUnzipBackups() {
+        final java.io.File[] backups = new java.io.File(ioRoot, UNZIP_BACKUP_DIR).listFiles();
+        if (backups != null) {
+            for (java.io.File backup : backups) {
+                if (!backup.delete()) {
+                    LOG.warn("Unable delete file {}", backup);
+                }
+            }
+        }
     }
 
     @Override
@@ -331,6 +444,10 @@ public class FSMountPoint implements MountPoint {
         return eventService;
     }
 
+    ContentDurability getContentDurability() {
+        return contentDurability;
+    }
+
     @Override
     public VirtualFileImpl getVirtualFile(String path) throws NotFoundException, ForbiddenException, ServerException {
         if (path == null || path.isEmpty() || "/".equals(path)) {
@@ -355,6 +472,7 @@ public class FSMountPoint implements MountPoint {
     public void reset() {
         clearMetadataCache();
         clearLockTokensCache();
+        contentHashesCache.clear();
     }
 
     // Used in tests. Need this to check state of PathLockFactory.
@@ -454,18 +572,85 @@ public class FSMountPoint implements MountPoint {
     }
 
 
+    /**
+     * Lists children of folder. Attributes of each child are read once together with listing and are kept in created instances of
+     * {@link VirtualFileImpl}, so type, length and modification date of children, that are needed for sorting and for converting
+     * children to DTO, don't cost additional access to file system for each child.
+     */
     private List<VirtualFile> doGetChildren(VirtualFileImpl virtualFile, java.io.FilenameFilter filter) throws ServerException {
-        final String[] names = virtualFile.getIoFile().list(filter);
+        final java.io.File ioFile = virtualFile.getIoFile();
+        final DirectoryStream.Filter<java.nio.file.Path> nioFilter = entry -> filter.accept(ioFile, entry.getFileName().toString());
+        final List<VirtualFile> children = new ArrayList<>();
+        try (DirectoryStream<java.nio.file.Path> stream = java.nio.file.Files.newDirectoryStream(ioFile.toPath(), nioFilter)) {
+            for (java.nio.file.Path entry : stream) {
+                final BasicFileAttributes attributes;
+                try {
+                    attributes = java.nio.file.Files.readAttributes(entry, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    // Removed after listing.
+                    continue;
+                }
+                final Path childPath = virtualFile.getVirtualFilePath().newPath(entry.getFileName().toString());
+                children.add(new VirtualFileImpl(entry.toFile(), childPath, pathToId(childPath), this, attributes));
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            throw new ServerException(String.format("Unable get children '%s'. ", virtualFile.getPath()), e);
+        }
+        preloadMetadata(virtualFile, children);
+        return children;
+    }
+
+    /**
+     * Finds children of folder that don't have metadata or locks with single listing of metadata directories of folder and caches
+     * absence of metadata and locks for them. Typically most of items don't have metadata, so this saves check of existence of
+     * metadata files for each child when children are converted to DTO or are traversed.
+     */
+    private void preloadMetadata(VirtualFileImpl folder, List<VirtualFile> children) {
+        if (children.isEmpty()) {
+            return;
+        }
+        final long changesBeforeListing = metadataChanges.get();
+        final Set<String> withMetadata = listMetadataOwners(folder, PROPS_DIR, PROPERTIES_FILE_SUFFIX);
+        final Set<String> withLock = listMetadataOwners(folder, LOCKS_DIR, LOCK_FILE_SUFFIX);
+        for (VirtualFile child : children) {
+            final Path childPath = child.getVirtualFilePath();
+            final int index = childPath.hashCode() & MASK;
+            if (withMetadata != null && !withMetadata.contains(child.getName())) {
+                cacheIfAbsent(metadataCache[index], childPath, Collections.<String, String[]>emptyMap(), changesBeforeListing);
+            }
+            if (withLock != null && !withLock.contains(child.getName())) {
+                cacheIfAbsent(lockTokensCache[index], childPath, NO_LOCK, changesBeforeListing);
+            }
+        }
+    }
+
+    /**
+     * Gets names of children of folder that have files in specified metadata directory.
+     *
+     * @return names of children or {@code null} if metadata directory can't be read
+     */
+    private Set<String> listMetadataOwners(VirtualFileImpl folder, String metadataDir, String suffix) {
+        final java.io.File ioMetadataDir = new java.io.File(folder.getIoFile(), metadataDir);
+        final String[] names = ioMetadataDir.list();
         if (names == null) {
-            // Something wrong. According to java docs may be null only if i/o error occurs.
-            throw new ServerException(String.format("Unable get children '%s'. ", virtualFile.getPath()));
+            return ioMetadataDir.exists() ? null : Collections.<String>emptySet();
         }
-        final List<VirtualFile> children = new ArrayList<>(names.length);
+        final Set<String> owners = new HashSet<>(names.length);
         for (String name : names) {
-            final Path childPath = virtualFile.getVirtualFilePath().newPath(name);
-            children.add(new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(childPath)), childPath, pathToId(childPath), this));
+            if (name.endsWith(suffix)) {
+                owners.add(name.substring(0, name.length() - suffix.length()));
+            }
+        }
+        return owners;
+    }
+
+    private <V> void cacheIfAbsent(Cache<Path, V> cache, Path path, V value, long changesBeforeListing) {
+        // SynchronizedCache uses itself as lock, so nobody updates cache between check and put.
+        synchronized (cache) {
+            if (metadataChanges.get() == changesBeforeListing && !cache.contains(path)) {
+                cache.put(path, value);
+            }
         }
-        return children;
     }
 
 
@@ -675,6 +860,9 @@ public class FSMountPoint implements MountPoint {
             String msg = String.format("Unable copy '%s' to '%s'. ", source, destination);
             LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
             throw new ServerException(msg);
+        } finally {
+            // Metadata files are copied directly.
+            metadataChanges.incrementAndGet();
         }
     }
 
@@ -841,11 +1029,16 @@ public class FSMountPoint implements MountPoint {
                                              virtualFile.getMediaType(), buff.length, new Date(ioFile.lastModified()));
                 }
 
-                // Otherwise copy this file to be able release the file lock before leave this method.
-                final java.io.File f = java.io.File.createTempFile("spool_file", null);
-                nioCopy(ioFile, f, null);
-                return new ContentStream(virtualFile.getName(), new DeleteOnCloseFileInputStream(f),
-                                         virtualFile.getMediaType(), fLength, new Date(ioFile.lastModified()));
+                // Otherwise read content directly from file. Content of file is never overwritten but replaced with new file (see
+                // _doUpdateContent), so opened channel reads consistent content even after the file lock is released.
+                final FileChannel channel = FileChannel.open(ioFile.toPath(), StandardOpenOption.READ);
+                try {
+                    return new ContentStream(virtualFile.getName(), new FileChannelInputStream(channel),
+                                             virtualFile.getMediaType(), channel.size(), new Date(ioFile.lastModified()));
+                } catch (IOException e) {
+                    closeQuietly(channel);
+                    throw e;
+                }
             } catch (IOException e) {
                 String msg = String.format("Unable get content of '%s'. ", virtualFile.getPath());
                 LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
@@ -888,30 +1081,131 @@ public class FSMountPoint implements MountPoint {
     }
 
     private void doUpdateContent(VirtualFileImpl virtualFile, InputStream content) throws ServerException {
-        final PathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getVirtualFilePath(), true).acquire(LOCK_FILE_TIMEOUT);
+        final java.nio.file.Path ioPath = virtualFile.getIoFile().toPath();
+        if (java.nio.file.Files.isSymbolicLink(ioPath)) {
+            // Don't replace link with regular file, update content of the target of link in place.
+            final PathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getVirtualFilePath(), true).acquire(LOCK_FILE_TIMEOUT);
+            try {
+                writeContent(ioPath, content);
+            } catch (IOException e) {
+                String msg = String.format("Unable set content of '%s'. ", virtualFile.getPath());
+                LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
+                throw new ServerException(msg);
+            } finally {
+                contentHashesCache.remove(virtualFile.getVirtualFilePath().toString());
+                lock.release();
+            }
+            return;
+        }
+
+        // Write new content to the temporary file without lock, slow upload doesn't block readers and writers of file. Then replace
+        // the original file with it under lock. Readers that have opened the original file keep reading its previous content.
+        final java.nio.file.Path tmp = writeTempContent(virtualFile, content);
         try {
-            _doUpdateContent(virtualFile, content);
+            final PathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getVirtualFilePath(), true).acquire(LOCK_FILE_TIMEOUT);
+            try {
+                _doUpdateContent(virtualFile, tmp);
+            } finally {
+                // Remove under lock, otherwise hash sum of previous content may be put in cache after that.
+                contentHashesCache.remove(virtualFile.getVirtualFilePath().toString());
+                lock.release();
+            }
         } finally {
-            lock.release();
+            try {
+                java.nio.file.Files.deleteIfExists(tmp);
+            } catch (IOException e) {
+                LOG.warn("Unable delete temporary file {}", tmp);
+            }
+        }
+    }
+
+    private java.nio.file.Path writeTempContent(VirtualFileImpl virtualFile, InputStream content) throws ServerException {
+        final java.io.File tmpDir = new java.io.File(virtualFile.getIoFile().getParentFile(), CONTENT_TMP_DIR);
+        java.nio.file.Path tmp = null;
+        try {
+            if (!(tmpDir.exists() || tmpDir.mkdirs())) {
+                throw new IOException(String.format("Unable create directory '%s'. ", tmpDir));
+            }
+            if (cleanedContentTmpDirs.add(tmpDir)) {
+                deleteStaleTempContent(tmpDir);
+            }
+            tmp = java.nio.file.Files.createTempFile(tmpDir.toPath(), "content", ".tmp");
+            writeContent(tmp, content);
+            return tmp;
+        } catch (IOException e) {
+            if (tmp != null && !tmp.toFile().delete()) {
+                LOG.warn("Unable delete temporary file {}", tmp);
+            }
+            String msg = String.format("Unable set content of '%s'. ", virtualFile.getPath());
+            LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
+            throw new ServerException(msg);
+        }
+    }
+
+    /**
+     * Removes temporary files that are left in directory by crash of server between writing of new content and replacing of file
+     * with it. Files that are created after start of this mount point may be in use and are kept.
+     */
+    private void deleteStaleTempContent(java.io.File tmpDir) {
+        final java.io.File[] files = tmpDir.listFiles((dir, name) -> name.startsWith("content") && name.endsWith(".tmp"));
+        if (files != null) {
+            for (java.io.File file : files) {
+                if (file.lastModified() < startTime && !file.delete()) {
+                    LOG.warn("Unable delete temporary file {}", file);
+                }
+            }
         }
     }
 
     // UNDER LOCK
-    private void _doUpdateContent(VirtualFileImpl virtualFile, InputStream content) throws ServerException {
-        FileOutputStream fOut = null;
+    private void _doUpdateContent(VirtualFileImpl virtualFile, java.nio.file.Path newContent) throws ServerException {
+        final java.io.File ioFile = virtualFile.getIoFile();
+        if (!ioFile.isFile()) {
+            // Removed while new content was written.
+            throw new ServerException(String.format("Unable set content of '%s'. File doesn't exist. ", virtualFile.getPath()));
+        }
         try {
-            fOut = new FileOutputStream(virtualFile.getIoFile());
+            final PosixFileAttributeView posixView = java.nio.file.Files.getFileAttributeView(ioFile.toPath(), PosixFileAttributeView.class);
+            if (posixView != null) {
+                java.nio.file.Files.setPosixFilePermissions(newContent, posixView.readAttributes().permissions());
+            }
+            java.nio.file.Files.move(newContent, ioFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            String msg = String.format("Unable set content of '%s'. ", virtualFile.getPath());
+            LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
+            throw new ServerException(msg);
+        }
+        if (contentDurability == ContentDurability.CONTENT_AND_DIRECTORY) {
+            syncDirectory(ioFile.getParentFile().toPath());
+        }
+    }
+
+    private void writeContent(java.nio.file.Path file, InputStream content) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            final OutputStream fOut = Channels.newOutputStream(channel);
             final byte[] buff = new byte[COPY_BUFFER_SIZE];
             int r;
             while ((r = content.read(buff)) != -1) {
                 fOut.write(buff, 0, r);
             }
+            if (contentDurability != ContentDurability.NONE) {
+                syncContent(channel);
+            }
+        }
+    }
+
+    /** Flushes content of file to the storage device. */
+    void syncContent(FileChannel channel) throws IOException {
+        channel.force(true);
+    }
+
+    /** Flushes entries of directory to the storage device. Not all platforms support it, so failure is not critical. */
+    void syncDirectory(java.nio.file.Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
         } catch (IOException e) {
-            String msg = String.format("Unable set content of '%s'. ", virtualFile.getPath());
-            LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
-            throw new ServerException(msg);
-        } finally {
-            closeQuietly(fOut);
+            LOG.debug("Unable sync directory {}. {}", dir, e.getMessage());
         }
     }
 
@@ -967,6 +1261,7 @@ public class FSMountPoint implements MountPoint {
         // clear caches
         clearLockTokensCache();
         clearMetadataCache();
+        clearContentHashesCache(virtualFile.getVirtualFilePath());
 
         final String path = virtualFile.getPath();
         boolean isFile = virtualFile.isFile();
@@ -1004,6 +1299,7 @@ public class FSMountPoint implements MountPoint {
 
 
     private void clearLockTokensCache() {
+        metadataChanges.incrementAndGet();
         for (Cache<Path, FileLock> cache : lockTokensCache) {
             cache.clear();
         }
@@ -1011,12 +1307,25 @@ public class FSMountPoint implements MountPoint {
 
 
     private void clearMetadataCache() {
+        metadataChanges.incrementAndGet();
         for (Cache<Path, Map<String, String[]>> cache : metadataCache) {
             cache.clear();
         }
     }
 
 
+    private void clearContentHashesCache(Path path) {
+        if (path.isRoot()) {
+            contentHashesCache.clear();
+            return;
+        }
+        final String key = path.toString();
+        contentHashesCache.remove(key);
+        // Paths of all descendants start with "<path>/", they are between "<path>/" and "<path>0" in sorted map.
+        contentHashesCache.subMap(key + '/', key + (char)('/' + 1)).clear();
+    }
+
+
     ContentStream zip(VirtualFileImpl virtualFile, VirtualFileFilter filter) throws ForbiddenException, ServerException {
         if (!virtualFile.isFolder()) {
             throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder. ", virtualFile.getPath()));
@@ -1026,48 +1335,8 @@ public class FSMountPoint implements MountPoint {
         try {
             zipFile = java.io.File.createTempFile("export", ".zip");
             out = new FileOutputStream(zipFile);
-            final ZipOutputStream zipOut = new ZipOutputStream(out);
-            final LinkedList<VirtualFile> q = new LinkedList<>();
-            q.add(virtualFile);
-            final int zipEntryNameTrim = virtualFile.getVirtualFilePath().length();
-            final byte[] buff = new byte[COPY_BUFFER_SIZE];
-            while (!q.isEmpty()) {
-                for (VirtualFile current : doGetChildren((VirtualFileImpl)q.pop(), SERVICE_GIT_DIR_FILTER)) {
-                    // (1) Check filter.
-                    // (2) Check permission directly for current file only.
-                    // We already know parent accessible for current user otherwise we should not be here.
-                    // Ignore item if don't have permission to read it.
-                    if (filter.accept(current) && hasPermission((VirtualFileImpl)current, BasicPermissions.READ.value(), false)) {
-                        final String zipEntryName = current.getVirtualFilePath().subPath(zipEntryNameTrim).toString().substring(1);
-                        if (current.isFile()) {
-                            final ZipEntry zipEntry = new ZipEntry(zipEntryName);
-                            zipOut.putNextEntry(zipEntry);
-                            InputStream in = null;
-                            final PathLockFactory.PathLock lock =
-                                    pathLockFactory.getLock(current.getVirtualFilePath(), false).acquire(LOCK_FILE_TIMEOUT);
-                            try {
-                                zipEntry.setTime(virtualFile.getLastModificationDate());
-                                in = new FileInputStream(((VirtualFileImpl)current).getIoFile());
-                                int r;
-                                while ((r = in.read(buff)) != -1) {
-                                    zipOut.write(buff, 0, r);
-                                }
-                            } finally {
-                                closeQuietly(in);
-                                lock.release();
-                            }
-                            zipOut.closeEntry();
-                        } else if (current.isFolder()) {
-                            final ZipEntry zipEntry = new ZipEntry(zipEntryName + '/');
-                            zipEntry.setTime(0);
-                            zipOut.putNextEntry(zipEntry);
-                            q.add(current);
-                            zipOut.closeEntry();
-                        }
-                    }
-                }
-            }
-            closeQuietly(zipOut);
+            zip(virtualFile, out, filter);
+            out.close();
             final String name = virtualFile.getName() + ".zip";
             return new ContentStream(name, new DeleteOnCloseFileInputStream(zipFile), ExtMediaType.APPLICATION_ZIP, zipFile.length(), new Date());
         } catch (IOException | RuntimeException ioe) {
@@ -1075,33 +1344,92 @@ public class FSMountPoint implements MountPoint {
                 zipFile.delete();
             }
             throw new ServerException(ioe.getMessage(), ioe);
+        } catch (ServerException e) {
+            zipFile.delete();
+            throw e;
         } finally {
             closeQuietly(out);
         }
     }
 
+    /** Writes zipped content of folder to the output stream. Entries of archive are written while folder is traversed. */
+    void zip(VirtualFileImpl virtualFile, OutputStream out, VirtualFileFilter filter) throws ForbiddenException, ServerException, IOException {
+        if (!virtualFile.isFolder()) {
+            throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder. ", virtualFile.getPath()));
+        }
+        final ZipOutputStream zipOut = new ZipOutputStream(out);
+        final LinkedList<VirtualFile> q = new LinkedList<>();
+        q.add(virtualFile);
+        final int zipEntryNameTrim = virtualFile.getVirtualFilePath().length();
+        final byte[] buff = new byte[COPY_BUFFER_SIZE];
+        while (!q.isEmpty()) {
+            for (VirtualFile current : doGetChildren((VirtualFileImpl)q.pop(), SERVICE_GIT_DIR_FILTER)) {
+                // (1) Check filter.
+                // (2) Check permission directly for current file only.
+                // We already know parent accessible for current user otherwise we should not be here.
+                // Ignore item if don't have permission to read it.
+                if (filter.accept(current) && hasPermission((VirtualFileImpl)current, BasicPermissions.READ.value(), false)) {
+                    final String zipEntryName = current.getVirtualFilePath().subPath(zipEntryNameTrim).toString().substring(1);
+                    if (current.isFile()) {
+                        final ZipEntry zipEntry = new ZipEntry(zipEntryName);
+                        zipEntry.setTime(virtualFile.getLastModificationDate());
+                        // Content of file is never overwritten but replaced with new file (see doUpdateContent), so lock is needed to
+                        // open file only and isn't held while content is sent to the output stream.
+                        final InputStream in;
+                        final PathLockFactory.PathLock lock =
+                                pathLockFactory.getLock(current.getVirtualFilePath(), false).acquire(LOCK_FILE_TIMEOUT);
+                        try {
+                            in = java.nio.file.Files.newInputStream(((VirtualFileImpl)current).getIoFile().toPath());
+                        } finally {
+                            lock.release();
+                        }
+                        try {
+                            zipOut.setLevel(isCompressed(current) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+                            zipOut.putNextEntry(zipEntry);
+                            int r;
+                            while ((r = in.read(buff)) != -1) {
+                                zipOut.write(buff, 0, r);
+                            }
+                        } finally {
+                            closeQuietly(in);
+                        }
+                        zipOut.closeEntry();
+                    } else if (current.isFolder()) {
+                        final ZipEntry zipEntry = new ZipEntry(zipEntryName + '/');
+                        zipEntry.setTime(0);
+                        zipOut.putNextEntry(zipEntry);
+                        q.add(current);
+                        zipOut.closeEntry();
+                    }
+                }
+            }
+        }
+        zipOut.finish();
+    }
+
+    /** Checks whether content of file is already compressed, deflating of such content costs CPU time but doesn't reduce its size. */
+    private boolean isCompressed(VirtualFile file) throws ServerException {
+        final String mediaType = file.getMediaType();
+        return mediaType != null && COMPRESSED_MEDIA_TYPES.contains(mediaType);
+    }
+
 
     void unzip(VirtualFileImpl parent, InputStream zipped, boolean overwrite, int stripNumber)
             throws ForbiddenException, ConflictException, ServerException {
         if (!parent.isFolder()) {
             throw new ForbiddenException(String.format("Unable import zip content. Item '%s' is not a folder. ", parent.getPath()));
         }
-        final ZipContent zipContent;
-        try {
-            zipContent = ZipContent.newInstance(zipped);
-        } catch (IOException e) {
-            throw new ServerException(e.getMessage(), e);
-        }
         if (!hasPermission(parent, BasicPermissions.WRITE.value(), true)) {
             throw new ForbiddenException(String.format("Unable import from zip to '%s'. Operation not permitted. ", parent.getPath()));
         }
 
+        // ZIP data is checked while files are extracted. If it turns out to be zip bomb or import fails by any other reason
+        // everything that is done so far is rolled back.
+        final UnzipTransaction transaction = new UnzipTransaction();
+        boolean success = false;
         ZipInputStream zip = null;
         try {
-            zip = new ZipInputStream(zipContent.zippedData);
-            // Wrap zip stream to prevent close it. We can pass stream to other method and it can read content of current
-            // ZipEntry but not able to close original stream of ZIPed data.
-            InputStream noCloseZip = new NotClosableInputStream(zip);
+            zip = new ZipBombDetectingInputStream(new NotClosableInputStream(zipped));
             ZipEntry zipEntry;
             while ((zipEntry = zip.getNextEntry()) != null) {
                 VirtualFileImpl current = parent;
@@ -1120,7 +1448,7 @@ public class FSMountPoint implements MountPoint {
                     // create all required parent directories
                     final Path parentPath = parent.getVirtualFilePath().newPath(relPath.subPath(0, relPath.length() - 1));
                     current = new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(parentPath)), parentPath, pathToId(parentPath), this);
-                    if (!(current.exists() || current.getIoFile().mkdirs())) {
+                    if (!(current.exists() || transaction.mkdirs(current.getIoFile()))) {
                         throw new ServerException(String.format("Unable create directory '%s' ", parentPath));
                     }
                 }
@@ -1128,8 +1456,8 @@ public class FSMountPoint implements MountPoint {
                 if (zipEntry.isDirectory()) {
                     final java.io.File dir = new java.io.File(current.getIoFile(), name);
                     if (!dir.exists()) {
-                        if (dir.mkdir()) {
-                            eventService.publish(new CreateEvent(workspaceId, newPath.toString(), true));
+                        if (transaction.mkdir(dir)) {
+                            transaction.events.add(new CreateEvent(workspaceId, newPath.toString(), true));
                         } else {
                             throw new ServerException(String.format("Unable create directory '%s' ", newPath));
                         }
@@ -1149,7 +1477,7 @@ public class FSMountPoint implements MountPoint {
 
                     boolean newFile;
                     try {
-                        if (!(newFile = file.getIoFile().createNewFile())) { // atomic
+                        if (!(newFile = transaction.createNewFile(file.getIoFile()))) { // atomic
                             if (!overwrite) {
                                 throw new ConflictException(String.format("File '%s' already exists. ", file.getPath()));
                             }
@@ -1160,26 +1488,147 @@ public class FSMountPoint implements MountPoint {
                         throw new ServerException(msg);
                     }
 
-                    doUpdateContent(file, noCloseZip);
+                    extract(file, zip, transaction);
                     if (newFile) {
-                        eventService.publish(new CreateEvent(workspaceId, newPath.toString(), false));
+                        transaction.events.add(new CreateEvent(workspaceId, newPath.toString(), false));
                     } else {
-                        eventService.publish(new UpdateContentEvent(workspaceId, newPath.toString()));
+                        transaction.events.add(new UpdateContentEvent(workspaceId, newPath.toString()));
                     }
                 }
                 zip.closeEntry();
             }
-            if (searcherProvider != null) {
-                try {
-                    searcherProvider.getSearcher(this, true).add(parent);
-                } catch (ServerException e) {
-                    LOG.error(e.getMessage(), e);
-                }
-            }
+            success = true;
         } catch (IOException e) {
             throw new ServerException(e.getMessage(), e);
         } finally {
             closeQuietly(zip);
+            if (success) {
+                transaction.commit();
+            } else {
+                transaction.rollback();
+            }
+            // Archive may contain metadata files.
+            metadataChanges.incrementAndGet();
+        }
+
+        for (VirtualFileEvent event : transaction.events) {
+            eventService.publish(event);
+        }
+        if (searcherProvider != null) {
+            try {
+                searcherProvider.getSearcher(this, true).add(parent);
+            } catch (ServerException e) {
+                LOG.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Writes content of current ZIP entry to the file. Original content of existed file is kept by transaction. */
+    private void extract(VirtualFileImpl file, InputStream content, UnzipTransaction transaction) throws IOException {
+        final PathLockFactory.PathLock lock = pathLockFactory.getLock(file.getVirtualFilePath(), true).acquire(LOCK_FILE_TIMEOUT);
+        try {
+            transaction.backup(file);
+            try (FileOutputStream fOut = new FileOutputStream(file.getIoFile())) {
+                final byte[] buff = new byte[COPY_BUFFER_SIZE];
+                int r;
+                while ((r = content.read(buff)) != -1) {
+                    fOut.write(buff, 0, r);
+                }
+            }
+        } finally {
+            contentHashesCache.remove(file.getVirtualFilePath().toString());
+            lock.release();
+        }
+    }
+
+    /**
+     * Keeps track of changes that are made by import of ZIP content to be able undo them. Files and directories created by import
+     * are removed on rollback. Existed files are moved to the service directory before they are overwritten and are moved back on
+     * rollback. Events are published only if import is committed.
+     */
+    private class UnzipTransaction {
+        final List<VirtualFileEvent>  events  = new ArrayList<>();
+        final Set<java.io.File>       created = new LinkedHashSet<>();
+        final Map<Path, java.io.File> backups = new HashMap<>();
+
+        boolean mkdirs(java.io.File dir) {
+            final LinkedList<java.io.File> missing = new LinkedList<>();
+            for (java.io.File current = dir; current != null && !current.exists(); current = current.getParentFile()) {
+                missing.push(current);
+            }
+            for (java.io.File current : missing) {
+                if (!(mkdir(current) || current.isDirectory())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean mkdir(java.io.File dir) {
+            if (dir.mkdir()) {
+                created.add(dir);
+                return true;
+            }
+            return false;
+        }
+
+        boolean createNewFile(java.io.File file) throws IOException {
+            if (file.createNewFile()) {
+                created.add(file);
+                return true;
+            }
+            return false;
+        }
+
+        /** Saves original content of file if it exists before import. Must be called under lock of file. */
+        void backup(VirtualFileImpl file) throws IOException {
+            if (created.contains(file.getIoFile()) || backups.containsKey(file.getVirtualFilePath())) {
+                return;
+            }
+            final java.io.File backupDir = new java.io.File(ioRoot, UNZIP_BACKUP_DIR);
+            if (!(backupDir.exists() || backupDir.mkdirs())) {
+                throw new IOException(String.format("Unable create directory '%s' ", backupDir));
+            }
+            final java.io.File backup = new java.io.File(backupDir, NameGenerator.generate(null, 16));
+            java.nio.file.Files.move(file.getIoFile().toPath(), backup.toPath());
+            backups.put(file.getVirtualFilePath(), backup);
+            // New content is written to new file, keep permissions of the original one, e.g. executable bit of scripts.
+            java.nio.file.Files.createFile(file.getIoFile().toPath());
+            final PosixFileAttributeView posixView = java.nio.file.Files.getFileAttributeView(backup.toPath(), PosixFileAttributeView.class);
+            if (posixView != null) {
+                java.nio.file.Files.setPosixFilePermissions(file.getIoFile().toPath(), posixView.readAttributes().permissions());
+            }
+        }
+
+        void commit() {
+            for (java.io.File backup : backups.values()) {
+                if (!backup.delete()) {
+                    LOG.warn("Unable delete file {}", backup);
+                }
+            }
+        }
+
+        void rollback() {
+            for (Map.Entry<Path, java.io.File> e : backups.entrySet()) {
+                final Path path = e.getKey();
+                final java.io.File file = new java.io.File(ioRoot, toIoPath(path));
+                final PathLockFactory.PathLock lock = pathLockFactory.getLock(path, true).acquire(LOCK_FILE_TIMEOUT);
+                try {
+                    java.nio.file.Files.move(e.getValue().toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException ioe) {
+                    LOG.error(String.format("Unable restore file %s from %s. %s", file, e.getValue(), ioe.getMessage()), ioe);
+                } finally {
+                    contentHashesCache.remove(path.toString());
+                    lock.release();
+                }
+            }
+            final List<java.io.File> toDelete = new ArrayList<>(created);
+            Collections.reverse(toDelete);
+            for (java.io.File file : toDelete) {
+                if (!file.delete()) {
+                    LOG.warn("Unable delete file {}", file);
+                }
+            }
         }
     }
 
@@ -1204,6 +1653,7 @@ public class FSMountPoint implements MountPoint {
             final String lockToken = NameGenerator.generate(null, 16);
             final long expired = timeout > 0 ? (System.currentTimeMillis() + timeout) : Long.MAX_VALUE;
             final FileLock fileLock = new FileLock(lockToken, expired);
+            metadataChanges.incrementAndGet();
             DataOutputStream dos = null;
             try {
                 final Path lockFilePath = getLockFilePath(virtualFile.getVirtualFilePath());
@@ -1440,6 +1890,7 @@ public class FSMountPoint implements MountPoint {
 
 
     private void saveFileMetadata(VirtualFileImpl virtualFile, Map<String, String[]> properties) throws ServerException {
+        metadataChanges.incrementAndGet();
         DataOutputStream dos = null;
 
         try {
@@ -1508,20 +1959,20 @@ public class FSMountPoint implements MountPoint {
 
    /* ==================================== */
 
-    LazyIterator<Pair<String, String>> countMd5Sums(VirtualFileImpl virtualFile) throws ServerException {
+    LazyIterator<Pair<String, String>> countHashSums(VirtualFileImpl virtualFile, final HashFunction hashFunction) throws ServerException {
         if (!virtualFile.isFolder()) {
             return LazyIterator.emptyIterator();
         }
         final List<Pair<String, String>> hashes = new ArrayList<>();
         final int trimPathLength = virtualFile.getPath().length() + 1;
-        final HashFunction hashFunction = Hashing.md5();
         final ValueHolder<ServerException> errorHolder = new ValueHolder<>();
         virtualFile.accept(new VirtualFileVisitor() {
             @Override
             public void visit(final VirtualFile virtualFile) {
                 try {
                     if (virtualFile.isFile()) {
-                        hashes.add(Pair.of(countHashSum(virtualFile, hashFunction), virtualFile.getPath().substring(trimPathLength)));
+                        hashes.add(Pair.of(countHashSum((VirtualFileImpl)virtualFile, hashFunction),
+                                           virtualFile.getPath().substring(trimPathLength)));
                     } else {
                         final LazyIterator<VirtualFile> children = virtualFile.getChildren(VirtualFileFilter.ALL);
                         while (children.hasNext()) {
@@ -1537,12 +1988,37 @@ public class FSMountPoint implements MountPoint {
     }
 
 
-    private String countHashSum(VirtualFile virtualFile, HashFunction hashFunction) throws ServerException {
-        final PathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getVirtualFilePath(), false).acquire(LOCK_FILE_TIMEOUT);
-        try (InputStream contentStream = virtualFile.getContent().getStream()) {
-            return ByteSource.wrap(ByteStreams.toByteArray(contentStream)).hash(hashFunction).toString();
-        } catch (ForbiddenException e) {
-            throw new ServerException(e.getServiceError());
+    /**
+     * Gets hash sum of file from cache or counts it if there is no valid hash sum in cache. Cached hash sum is valid while length and
+     * modification date of file are the same as at the moment when hash sum was counted, so changes that are made bypassing virtual
+     * file system are detected also.
+     */
+    private String countHashSum(VirtualFileImpl virtualFile, HashFunction hashFunction) throws ServerException {
+        if (!hasPermission(virtualFile, BasicPermissions.READ.value(), false)) {
+            throw new ServerException(String.format("Unable get content of '%s'. Operation not permitted. ", virtualFile.getPath()));
+        }
+        final Path path = virtualFile.getVirtualFilePath();
+        final String key = path.toString();
+        final java.io.File ioFile = virtualFile.getIoFile();
+        final ContentHashes cached = contentHashesCache.get(key);
+        if (cached != null && cached.isValid(ioFile)) {
+            final String hash = cached.get(hashFunction);
+            if (hash != null) {
+                return hash;
+            }
+        }
+        final PathLockFactory.PathLock lock = pathLockFactory.getLock(path, false).acquire(LOCK_FILE_TIMEOUT);
+        try {
+            final long lastModified = ioFile.lastModified();
+            final long length = ioFile.length();
+            final String hash = Files.asByteSource(ioFile).hash(hashFunction).toString();
+            ContentHashes hashes = contentHashesCache.get(key);
+            if (hashes == null || !hashes.isValid(lastModified, length)) {
+                hashes = new ContentHashes(lastModified, length);
+                contentHashesCache.put(key, hashes);
+            }
+            hashes.put(hashFunction, hash);
+            return hash;
         } catch (IOException e) {
             throw new ServerException(e);
         } finally {
@@ -1550,6 +2026,35 @@ public class FSMountPoint implements MountPoint {
         }
     }
 
+    /** Hash sums of content of file that are counted with different hash functions. */
+    private static class ContentHashes {
+        final long                                lastModified;
+        final long                                length;
+        final ConcurrentMap<HashFunction, String> hashes;
+
+        ContentHashes(long lastModified, long length) {
+            this.lastModified = lastModified;
+            this.length = length;
+            hashes = new ConcurrentHashMap<>(2);
+        }
+
+        boolean isValid(java.io.File ioFile) {
+            return isValid(ioFile.lastModified(), ioFile.length());
+        }
+
+        boolean isValid(long lastModified, long length) {
+            return this.lastModified == lastModified && this.length == length;
+        }
+
+        String get(HashFunction hashFunction) {
+            return hashes.get(hashFunction);
+        }
+
+        void put(HashFunction hashFunction, String hash) {
+            hashes.put(hashFunction, hash);
+        }
+    }
+
    /* ============ HELPERS  ============ */
 
     /* Relative system path */
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import com.google.inject.Inject;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Configuration of {@link FSMountPoint}s that are created by {@link LocalFileSystemProvider}. All parameters are optional, default
+ * value is used if parameter isn't configured.
+ *
+ * @author andrew00x
+ */
+@Singleton
+public class FSMountPointSettings {
+    private int                            cacheSize         = FSMountPoint.DEFAULT_CACHE_SIZE;
+    private FSMountPoint.ContentDurability contentDurability = FSMountPoint.ContentDurability.NONE;
+
+    /**
+     * @param cacheSize
+     *         max number of items which metadata and locks are cached by each mount point, default is {@link
+     *         FSMountPoint#DEFAULT_CACHE_SIZE}
+     */
+    @Inject(optional = true)
+    public void setCacheSize(@Named("vfs.local.metadata_cache_size") int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid size of metadata cache: %d. ", cacheSize));
+        }
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * @param contentDurability
+     *         defines what is flushed to the storage device when content of file is updated, one of: none, content,
+     *         content_and_directory. Default is none, new content gets to the storage device when operating system decides
+     */
+    @Inject(optional = true)
+    public void setContentDurability(@Named("vfs.local.content_durability") String contentDurability) {
+        try {
+            this.contentDurability = FSMountPoint.ContentDurability.valueOf(contentDurability.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Invalid content durability: %s. ", contentDurability));
+        }
+    }
+
+    int getCacheSize() {
+        return cacheSize;
+    }
+
+    FSMountPoint.ContentDurability getContentDurability() {
+        return contentDurability;
+    }
+}
@@ -42,6 +42,7 @@ public class LocalFileSystemProvider extends VirtualFileSystemProvider {
     private final VirtualFileSystemUserContext userContext;
     private final SystemPathsFilter            systemFilter;
     private final VirtualFileSystemRegistry    vfsRegistry;
+    private final FSMountPointSettings         settings;
 
     /**
      * @param workspaceId
@@ -58,7 +59,29 @@ public class LocalFileSystemProvider extends VirtualFileSystemProvider {
                                    SearcherProvider searcherProvider,
                                    SystemPathsFilter systemFilter,
                                    VirtualFileSystemRegistry vfsRegistry) {
-        this(workspaceId, mountStrategy, eventService, searcherProvider, VirtualFileSystemUserContext.newInstance(), systemFilter, vfsRegistry);
+        this(workspaceId, mountStrategy, eventService, searcherProvider, systemFilter, vfsRegistry, new FSMountPointSettings());
+    }
+
+    /**
+     * @param workspaceId
+     *         virtual file system identifier
+     * @param mountStrategy
+     *         LocalFSMountStrategy
+     * @param searcherProvider
+     *         SearcherProvider or {@code null}
+     * @param settings
+     *         configuration of mount point
+     * @see LocalFileSystemProvider
+     */
+    public LocalFileSystemProvider(String workspaceId,
+                                   LocalFSMountStrategy mountStrategy,
+                                   EventService eventService,
+                                   SearcherProvider searcherProvider,
+                                   SystemPathsFilter systemFilter,
+                                   VirtualFileSystemRegistry vfsRegistry,
+                                   FSMountPointSettings settings) {
+        this(workspaceId, mountStrategy, eventService, searcherProvider, VirtualFileSystemUserContext.newInstance(), systemFilter,
+             vfsRegistry, settings);
     }
 
 
@@ -69,6 +92,8 @@ public class LocalFileSystemProvider extends VirtualFileSystemProvider {
      *         LocalFSMountStrategy
      * @param searcherProvider
      *         SearcherProvider
+     * @param settings
+     *         configuration of mount point
      * @see LocalFileSystemProvider
      */
     protected LocalFileSystemProvider(String workspaceId,
@@ -77,7 +102,8 @@ public class LocalFileSystemProvider extends VirtualFileSystemProvider {
                                       SearcherProvider searcherProvider,
                                       VirtualFileSystemUserContext userContext,
                                       SystemPathsFilter systemFilter,
-                                      VirtualFileSystemRegistry vfsRegistry) {
+                                      VirtualFileSystemRegistry vfsRegistry,
+                                      FSMountPointSettings settings) {
         super(workspaceId);
         this.workspaceId = workspaceId;
         this.mountStrategy = mountStrategy;
@@ -87,6 +113,7 @@ public class LocalFileSystemProvider extends VirtualFileSystemProvider {
         this.mountRef = new MountPointRef();
         this.systemFilter = systemFilter;
         this.vfsRegistry = vfsRegistry;
+        this.settings = settings;
     }
 
     /** Get new instance of LocalFileSystem. If virtual file system is not mounted yet if mounted automatically when used first time. */
@@ -128,7 +155,7 @@ public class LocalFileSystemProvider extends VirtualFileSystemProvider {
      * @see VirtualFileSystem
      */
     public void mount(java.io.File ioFile) throws ServerException {
-        if (!mountRef.maybeSet(new FSMountPoint(getWorkspaceId(), ioFile, eventService, searcherProvider, systemFilter))) {
+        if (!mountRef.maybeSet(newMountPoint(ioFile))) {
             throw new ServerException(String.format("Local filesystem '%s' already mounted. ", ioFile));
         }
     }
@@ -142,7 +169,7 @@ public class LocalFileSystemProvider extends VirtualFileSystemProvider {
         FSMountPoint mount = mountRef.get();
         if (mount == null && create) {
             final java.io.File workspaceMountPoint = mountStrategy.getMountPath(workspaceId);
-            FSMountPoint newMount = new FSMountPoint(workspaceId, workspaceMountPoint, eventService, searcherProvider, systemFilter);
+            FSMountPoint newMount = newMountPoint(workspaceMountPoint);
             if (mountRef.maybeSet(newMount)) {
                 if (!(workspaceMountPoint.exists() || workspaceMountPoint.mkdirs())) {
                     LOG.error("Unable create directory {}", workspaceMountPoint);
@@ -155,6 +182,11 @@ public class LocalFileSystemProvider extends VirtualFileSystemProvider {
         return mount;
     }
 
+    private FSMountPoint newMountPoint(java.io.File ioRoot) {
+        return new FSMountPoint(workspaceId, ioRoot, eventService, searcherProvider, systemFilter, settings.getCacheSize(),
+                                settings.getContentDurability());
+    }
+
     private static class MountPointRef {
         final AtomicReference<FSMountPoint> ref;
 
@@ -32,9 +32,11 @@ public class LocalFileSystemRegistryPlugin {
                                          VirtualFileSystemRegistry registry,
                                          EventService eventService,
                                          SystemPathsFilter systemFilter,
-                                         @Nullable SearcherProvider searcherProvider) throws ServerException {
+                                         @Nullable SearcherProvider searcherProvider,
+                                         FSMountPointSettings settings) throws ServerException {
         for (String id : ids) {
-            registry.registerProvider(id, new LocalFileSystemProvider(id, mountStrategy, eventService, searcherProvider, systemFilter, registry));
+            registry.registerProvider(id, new LocalFileSystemProvider(id, mountStrategy, eventService, searcherProvider, systemFilter,
+                                                                      registry, settings));
         }
     }
 }
@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.eclipse.che.vfs.impl.fs;
 
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.NotFoundException;
@@ -28,7 +31,10 @@ import org.eclipse.che.api.vfs.shared.dto.Principal;
 import org.eclipse.che.api.vfs.shared.dto.Property;
 import org.eclipse.che.commons.lang.Pair;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -45,11 +51,22 @@ public class VirtualFileImpl implements VirtualFile {
     private final Path         path;
     private final FSMountPoint mountPoint;
 
+    /**
+     * Attributes of file that are read together with listing of parent folder. Type of file can't be changed, but length and
+     * modification date are dropped when file is updated through this instance.
+     */
+    private volatile BasicFileAttributes attributes;
+
     VirtualFileImpl(java.io.File ioFile, Path path, String id, FSMountPoint mountPoint) {
+        this(ioFile, path, id, mountPoint, null);
+    }
+
+    VirtualFileImpl(java.io.File ioFile, Path path, String id, FSMountPoint mountPoint, BasicFileAttributes attributes) {
         this.ioFile = ioFile;
         this.path = path;
         this.id = id;
         this.mountPoint = mountPoint;
+        this.attributes = attributes;
     }
 
     @Override
@@ -84,12 +101,14 @@ public class VirtualFileImpl implements VirtualFile {
 
     @Override
     public boolean isFile() {
-        return getIoFile().isFile();
+        final BasicFileAttributes myAttributes = attributes;
+        return myAttributes == null ? getIoFile().isFile() : myAttributes.isRegularFile();
     }
 
     @Override
     public boolean isFolder() {
-        return getIoFile().isDirectory();
+        final BasicFileAttributes myAttributes = attributes;
+        return myAttributes == null ? getIoFile().isDirectory() : myAttributes.isDirectory();
     }
 
     @Override
@@ -114,6 +133,7 @@ public class VirtualFileImpl implements VirtualFile {
 
     @Override
     public VirtualFile updateContent(InputStream content, String lockToken) throws ForbiddenException, ServerException {
+        attributes = null;
         mountPoint.updateContent(this, content, lockToken);
         return this;
     }
@@ -142,12 +162,14 @@ public class VirtualFileImpl implements VirtualFile {
 
     @Override
     public long getLastModificationDate() {
-        return getIoFile().lastModified();
+        final BasicFileAttributes myAttributes = attributes;
+        return myAttributes == null ? getIoFile().lastModified() : myAttributes.lastModifiedTime().toMillis();
     }
 
     @Override
     public long getLength() throws ServerException {
-        return getIoFile().length();
+        final BasicFileAttributes myAttributes = attributes;
+        return myAttributes == null ? getIoFile().length() : myAttributes.size();
     }
 
     //
@@ -221,6 +243,7 @@ public class VirtualFileImpl implements VirtualFile {
 
     @Override
     public void delete(String lockToken) throws ForbiddenException, ServerException {
+        attributes = null;
         mountPoint.delete(this, lockToken);
     }
 
@@ -231,6 +254,11 @@ public class VirtualFileImpl implements VirtualFile {
         return mountPoint.zip(this, filter);
     }
 
+    @Override
+    public void zip(OutputStream out, VirtualFileFilter filter) throws ForbiddenException, ServerException, IOException {
+        mountPoint.zip(this, out, filter);
+    }
+
     @Override
     public void unzip(InputStream zipped, boolean overwrite, int stripNumber) throws ForbiddenException, ConflictException, ServerException {
         mountPoint.unzip(this, zipped, overwrite, stripNumber);
@@ -300,7 +328,12 @@ public class VirtualFileImpl implements VirtualFile {
 
     @Override
     public LazyIterator<Pair<String, String>> countMd5Sums() throws ServerException {
-        return mountPoint.countMd5Sums(this);
+        return mountPoint.countHashSums(this, Hashing.md5());
+    }
+
+    @Override
+    public LazyIterator<Pair<String, String>> countHashSums(HashFunction hashFunction) throws ServerException {
+        return mountPoint.countHashSums(this, hashFunction);
     }
 
     @Override
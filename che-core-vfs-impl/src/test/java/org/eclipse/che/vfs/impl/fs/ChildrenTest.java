@@ -10,10 +10,15 @@
  *******************************************************************************/
 package org.eclipse.che.vfs.impl.fs;
 
+import org.eclipse.che.api.vfs.server.LazyIterator;
+import org.eclipse.che.api.vfs.server.VirtualFile;
+import org.eclipse.che.api.vfs.server.VirtualFileFilter;
 import org.eclipse.che.api.vfs.shared.ItemType;
+import org.eclipse.che.api.vfs.shared.dto.File;
 import org.eclipse.che.api.vfs.shared.dto.Item;
 import org.eclipse.che.api.vfs.shared.dto.ItemList;
 import org.eclipse.che.api.vfs.shared.dto.Principal;
+import org.eclipse.che.api.vfs.shared.dto.Property;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.user.UserImpl;
 import org.eclipse.che.dto.server.DtoFactory;
@@ -102,6 +107,52 @@ public class ChildrenTest extends LocalFileSystemTest {
         }
     }
 
+    public void testGetChildrenAttributes() throws Exception {
+        String requestPath = SERVICE_URI + "children/" + folderId;
+        ContainerResponse response = launcher.service(HttpMethod.GET, requestPath, BASE_URI, null, null, null);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        @SuppressWarnings("unchecked")
+        ItemList children = (ItemList)response.getEntity();
+        List<String> names = new ArrayList<>(4);
+        for (Item i : children.getItems()) {
+            names.add(i.getName());
+            if (i.getItemType() == ItemType.FILE) {
+                File file = (File)i;
+                assertEquals(getIoFile(file.getPath()).lastModified(), file.getLastModificationDate());
+                assertEquals(DEFAULT_CONTENT_BYTES.length, file.getLength());
+            }
+        }
+        // Folders go first.
+        assertEquals(Arrays.asList("FOLDER01", "FOLDER02", "FILE01", "FILE02"), names);
+    }
+
+    public void testGetChildrenMetadata() throws Exception {
+        String lockedFile = createFile(folderPath, "FILE03", DEFAULT_CONTENT_BYTES);
+        createLock(lockedFile, "1234567890abcdef", Long.MAX_VALUE);
+        VirtualFile folder = mountPoint.getVirtualFile(folderPath);
+        // Metadata of all children is checked when folder is listed.
+        LazyIterator<VirtualFile> children = folder.getChildren(VirtualFileFilter.ALL);
+        while (children.hasNext()) {
+            VirtualFile child = children.next();
+            if (child.getName().equals("FOLDER01") || child.getName().equals("FILE01")) {
+                assertEquals("hello world", child.getPropertyValue("MyProperty01"));
+            } else if (child.getName().equals("FILE03")) {
+                assertNull(child.getPropertyValue("MyProperty01"));
+                assertTrue(child.isLocked());
+            } else if (child.isFile()) {
+                assertFalse(child.isLocked());
+            }
+        }
+
+        // Metadata updated after listing must be visible.
+        VirtualFile file = mountPoint.getVirtualFile(lockedFile);
+        file.unlock("1234567890abcdef");
+        Property property = DtoFactory.getInstance().createDto(Property.class).withName("MyProperty03").withValue(Arrays.asList("hello"));
+        file.updateProperties(Arrays.asList(property), null);
+        assertFalse(mountPoint.getVirtualFile(lockedFile).isLocked());
+        assertEquals("hello", mountPoint.getVirtualFile(lockedFile).getPropertyValue("MyProperty03"));
+    }
+
     public void testGetChildren_File() throws Exception {
         ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
         String requestPath = SERVICE_URI + "children/" + fileId;
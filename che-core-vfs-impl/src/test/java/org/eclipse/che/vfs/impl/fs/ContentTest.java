@@ -11,7 +11,11 @@
 package org.eclipse.che.vfs.impl.fs;
 
 import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
 
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.vfs.server.ContentStream;
+import org.eclipse.che.api.vfs.server.SystemPathsFilter;
 import org.eclipse.che.api.vfs.shared.dto.Principal;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.everrest.core.impl.ContainerResponse;
@@ -20,10 +24,16 @@ import org.everrest.core.tools.ByteArrayContainerResponseWriter;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.eclipse.che.api.vfs.shared.dto.VirtualFileSystemInfo.BasicPermissions;
 
@@ -105,6 +115,33 @@ public class ContentTest extends LocalFileSystemTest {
         assertEquals(MediaType.TEXT_PLAIN, writer.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
     }
 
+    public void testGetContentLargeFile() throws Exception {
+        byte[] largeContent = new byte[1024 * 1024];
+        new Random().nextBytes(largeContent);
+        String largeFilePath = createFile(testRootPath, "ContentTest_LargeFile.txt", largeContent);
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        String requestPath = SERVICE_URI + "content/" + pathToId(largeFilePath);
+        ContainerResponse response = launcher.service(HttpMethod.GET, requestPath, BASE_URI, null, null, writer, null);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        assertTrue(Arrays.equals(largeContent, writer.getBody()));
+    }
+
+    public void testGetContentLargeFileWhileContentUpdated() throws Exception {
+        byte[] largeContent = new byte[1024 * 1024];
+        new Random().nextBytes(largeContent);
+        String largeFilePath = createFile(testRootPath, "ContentTest_LargeFile.txt", largeContent);
+        ContentStream contentStream = mountPoint.getVirtualFile(largeFilePath).getContent();
+        try (InputStream in = contentStream.getStream()) {
+            String requestPath = SERVICE_URI + "content/" + pathToId(largeFilePath);
+            ContainerResponse response = launcher.service(HttpMethod.POST, requestPath, BASE_URI, null, updateContent, null);
+            assertEquals(204, response.getStatus());
+            assertTrue(Arrays.equals(updateContent, readFile(largeFilePath)));
+            // Reader still sees content of file that was actual when reading started.
+            assertEquals(largeContent.length, contentStream.getLength());
+            assertTrue(Arrays.equals(largeContent, ByteStreams.toByteArray(in)));
+        }
+    }
+
     public void testUpdateContent() throws Exception {
         String requestPath = SERVICE_URI + "content/" + fileId;
         ContainerResponse response = launcher.service(HttpMethod.POST, requestPath, BASE_URI, null, updateContent, null);
@@ -112,6 +149,70 @@ public class ContentTest extends LocalFileSystemTest {
         assertTrue(Arrays.equals(updateContent, readFile(filePath)));
     }
 
+    public void testUpdateContentDoesNotLeaveTemporaryFiles() throws Exception {
+        String requestPath = SERVICE_URI + "content/" + fileId;
+        ContainerResponse response = launcher.service(HttpMethod.POST, requestPath, BASE_URI, null, updateContent, null);
+        assertEquals(204, response.getStatus());
+        java.io.File tmpDir = new java.io.File(getIoFile(filePath).getParentFile(), FSMountPoint.CONTENT_TMP_DIR);
+        assertEquals(0, tmpDir.list().length);
+    }
+
+    public void testUpdateContentRemovesStaleTemporaryFiles() throws Exception {
+        java.io.File tmpDir = new java.io.File(getIoFile(filePath).getParentFile(), FSMountPoint.CONTENT_TMP_DIR);
+        assertTrue(tmpDir.mkdirs());
+        java.io.File stale = new java.io.File(tmpDir, "content123.tmp");
+        assertTrue(stale.createNewFile());
+        assertTrue(stale.setLastModified(System.currentTimeMillis() - 3600000));
+
+        String requestPath = SERVICE_URI + "content/" + fileId;
+        ContainerResponse response = launcher.service(HttpMethod.POST, requestPath, BASE_URI, null, updateContent, null);
+        assertEquals(204, response.getStatus());
+        assertEquals(0, tmpDir.list().length);
+    }
+
+    public void testUpdateContentWithoutSync() throws Exception {
+        SyncCountingMountPoint syncCountingMountPoint = new SyncCountingMountPoint(FSMountPoint.ContentDurability.NONE);
+        syncCountingMountPoint.getVirtualFile(filePath).updateContent(new ByteArrayInputStream(updateContent), null);
+        assertTrue(Arrays.equals(updateContent, readFile(filePath)));
+        assertEquals(0, syncCountingMountPoint.contentSyncs.get());
+        assertEquals(0, syncCountingMountPoint.directorySyncs.get());
+    }
+
+    public void testUpdateContentWithSyncOfContent() throws Exception {
+        SyncCountingMountPoint syncCountingMountPoint = new SyncCountingMountPoint(FSMountPoint.ContentDurability.CONTENT);
+        syncCountingMountPoint.getVirtualFile(filePath).updateContent(new ByteArrayInputStream(updateContent), null);
+        assertTrue(Arrays.equals(updateContent, readFile(filePath)));
+        assertEquals(1, syncCountingMountPoint.contentSyncs.get());
+        assertEquals(0, syncCountingMountPoint.directorySyncs.get());
+    }
+
+    public void testUpdateContentWithSyncOfContentAndDirectory() throws Exception {
+        SyncCountingMountPoint syncCountingMountPoint = new SyncCountingMountPoint(FSMountPoint.ContentDurability.CONTENT_AND_DIRECTORY);
+        syncCountingMountPoint.getVirtualFile(filePath).updateContent(new ByteArrayInputStream(updateContent), null);
+        assertTrue(Arrays.equals(updateContent, readFile(filePath)));
+        assertEquals(1, syncCountingMountPoint.contentSyncs.get());
+        assertEquals(1, syncCountingMountPoint.directorySyncs.get());
+    }
+
+    public void testContentDurabilityIsConfigured() throws Exception {
+        assertEquals(FSMountPoint.ContentDurability.NONE, mountPoint.getContentDurability());
+        FSMountPointSettings settings = new FSMountPointSettings();
+        settings.setContentDurability("content_and_directory");
+        LocalFileSystemProvider durableProvider = new LocalFileSystemProvider(MY_WORKSPACE_ID,
+                                                                              new WorkspaceHashLocalFSMountStrategy(root, root),
+                                                                              new EventService(), null, SystemPathsFilter.ANY,
+                                                                              virtualFileSystemRegistry, settings);
+        assertEquals(FSMountPoint.ContentDurability.CONTENT_AND_DIRECTORY, durableProvider.getMountPoint(true).getContentDurability());
+    }
+
+    public void testInvalidContentDurability() throws Exception {
+        try {
+            new FSMountPointSettings().setContentDurability("always");
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
     public void testUpdateContentFolder() throws Exception {
         ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
         String requestPath = SERVICE_URI + "content/" + folderId;
@@ -138,4 +239,26 @@ public class ContentTest extends LocalFileSystemTest {
         assertTrue("Content must not be updated", Arrays.equals(content, readFile(lockedFilePath)));
         assertNull("Properties must not be updated", readProperties(lockedFilePath));
     }
+
+    /** Counts requests to flush updated content to the storage device. */
+    private class SyncCountingMountPoint extends FSMountPoint {
+        final AtomicInteger contentSyncs   = new AtomicInteger();
+        final AtomicInteger directorySyncs = new AtomicInteger();
+
+        SyncCountingMountPoint(ContentDurability contentDurability) {
+            super(MY_WORKSPACE_ID, testFsIoRoot, new EventService(), null, SystemPathsFilter.ANY, DEFAULT_CACHE_SIZE, contentDurability);
+        }
+
+        @Override
+        void syncContent(FileChannel channel) throws IOException {
+            contentSyncs.incrementAndGet();
+            super.syncContent(channel);
+        }
+
+        @Override
+        void syncDirectory(java.nio.file.Path dir) {
+            directorySyncs.incrementAndGet();
+            super.syncDirectory(dir);
+        }
+    }
 }
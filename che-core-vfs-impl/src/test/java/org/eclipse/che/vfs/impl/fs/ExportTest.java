@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import org.everrest.core.impl.ContainerResponse;
+import org.everrest.core.tools.ByteArrayContainerResponseWriter;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * @author andrew00x
+ */
+public class ExportTest extends LocalFileSystemTest {
+    private String folderPath;
+    private String folderId;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        folderPath = createDirectory(testRootPath, "ExportTest_Folder");
+        String subFolderPath = createDirectory(folderPath, "a");
+        createFile(folderPath, "file1.txt", DEFAULT_CONTENT_BYTES);
+        createFile(subFolderPath, "file2.txt", DEFAULT_CONTENT_BYTES);
+        createFile(subFolderPath, "file3.txt", DEFAULT_CONTENT_BYTES);
+        folderId = pathToId(folderPath);
+    }
+
+    public void testExportFolder() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(HttpMethod.GET, SERVICE_URI + "export/" + folderId, BASE_URI, null, null, writer, null);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        assertEquals("application/zip", writer.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE).toString());
+        assertEquals(new HashSet<>(Arrays.asList("a/", "file1.txt", "a/file2.txt", "a/file3.txt")),
+                     new HashSet<>(zipEntries(writer.getBody())));
+    }
+
+    public void testExportFolderDoesNotCompressCompressedFiles() throws Exception {
+        // Content is compressible but file is considered as compressed because of its media type.
+        byte[] zeros = new byte[64 * 1024];
+        createFile(folderPath, "archive.zip", zeros);
+        createFile(folderPath, "zeros.txt", zeros);
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(HttpMethod.GET, SERVICE_URI + "export/" + folderId, BASE_URI, null, null, writer, null);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        assertTrue(writer.getBody().length > zeros.length);
+        assertTrue(writer.getBody().length < zeros.length * 2);
+    }
+
+    public void testExportUpdatedFilesOnly() throws Exception {
+        writeFile(folderPath + "/a/file2.txt", "updated".getBytes());
+        String remote = hash(Hashing.md5(), DEFAULT_CONTENT_BYTES) + "  file1.txt\n"
+                        + hash(Hashing.md5(), DEFAULT_CONTENT_BYTES) + "  a/file2.txt\n"
+                        + hash(Hashing.md5(), DEFAULT_CONTENT_BYTES) + "  a/file3.txt\n"
+                        + hash(Hashing.md5(), DEFAULT_CONTENT_BYTES) + "  a/removed.txt\n";
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = export(SERVICE_URI + "export/" + folderId, remote, writer);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        assertEquals(Arrays.asList("a/", "a/file2.txt"), zipEntries(writer.getBody()));
+        assertEquals("[a/removed.txt]", writer.getHeaders().getFirst("x-removed-paths"));
+    }
+
+    public void testExportWithHashAlgorithmSpecifiedByClient() throws Exception {
+        String remote = hash(Hashing.murmur3_128(), DEFAULT_CONTENT_BYTES) + "  file1.txt\n"
+                        + hash(Hashing.murmur3_128(), DEFAULT_CONTENT_BYTES) + "  a/file2.txt\n"
+                        + hash(Hashing.md5(), DEFAULT_CONTENT_BYTES) + "  a/file3.txt\n";
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = export(SERVICE_URI + "export/" + folderId + "?hashAlgorithm=murmur3_128", remote, writer);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        assertEquals(Arrays.asList("a/", "a/file3.txt"), zipEntries(writer.getBody()));
+    }
+
+    public void testExportWithUnsupportedHashAlgorithm() throws Exception {
+        String remote = hash(Hashing.md5(), DEFAULT_CONTENT_BYTES) + "  file1.txt\n";
+        ContainerResponse response = export(SERVICE_URI + "export/" + folderId + "?hashAlgorithm=unknown", remote, null);
+        assertEquals(409, response.getStatus());
+    }
+
+    public void testCachedHashIsNotUsedAfterUpdateOfFile() throws Exception {
+        String remote = hash(Hashing.md5(), DEFAULT_CONTENT_BYTES) + "  file1.txt\n"
+                        + hash(Hashing.md5(), DEFAULT_CONTENT_BYTES) + "  a/file2.txt\n"
+                        + hash(Hashing.md5(), DEFAULT_CONTENT_BYTES) + "  a/file3.txt\n";
+        ContainerResponse response = export(SERVICE_URI + "export/" + folderId, remote, null);
+        assertEquals(204, response.getStatus());
+
+        response = launcher.service(HttpMethod.POST, SERVICE_URI + "content/" + pathToId(folderPath + "/file1.txt"), BASE_URI, null,
+                                    "__UPDATED__".getBytes(), null);
+        assertEquals(204, response.getStatus());
+
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        response = export(SERVICE_URI + "export/" + folderId, remote, writer);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        assertEquals(Arrays.asList("file1.txt"), zipEntries(writer.getBody()));
+    }
+
+    public void testCachedHashesOfFolderAreNotUsedAfterDeleteOfFolder() throws Exception {
+        String remote = hash(Hashing.md5(), DEFAULT_CONTENT_BYTES) + "  file1.txt\n"
+                        + hash(Hashing.md5(), DEFAULT_CONTENT_BYTES) + "  a/file2.txt\n"
+                        + hash(Hashing.md5(), DEFAULT_CONTENT_BYTES) + "  a/file3.txt\n";
+        ContainerResponse response = export(SERVICE_URI + "export/" + folderId, remote, null);
+        assertEquals(204, response.getStatus());
+        long lastModified = getIoFile(folderPath + "/a/file2.txt").lastModified();
+
+        response = launcher.service(HttpMethod.POST, SERVICE_URI + "delete/" + pathToId(folderPath + "/a"), BASE_URI, null, null, null);
+        assertEquals(204, response.getStatus());
+        // Same length and modification date as deleted file has, only dropped cache entry makes hash sum be counted again.
+        createFile(createDirectory(folderPath, "a"), "file2.txt", "__UPDATE".getBytes());
+        assertTrue(getIoFile(folderPath + "/a/file2.txt").setLastModified(lastModified));
+
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        response = export(SERVICE_URI + "export/" + folderId, remote, writer);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        assertEquals(Arrays.asList("a/", "a/file2.txt"), zipEntries(writer.getBody()));
+        assertEquals("[a/file3.txt]", writer.getHeaders().getFirst("x-removed-paths"));
+    }
+
+    private ContainerResponse export(String requestPath, String remote, ByteArrayContainerResponseWriter writer) throws Exception {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(HttpHeaders.CONTENT_TYPE, Arrays.asList(MediaType.TEXT_PLAIN));
+        headers.put(HttpHeaders.ACCEPT, Arrays.asList("application/zip"));
+        return launcher.service(HttpMethod.POST, requestPath, BASE_URI, headers, remote.getBytes(), writer, null);
+    }
+
+    private String hash(HashFunction hashFunction, byte[] content) {
+        return hashFunction.hashBytes(content).toString();
+    }
+
+    private List<String> zipEntries(byte[] zip) throws Exception {
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = zipIn.getNextEntry()) != null) {
+                entries.add(entry.getName());
+            }
+        }
+        return entries;
+    }
+}
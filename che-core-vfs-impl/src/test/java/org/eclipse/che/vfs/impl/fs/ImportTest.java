@@ -10,17 +10,25 @@
  *******************************************************************************/
 package org.eclipse.che.vfs.impl.fs;
 
+import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.vfs.server.SystemPathsFilter;
 import org.eclipse.che.api.vfs.server.VirtualFile;
 import org.eclipse.che.api.vfs.server.observation.CreateEvent;
 import org.eclipse.che.api.vfs.server.observation.VirtualFileEvent;
 import org.everrest.core.impl.ContainerResponse;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -116,4 +124,62 @@ public class ImportTest extends LocalFileSystemTest {
 
         assertEquals(0, _events.size());
     }
+
+    public void testImportZipBombIsRolledBack() throws Exception {
+        VirtualFile parent = mountPoint.getVirtualFileById(importTestRootId);
+        VirtualFile existed = parent.createFile("existed.txt", new ByteArrayInputStream(DEFAULT_CONTENT_BYTES));
+        events.clear();
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ZipOutputStream zipOut = new ZipOutputStream(bout);
+        zipOut.putNextEntry(new ZipEntry("folder1/file1.txt"));
+        zipOut.write(DEFAULT_CONTENT_BYTES);
+        zipOut.putNextEntry(new ZipEntry("existed.txt"));
+        zipOut.write("__UPDATED__".getBytes());
+        zipOut.putNextEntry(new ZipEntry("bomb.bin"));
+        zipOut.write(new byte[50 * 1024 * 1024]);
+        zipOut.close();
+
+        String path = SERVICE_URI + "import/" + importTestRootId + "?overwrite=true";
+        ContainerResponse response = launcher.service(HttpMethod.POST, path, BASE_URI, null, bout.toByteArray(), null);
+        assertEquals(500, response.getStatus());
+        assertNull(parent.getChild("folder1"));
+        assertNull(parent.getChild("bomb.bin"));
+        assertTrue(Arrays.equals(DEFAULT_CONTENT_BYTES, readFile(existed.getPath())));
+        assertTrue(events.isEmpty());
+    }
+
+    public void testImportKeepsPermissionsOfOverwrittenFile() throws Exception {
+        VirtualFile parent = mountPoint.getVirtualFileById(importTestRootId);
+        VirtualFile existed = parent.createFile("gradlew", new ByteArrayInputStream(DEFAULT_CONTENT_BYTES));
+        java.nio.file.Path ioFile = getIoFile(existed.getPath()).toPath();
+        if (Files.getFileAttributeView(ioFile, PosixFileAttributeView.class) == null) {
+            return; // POSIX permissions are not supported.
+        }
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwxr-x---");
+        Files.setPosixFilePermissions(ioFile, permissions);
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ZipOutputStream zipOut = new ZipOutputStream(bout);
+        zipOut.putNextEntry(new ZipEntry("gradlew"));
+        zipOut.write("__UPDATED__".getBytes());
+        zipOut.close();
+
+        String path = SERVICE_URI + "import/" + importTestRootId + "?overwrite=true";
+        ContainerResponse response = launcher.service(HttpMethod.POST, path, BASE_URI, null, bout.toByteArray(), null);
+        assertEquals(204, response.getStatus());
+        assertTrue(Arrays.equals("__UPDATED__".getBytes(), readFile(existed.getPath())));
+        assertEquals(permissions, Files.getPosixFilePermissions(ioFile));
+    }
+
+    public void testBackupsOfInterruptedImportAreRemovedWhenMountPointIsCreated() throws Exception {
+        java.io.File backupDir = new java.io.File(testFsIoRoot, FSMountPoint.UNZIP_BACKUP_DIR);
+        assertTrue(backupDir.exists() || backupDir.mkdirs());
+        java.io.File backup = new java.io.File(backupDir, "backup");
+        Files.write(backup.toPath(), DEFAULT_CONTENT_BYTES);
+
+        new FSMountPoint(MY_WORKSPACE_ID, testFsIoRoot, new EventService(), null, SystemPathsFilter.ANY);
+
+        assertFalse(backup.exists());
+    }
 }
@@ -11,8 +11,11 @@
 package org.eclipse.che.vfs.impl.fs;
 
 import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.vfs.server.SystemPathsFilter;
 import org.eclipse.che.api.vfs.server.VirtualFileFilter;
+import org.eclipse.che.api.vfs.server.observation.IndexingProgressEvent;
+import org.eclipse.che.api.vfs.server.search.QueryExpression;
 import org.eclipse.che.api.vfs.shared.dto.Item;
 import org.eclipse.che.api.vfs.shared.dto.ItemList;
 import org.eclipse.che.commons.lang.Pair;
@@ -35,6 +38,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.HttpHeaders;
@@ -54,6 +63,8 @@ public class SearcherTest extends LocalFileSystemTest {
     private CleanableSearcher searcher;
     private SearcherManager   searcherManager;
 
+    private List<CleanableSearcherProvider> searcherProviders;
+
     @SuppressWarnings("unchecked")
     @Override
     protected void setUp() throws Exception {
@@ -92,7 +103,9 @@ public class SearcherTest extends LocalFileSystemTest {
         queryToResult[8] = new Pair<>(new String[]{file2, file3}, "name=SearcherTest*&mediaType=text/plain");
         queryToResult[9] = new Pair<>(new String[]{file1}, "name=SearcherTest*&mediaType=text/xml");
 
+        searcherProviders = new ArrayList<>();
         CleanableSearcherProvider searcherProvider = new CleanableSearcherProvider(root.getParentFile(), Collections.<VirtualFileFilter>emptySet());
+        searcherProviders.add(searcherProvider);
         // Re-register virtual file system with searching enabled.
         // remove old one first
         provider.close();
@@ -118,6 +131,15 @@ public class SearcherTest extends LocalFileSystemTest {
         }
     }
 
+    @Override
+    protected void tearDown() throws Exception {
+        searcherManager.close();
+        for (CleanableSearcherProvider searcherProvider : searcherProviders) {
+            searcherProvider.stop();
+        }
+        super.tearDown();
+    }
+
     @SuppressWarnings({"rawtypes", "unchecked"})
     public void testSearch() throws Exception {
         ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
@@ -145,6 +167,7 @@ public class SearcherTest extends LocalFileSystemTest {
     }
 
     public void testDeleteFile() throws Exception {
+        searcher.flush();
         searcherManager.maybeRefresh();
         IndexSearcher luceneSearcher = searcherManager.acquire();
         TopDocs topDocs = luceneSearcher.search(new TermQuery(new Term("path", file1)), 10);
@@ -152,6 +175,7 @@ public class SearcherTest extends LocalFileSystemTest {
         searcherManager.release(luceneSearcher);
 
         mountPoint.getVirtualFile(file1).delete(null);
+        searcher.flush();
         searcherManager.maybeRefresh();
         luceneSearcher = searcherManager.acquire();
         topDocs = luceneSearcher.search(new TermQuery(new Term("path", file1)), 10);
@@ -160,6 +184,7 @@ public class SearcherTest extends LocalFileSystemTest {
     }
 
     public void testDeleteFolder() throws Exception {
+        searcher.flush();
         searcherManager.maybeRefresh();
         IndexSearcher luceneSearcher = searcherManager.acquire();
         TopDocs topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", searchTestPath)), 10);
@@ -167,6 +192,7 @@ public class SearcherTest extends LocalFileSystemTest {
         searcherManager.release(luceneSearcher);
 
         mountPoint.getVirtualFile(searchTestPath).delete(null);
+        searcher.flush();
         searcherManager.maybeRefresh();
         luceneSearcher = searcherManager.acquire();
         topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", searchTestPath)), 10);
@@ -175,6 +201,7 @@ public class SearcherTest extends LocalFileSystemTest {
     }
 
     public void testAdd() throws Exception {
+        searcher.flush();
         searcherManager.maybeRefresh();
         IndexSearcher luceneSearcher = searcherManager.acquire();
         TopDocs topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", searchTestPath)), 10);
@@ -182,6 +209,7 @@ public class SearcherTest extends LocalFileSystemTest {
         searcherManager.release(luceneSearcher);
         mountPoint.getVirtualFile(searchTestPath).createFile("new_file.txt", new ByteArrayInputStream(DEFAULT_CONTENT_BYTES));
 
+        searcher.flush();
         searcherManager.maybeRefresh();
         luceneSearcher = searcherManager.acquire();
         topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", searchTestPath)), 10);
@@ -190,6 +218,7 @@ public class SearcherTest extends LocalFileSystemTest {
     }
 
     public void testUpdate() throws Exception {
+        searcher.flush();
         searcherManager.maybeRefresh();
         IndexSearcher luceneSearcher = searcherManager.acquire();
         TopDocs topDocs = luceneSearcher.search(new QueryParser("text", new SimpleAnalyzer()).parse("updated"), 10);
@@ -197,6 +226,7 @@ public class SearcherTest extends LocalFileSystemTest {
         searcherManager.release(luceneSearcher);
         mountPoint.getVirtualFile(file2).updateContent(new ByteArrayInputStream("updated content".getBytes()), null);
 
+        searcher.flush();
         searcherManager.maybeRefresh();
         luceneSearcher = searcherManager.acquire();
         topDocs = luceneSearcher.search(new QueryParser("text", new SimpleAnalyzer()).parse("updated"), 10);
@@ -205,6 +235,7 @@ public class SearcherTest extends LocalFileSystemTest {
     }
 
     public void testMove() throws Exception {
+        searcher.flush();
         searcherManager.maybeRefresh();
         IndexSearcher luceneSearcher = searcherManager.acquire();
         String destination = createDirectory(testRootPath, "___destination");
@@ -214,6 +245,7 @@ public class SearcherTest extends LocalFileSystemTest {
         searcherManager.release(luceneSearcher);
         mountPoint.getVirtualFile(file3).moveTo(mountPoint.getVirtualFile(destination), null);
 
+        searcher.flush();
         searcherManager.maybeRefresh();
         luceneSearcher = searcherManager.acquire();
         topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", expected)), 10);
@@ -224,6 +256,7 @@ public class SearcherTest extends LocalFileSystemTest {
     }
 
     public void testCopy() throws Exception {
+        searcher.flush();
         searcherManager.maybeRefresh();
         IndexSearcher luceneSearcher = searcherManager.acquire();
         String destination = createDirectory(testRootPath, "___destination");
@@ -233,6 +266,7 @@ public class SearcherTest extends LocalFileSystemTest {
         searcherManager.release(luceneSearcher);
         mountPoint.getVirtualFile(file3).copyTo(mountPoint.getVirtualFile(destination));
 
+        searcher.flush();
         searcherManager.maybeRefresh();
         luceneSearcher = searcherManager.acquire();
         topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", expected)), 10);
@@ -244,6 +278,7 @@ public class SearcherTest extends LocalFileSystemTest {
 
     public void testRename() throws Exception {
         String newName = "___renamed";
+        searcher.flush();
         searcherManager.maybeRefresh();
         IndexSearcher luceneSearcher = searcherManager.acquire();
         TopDocs topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", file2)), 10);
@@ -251,6 +286,7 @@ public class SearcherTest extends LocalFileSystemTest {
         searcherManager.release(luceneSearcher);
         mountPoint.getVirtualFile(file2).rename(newName, null, null);
 
+        searcher.flush();
         searcherManager.maybeRefresh();
         luceneSearcher = searcherManager.acquire();
         topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", searchTestPath + '/' + newName)), 10);
@@ -264,6 +300,7 @@ public class SearcherTest extends LocalFileSystemTest {
         String newName = FILE_NAME + "A";
         String newPath =searchTestPath + '/' + newName;
 
+        searcher.flush();
         searcherManager.maybeRefresh();
         IndexSearcher luceneSearcher = searcherManager.acquire();
         TopDocs topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", file4)), 10);
@@ -271,6 +308,7 @@ public class SearcherTest extends LocalFileSystemTest {
         searcherManager.release(luceneSearcher);
         mountPoint.getVirtualFile(file4).rename(newName, null, null);
 
+        searcher.flush();
         searcherManager.maybeRefresh();
         luceneSearcher = searcherManager.acquire();
         topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", newPath)), 10);
@@ -288,6 +326,7 @@ public class SearcherTest extends LocalFileSystemTest {
 
     public void testRenameFolder() throws Exception {
         String newName = "___renamed";
+        searcher.flush();
         searcherManager.maybeRefresh();
         IndexSearcher luceneSearcher = searcherManager.acquire();
         TopDocs topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", searchTestPath)), 10);
@@ -295,6 +334,7 @@ public class SearcherTest extends LocalFileSystemTest {
         searcherManager.release(luceneSearcher);
         mountPoint.getVirtualFile(searchTestPath).rename(newName, null, null);
 
+        searcher.flush();
         searcherManager.maybeRefresh();
         luceneSearcher = searcherManager.acquire();
 
@@ -310,6 +350,7 @@ public class SearcherTest extends LocalFileSystemTest {
     public void testRenameFolderByAddingFewNewSymbol() throws Exception {
         String newName = SEARCH_FOLDER_PATH + "A";
         String newPath = searchTestPath + "A";
+        searcher.flush();
         searcherManager.maybeRefresh();
         IndexSearcher luceneSearcher = searcherManager.acquire();
         TopDocs topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", searchTestPath)), 10);
@@ -317,6 +358,7 @@ public class SearcherTest extends LocalFileSystemTest {
         searcherManager.release(luceneSearcher);
         mountPoint.getVirtualFile(searchTestPath).rename(newName, null, null);
 
+        searcher.flush();
         searcherManager.maybeRefresh();
         luceneSearcher = searcherManager.acquire();
 
@@ -326,4 +368,164 @@ public class SearcherTest extends LocalFileSystemTest {
         assertEquals(4, topDocs.totalHits);
         searcherManager.release(luceneSearcher);
     }
+
+    public void testInitialIndexOfMultiLevelTree() throws Exception {
+        String treePath = createDirectory(testRootPath, "SearcherTest_Tree");
+        createTree(treePath, 8, 5, null, ".txt");
+        int expectedFiles = countFiles(getIoFile(treePath));
+        final List<IndexingProgressEvent> progress = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        mountPoint.getEventService().subscribe(new EventSubscriber<IndexingProgressEvent>() {
+            @Override
+            public void onEvent(IndexingProgressEvent event) {
+                progress.add(event);
+                if (event.isCompleted()) {
+                    completed.countDown();
+                }
+            }
+        });
+
+        CleanableSearcher treeSearcher = newSearcher(Collections.<VirtualFileFilter>emptySet());
+        try {
+            assertTrue("Initial indexing isn't completed", completed.await(1, TimeUnit.MINUTES));
+            waitForInitialIndex(treeSearcher);
+            assertFalse(treeSearcher.search(new QueryExpression().setPath(treePath).setName("*.txt")).isPartial());
+
+            SearcherManager treeSearcherManager = new SearcherManager(treeSearcher.getIndexWriter(), true, new SearcherFactory());
+            IndexSearcher luceneSearcher = treeSearcherManager.acquire();
+            TopDocs topDocs = luceneSearcher.search(new PrefixQuery(new Term("path", treePath + '/')), 10);
+            assertEquals(expectedFiles, topDocs.totalHits);
+            treeSearcherManager.release(luceneSearcher);
+            treeSearcherManager.close();
+
+            // Progress is published for each 1000 files and after indexing is completed.
+            IndexingProgressEvent last = progress.get(progress.size() - 1);
+            assertTrue(last.isCompleted());
+            assertEquals(MY_WORKSPACE_ID, last.getWorkspaceId());
+            assertTrue(last.getIndexedFiles() >= expectedFiles);
+            assertEquals(last.getIndexedFiles() / 1000 + 1, progress.size());
+            for (IndexingProgressEvent event : progress.subList(0, progress.size() - 1)) {
+                assertFalse(event.isCompleted());
+                assertTrue(event.getIndexedFiles() <= last.getIndexedFiles());
+            }
+        } finally {
+            treeSearcher.close();
+        }
+    }
+
+    public void testSearchResultIsPartialWhileInitialIndexIsBuilt() throws Exception {
+        final CountDownLatch indexingStarted = new CountDownLatch(1);
+        final CountDownLatch resumeIndexing = new CountDownLatch(1);
+        VirtualFileFilter blockingFilter = file -> {
+            indexingStarted.countDown();
+            try {
+                resumeIndexing.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        };
+
+        CleanableSearcher blockedSearcher = newSearcher(Collections.singleton(blockingFilter));
+        try {
+            assertTrue("Initial indexing isn't started", indexingStarted.await(1, TimeUnit.MINUTES));
+            assertTrue(blockedSearcher.search(new QueryExpression().setText("to be or")).isPartial());
+
+            resumeIndexing.countDown();
+            waitForInitialIndex(blockedSearcher);
+            assertFalse(blockedSearcher.search(new QueryExpression().setText("to be or")).isPartial());
+        } finally {
+            resumeIndexing.countDown();
+            blockedSearcher.close();
+        }
+    }
+
+    public void testPendingUpdatesOfFileAreCoalesced() throws Exception {
+        final AtomicBoolean blockUpdates = new AtomicBoolean();
+        final CountDownLatch updateStarted = new CountDownLatch(1);
+        final CountDownLatch resumeUpdate = new CountDownLatch(1);
+        final AtomicInteger appliedUpdates = new AtomicInteger();
+        VirtualFileFilter countingFilter = file -> {
+            if (blockUpdates.get()) {
+                if (file2.equals(file.getPath())) {
+                    updateStarted.countDown();
+                    try {
+                        resumeUpdate.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else if (file3.equals(file.getPath())) {
+                    appliedUpdates.incrementAndGet();
+                }
+            }
+            return true;
+        };
+
+        CleanableSearcher countingSearcher = newSearcher(Collections.singleton(countingFilter));
+        try {
+            waitForInitialIndex(countingSearcher);
+            blockUpdates.set(true);
+            // Keep background indexing busy while file is updated few times.
+            countingSearcher.update(mountPoint.getVirtualFile(file2));
+            assertTrue("Update of index isn't started", updateStarted.await(1, TimeUnit.MINUTES));
+            for (int i = 0; i < 10; i++) {
+                countingSearcher.update(mountPoint.getVirtualFile(file3));
+            }
+
+            resumeUpdate.countDown();
+            countingSearcher.flush();
+            assertEquals(1, appliedUpdates.get());
+        } finally {
+            resumeUpdate.countDown();
+            countingSearcher.close();
+        }
+    }
+
+    public void testPendingUpdateIsVisibleAfterFlush() throws Exception {
+        CleanableSearcher slowSearcher = newSearcher(Collections.<VirtualFileFilter>emptySet(), TimeUnit.HOURS.toMillis(1));
+        try {
+            waitForInitialIndex(slowSearcher);
+            mountPoint.getVirtualFile(file2).updateContent(new ByteArrayInputStream("updated content".getBytes()), null);
+            slowSearcher.update(mountPoint.getVirtualFile(file2));
+
+            // Index reader isn't refreshed yet.
+            assertEquals(0, slowSearcher.search(new QueryExpression().setText("updated")).getFilePaths().length);
+
+            slowSearcher.flush();
+            assertEquals(Collections.singletonList(file2),
+                         Arrays.asList(slowSearcher.search(new QueryExpression().setText("updated")).getFilePaths()));
+        } finally {
+            slowSearcher.close();
+        }
+    }
+
+    private CleanableSearcher newSearcher(Set<VirtualFileFilter> filters) throws Exception {
+        return newSearcher(filters, CleanableSearcherProvider.DEFAULT_INDEX_REFRESH_PERIOD);
+    }
+
+    private CleanableSearcher newSearcher(Set<VirtualFileFilter> filters, long indexRefreshPeriod) throws Exception {
+        java.io.File indexRoot = new java.io.File(root.getParentFile(), "SearcherTest_Index_" + getName());
+        CleanableSearcherProvider searcherProvider = new CleanableSearcherProvider(indexRoot, filters);
+        searcherProviders.add(searcherProvider);
+        searcherProvider.setIndexRefreshPeriod(indexRefreshPeriod);
+        return (CleanableSearcher)searcherProvider.getSearcher(mountPoint, true);
+    }
+
+    private void waitForInitialIndex(CleanableSearcher searcher) throws Exception {
+        Throwable error;
+        while ((error = searcher.initializationError()) == null && !searcher.initialized()) {
+            Thread.sleep(100);
+        }
+        if (error != null) {
+            fail(error.getMessage());
+        }
+    }
+
+    private int countFiles(java.io.File folder) {
+        int count = 0;
+        for (java.io.File file : folder.listFiles(SERVICE_DIR_FILTER)) {
+            count += file.isDirectory() ? countFiles(file) : 1;
+        }
+        return count;
+    }
 }
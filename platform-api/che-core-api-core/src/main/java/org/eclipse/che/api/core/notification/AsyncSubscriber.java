@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link EventSubscriber} which receives events asynchronously. {@link EventService} puts events for such subscriber to
+ * its own bounded mailbox and delivers them in separate thread in the same order as they were published.
+ *
+ * @author andrew00x
+ * @see EventService#subscribeAsync(EventSubscriber, Class, int, OverflowPolicy)
+ */
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AsyncSubscriber {
+    /** Max number of events that are waiting for delivery to subscriber. */
+    int mailboxSize() default 1000;
+
+    /** What to do if new event is published when mailbox is full. */
+    OverflowPolicy overflowPolicy() default OverflowPolicy.BLOCK;
+
+    enum OverflowPolicy {
+        /** Publisher waits until subscriber processes some of pending events. */
+        BLOCK,
+        /** New event is discarded. */
+        DROP,
+        /**
+         * Pending event that is equal to the new one is replaced with it and keeps its place in mailbox, so order of events relative
+         * to each other doesn't change. If there is no such event then the oldest pending event is discarded. Suitable for
+         * subscribers that are interested only in the latest state, e.g. "something changed" notifications.
+         */
+        COALESCE
+    }
+}
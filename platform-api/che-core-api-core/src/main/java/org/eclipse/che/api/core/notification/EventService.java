@@ -13,20 +13,30 @@ package org.eclipse.che.api.core.notification;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.notification.AsyncSubscriber.OverflowPolicy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Dispatchers events to listeners. Usage example:
@@ -40,6 +50,9 @@ import java.util.concurrent.CopyOnWriteArraySet;
  *     });
  *     bus.publish(new MyEvent());
  * </pre>
+ * By default subscribers are notified synchronously in thread that publishes event. Subscribers that are annotated with {@link
+ * AsyncSubscriber} or registered with method {@link #subscribeAsync(EventSubscriber, Class, int, OverflowPolicy)} are notified in
+ * separate thread, each of them has own bounded mailbox and receives events in the same order as they were published.
  *
  * @author andrew00x
  */
@@ -51,12 +64,17 @@ public class EventService {
     private static final int CACHE_MASK = CACHE_NUM - 1;
     private static final int SEG_SIZE   = 32;
 
-    private final LoadingCache<Class<?>, Set<Class<?>>>[]       typeCache;
-    private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+    private final LoadingCache<Class<?>, Set<Class<?>>>[]               typeCache;
+    private final ConcurrentMap<Class<?>, Set<EventSubscriber>>         subscribersByEventType;
+    /** Asynchronous dispatchers by subscribers which they deliver events to. */
+    private final ConcurrentMap<EventSubscriber<?>, AsyncDispatcher<?>> asyncDispatchers;
+
+    private volatile ExecutorService asyncExecutor;
 
     @SuppressWarnings("unchecked")
     public EventService() {
         subscribersByEventType = new ConcurrentHashMap<>();
+        asyncDispatchers = new ConcurrentHashMap<>();
         typeCache = new LoadingCache[CACHE_NUM];
         for (int i = 0; i < CACHE_NUM; i++) {
             typeCache[i] = CacheBuilder.newBuilder().concurrencyLevel(SEG_SIZE).build(
@@ -120,7 +138,7 @@ public class EventService {
      */
     public void subscribe(EventSubscriber<?> subscriber) {
         final Class<?> eventType = getEventType(subscriber);
-        doSubscribe(subscriber, eventType);
+        doSubscribe(asyncIfAnnotated(subscriber), eventType);
     }
 
     /**
@@ -131,7 +149,85 @@ public class EventService {
      * @param eventType The event to subscribe to.
      */
     public <T> void subscribe(EventSubscriber<? extends T> subscriber, Class<T> eventType) {
-        doSubscribe(subscriber, eventType);
+        doSubscribe(asyncIfAnnotated(subscriber), eventType);
+    }
+
+    /**
+     * Subscribe to an event asynchronously. Events are put to mailbox of subscriber and delivered to it in separate thread, so
+     * slow subscriber doesn't slow down publisher and other subscribers. Order of events is preserved for each subscriber.
+     * <p/>
+     * Note: if {@code overflowPolicy} is {@link OverflowPolicy#BLOCK} then publisher waits until there is free space in mailbox.
+     * Subscriber itself is never blocked when it publishes events which it receives, its mailbox may temporary exceed {@code
+     * mailboxSize} in this case.
+     *
+     * @param subscriber
+     *         the subscriber to call when an event is published
+     * @param eventType
+     *         the event to subscribe to
+     * @param mailboxSize
+     *         max number of events that are waiting for delivery to subscriber
+     * @param overflowPolicy
+     *         what to do if new event is published when mailbox is full
+     */
+    public <T> void subscribeAsync(EventSubscriber<? extends T> subscriber,
+                                   Class<T> eventType,
+                                   int mailboxSize,
+                                   OverflowPolicy overflowPolicy) {
+        doSubscribe(newAsyncDispatcher(subscriber, mailboxSize, overflowPolicy), eventType);
+    }
+
+    /** Gets statistics of all asynchronous subscribers. */
+    public List<SubscriberStatistics> getAsyncSubscriberStatistics() {
+        final List<SubscriberStatistics> statistics = new ArrayList<>(asyncDispatchers.size());
+        for (AsyncDispatcher<?> dispatcher : asyncDispatchers.values()) {
+            statistics.add(dispatcher.getStatistics());
+        }
+        return statistics;
+    }
+
+    /** Stops delivery of events to asynchronous subscribers. Events that are waiting in mailboxes are discarded. */
+    @PreDestroy
+    public void stop() {
+        final ExecutorService executor = asyncExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private EventSubscriber<?> asyncIfAnnotated(EventSubscriber<?> subscriber) {
+        final AsyncSubscriber async = subscriber.getClass().getAnnotation(AsyncSubscriber.class);
+        if (async == null) {
+            return subscriber;
+        }
+        return newAsyncDispatcher(subscriber, async.mailboxSize(), async.overflowPolicy());
+    }
+
+    private <T> AsyncDispatcher<?> newAsyncDispatcher(EventSubscriber<T> subscriber, int mailboxSize, OverflowPolicy overflowPolicy) {
+        if (mailboxSize < 1) {
+            throw new IllegalArgumentException(String.format("Invalid mailbox size %d", mailboxSize));
+        }
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("Null overflow policy.");
+        }
+        final AsyncDispatcher<T> dispatcher = new AsyncDispatcher<>(subscriber, mailboxSize, overflowPolicy);
+        final AsyncDispatcher<?> existed = asyncDispatchers.putIfAbsent(subscriber, dispatcher);
+        // Subscriber is already registered, use the same dispatcher to avoid duplicated delivery of events.
+        return existed != null ? existed : dispatcher;
+    }
+
+    private ExecutorService getAsyncExecutor() {
+        ExecutorService executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = asyncExecutor;
+                if (executor == null) {
+                    asyncExecutor = executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("EventService-%d")
+                                                                                                       .setDaemon(true)
+                                                                                                       .build());
+                }
+            }
+        }
+        return executor;
     }
 
     private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
@@ -154,9 +250,10 @@ public class EventService {
      */
     public void unsubscribe(EventSubscriber<?> subscriber) {
         final Class<?> eventType = getEventType(subscriber);
+        final AsyncDispatcher<?> dispatcher = asyncDispatchers.remove(subscriber);
         final Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
         if (entries != null && !entries.isEmpty()) {
-            boolean changed = entries.remove(subscriber);
+            boolean changed = entries.remove(dispatcher != null ? dispatcher : subscriber);
             if (changed) {
                 if (entries.isEmpty()) {
                     subscribersByEventType.remove(eventType);
@@ -190,4 +287,134 @@ public class EventService {
         }
         return eventType;
     }
+
+    /**
+     * Delivers events to subscriber in separate thread. Events are kept in bounded mailbox, at most one task that drains mailbox
+     * runs at any moment, so subscriber gets events one by one in the order they were published.
+     */
+    private final class AsyncDispatcher<T> implements EventSubscriber<T>, Runnable {
+        final EventSubscriber<T> subscriber;
+        final int                mailboxSize;
+        final OverflowPolicy     overflowPolicy;
+        // All fields below are guarded by this dispatcher
+        final ArrayDeque<T> mailbox;
+        Thread              drainer;
+        boolean             scheduled;
+        long                processedEvents;
+        long                droppedEvents;
+        long                totalProcessingTime;
+        long                maxProcessingTime;
+
+        AsyncDispatcher(EventSubscriber<T> subscriber, int mailboxSize, OverflowPolicy overflowPolicy) {
+            this.subscriber = subscriber;
+            this.mailboxSize = mailboxSize;
+            this.overflowPolicy = overflowPolicy;
+            mailbox = new ArrayDeque<>();
+        }
+
+        @Override
+        public void onEvent(T event) {
+            synchronized (this) {
+                if (mailbox.size() >= mailboxSize && !makeRoom(event)) {
+                    ++droppedEvents;
+                    return;
+                }
+                mailbox.addLast(event);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                getAsyncExecutor().execute(this);
+            } catch (RejectedExecutionException e) {
+                // EventService is stopped.
+                synchronized (this) {
+                    droppedEvents += mailbox.size();
+                    mailbox.clear();
+                    scheduled = false;
+                    notifyAll();
+                }
+            }
+        }
+
+        /** Applies overflow policy when mailbox is full. Returns {@code false} if new event must not be added to mailbox. */
+        private boolean makeRoom(T event) {
+            switch (overflowPolicy) {
+                case DROP:
+                    return false;
+                case COALESCE:
+                    if (mailbox.contains(event)) {
+                        // Replace pending event in place, so the new one is delivered in the same order relative to other events.
+                        for (int i = mailbox.size(); i > 0; i--) {
+                            final T pending = mailbox.pollFirst();
+                            mailbox.addLast(event.equals(pending) ? event : pending);
+                        }
+                        return false;
+                    }
+                    ++droppedEvents;
+                    mailbox.removeFirst();
+                    return true;
+                default:
+                    if (drainer == Thread.currentThread()) {
+                        // Subscriber publishes event itself, waiting for its own mailbox leads to deadlock.
+                        return true;
+                    }
+                    try {
+                        while (mailbox.size() >= mailboxSize && scheduled) {
+                            wait();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                    return true;
+            }
+        }
+
+        @Override
+        public void run() {
+            for (; ; ) {
+                final T event;
+                synchronized (this) {
+                    event = mailbox.pollFirst();
+                    if (event == null) {
+                        drainer = null;
+                        scheduled = false;
+                        return;
+                    }
+                    drainer = Thread.currentThread();
+                    notifyAll();
+                }
+                final long start = System.nanoTime();
+                try {
+                    LOG.debug("Publish event {} for {}", event, subscriber);
+                    subscriber.onEvent(event);
+                } catch (RuntimeException e) {
+                    LOG.error(e.getMessage(), e);
+                }
+                final long time = System.nanoTime() - start;
+                synchronized (this) {
+                    ++processedEvents;
+                    totalProcessingTime += time;
+                    maxProcessingTime = Math.max(maxProcessingTime, time);
+                }
+            }
+        }
+
+        synchronized SubscriberStatistics getStatistics() {
+            return new SubscriberStatistics(subscriber.toString(),
+                                            mailboxSize,
+                                            mailbox.size(),
+                                            processedEvents,
+                                            droppedEvents,
+                                            totalProcessingTime,
+                                            maxProcessingTime);
+        }
+
+        @Override
+        public String toString() {
+            return "AsyncDispatcher{" + subscriber + '}';
+        }
+    }
 }
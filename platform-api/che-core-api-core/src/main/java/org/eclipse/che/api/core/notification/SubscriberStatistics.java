@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of asynchronous event subscriber.
+ *
+ * @author andrew00x
+ * @see EventService#getAsyncSubscriberStatistics()
+ */
+public final class SubscriberStatistics {
+    private final String subscriber;
+    private final int    mailboxSize;
+    private final int    pendingEvents;
+    private final long   processedEvents;
+    private final long   droppedEvents;
+    private final long   totalProcessingTime;
+    private final long   maxProcessingTime;
+
+    SubscriberStatistics(String subscriber,
+                         int mailboxSize,
+                         int pendingEvents,
+                         long processedEvents,
+                         long droppedEvents,
+                         long totalProcessingTime,
+                         long maxProcessingTime) {
+        this.subscriber = subscriber;
+        this.mailboxSize = mailboxSize;
+        this.pendingEvents = pendingEvents;
+        this.processedEvents = processedEvents;
+        this.droppedEvents = droppedEvents;
+        this.totalProcessingTime = totalProcessingTime;
+        this.maxProcessingTime = maxProcessingTime;
+    }
+
+    /** Description of subscriber, result of its method {@code toString()}. */
+    public String getSubscriber() {
+        return subscriber;
+    }
+
+    /** Capacity of mailbox of subscriber. */
+    public int getMailboxSize() {
+        return mailboxSize;
+    }
+
+    /** Number of events that are waiting for delivery to subscriber. */
+    public int getPendingEvents() {
+        return pendingEvents;
+    }
+
+    /** Number of events processed by subscriber. */
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    /** Number of events discarded because mailbox of subscriber was full. */
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    /** Total time spent by subscriber for processing events in milliseconds. */
+    public long getTotalProcessingTime() {
+        return TimeUnit.NANOSECONDS.toMillis(totalProcessingTime);
+    }
+
+    /** Max time spent by subscriber for processing single event in milliseconds. */
+    public long getMaxProcessingTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxProcessingTime);
+    }
+
+    /** Average time spent by subscriber for processing single event in milliseconds. */
+    public double getAverageProcessingTime() {
+        return processedEvents == 0 ? 0 : (double)totalProcessingTime / processedEvents / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return "SubscriberStatistics{" +
+               "subscriber='" + subscriber + '\'' +
+               ", mailboxSize=" + mailboxSize +
+               ", pendingEvents=" + pendingEvents +
+               ", processedEvents=" + processedEvents +
+               ", droppedEvents=" + droppedEvents +
+               ", totalProcessingTime=" + getTotalProcessingTime() +
+               ", maxProcessingTime=" + getMaxProcessingTime() +
+               '}';
+    }
+}
@@ -30,7 +30,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 @Singleton
 @Path("event-bus")
 public final class WSocketEventBusServer {
-    private static final Logger LOG = LoggerFactory.getLogger(WSocketEventBusServer.class);
+    private static final Logger LOG          = LoggerFactory.getLogger(WSocketEventBusServer.class);
+    /** Max number of events waiting for sending to websockets. */
+    private static final int    MAILBOX_SIZE = 10000;
 
     private final EventService                 eventService;
     private final ServerEventPropagationPolicy policy;
@@ -61,12 +63,13 @@ public final class WSocketEventBusServer {
     void start() {
         if (start.compareAndSet(false, true)) {
             if (policy != null) {
-                eventService.subscribe(new EventSubscriber<Object>() {
+                // Don't make publishers wait while events are sent to websockets.
+                eventService.subscribeAsync(new EventSubscriber<Object>() {
                     @Override
                     public void onEvent(Object event) {
                         propagate(event);
                     }
-                });
+                }, Object.class, MAILBOX_SIZE, AsyncSubscriber.OverflowPolicy.BLOCK);
             }
         }
     }
@@ -28,6 +28,7 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -80,8 +81,9 @@ public class CodenvyJsonProvider<T> implements MessageBodyReader<T>, MessageBody
         // Add Cache-Control before start write body.
         httpHeaders.putSingle(HttpHeaders.CACHE_CONTROL, "public, no-cache, no-store, no-transform");
         if (t instanceof JsonSerializable) {
-            try (Writer w = new OutputStreamWriter(entityStream, Charset.forName("UTF-8"))) {
-                w.write(((JsonSerializable)t).toJson());
+            // Write DTO directly to the response stream, don't create the whole JSON string in memory.
+            try (Writer w = new BufferedWriter(new OutputStreamWriter(entityStream, Charset.forName("UTF-8")))) {
+                DtoFactory.getInstance().toJson(t, w);
             }
         } else {
             delegate.writeTo(t, type, genericType, annotations, mediaType, httpHeaders, entityStream);
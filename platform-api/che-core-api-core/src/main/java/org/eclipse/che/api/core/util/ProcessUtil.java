@@ -10,9 +10,22 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.util;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Helpers to manage system processes.
@@ -24,8 +37,23 @@ public final class ProcessUtil {
     private static final ProcessManager PROCESS_MANAGER = ProcessManager.newInstance();
 
     /**
-     * Writes stdout and stderr of the process to consumers.<br>
-     * Supposes that stderr of the process is redirected to stdout.
+     * Threads that read output of processes. Threads are shared between all processes and reused when process ends. Each stream is
+     * read by small chunks and every line is passed to consumer immediately, lines are never queued. If consumer is slow the
+     * process is blocked when OS pipe buffer is full, so memory used for output of process is bounded.
+     */
+    private static final ExecutorService             PUMP_EXECUTOR    = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("ProcessPump-%d").setDaemon(true).build());
+    /** Kills processes that run longer than allowed. Single thread serves timeouts of all processes. */
+    private static final ScheduledThreadPoolExecutor TIMEOUT_EXECUTOR = new ScheduledThreadPoolExecutor(
+            1, new ThreadFactoryBuilder().setNameFormat("ProcessWatchdog").setDaemon(true).build());
+
+    static {
+        TIMEOUT_EXECUTOR.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Writes stdout and stderr of the process to consumers. Both streams are read concurrently, so process never hangs because of
+     * full buffer of stream that isn't read. Method returns when both streams are closed.
      *
      * @param p
      *         process to read output from
@@ -36,16 +64,7 @@ public final class ProcessUtil {
      * @throws IOException
      */
     public static void process(Process p, LineConsumer stdout, LineConsumer stderr) throws IOException {
-        try (BufferedReader inputReader = new BufferedReader(new InputStreamReader(p.getInputStream()));
-             BufferedReader errorReader = new BufferedReader(new InputStreamReader(p.getErrorStream()))) {
-            String line;
-            while ((line = inputReader.readLine()) != null) {
-                stdout.writeLine(line);
-            }
-            while ((line = errorReader.readLine()) != null) {
-                stderr.writeLine(line);
-            }
-        }
+        await(pump(p, stdout, stderr));
     }
 
     /**
@@ -86,6 +105,149 @@ public final class ProcessUtil {
         return process;
     }
 
+    /**
+     * Starts the process and returns immediately. Stdout and stderr of the process are written to consumer in background by shared
+     * pump threads, calling thread isn't blocked while process is running. Timeout is counted from the start of the process. If
+     * process doesn't end in time it is killed and returned future fails with {@link TimeoutException}. Cancellation of returned
+     * future kills the process.
+     *
+     * @param pb
+     *         process builder to start
+     * @param consumer
+     *         a consumer where stdout and stderr will be redirected
+     * @param timeout
+     *         max time of process execution, zero or negative value means no timeout
+     * @param unit
+     *         unit of {@code timeout}
+     * @return future that is completed with exit value of the process when process is ended and its output is read
+     * @throws IOException
+     *         if process can't be started
+     */
+    public static CompletableFuture<Integer> executeAsync(ProcessBuilder pb, LineConsumer consumer, long timeout, TimeUnit unit)
+            throws IOException {
+        pb.redirectErrorStream(true);
+        return processAsync(pb.start(), consumer, LineConsumer.DEV_NULL, timeout, unit);
+    }
+
+    /**
+     * Writes stdout and stderr of the process to consumers in background. See {@link #executeAsync(ProcessBuilder, LineConsumer,
+     * long, TimeUnit)} for details about timeout and cancellation.
+     *
+     * @param p
+     *         process to read output from
+     * @param stdout
+     *         a consumer where stdout will be redirected
+     * @param stderr
+     *         a consumer where stderr will be redirected
+     * @param timeout
+     *         max time of process execution, zero or negative value means no timeout
+     * @param unit
+     *         unit of {@code timeout}
+     * @return future that is completed with exit value of the process when process is ended and its output is read
+     */
+    public static CompletableFuture<Integer> processAsync(Process p, LineConsumer stdout, LineConsumer stderr, long timeout,
+                                                          TimeUnit unit) {
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+        // Start timer before reading output, hung process must be killed even if it doesn't write anything.
+        final ScheduledFuture<?> timer;
+        if (timeout > 0) {
+            timer = TIMEOUT_EXECUTOR.schedule(() -> {
+                if (result.completeExceptionally(new TimeoutException(String.format("Process isn't ended in %d %s", timeout,
+                                                                                     unit.name().toLowerCase())))) {
+                    terminate(p);
+                }
+            }, timeout, unit);
+        } else {
+            timer = null;
+        }
+        pump(p, stdout, stderr).thenRunAsync(() -> {
+            try {
+                result.complete(p.waitFor());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+            }
+        }, PUMP_EXECUTOR).exceptionally(e -> {
+            result.completeExceptionally(unwrap(e));
+            return null;
+        });
+        result.whenComplete((exitValue, error) -> {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            if (result.isCancelled()) {
+                terminate(p);
+            }
+        });
+        return result;
+    }
+
+    /** Reads stdout and stderr of the process concurrently. Returned future is completed when both streams are closed. */
+    private static CompletableFuture<Void> pump(Process p, LineConsumer stdout, LineConsumer stderr) {
+        // Avoid concurrent calls of the same consumer.
+        final Object lock = stdout == stderr ? new Object() : null;
+        return CompletableFuture.allOf(CompletableFuture.runAsync(() -> pump(p.getInputStream(), stdout, lock), PUMP_EXECUTOR),
+                                       CompletableFuture.runAsync(() -> pump(p.getErrorStream(), stderr, lock), PUMP_EXECUTOR));
+    }
+
+    private static void pump(InputStream stream, LineConsumer consumer, Object lock) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (lock == null) {
+                    consumer.writeLine(line);
+                } else {
+                    synchronized (lock) {
+                        consumer.writeLine(line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void await(CompletableFuture<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = unwrap(e);
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static void terminate(Process p) {
+        try {
+            kill(p);
+        } catch (RuntimeException e) {
+            // Process tree can't be killed, kill at least the process itself.
+            p.destroyForcibly();
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        if (e instanceof UncheckedIOException) {
+            return e.getCause();
+        }
+        return e;
+    }
+
     public static boolean isAlive(Process process) {
         return PROCESS_MANAGER.isAlive(process);
     }
@@ -10,13 +10,19 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.notification;
 
+import org.eclipse.che.api.core.notification.AsyncSubscriber.OverflowPolicy;
 import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author andrew00x
@@ -29,6 +35,11 @@ public class EventServiceTest {
         bus = new EventService();
     }
 
+    @AfterMethod
+    public void tearDown() {
+        bus.stop();
+    }
+
     @Test
     public void testSimpleEvent() {
         final List<Object> events = new ArrayList<>();
@@ -157,4 +168,123 @@ public class EventServiceTest {
         bus.publish(new Event());
         Assert.assertEquals(events.size(), 0);
     }
+
+    @AsyncSubscriber(mailboxSize = 10)
+    static class AsyncListener implements EventSubscriber<String> {
+        final List<String>   events = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch received;
+        volatile Thread      thread;
+
+        AsyncListener(int expectedEvents) {
+            received = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void onEvent(String event) {
+            thread = Thread.currentThread();
+            events.add(event);
+            received.countDown();
+        }
+    }
+
+    @Test
+    public void testAsyncSubscriberReceivesEventsInOrder() throws Exception {
+        AsyncListener listener = new AsyncListener(100);
+        bus.subscribe(listener);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add("event" + i);
+            bus.publish("event" + i);
+        }
+        Assert.assertTrue(listener.received.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(listener.events, expected);
+        Assert.assertNotEquals(listener.thread, Thread.currentThread());
+        List<SubscriberStatistics> statistics = bus.getAsyncSubscriberStatistics();
+        Assert.assertEquals(statistics.size(), 1);
+        Assert.assertEquals(statistics.get(0).getMailboxSize(), 10);
+        Assert.assertEquals(statistics.get(0).getDroppedEvents(), 0);
+    }
+
+    /** Subscriber that waits until it is released. */
+    static class BlockingListener implements EventSubscriber<String> {
+        final List<String>   events  = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch received;
+
+        BlockingListener(int expectedEvents) {
+            received = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void onEvent(String event) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+            events.add(event);
+            received.countDown();
+        }
+    }
+
+    @Test
+    public void testAsyncSubscriberDropsEventsWhenMailboxIsFull() throws Exception {
+        BlockingListener listener = new BlockingListener(3);
+        bus.subscribeAsync(listener, String.class, 2, OverflowPolicy.DROP);
+        bus.publish("event0");
+        Assert.assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i < 10; i++) {
+            bus.publish("event" + i);
+        }
+        listener.release.countDown();
+        Assert.assertTrue(listener.received.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(listener.events, Arrays.asList("event0", "event1", "event2"));
+        Assert.assertEquals(bus.getAsyncSubscriberStatistics().get(0).getDroppedEvents(), 7);
+    }
+
+    @Test
+    public void testAsyncSubscriberCoalescesEventsWhenMailboxIsFull() throws Exception {
+        BlockingListener listener = new BlockingListener(3);
+        bus.subscribeAsync(listener, String.class, 2, OverflowPolicy.COALESCE);
+        bus.publish("first");
+        Assert.assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+        bus.publish("a");
+        bus.publish("b");
+        bus.publish("a");
+        bus.publish("c");
+        listener.release.countDown();
+        Assert.assertTrue(listener.received.await(10, TimeUnit.SECONDS));
+        // Pending "a" is replaced by the same new event in place and stays before "b", after that the oldest pending event "a" is
+        // discarded to make room for "c".
+        Assert.assertEquals(listener.events, Arrays.asList("first", "b", "c"));
+        Assert.assertEquals(bus.getAsyncSubscriberStatistics().get(0).getDroppedEvents(), 2);
+    }
+
+    @Test
+    public void testAsyncSubscriberBlocksPublisherWhenMailboxIsFull() throws Exception {
+        BlockingListener listener = new BlockingListener(20);
+        bus.subscribeAsync(listener, String.class, 1, OverflowPolicy.BLOCK);
+        listener.release.countDown();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            expected.add("event" + i);
+            bus.publish("event" + i);
+        }
+        Assert.assertTrue(listener.received.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(listener.events, expected);
+        Assert.assertEquals(bus.getAsyncSubscriberStatistics().get(0).getDroppedEvents(), 0);
+    }
+
+    @Test
+    public void testUnsubscribeAsyncSubscriber() throws Exception {
+        AsyncListener listener = new AsyncListener(1);
+        bus.subscribe(listener);
+        bus.publish("hello");
+        Assert.assertTrue(listener.received.await(10, TimeUnit.SECONDS));
+        bus.unsubscribe(listener);
+        Assert.assertTrue(bus.getAsyncSubscriberStatistics().isEmpty());
+        bus.publish("hello");
+        Assert.assertEquals(listener.events.size(), 1);
+    }
 }
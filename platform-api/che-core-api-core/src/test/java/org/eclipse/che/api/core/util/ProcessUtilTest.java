@@ -16,8 +16,11 @@ import org.testng.annotations.Test;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /** @author andrew00x */
 public class ProcessUtilTest {
@@ -80,4 +83,48 @@ public class ProcessUtilTest {
         System.out.println(stdout);
         System.out.println(stderr);
     }
+
+    @Test
+    public void testProcessReadsStdoutAndStderrConcurrently() throws Exception {
+        // stderr output is bigger than pipe buffer, process hangs if stderr isn't read until stdout is closed
+        final Process p = new ProcessBuilder("sh", "-c", "i=0; while [ $i -lt 20000 ]; do echo error-$i 1>&2; i=$((i+1)); done; echo done")
+                .start();
+        final ListLineConsumer stdout = new ListLineConsumer();
+        final ListLineConsumer stderr = new ListLineConsumer();
+
+        final int exitValue = ProcessUtil.processAsync(p, stdout, stderr, 30, TimeUnit.SECONDS).get(30, TimeUnit.SECONDS);
+
+        Assert.assertEquals(exitValue, 0);
+        Assert.assertEquals(stdout.getText(), "done");
+        Assert.assertEquals(stderr.getLines().size(), 20000);
+    }
+
+    @Test
+    public void testExecuteAsyncReturnsExitValue() throws Exception {
+        final ListLineConsumer output = new ListLineConsumer();
+
+        final int exitValue = ProcessUtil.executeAsync(new ProcessBuilder("sh", "-c", "echo hello; echo error 1>&2; exit 3"), output, 0,
+                                                       TimeUnit.SECONDS).get(30, TimeUnit.SECONDS);
+
+        Assert.assertEquals(exitValue, 3);
+        Assert.assertTrue(output.getLines().contains("hello"));
+        Assert.assertTrue(output.getLines().contains("error"));
+    }
+
+    @Test
+    public void testProcessAsyncKillsProcessAfterTimeout() throws Exception {
+        final Process p = new ProcessBuilder("sleep", "30").start();
+        final long start = System.currentTimeMillis();
+        final CompletableFuture<Integer> exitValue = ProcessUtil.processAsync(p, LineConsumer.DEV_NULL, LineConsumer.DEV_NULL,
+                                                                              1, TimeUnit.SECONDS);
+        try {
+            exitValue.get(15, TimeUnit.SECONDS);
+            Assert.fail("TimeoutException expected");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        Assert.assertTrue(p.waitFor(5, TimeUnit.SECONDS), "Process is not killed after timeout");
+        Assert.assertTrue((System.currentTimeMillis() - start) < 5000, "Process is not killed after timeout");
+    }
 }
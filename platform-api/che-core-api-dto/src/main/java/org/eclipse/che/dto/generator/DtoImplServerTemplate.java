@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -70,7 +71,9 @@ public class DtoImplServerTemplate extends DtoImpl {
         // equals, hashCode, serialization and copy constructor
         emitEqualsAndHashCode(methods, builder);
         emitSerializer(methods, builder);
+        emitStreamSerializer(methods, builder);
         emitDeserializer(methods, builder);
+        emitStreamDeserializer(methods, builder);
         emitDeserializerShortcut(builder);
         emitCopyConstructor(methods, builder);
         // Delegation DTO methods.
@@ -301,8 +304,8 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("\n");
         builder.append("    @Override\n");
         builder.append("    public String toJson() {\n");
-        // The default toJson() creates its own JSON for internal printing, thus keeping JSONs values is safe
-        builder.append("      return gson.toJson(toJsonElementInt(false));\n");
+        // Write JSON directly to string without building tree of JsonElements
+        builder.append("      return JsonStreams.toJson(this);\n");
         builder.append("    }\n");
         builder.append("\n");
         builder.append("    @Override\n");
@@ -484,8 +487,8 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("      if (jsonString == null) {\n");
         builder.append("        return null;\n");
         builder.append("      }\n\n");
-        // The default fromJsonElement(json) creates its own JSON thus keeping parts of its as value is OK
-        builder.append("      return fromJsonElement(new JsonParser().parse(jsonString), false);\n");
+        // Read DTO directly from string without building tree of JsonElements
+        builder.append("      return JsonStreams.fromJson(jsonString, ").append(getImplClassName()).append("::readFrom);\n");
         builder.append("    }\n\n");
     }
 
@@ -605,6 +608,304 @@ public class DtoImplServerTemplate extends DtoImpl {
         }
     }
     
+    /** Generates method that writes DTO to JsonWriter without building intermediate tree of JsonElements. */
+    private void emitStreamSerializer(List<Method> getters, StringBuilder builder) {
+        builder.append("    @Override\n");
+        builder.append("    public void writeTo(JsonWriter writer) throws java.io.IOException {\n");
+        if (isCompactJson()) {
+            builder.append("      writer.beginArray();\n");
+            for (Method method : getters) {
+                emitStreamSerializeFieldForMethodCompact(method, builder);
+            }
+            builder.append("      writer.endArray();\n");
+        } else {
+            // Properties with the same JSON name overwrite each other in JsonObject, keep the same behaviour and write only the last one.
+            final Map<String, Method> lastGetters = new HashMap<>();
+            for (Method getter : getters) {
+                lastGetters.put(getJsonFieldName(getter), getter);
+            }
+            builder.append("      writer.beginObject();\n");
+            for (Method getter : getters) {
+                final String jsonFieldName = getJsonFieldName(getter);
+                if (lastGetters.get(jsonFieldName) == getter) {
+                    builder.append("      writer.name(").append(quoteStringLiteral(jsonFieldName)).append(");\n");
+                    emitStreamSerializerImpl(expandType(getter.getGenericReturnType()), 0, builder,
+                                             getJavaFieldName(getter.getName()), "      ");
+                }
+            }
+            builder.append("      writer.endObject();\n");
+        }
+        builder.append("    }\n\n");
+    }
+
+    private void emitStreamSerializeFieldForMethodCompact(Method getter, StringBuilder builder) {
+        if (getter == null) {
+            builder.append("      writer.nullValue();\n");
+            return;
+        }
+        final List<Type> expandedTypes = expandType(getter.getGenericReturnType());
+        final String fieldName = getJavaFieldName(getter.getName());
+        if (isLastMethod(getter) && isList(getRawClass(expandedTypes.get(0)))) {
+            builder.append("      this.").append(getEnsureName(fieldName)).append("();\n");
+            builder.append("      if (!this.").append(fieldName).append(".isEmpty()) {\n");
+            emitStreamSerializerImpl(expandedTypes, 0, builder, fieldName, "        ");
+            builder.append("      }\n");
+        } else {
+            emitStreamSerializerImpl(expandedTypes, 0, builder, fieldName, "      ");
+        }
+    }
+
+    /**
+     * Produces code to write value of variable with the given name to JsonWriter.
+     *
+     * @param expandedTypes
+     *         the type and its generic (and its generic (..)) expanded into a list, @see {@link #expandType(java.lang.reflect.Type)}
+     * @param depth
+     *         the depth (in the generics) for this recursive call. This can be used to index into {@code expandedTypes}
+     * @param inVar
+     *         the java variable that will be the input for serialization
+     * @param i
+     *         indentation string
+     */
+    private void emitStreamSerializerImpl(List<Type> expandedTypes, int depth, StringBuilder builder, String inVar, String i) {
+        final Type type = expandedTypes.get(depth);
+        final Class<?> rawClass = getRawClass(type);
+        final String value = depth == 0 ? "this." + inVar : inVar;
+        final String childInVar = inVar + "_";
+        if (isList(rawClass) || isMap(rawClass)) {
+            String ci = i;
+            if (depth == 0) {
+                builder.append(i).append("this.").append(getEnsureName(inVar)).append("();\n");
+            } else {
+                builder.append(i).append("if (").append(value).append(" == null) {\n");
+                builder.append(i).append("  writer.nullValue();\n");
+                builder.append(i).append("} else {\n");
+                ci = i + "  ";
+            }
+            final String childInTypeName = getImplName(expandedTypes.get(depth + 1), false);
+            if (isList(rawClass)) {
+                builder.append(ci).append("writer.beginArray();\n");
+                builder.append(ci).append("for (").append(childInTypeName).append(" ").append(childInVar).append(" : ").append(value)
+                       .append(") {\n");
+            } else {
+                final String entryVar = "entry" + depth;
+                builder.append(ci).append("writer.beginObject();\n");
+                builder.append(ci).append("for (java.util.Map.Entry<String, ").append(childInTypeName).append("> ").append(entryVar)
+                       .append(" : ").append(value).append(".entrySet()) {\n");
+                builder.append(ci).append("  ").append(childInTypeName).append(" ").append(childInVar).append(" = ").append(entryVar)
+                       .append(".getValue();\n");
+                builder.append(ci).append("  writer.name(").append(entryVar).append(".getKey());\n");
+            }
+            emitStreamSerializerImpl(expandedTypes, depth + 1, builder, childInVar, ci + "  ");
+            builder.append(ci).append("}\n");
+            builder.append(ci).append(isList(rawClass) ? "writer.endArray();\n" : "writer.endObject();\n");
+            if (depth > 0) {
+                builder.append(i).append("}\n");
+            }
+        } else if (rawClass == String.class) {
+            builder.append(i).append("writer.value(").append(value).append(");\n");
+        } else if (rawClass == boolean.class
+                   || rawClass == int.class
+                   || rawClass == long.class
+                   || rawClass == double.class
+                   || rawClass == short.class
+                   || rawClass == byte.class) {
+            builder.append(i).append("writer.value(").append(value).append(");\n");
+        } else if (rawClass == float.class) {
+            // Keep float representation, otherwise value is widened to double.
+            builder.append(i).append("writer.value(Float.valueOf(").append(value).append("));\n");
+        } else if (isAny(rawClass)) {
+            builder.append(i).append("if (").append(value).append(" instanceof JsonElement) {\n");
+            builder.append(i).append("  JsonStreams.writeJsonElement(writer, (JsonElement)").append(value).append(");\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  writer.nullValue();\n");
+            builder.append(i).append("}\n");
+        } else {
+            builder.append(i).append("if (").append(value).append(" == null) {\n");
+            builder.append(i).append("  writer.nullValue();\n");
+            builder.append(i).append("} else {\n");
+            if (rawClass.isEnum()) {
+                builder.append(i).append("  writer.value(").append(value).append(".name());\n");
+            } else if (getEnclosingTemplate().isDtoInterface(rawClass)) {
+                builder.append(i).append("  ((").append(getImplNameForDto(rawClass)).append(")").append(value).append(").writeTo(writer);\n");
+            } else if (rawClass == Boolean.class
+                       || rawClass == Integer.class
+                       || rawClass == Long.class
+                       || rawClass == Double.class
+                       || rawClass == Float.class
+                       || rawClass == Short.class
+                       || rawClass == Byte.class) {
+                builder.append(i).append("  writer.value(").append(value).append(");\n");
+            } else {
+                final Class<?> dtoImplementation = getEnclosingTemplate().getDtoImplementation(rawClass);
+                if (dtoImplementation == null) {
+                    throw new IllegalArgumentException("Unable to generate server implementation for DTO interface " +
+                                                       getDtoInterface().getCanonicalName() + ". Type " + rawClass +
+                                                       " is not allowed to use in DTO interface.");
+                }
+                builder.append(i).append("  ((").append(dtoImplementation.getCanonicalName()).append(")").append(value)
+                       .append(").writeTo(writer);\n");
+            }
+            builder.append(i).append("}\n");
+        }
+    }
+
+    /** Generates a static factory method that reads a new instance from JsonReader without building intermediate tree of JsonElements. */
+    private void emitStreamDeserializer(List<Method> getters, StringBuilder builder) {
+        builder.append("    public static ").append(getImplClassName()).append(" readFrom(JsonReader reader) throws java.io.IOException {\n");
+        builder.append("      if (reader.peek() == JsonToken.NULL) {\n");
+        builder.append("        reader.nextNull();\n");
+        builder.append("        return null;\n");
+        builder.append("      }\n\n");
+        builder.append("      ").append(getImplClassName()).append(" dto = new ").append(getImplClassName()).append("();\n");
+        // Group getters by JSON name or index, the same JSON property may be bound to few properties of DTO.
+        final Map<String, List<Method>> cases = new LinkedHashMap<>();
+        final Map<Method, String> setters = new HashMap<>();
+        for (Method getter : getters) {
+            if (getter == null) {
+                continue;
+            }
+            final String label;
+            if (isCompactJson()) {
+                SerializationIndex serializationIndex = Preconditions.checkNotNull(getter.getAnnotation(SerializationIndex.class));
+                label = String.valueOf(serializationIndex.value() - 1);
+                setters.put(getter, getSetterName(getJsonFieldName(getter)));
+            } else {
+                label = quoteStringLiteral(getJsonFieldName(getter));
+                setters.put(getter, getSetterName(getFieldNameFromGetterName(getter.getName())));
+            }
+            List<Method> group = cases.get(label);
+            if (group == null) {
+                cases.put(label, group = new ArrayList<>());
+            }
+            group.add(getter);
+        }
+        if (isCompactJson()) {
+            builder.append("      reader.beginArray();\n");
+            builder.append("      for (int index = 0; reader.hasNext(); index++) {\n");
+            builder.append("        switch (index) {\n");
+        } else {
+            builder.append("      reader.beginObject();\n");
+            builder.append("      while (reader.hasNext()) {\n");
+            builder.append("        switch (reader.nextName()) {\n");
+        }
+        for (Map.Entry<String, List<Method>> entry : cases.entrySet()) {
+            builder.append("          case ").append(entry.getKey()).append(": {\n");
+            final List<Method> group = entry.getValue();
+            if (group.size() == 1) {
+                final Method getter = group.get(0);
+                final List<Type> expandedTypes = expandType(getter.getGenericReturnType());
+                if (getRawClass(expandedTypes.get(0)).isPrimitive()) {
+                    // Keep default value of primitive field if JSON has null.
+                    builder.append("            if (reader.peek() == JsonToken.NULL) {\n");
+                    builder.append("              reader.nextNull();\n");
+                    builder.append("              break;\n");
+                    builder.append("            }\n");
+                }
+                emitStreamDeserializerImpl(expandedTypes, 0, builder, "out", "            ");
+                builder.append("            dto.").append(setters.get(getter)).append("(out);\n");
+            } else {
+                // Read value once and bind it to each property in the same way as JsonElement is read.
+                builder.append("            final boolean ").append(COPY_JSONS_PARAM).append(" = false;\n");
+                builder.append("            JsonElement in = JsonStreams.readJsonElement(reader);\n");
+                for (int n = 0; n < group.size(); n++) {
+                    final Method getter = group.get(n);
+                    final String outVar = "out" + n;
+                    emitDeserializerImpl(expandType(getter.getGenericReturnType()), 0, builder, "in", outVar, "            ");
+                    builder.append("            dto.").append(setters.get(getter)).append("(").append(outVar).append(");\n");
+                }
+            }
+            builder.append("            break;\n");
+            builder.append("          }\n");
+        }
+        builder.append("          default:\n");
+        builder.append("            reader.skipValue();\n");
+        builder.append("        }\n");
+        builder.append("      }\n");
+        builder.append(isCompactJson() ? "      reader.endArray();\n" : "      reader.endObject();\n");
+        builder.append("      return dto;\n");
+        builder.append("    }\n\n");
+    }
+
+    /**
+     * Produces code to read value of the type with the given variable name from JsonReader.
+     *
+     * @param expandedTypes
+     *         the type and its generic (and its generic (..)) expanded into a list, @see {@link #expandType(java.lang.reflect.Type)}
+     * @param depth
+     *         the depth (in the generics) for this recursive call. This can be used to index into {@code expandedTypes}
+     * @param outVar
+     *         the java variable that will be the output for deserialization
+     * @param i
+     *         indentation string
+     */
+    private void emitStreamDeserializerImpl(List<Type> expandedTypes, int depth, StringBuilder builder, String outVar, String i) {
+        final Type type = expandedTypes.get(depth);
+        final Class<?> rawClass = getRawClass(type);
+        final String childOutVar = outVar + "_";
+        if (isList(rawClass) || isMap(rawClass)) {
+            builder.append(i).append(getImplName(type, false)).append(" ").append(outVar).append(" = null;\n");
+            builder.append(i).append("if (reader.peek() == JsonToken.NULL) {\n");
+            builder.append(i).append("  reader.nextNull();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  ").append(outVar).append(" = new ").append(getImplName(type, true)).append("();\n");
+            if (isList(rawClass)) {
+                builder.append(i).append("  reader.beginArray();\n");
+                builder.append(i).append("  while (reader.hasNext()) {\n");
+                emitStreamDeserializerImpl(expandedTypes, depth + 1, builder, childOutVar, i + "    ");
+                builder.append(i).append("    ").append(outVar).append(".add(").append(childOutVar).append(");\n");
+                builder.append(i).append("  }\n");
+                builder.append(i).append("  reader.endArray();\n");
+            } else {
+                final String keyVar = "key" + depth;
+                builder.append(i).append("  reader.beginObject();\n");
+                builder.append(i).append("  while (reader.hasNext()) {\n");
+                builder.append(i).append("    String ").append(keyVar).append(" = reader.nextName();\n");
+                emitStreamDeserializerImpl(expandedTypes, depth + 1, builder, childOutVar, i + "    ");
+                builder.append(i).append("    ").append(outVar).append(".put(").append(keyVar).append(", ").append(childOutVar)
+                       .append(");\n");
+                builder.append(i).append("  }\n");
+                builder.append(i).append("  reader.endObject();\n");
+            }
+            builder.append(i).append("}\n");
+        } else if (getEnclosingTemplate().isDtoInterface(rawClass)) {
+            builder.append(i).append(getImplName(rawClass, false)).append(" ").append(outVar).append(" = ")
+                   .append(getImplNameForDto(rawClass)).append(".readFrom(reader);\n");
+        } else if (rawClass.isPrimitive()) {
+            builder.append(i).append(rawClass.getSimpleName()).append(" ").append(outVar).append(" = ");
+            if (rawClass == boolean.class) {
+                builder.append("JsonStreams.readBoolean(reader);\n");
+            } else if (rawClass == int.class) {
+                builder.append("reader.nextInt();\n");
+            } else if (rawClass == long.class) {
+                builder.append("reader.nextLong();\n");
+            } else if (rawClass == double.class) {
+                builder.append("reader.nextDouble();\n");
+            } else if (rawClass == char.class) {
+                builder.append("reader.nextString().charAt(0);\n");
+            } else {
+                // float, short, byte
+                builder.append("(").append(rawClass.getSimpleName()).append(")")
+                       .append(rawClass == float.class ? "reader.nextDouble();\n" : "reader.nextInt();\n");
+            }
+        } else if (rawClass == String.class) {
+            builder.append(i).append("String ").append(outVar).append(" = JsonStreams.readString(reader);\n");
+        } else if (isAny(rawClass)) {
+            builder.append(i).append("JsonElement ").append(outVar).append(" = JsonStreams.readJsonElement(reader);\n");
+        } else {
+            final Class<?> dtoImplementation = getEnclosingTemplate().getDtoImplementation(rawClass);
+            if (dtoImplementation != null) {
+                builder.append(i).append(getImplName(rawClass, false)).append(" ").append(outVar).append(" = ")
+                       .append(dtoImplementation.getCanonicalName()).append(".readFrom(reader);\n");
+            } else {
+                // Use gson to handle all other types.
+                String rawClassName = rawClass.getName().replace('$', '.');
+                builder.append(i).append(rawClassName).append(" ").append(outVar).append(" = gson.getAdapter(").append(rawClassName)
+                       .append(".class).read(reader);\n");
+            }
+        }
+    }
+
     /**
      * Append the expression that clones the given JsonElement variable into a new value. If the copyJons run-time
      * parameter is set to false, then the expression won't perform a clone but instead will reuse the variable by
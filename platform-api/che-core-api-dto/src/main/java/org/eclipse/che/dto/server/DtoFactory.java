@@ -10,26 +10,20 @@
  *******************************************************************************/
 package org.eclipse.che.dto.server;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
 
-import org.eclipse.che.commons.lang.reflect.ParameterizedTypeImpl;
 import org.eclipse.che.dto.shared.DTO;
 import org.eclipse.che.dto.shared.JsonArray;
 import org.eclipse.che.dto.shared.JsonStringMap;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
+import java.io.StringReader;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -43,24 +37,6 @@ import java.util.concurrent.ConcurrentHashMap;
  * @author andrew00x
  */
 public final class DtoFactory {
-    private static final Gson gson = new GsonBuilder().serializeNulls().create();
-
-    private static final LoadingCache<Type, ParameterizedType> listTypeCache = CacheBuilder.newBuilder().concurrencyLevel(16).build(
-            new CacheLoader<Type, ParameterizedType>() {
-                @Override
-                public ParameterizedType load(Type type) {
-                    return new ParameterizedTypeImpl(List.class, type);
-                }
-            });
-
-    private static final LoadingCache<Type, ParameterizedType> mapTypeCache = CacheBuilder.newBuilder().concurrencyLevel(16).build(
-            new CacheLoader<Type, ParameterizedType>() {
-                @Override
-                public ParameterizedType load(Type type) {
-                    return new ParameterizedTypeImpl(Map.class, String.class, type);
-                }
-            });
-
     private static final DtoFactory INSTANCE = new DtoFactory();
 
     public static DtoFactory getInstance() {
@@ -134,6 +110,29 @@ public final class DtoFactory {
         throw new IllegalArgumentException("JsonSerializable instance required. ");
     }
 
+    /**
+     * Writes JSON representation of DTO to the specified writer. DTO is written directly to the stream, the whole JSON string is never
+     * created in memory. Writer is flushed but isn't closed by this method.
+     *
+     * @param dto
+     *         DTO object
+     * @param writer
+     *         destination of JSON data
+     * @throws IllegalArgumentException
+     *         if {@code dto} isn't instance of {@link JsonSerializable}
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public <T> void toJson(T dto, Writer writer) throws IOException {
+        if (dto instanceof JsonSerializable) {
+            final JsonWriter jsonWriter = JsonStreams.newWriter(writer);
+            ((JsonSerializable)dto).writeTo(jsonWriter);
+            jsonWriter.flush();
+            return;
+        }
+        throw new IllegalArgumentException("JsonSerializable instance required. ");
+    }
+
     public <T> JsonElement toJsonElement(T dto) {
         if (dto instanceof JsonSerializable) {
             return ((JsonSerializable)dto).toJsonElement();
@@ -184,14 +183,7 @@ public final class DtoFactory {
      *         if an i/o error occurs
      */
     public <T> T createDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
-        DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        StringBuilder sb = new StringBuilder();
-        BufferedReader br = new BufferedReader(json);
-        String line;
-        while ((line = br.readLine()) != null) {
-            sb.append(line);
-        }
-        return dtoProvider.fromJson(sb.toString());
+        return JsonStreams.fromJson(json, getDtoProvider(dtoInterface)::fromJson);
     }
 
     /**
@@ -225,13 +217,11 @@ public final class DtoFactory {
      *         if can't provide any implementation for specified interface
      */
     public <T> JsonArray<T> createListDtoFromJson(String json, Class<T> dtoInterface) {
-        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final List<JsonElement> list = gson.fromJson(json, listTypeCache.getUnchecked(JsonElement.class));
-        final List<T> result = new ArrayList<>(list.size());
-        for (JsonElement e : list) {
-            result.add(dtoProvider.fromJson(e));
+        try {
+            return createListDtoFromJson(new StringReader(json), dtoInterface);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
         }
-        return new JsonArrayImpl<>(result);
     }
 
 
@@ -248,21 +238,15 @@ public final class DtoFactory {
      */
     public <T> JsonArray<T> createListDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
         final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final List<JsonElement> list;
-        try {
-            list = gson.fromJson(json, listTypeCache.getUnchecked(JsonElement.class));
-        } catch (JsonSyntaxException e) {
-            final Throwable cause = e.getCause();
-            if (cause instanceof IOException) {
-                throw (IOException)cause;
+        return JsonStreams.fromJson(json, reader -> {
+            final List<T> result = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                result.add(dtoProvider.fromJson(reader));
             }
-            throw e;
-        }
-        final List<T> result = new ArrayList<>(list.size());
-        for (JsonElement e : list) {
-            result.add(dtoProvider.fromJson(e));
-        }
-        return new JsonArrayImpl<>(result);
+            reader.endArray();
+            return new JsonArrayImpl<>(result);
+        });
     }
 
     /**
@@ -282,6 +266,40 @@ public final class DtoFactory {
         return createListDtoFromJson(new InputStreamReader(json), dtoInterface);
     }
 
+    /**
+     * Creates iterator over JSON array of objects of the specified type. Unlike to {@link #createListDtoFromJson(Reader, Class)} this
+     * method doesn't read the whole array in memory, each element is read from the reader when it is requested from iterator. It
+     * allows to process very big arrays with bounded memory. Returned iterator must be closed after usage, that also closes {@code
+     * json} reader.
+     *
+     * @param json
+     *         JSON data
+     * @param dtoInterface
+     *         DTO interface
+     * @return iterator over DTOs
+     * @throws IllegalArgumentException
+     *         if can't provide any implementation for specified interface
+     */
+    public <T> JsonArrayIterator<T> createDtoIteratorFromJson(Reader json, Class<T> dtoInterface) {
+        return new JsonArrayIterator<>(JsonStreams.newReader(json), getDtoProvider(dtoInterface));
+    }
+
+    /**
+     * Creates iterator over JSON array of objects of the specified type.
+     *
+     * @param json
+     *         JSON data
+     * @param dtoInterface
+     *         DTO interface
+     * @return iterator over DTOs
+     * @throws IllegalArgumentException
+     *         if can't provide any implementation for specified interface
+     * @see #createDtoIteratorFromJson(Reader, Class)
+     */
+    public <T> JsonArrayIterator<T> createDtoIteratorFromJson(InputStream json, Class<T> dtoInterface) {
+        return createDtoIteratorFromJson(new InputStreamReader(json), dtoInterface);
+    }
+
     //
 
     /**
@@ -296,13 +314,11 @@ public final class DtoFactory {
      *         if can't provide any implementation for specified interface
      */
     public <T> JsonStringMap<T> createMapDtoFromJson(String json, Class<T> dtoInterface) {
-        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final Map<String, JsonElement> map = gson.fromJson(json, mapTypeCache.getUnchecked(JsonElement.class));
-        final Map<String, T> result = new LinkedHashMap<>(map.size());
-        for (Map.Entry<String, JsonElement> e : map.entrySet()) {
-            result.put(e.getKey(), dtoProvider.fromJson(e.getValue()));
+        try {
+            return createMapDtoFromJson(new StringReader(json), dtoInterface);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
         }
-        return new JsonStringMapImpl<>(result);
     }
 
 
@@ -322,21 +338,16 @@ public final class DtoFactory {
     @SuppressWarnings("unchecked")
     public <T> JsonStringMap<T> createMapDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
         final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final Map<String, JsonElement> map;
-        try {
-            map = gson.fromJson(json, mapTypeCache.getUnchecked(JsonElement.class));
-        } catch (JsonSyntaxException e) {
-            final Throwable cause = e.getCause();
-            if (cause instanceof IOException) {
-                throw (IOException)cause;
+        return JsonStreams.fromJson(json, reader -> {
+            final Map<String, T> result = new LinkedHashMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+                result.put(name, dtoProvider.fromJson(reader));
             }
-            throw e;
-        }
-        final Map<String, T> result = new LinkedHashMap<>(map.size());
-        for (Map.Entry<String, JsonElement> e : map.entrySet()) {
-            result.put(e.getKey(), dtoProvider.fromJson(e.getValue()));
-        }
-        return new JsonStringMapImpl<>(result);
+            reader.endObject();
+            return new JsonStringMapImpl<>(result);
+        });
     }
 
     /**
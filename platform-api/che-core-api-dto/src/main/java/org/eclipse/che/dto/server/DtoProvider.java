@@ -11,6 +11,9 @@
 package org.eclipse.che.dto.server;
 
 import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
 
 /**
  * Provides implementation of DTO interface.
@@ -24,6 +27,11 @@ public interface DtoProvider<DTO> {
 
     DTO fromJson(JsonElement json);
 
+    /** Reads DTO from JSON stream. Generated providers read DTO directly from the stream without building tree of JSON elements. */
+    default DTO fromJson(JsonReader reader) throws IOException {
+        return fromJson(JsonStreams.readJsonElement(reader));
+    }
+
     DTO newInstance();
 
     DTO clone(DTO origin);
@@ -14,7 +14,9 @@ import org.eclipse.che.dto.shared.JsonArray;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -151,7 +153,22 @@ public class JsonArrayImpl<T> implements JsonArray<T> {
 
     @Override
     public String toJson() {
-        return gson.toJson(this);
+        return JsonStreams.toJson(this);
+    }
+
+    @Override
+    public void writeTo(JsonWriter writer) throws IOException {
+        writer.beginArray();
+        for (T element : delegate) {
+            if (element == null) {
+                writer.nullValue();
+            } else if (element instanceof JsonSerializable) {
+                ((JsonSerializable)element).writeTo(writer);
+            } else {
+                gson.toJson(element, element.getClass(), writer);
+            }
+        }
+        writer.endArray();
     }
 
     @Override
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over elements of JSON array and reads them one by one. Next element is read from the stream only when it is requested
+ * and iterator doesn't keep references to elements that are already read, so memory usage doesn't depend on size of array.
+ * Iterator must be closed when it isn't needed any more, that closes underlying stream.
+ * <p/>
+ * I/O errors are rethrown as {@link UncheckedIOException}, invalid JSON data causes {@link JsonSyntaxException}.
+ *
+ * @author andrew00x
+ * @see DtoFactory#createDtoIteratorFromJson(java.io.Reader, Class)
+ */
+public final class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+    private final JsonReader     reader;
+    private final DtoProvider<T> dtoProvider;
+
+    private boolean started;
+    private boolean finished;
+
+    JsonArrayIterator(JsonReader reader, DtoProvider<T> dtoProvider) {
+        this.reader = reader;
+        this.dtoProvider = dtoProvider;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+        try {
+            if (!started) {
+                started = true;
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                    finished = true;
+                    return false;
+                }
+                reader.beginArray();
+            }
+            if (reader.hasNext()) {
+                return true;
+            }
+            reader.endArray();
+            finished = true;
+            return false;
+        } catch (MalformedJsonException | EOFException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return dtoProvider.fromJson(reader);
+        } catch (MalformedJsonException | EOFException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        reader.close();
+    }
+}
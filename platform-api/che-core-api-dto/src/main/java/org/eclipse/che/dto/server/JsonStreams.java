@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * Helpers for streaming serialization of DTOs. Generated server DTOs write themselves directly to {@link JsonWriter} and read
+ * themselves from {@link JsonReader} without building intermediate tree of {@link JsonElement}s. Writers and readers created with
+ * this class are configured in the same way as Gson instance that is used for serialization of DTOs before: HTML escaping is
+ * disabled, {@code null} properties of JSON objects are omitted, {@code null} elements of JSON arrays are written as JSON null and
+ * parsing is lenient.
+ *
+ * @author andrew00x
+ */
+public final class JsonStreams {
+    private static final TypeAdapter<JsonElement> JSON_ELEMENT_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
+    /** Reads value from JSON stream. */
+    public interface ValueReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    /** Creates new JsonWriter which is configured for writing DTOs. */
+    public static JsonWriter newWriter(Writer out) {
+        final JsonWriter writer = new JsonWriter(out);
+        writer.setLenient(true);
+        writer.setHtmlSafe(false);
+        writer.setSerializeNulls(false);
+        return writer;
+    }
+
+    /** Creates new JsonReader which is configured for reading DTOs. */
+    public static JsonReader newReader(Reader in) {
+        final JsonReader reader = new JsonReader(in);
+        reader.setLenient(true);
+        return reader;
+    }
+
+    /** Serializes specified value to JSON string with {@link JsonSerializable#writeTo(JsonWriter)}. */
+    public static String toJson(JsonSerializable value) {
+        final StringWriter out = new StringWriter();
+        try {
+            value.writeTo(newWriter(out));
+        } catch (IOException e) {
+            // Not expected for StringWriter.
+            throw new JsonIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Parses JSON string with specified {@code valueReader}. The whole string must be consumed by {@code valueReader}.
+     *
+     * @return parsed value or {@code null} if {@code json} is empty
+     * @throws JsonSyntaxException
+     *         if {@code json} is not valid JSON
+     */
+    public static <T> T fromJson(String json, ValueReader<T> valueReader) {
+        try {
+            return fromJson(new StringReader(json), valueReader);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Parses JSON document from {@code in} with specified {@code valueReader}. The whole document must be consumed by {@code
+     * valueReader}. Data is read from the stream by small chunks, the whole document is never loaded in memory.
+     *
+     * @return parsed value or {@code null} if document is empty
+     * @throws JsonSyntaxException
+     *         if JSON data is not valid
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public static <T> T fromJson(Reader in, ValueReader<T> valueReader) throws IOException {
+        final JsonReader reader = newReader(in);
+        try {
+            try {
+                reader.peek();
+            } catch (EOFException e) {
+                // Empty document.
+                return null;
+            }
+            final T value = valueReader.read(reader);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("Did not consume the entire document.");
+            }
+            return value;
+        } catch (MalformedJsonException | EOFException | IllegalStateException | NumberFormatException e) {
+            // EOFException here means that document is truncated.
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Reads value from {@code reader} with specified {@code valueReader}. Unlike to {@link #fromJson(String, ValueReader)} this method
+     * doesn't check whether the whole document is consumed, that lets read few values from the same stream.
+     *
+     * @throws JsonSyntaxException
+     *         if JSON data is not valid
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public static <T> T read(JsonReader reader, ValueReader<T> valueReader) throws IOException {
+        try {
+            return valueReader.read(reader);
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /** Writes JSON element to the stream. {@code null} is written as JSON null. */
+    public static void writeJsonElement(JsonWriter writer, JsonElement value) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+        } else {
+            JSON_ELEMENT_ADAPTER.write(writer, value);
+        }
+    }
+
+    /** Reads next value from the stream as JSON element. */
+    public static JsonElement readJsonElement(JsonReader reader) throws IOException {
+        return JSON_ELEMENT_ADAPTER.read(reader);
+    }
+
+    /** Reads next value as string. Unlike to {@link JsonReader#nextString()} accepts JSON null and boolean values. */
+    public static String readString(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return null;
+            case BOOLEAN:
+                return Boolean.toString(reader.nextBoolean());
+            default:
+                return reader.nextString();
+        }
+    }
+
+    /** Reads next value as boolean. Unlike to {@link JsonReader#nextBoolean()} accepts string values. */
+    public static boolean readBoolean(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.STRING) {
+            return Boolean.parseBoolean(reader.nextString());
+        }
+        return reader.nextBoolean();
+    }
+
+    private JsonStreams() {
+    }
+}
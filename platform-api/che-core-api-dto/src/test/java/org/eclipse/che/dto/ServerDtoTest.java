@@ -10,11 +10,14 @@
  *******************************************************************************/
 package org.eclipse.che.dto;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
 
 import org.eclipse.che.dto.definitions.ComplicatedDto;
 import org.eclipse.che.dto.definitions.DTOHierarchy;
@@ -26,15 +29,21 @@ import org.eclipse.che.dto.definitions.model.Model;
 import org.eclipse.che.dto.definitions.model.ModelComponentDto;
 import org.eclipse.che.dto.definitions.model.ModelDto;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonArrayImpl;
+import org.eclipse.che.dto.server.JsonArrayIterator;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
@@ -364,4 +373,141 @@ public class ServerDtoTest {
         assertEquals(childDto.getChildField(), "child-field");
         assertEquals(childDto.getParentField(), "parent-field");
     }
+
+    @Test
+    public void testStreamingSerializerProducesSameJsonAsJsonElement() throws Exception {
+        SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withName("<name>").withId(1);
+        ComplicatedDto dto = dtoFactory.createDto(ComplicatedDto.class)
+                                       .withStrings(asList("a", null, "\"quoted\""))
+                                       .withSimpleEnum(ComplicatedDto.SimpleEnum.TWO)
+                                       .withMap(singletonMap("key", simpleDto))
+                                       .withSimpleDtos(asList(simpleDto, null))
+                                       .withArrayOfArrayOfEnum(singletonList(asList(ComplicatedDto.SimpleEnum.ONE, null)));
+        DtoWithAny dtoWithAny = dtoFactory.createDto(DtoWithAny.class).withStuff(createTestValueForAny())
+                                          .withObjects(createListTestValueForAny());
+        Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+
+        assertEquals(dtoFactory.toJson(dto), gson.toJson(dtoFactory.toJsonElement(dto)));
+        assertEquals(dtoFactory.toJson(dtoWithAny), gson.toJson(dtoFactory.toJsonElement(dtoWithAny)));
+        assertEquals(dtoFactory.toJson(simpleDto), gson.toJson(dtoFactory.toJsonElement(simpleDto)));
+    }
+
+    @Test
+    public void testWriteDtoToWriter() throws Exception {
+        SimpleDto dto = dtoFactory.createDto(SimpleDto.class).withName("name").withId(1).withDefault("default");
+        StringWriter writer = new StringWriter();
+
+        dtoFactory.toJson(dto, writer);
+
+        assertEquals(writer.toString(), dtoFactory.toJson(dto));
+    }
+
+    @Test
+    public void testStreamingDeserializerSkipsUnknownPropertiesAndNulls() throws Exception {
+        String json = "{\"unknown\":{\"a\":[1,{\"b\":null}]},\"name\":null,\"id\":null,\"default\":\"default\",\"other\":[]}";
+
+        SimpleDto dto = dtoFactory.createDtoFromJson(json, SimpleDto.class);
+
+        checkSimpleDto(dto, null, 0, "default");
+    }
+
+    @Test
+    public void testStreamingDeserializerReadsSameDtoAsJsonElement() throws Exception {
+        SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withName("name").withId(1);
+        ComplicatedDto dto = dtoFactory.createDto(ComplicatedDto.class)
+                                       .withStrings(asList("a", "b"))
+                                       .withSimpleEnum(ComplicatedDto.SimpleEnum.THREE)
+                                       .withMap(singletonMap("key", simpleDto))
+                                       .withSimpleDtos(singletonList(simpleDto))
+                                       .withArrayOfArrayOfEnum(singletonList(asList(ComplicatedDto.SimpleEnum.ONE,
+                                                                                    ComplicatedDto.SimpleEnum.TWO)));
+        String json = dtoFactory.toJson(dto);
+
+        ComplicatedDto streamed = dtoFactory.createDtoFromJson(json, ComplicatedDto.class);
+
+        assertEquals(streamed, dto);
+        assertEquals(streamed, dtoFactory.createListDtoFromJson("[" + json + "]", ComplicatedDto.class).get(0));
+    }
+
+    @Test
+    public void testNullElementsOfArraysAreWrittenAsJsonNull() throws Exception {
+        SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withName("name").withId(1);
+        ComplicatedDto dto = dtoFactory.createDto(ComplicatedDto.class)
+                                       .withStrings(asList("a", null))
+                                       .withSimpleDtos(asList(null, simpleDto))
+                                       .withArrayOfArrayOfEnum(asList(null, singletonList(null)));
+
+        String json = dtoFactory.toJson(dto);
+
+        JsonObject jsonObject = new JsonParser().parse(json).getAsJsonObject();
+        assertEquals(jsonObject.get("strings").toString(), "[\"a\",null]");
+        assertEquals(jsonObject.get("simpleDtos").toString(), "[null," + dtoFactory.toJson(simpleDto) + "]");
+        assertEquals(jsonObject.get("arrayOfArrayOfEnum").toString(), "[null,[null]]");
+        ComplicatedDto parsed = dtoFactory.createDtoFromJson(json, ComplicatedDto.class);
+        assertEquals(parsed.getStrings(), asList("a", null));
+        assertEquals(parsed.getSimpleDtos(), asList(null, simpleDto));
+        assertEquals(new JsonArrayImpl<>(asList("a", null, "b")).toJson(), "[\"a\",null,\"b\"]");
+    }
+
+    @Test
+    public void testJsonArrayOfDtosSerializer() throws Exception {
+        SimpleDto dto = dtoFactory.createDto(SimpleDto.class).withName("name").withId(1);
+        JsonArrayImpl<SimpleDto> array = new JsonArrayImpl<>(asList(dto, null));
+
+        assertEquals(array.toJson(), "[" + dtoFactory.toJson(dto) + ",null]");
+    }
+
+    @Test
+    public void testDtoDeserializerFromReader() throws Exception {
+        String json = "{\n  \"name\": \"name\",\n  \"id\": 1,\n  \"default\": \"default\"\n}";
+
+        SimpleDto dto = dtoFactory.createDtoFromJson(new StringReader(json), SimpleDto.class);
+
+        checkSimpleDto(dto, "name", 1, "default");
+    }
+
+    @Test(expectedExceptions = JsonSyntaxException.class)
+    public void testDtoDeserializerFromReaderFailsOnTruncatedJson() throws Exception {
+        dtoFactory.createDtoFromJson(new StringReader("{\"name\": \"name\", \"id\": "), SimpleDto.class);
+    }
+
+    @Test
+    public void testListAndMapDtoDeserializerFromReader() throws Exception {
+        String dto1 = "{\"name\":\"name1\",\"id\":1,\"default\":\"default1\"}";
+        String dto2 = "{\"name\":\"name2\",\"id\":2,\"default\":\"default2\"}";
+
+        List<SimpleDto> list = dtoFactory.createListDtoFromJson(new StringReader("[" + dto1 + ", " + dto2 + "]"), SimpleDto.class);
+        Map<String, SimpleDto> map = dtoFactory.createMapDtoFromJson(new StringReader("{\"a\":" + dto1 + ", \"b\":" + dto2 + "}"),
+                                                                     SimpleDto.class);
+
+        assertEquals(list.size(), 2);
+        checkSimpleDto(list.get(0), "name1", 1, "default1");
+        checkSimpleDto(list.get(1), "name2", 2, "default2");
+        assertEquals(new ArrayList<>(map.keySet()), asList("a", "b"));
+        checkSimpleDto(map.get("a"), "name1", 1, "default1");
+        checkSimpleDto(map.get("b"), "name2", 2, "default2");
+    }
+
+    @Test
+    public void testDtoIteratorFromJson() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"name").append(i).append("\",\"id\":").append(i).append('}');
+        }
+        json.append(']');
+
+        int count = 0;
+        try (JsonArrayIterator<SimpleDto> iterator = dtoFactory.createDtoIteratorFromJson(new StringReader(json.toString()),
+                                                                                          SimpleDto.class)) {
+            while (iterator.hasNext()) {
+                checkSimpleDto(iterator.next(), "name" + count, count, null);
+                count++;
+            }
+        }
+
+        assertEquals(count, 100);
+    }
 }
@@ -20,4 +20,7 @@ import java.util.List;
 @DTO
 public interface Log {
     List<Revision> getCommits();
+
+    /** @return token that should be used for getting next page of revisions or {@code null} if there are no more revisions */
+    String getNextPageToken();
 }
\ No newline at end of file
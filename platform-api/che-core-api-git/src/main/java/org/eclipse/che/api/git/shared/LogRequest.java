@@ -35,6 +35,30 @@ public interface LogRequest extends GitRequest {
     
     void setRevisionRangeSince(String revisionRangeSince);
     void setRevisionRangeUntil(String revisionRangeUntil);	
+
+    /** @return number of revisions to skip before starting to return revisions */
+    int getSkip();
+
+    void setSkip(int skip);
+
+    LogRequest withSkip(int skip);
+
+    /** @return max number of revisions to return, zero or negative value means no limit */
+    int getMaxCount();
+
+    void setMaxCount(int maxCount);
+
+    LogRequest withMaxCount(int maxCount);
+
+    /**
+     * @return token of page to return, it is taken from {@link Log#getNextPageToken()} of previous page. If token is set {@link
+     * #getSkip()} is ignored.
+     */
+    String getPageToken();
+
+    void setPageToken(String pageToken);
+
+    LogRequest withPageToken(String pageToken);
     // private List<String> fileFilter;
     // private boolean noRenames = true;
     // private int renameLimit;
@@ -12,6 +12,8 @@ package org.eclipse.che.api.git.shared;
 
 import org.eclipse.che.dto.shared.DTO;
 
+import java.util.List;
+
 /**
  * Describe single commit.
  *
@@ -58,4 +60,18 @@ public interface Revision {
     GitUser getCommitter();
     
     Revision withCommitter(GitUser user);
+
+    /** @return author of commit */
+    GitUser getAuthor();
+
+    void setAuthor(GitUser author);
+
+    Revision withAuthor(GitUser author);
+
+    /** @return ids of parent commits */
+    List<String> getParents();
+
+    void setParents(List<String> parents);
+
+    Revision withParents(List<String> parents);
 }
\ No newline at end of file
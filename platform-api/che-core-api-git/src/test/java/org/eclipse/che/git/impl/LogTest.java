@@ -16,6 +16,7 @@ import com.google.common.io.Files;
 import org.eclipse.che.api.git.GitConnection;
 import org.eclipse.che.api.git.GitConnectionFactory;
 import org.eclipse.che.api.git.GitException;
+import org.eclipse.che.api.git.LogPage;
 import org.eclipse.che.api.git.shared.AddRequest;
 import org.eclipse.che.api.git.shared.CommitRequest;
 import org.eclipse.che.api.git.shared.LogRequest;
@@ -35,6 +36,8 @@ import static org.eclipse.che.git.impl.GitTestUtil.addFile;
 import static org.eclipse.che.git.impl.GitTestUtil.cleanupTestRepo;
 import static org.eclipse.che.git.impl.GitTestUtil.connectToInitializedGitRepository;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 
 /**
  * @author Igor Vinokur
@@ -114,4 +117,44 @@ public class LogTest {
         assertEquals(1, newFileCommitCount);
         assertEquals(4, allFilesCommitCount);
     }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = GitConnectionFactoryProvider.class)
+    public void testLogPages(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        addFile(connection, "README.txt", "someChanges");
+        connection.add(newDto(AddRequest.class).withFilepattern(ImmutableList.of("README.txt")));
+        connection.commit(newDto(CommitRequest.class).withMessage("Initial add"));
+
+        addFile(connection, "README.txt", "newChanges");
+        connection.add(newDto(AddRequest.class).withFilepattern(ImmutableList.of("README.txt")));
+        connection.commit(newDto(CommitRequest.class).withMessage("Second commit"));
+
+        addFile(connection, "README.txt", "otherChanges");
+        connection.add(newDto(AddRequest.class).withFilepattern(ImmutableList.of("README.txt")));
+        connection.commit(newDto(CommitRequest.class).withMessage("Third commit"));
+
+        //when
+        LogPage firstPage = connection.log(newDto(LogRequest.class).withMaxCount(2));
+        // Commits that are made after the first page must not shift the next pages.
+        addFile(connection, "README.txt", "moreChanges");
+        connection.add(newDto(AddRequest.class).withFilepattern(ImmutableList.of("README.txt")));
+        connection.commit(newDto(CommitRequest.class).withMessage("Fourth commit"));
+        LogPage secondPage = connection.log(newDto(LogRequest.class).withMaxCount(2).withPageToken(firstPage.getNextPageToken()));
+        List<Revision> skipped = connection.log(newDto(LogRequest.class).withSkip(1).withMaxCount(2)).getCommits();
+
+        //then
+        assertEquals(firstPage.getCommits().size(), 2);
+        assertEquals(firstPage.getCommits().get(0).getMessage(), "Third commit");
+        assertEquals(firstPage.getCommits().get(1).getMessage(), "Second commit");
+        assertEquals(firstPage.getCommits().get(0).getParents(), Collections.singletonList(firstPage.getCommits().get(1).getId()));
+        assertNotNull(firstPage.getCommits().get(0).getAuthor());
+        assertNotNull(firstPage.getNextPageToken());
+        assertEquals(secondPage.getCommits().size(), 1);
+        assertEquals(secondPage.getCommits().get(0).getMessage(), "Initial add");
+        assertEquals(secondPage.getCommits().get(0).getParents(), Collections.emptyList());
+        assertNull(secondPage.getNextPageToken());
+        assertEquals(skipped.size(), 2);
+        assertEquals(skipped.get(0).getMessage(), "Third commit");
+    }
 }
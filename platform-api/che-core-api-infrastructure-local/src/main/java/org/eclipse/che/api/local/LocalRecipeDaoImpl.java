@@ -11,14 +11,14 @@
 package org.eclipse.che.api.local;
 
 
-import com.google.common.base.Predicate;
-import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.reflect.TypeToken;
 import com.google.inject.Inject;
 
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.local.storage.LocalJournal;
 import org.eclipse.che.api.local.storage.LocalStorage;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.machine.server.recipe.adapters.GroupSerializer;
@@ -33,72 +33,98 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.String.format;
 import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 /**
+ * In memory based implementation of {@link RecipeDao}. Changes of recipes are written to the journal before method returns,
+ * snapshot of all recipes is stored when component stops or when journal becomes too big. Predefined recipes are not stored.
+ * Recipes are indexed by type, tag and creator, so searches don't scan all recipes. Modifications are guarded by <i>this</i>
+ * instance, reads don't need any locks and return copies of recipes.
+ *
  * @author Eugene Voevodin
  * @author Anton Korneta
  */
 @Singleton
 public class LocalRecipeDaoImpl implements RecipeDao {
+    /** Creator of predefined recipes, such recipes are loaded on each start and are not stored. */
+    private static final String PREDEFINED_RECIPES_CREATOR = "codenvy";
 
-    private final Map<String, ManagedRecipe> recipes;
-    private final ReadWriteLock              lock;
-    private final LocalStorage               recipeStorage;
+    private final Map<String, ManagedRecipe>              recipes;
+    /** type -> recipe id -> recipe */
+    private final Map<String, Map<String, ManagedRecipe>> byType;
+    /** tag -> recipe id -> recipe */
+    private final Map<String, Map<String, ManagedRecipe>> byTag;
+    /** creator -> recipe id -> recipe */
+    private final Map<String, Map<String, ManagedRecipe>> byCreator;
+    private final LocalStorage                            recipeStorage;
+    private final LocalJournal<RecipeImpl>                journal;
 
     @Inject
     public LocalRecipeDaoImpl(LocalStorageFactory storageFactory) throws IOException {
         Map<Class<?>, Object> adapters = ImmutableMap.of(Permissions.class, new PermissionsSerializer(),
                                                          Group.class, new GroupSerializer());
         this.recipeStorage = storageFactory.create("recipes.json", adapters);
-        this.recipes = new HashMap<>();
-        lock = new ReentrantReadWriteLock();
+        this.journal = storageFactory.createJournal("recipes.json", RecipeImpl.class, adapters);
+        this.recipes = new ConcurrentHashMap<>();
+        this.byType = new ConcurrentHashMap<>();
+        this.byTag = new ConcurrentHashMap<>();
+        this.byCreator = new ConcurrentHashMap<>();
     }
 
     @PostConstruct
-    public void start() {
-        recipes.putAll(recipeStorage.loadMap(new TypeToken<Map<String, RecipeImpl>>() {}));
+    public synchronized void start() throws IOException {
+        final Map<String, RecipeImpl> loaded = new HashMap<>(recipeStorage.loadMap(new TypeToken<Map<String, RecipeImpl>>() {}));
+        journal.replay(loaded);
+        loaded.values().forEach(this::put);
     }
 
     @PreDestroy
-    public void stop() throws IOException {
-        Map<String, ManagedRecipe> recipesToStore = recipes.values()
-                                                           .stream()
-                                                           .filter(recipe -> !"codenvy".equals(recipe.getCreator()))
-                                                           .collect(toMap(ManagedRecipe::getId, identity()));
-
-        recipeStorage.store(recipesToStore);
+    public synchronized void stop() throws IOException {
+        if (!journal.isEmpty()) {
+            journal.compact(recipeStorage, storedRecipes());
+        }
+        journal.close();
     }
 
     @Override
-    public void create(ManagedRecipe recipe) throws ConflictException {
-        lock.writeLock().lock();
-        try {
+    public void create(ManagedRecipe recipe) throws ConflictException, ServerException {
+        final long record;
+        synchronized (this) {
             if (recipes.containsKey(recipe.getId())) {
                 throw new ConflictException(format("Recipe with id %s already exists", recipe.getId()));
             }
-            recipes.put(recipe.getId(), recipe);
-        } finally {
-            lock.writeLock().unlock();
+            // Copy is stored, so changes of recipe that is passed by caller don't break indexes.
+            final RecipeImpl copy = toRecipeImpl(recipe);
+            put(copy);
+            if (PREDEFINED_RECIPES_CREATOR.equals(copy.getCreator())) {
+                return;
+            }
+            record = journal.put(copy.getId(), copy);
         }
+        sync(record);
     }
 
     @Override
-    public void update(ManagedRecipe update) throws NotFoundException {
-        lock.writeLock().lock();
-        try {
-            final RecipeImpl target = (RecipeImpl)recipes.get(update.getId());
-            if (target == null) {
+    public void update(ManagedRecipe update) throws NotFoundException, ServerException {
+        final long record;
+        synchronized (this) {
+            final ManagedRecipe existed = recipes.get(update.getId());
+            if (existed == null) {
                 throw new NotFoundException(format("Recipe with id '%s' was not found", update.getId()));
             }
+            // Recipe is replaced with updated copy, so readers never see partially updated recipe.
+            final RecipeImpl target = toRecipeImpl(existed);
             if (update.getType() != null) {
                 target.setType(update.getType());
             }
@@ -114,71 +140,154 @@ public class LocalRecipeDaoImpl implements RecipeDao {
             if (!update.getTags().isEmpty()) {
                 target.setTags(update.getTags());
             }
-        } finally {
-            lock.writeLock().unlock();
+            put(target);
+            if (PREDEFINED_RECIPES_CREATOR.equals(target.getCreator())) {
+                return;
+            }
+            record = journal.put(target.getId(), target);
         }
+        sync(record);
     }
 
     @Override
-    public void remove(String id) {
-        lock.writeLock().lock();
-        try {
-            recipes.remove(id);
-        } finally {
-            lock.writeLock().unlock();
+    public void remove(String id) throws ServerException {
+        final long record;
+        synchronized (this) {
+            final ManagedRecipe removed = recipes.remove(id);
+            if (removed == null) {
+                return;
+            }
+            unindex(removed);
+            if (PREDEFINED_RECIPES_CREATOR.equals(removed.getCreator())) {
+                return;
+            }
+            record = journal.remove(id);
         }
+        sync(record);
     }
 
     @Override
     public ManagedRecipe getById(String id) throws NotFoundException {
-        lock.readLock().lock();
-        try {
-            final ManagedRecipe recipe = recipes.get(id);
-            if (recipe == null) {
-                throw new NotFoundException(format("Recipe with id %s was not found", id));
-            }
-            return recipe;
-        } finally {
-            lock.readLock().unlock();
+        final ManagedRecipe recipe = recipes.get(id);
+        if (recipe == null) {
+            throw new NotFoundException(format("Recipe with id %s was not found", id));
         }
+        return toRecipeImpl(recipe);
     }
 
     @Override
     public List<ManagedRecipe> search(final List<String> tags, final String type, int skipCount, int maxItems) {
-        lock.readLock().lock();
-        try {
-            return FluentIterable.from(recipes.values())
-                                 .skip(skipCount)
-                                 .filter(new Predicate<ManagedRecipe>() {
-                                     @Override
-                                     public boolean apply(ManagedRecipe recipe) {
-                                         return (tags == null || recipe.getTags().containsAll(tags))
-                                                && (type == null || type.equals(recipe.getType()));
-                                     }
-                                 })
-                                 .limit(maxItems)
-                                 .toList();
-        } finally {
-            lock.readLock().unlock();
+        // Start from the smallest index that matches one of conditions and check the rest of conditions for its recipes only.
+        Collection<ManagedRecipe> candidates = recipes.values();
+        if (type != null) {
+            candidates = smallest(candidates, byType.get(type));
+        }
+        if (tags != null) {
+            for (String tag : tags) {
+                candidates = smallest(candidates, byTag.get(tag));
+            }
         }
+        return candidates.stream()
+                         .filter(recipe -> (tags == null || recipe.getTags().containsAll(tags))
+                                           && (type == null || type.equals(recipe.getType())))
+                         .skip(skipCount)
+                         .limit(maxItems)
+                         .map(LocalRecipeDaoImpl::toRecipeImpl)
+                         .collect(toList());
     }
 
     @Override
     public List<ManagedRecipe> getByCreator(final String creator, int skipCount, int maxItems) {
-        lock.readLock().lock();
+        final Map<String, ManagedRecipe> created = byCreator.get(creator);
+        if (created == null) {
+            return new ArrayList<>();
+        }
+        return created.values()
+                      .stream()
+                      .skip(skipCount)
+                      .limit(maxItems)
+                      .map(LocalRecipeDaoImpl::toRecipeImpl)
+                      .collect(toList());
+    }
+
+    /** Adds or replaces recipe and updates indexes. Must be called under lock of this instance. */
+    private void put(ManagedRecipe recipe) {
+        final ManagedRecipe existed = recipes.put(recipe.getId(), recipe);
+        if (existed != null) {
+            unindex(existed);
+        }
+        index(byType, recipe.getType(), recipe);
+        index(byCreator, recipe.getCreator(), recipe);
+        for (String tag : recipe.getTags()) {
+            index(byTag, tag, recipe);
+        }
+    }
+
+    /** Removes recipe from indexes. Must be called under lock of this instance. */
+    private void unindex(ManagedRecipe recipe) {
+        unindex(byType, recipe.getType(), recipe);
+        unindex(byCreator, recipe.getCreator(), recipe);
+        for (String tag : recipe.getTags()) {
+            unindex(byTag, tag, recipe);
+        }
+    }
+
+    private static void index(Map<String, Map<String, ManagedRecipe>> index, String key, ManagedRecipe recipe) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(recipe.getId(), recipe);
+        }
+    }
+
+    private static void unindex(Map<String, Map<String, ManagedRecipe>> index, String key, ManagedRecipe recipe) {
+        if (key != null) {
+            final Map<String, ManagedRecipe> indexed = index.get(key);
+            if (indexed != null) {
+                indexed.remove(recipe.getId());
+                if (indexed.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+
+    private static Collection<ManagedRecipe> smallest(Collection<ManagedRecipe> candidates, Map<String, ManagedRecipe> indexed) {
+        if (indexed == null) {
+            return Collections.emptyList();
+        }
+        return indexed.size() < candidates.size() ? indexed.values() : candidates;
+    }
+
+    /** Waits until change is written in journal and compacts journal if it is too big. */
+    private void sync(long record) throws ServerException {
         try {
-            return FluentIterable.from(recipes.values())
-                                 .skip(skipCount)
-                                 .filter(new Predicate<ManagedRecipe>() {
-                                     @Override
-                                     public boolean apply(ManagedRecipe recipe) {
-                                         return recipe.getCreator().equals(creator);
-                                     }
-                                 })
-                                 .limit(maxItems)
-                                 .toList();
-        } finally {
-            lock.readLock().unlock();
+            journal.sync(record);
+            if (journal.isCompactionNeeded()) {
+                synchronized (this) {
+                    if (journal.isCompactionNeeded()) {
+                        journal.compact(recipeStorage, storedRecipes());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
         }
     }
+
+    private Map<String, ManagedRecipe> storedRecipes() {
+        return recipes.values()
+                      .stream()
+                      .filter(recipe -> !PREDEFINED_RECIPES_CREATOR.equals(recipe.getCreator()))
+                      .collect(toMap(ManagedRecipe::getId, identity()));
+    }
+
+    private static RecipeImpl toRecipeImpl(ManagedRecipe recipe) {
+        return new RecipeImpl().withId(recipe.getId())
+                               .withName(recipe.getName())
+                               .withCreator(recipe.getCreator())
+                               .withType(recipe.getType())
+                               .withScript(recipe.getScript())
+                               .withTags(new ArrayList<>(recipe.getTags()))
+                               .withPermissions(recipe.getPermissions())
+                               .withDescription(recipe.getDescription());
+    }
 }
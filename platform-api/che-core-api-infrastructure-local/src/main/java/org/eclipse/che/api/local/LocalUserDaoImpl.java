@@ -17,6 +17,7 @@ import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.UnauthorizedException;
+import org.eclipse.che.api.local.storage.LocalJournal;
 import org.eclipse.che.api.local.storage.LocalStorage;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.user.server.dao.User;
@@ -30,68 +31,72 @@ import javax.inject.Singleton;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
+ * In memory based implementation of {@link UserDao}. Changes of users are written to the journal before method returns,
+ * snapshot of all users is stored when component stops or when journal becomes too big. Modifications are guarded by
+ * <i>this</i> instance, reads don't need any locks.
+ *
  * @author Anton Korneta
  */
 @Singleton
 public class LocalUserDaoImpl implements UserDao {
 
-    private final List<User>    users;
-    private final ReadWriteLock lock;
-    private final LocalStorage  userStorage;
+    private final Map<String, User>  users;
+    private final LocalStorage       userStorage;
+    private final LocalJournal<User> journal;
 
     @Inject
     public LocalUserDaoImpl(LocalStorageFactory storageFactory) throws IOException {
-        this.users = new LinkedList<>();
-        lock = new ReentrantReadWriteLock();
+        this.users = new ConcurrentHashMap<>();
         userStorage = storageFactory.create("users.json");
+        journal = storageFactory.createJournal("users.json", User.class, Collections.emptyMap());
     }
 
     @Inject
     @PostConstruct
-    public void start(@Named("codenvy.local.infrastructure.users") Set<User> defaultUsers) {
+    public synchronized void start(@Named("codenvy.local.infrastructure.users") Set<User> defaultUsers) throws IOException {
         List<User> storedUsers = userStorage.loadList(new TypeToken<List<User>>() {});
-        users.addAll(storedUsers.isEmpty() ? defaultUsers : storedUsers);
+        final Map<String, User> loaded = new LinkedHashMap<>();
+        for (User user : storedUsers.isEmpty() ? defaultUsers : storedUsers) {
+            loaded.put(user.getId(), user);
+        }
+        journal.replay(loaded);
+        users.putAll(loaded);
     }
 
     @PreDestroy
-    public void stop() throws IOException {
-        userStorage.store(users);
+    public synchronized void stop() throws IOException {
+        if (!journal.isEmpty()) {
+            journal.compact(userStorage, new ArrayList<>(users.values()));
+        }
+        journal.close();
     }
 
     @Override
     public String authenticate(String alias, String password) throws UnauthorizedException, ServerException {
-        lock.readLock().lock();
-        try {
-            User myUser = null;
-            for (int i = 0, size = users.size(); i < size && myUser == null; i++) {
-                if (users.get(i).getAliases().contains(alias)) {
-                    myUser = users.get(i);
-                }
-            }
-            if (myUser == null || !password.equals(myUser.getPassword())) {
-                throw new UnauthorizedException(String.format("Authentication failed for user %s", alias));
-            }
-            return myUser.getId();
-        } finally {
-            lock.readLock().unlock();
+        final User myUser = find(user -> user.getAliases().contains(alias));
+        if (myUser == null || !password.equals(myUser.getPassword())) {
+            throw new UnauthorizedException(String.format("Authentication failed for user %s", alias));
         }
+        return myUser.getId();
     }
 
     @Override
-    public void create(User user) throws ConflictException {
-        lock.writeLock().lock();
-        try {
+    public void create(User user) throws ConflictException, ServerException {
+        final long record;
+        synchronized (this) {
             final String userId = user.getId();
             final Set<String> aliases = new HashSet<>(user.getAliases());
-            for (User u : users) {
+            for (User u : users.values()) {
                 if (u.getId().equals(userId)) {
                     throw new ConflictException(
                             String.format("Unable create new user '%s'. User id %s is already in use.", user.getEmail(), userId));
@@ -103,107 +108,92 @@ public class LocalUserDaoImpl implements UserDao {
                     }
                 }
             }
-            users.add(doClone(user));
-        } finally {
-            lock.writeLock().unlock();
+            final User copy = doClone(user);
+            users.put(userId, copy);
+            record = journal.put(userId, copy);
         }
+        sync(record);
     }
 
     @Override
-    public void update(User user) throws NotFoundException {
-        lock.writeLock().lock();
-        try {
-            User myUser = null;
-            for (int i = 0, size = users.size(); i < size && myUser == null; i++) {
-                if (users.get(i).getId().equals(user.getId())) {
-                    myUser = users.get(i);
-                }
-            }
+    public void update(User user) throws NotFoundException, ServerException {
+        final long record;
+        synchronized (this) {
+            final User myUser = users.get(user.getId());
             if (myUser == null) {
                 throw new NotFoundException(String.format("User not found %s", user.getId()));
             }
-            myUser.getAliases().clear();
-            myUser.getAliases().addAll(user.getAliases());
-            myUser.setEmail(user.getEmail());
-            myUser.setPassword(user.getPassword());
-        } finally {
-            lock.writeLock().unlock();
+            // User is replaced with updated copy, so readers never see partially updated user.
+            final User updated = doClone(myUser).withAliases(new ArrayList<>(user.getAliases()))
+                                                .withEmail(user.getEmail())
+                                                .withPassword(user.getPassword());
+            users.put(updated.getId(), updated);
+            record = journal.put(updated.getId(), updated);
         }
+        sync(record);
     }
 
     @Override
-    public void remove(String id) throws NotFoundException {
-        lock.writeLock().lock();
-        try {
-            User myUser = null;
-            for (int i = 0, size = users.size(); i < size && myUser == null; i++) {
-                if (users.get(i).getId().equals(id)) {
-                    myUser = users.get(i);
-                }
-            }
-            if (myUser == null) {
+    public void remove(String id) throws NotFoundException, ServerException {
+        final long record;
+        synchronized (this) {
+            if (users.remove(id) == null) {
                 throw new NotFoundException(String.format("User not found %s", id));
             }
-            users.remove(myUser);
-        } finally {
-            lock.writeLock().unlock();
+            record = journal.remove(id);
         }
+        sync(record);
     }
 
     @Override
     public User getByAlias(String alias) throws NotFoundException {
-        lock.readLock().lock();
-        try {
-            User user = null;
-            for (int i = 0, size = users.size(); i < size && user == null; i++) {
-                if (users.get(i).getAliases().contains(alias)) {
-                    user = users.get(i);
-                }
-            }
-            if (user == null) {
-                throw new NotFoundException(String.format("User not found %s", alias));
-            }
-            return doClone(user);
-        } finally {
-            lock.readLock().unlock();
+        final User user = find(u -> u.getAliases().contains(alias));
+        if (user == null) {
+            throw new NotFoundException(String.format("User not found %s", alias));
         }
+        return doClone(user);
     }
 
     @Override
     public User getById(String id) throws NotFoundException {
-        lock.readLock().lock();
-        try {
-            User user = null;
-            for (int i = 0, size = users.size(); i < size && user == null; i++) {
-                if (users.get(i).getId().equals(id)) {
-                    user = users.get(i);
-                }
-            }
-            if (user == null) {
-                throw new NotFoundException(String.format("User not found %s", id));
-            }
-            return doClone(user);
-        } finally {
-            lock.readLock().unlock();
+        final User user = users.get(id);
+        if (user == null) {
+            throw new NotFoundException(String.format("User not found %s", id));
         }
+        return doClone(user);
     }
     
     @Override
     public User getByName(String name) throws NotFoundException {
-        lock.readLock().lock();
+        final User user = find(u -> u.getName().equals(name));
+        if (user == null) {
+            throw new NotFoundException(String.format("User not found %s", name));
+        }
+        return doClone(user);
+    }
+
+    private User find(Predicate<User> predicate) {
+        for (User user : users.values()) {
+            if (predicate.test(user)) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    /** Waits until change is written in journal and compacts journal if it is too big. */
+    private void sync(long record) throws ServerException {
         try {
-            User user = null;
-            for (int i = 0, size = users.size(); i < size && user == null; i++) {
-                if (users.get(i).getName().equals(name)) {
-                    user = users.get(i);
+            journal.sync(record);
+            if (journal.isCompactionNeeded()) {
+                synchronized (this) {
+                    if (journal.isCompactionNeeded()) {
+                        journal.compact(userStorage, new ArrayList<>(users.values()));
+                    }
                 }
             }
-            if (user == null) {
-                throw new NotFoundException(String.format("User not found %s", name));
-            }
-            return doClone(user);
-        } finally {
-            lock.readLock().unlock();
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
         }
     }
 
@@ -18,6 +18,7 @@ import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.machine.Recipe;
 import org.eclipse.che.api.core.model.workspace.ProjectConfig;
+import org.eclipse.che.api.local.storage.LocalJournal;
 import org.eclipse.che.api.local.storage.LocalStorage;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.machine.server.recipe.adapters.RecipeTypeAdapter;
@@ -35,6 +36,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toList;
@@ -42,10 +44,13 @@ import static java.util.stream.Collectors.toList;
 /**
  * In memory based implementation of {@link WorkspaceDao}.
  *
- * <p>{@link #loadWorkspaces() Loads} & {@link #saveWorkspaces() stores} in memory workspaces
- * to/from filesystem, when component starts/stops.
+ * <p>{@link #loadWorkspaces() Loads} in memory workspaces from filesystem when component starts. Every change is written
+ * to the journal before method returns, snapshot of all workspaces is {@link #saveWorkspaces() stored} when component stops
+ * or when journal becomes too big.
  *
- * @implNote it is thread-safe, guarded by <i>this</i> instance
+ * <p>Workspaces are indexed by owner and by owner and name, so lookups with these parameters don't scan all workspaces.
+ *
+ * @implNote it is thread-safe, modifications are guarded by <i>this</i> instance, reads don't need any locks
  *
  * @author Eugene Voevodin
  * @author Dmitry Shnurenko
@@ -54,60 +59,100 @@ import static java.util.stream.Collectors.toList;
 @Singleton
 public class LocalWorkspaceDaoImpl implements WorkspaceDao {
 
-    private final Map<String, UsersWorkspaceImpl> workspaces;
-    private final LocalStorage                    localStorage;
+    private final Map<String, UsersWorkspaceImpl>              workspaces;
+    /** owner -> workspace id -> workspace */
+    private final Map<String, Map<String, UsersWorkspaceImpl>> byOwner;
+    /** owner -> workspace name -> workspace */
+    private final Map<String, Map<String, UsersWorkspaceImpl>> byOwnerAndName;
+    private final LocalStorage                                 localStorage;
+    private final LocalJournal<UsersWorkspaceImpl>             journal;
 
     @Inject
     public LocalWorkspaceDaoImpl(LocalStorageFactory factory) throws IOException {
         final Map<Class<?>, Object> adapters = ImmutableMap.of(Recipe.class, new RecipeTypeAdapter(),
                                                                ProjectConfig.class, new ProjectConfigAdapter());
         this.localStorage = factory.create("workspaces.json", adapters);
-        this.workspaces = new HashMap<>();
+        this.journal = factory.createJournal("workspaces.json", UsersWorkspaceImpl.class, adapters);
+        this.workspaces = new ConcurrentHashMap<>();
+        this.byOwner = new ConcurrentHashMap<>();
+        this.byOwnerAndName = new ConcurrentHashMap<>();
     }
 
     @PostConstruct
-    public synchronized void loadWorkspaces() {
-        workspaces.putAll(localStorage.loadMap(new TypeToken<Map<String, UsersWorkspaceImpl>>() {}));
+    public synchronized void loadWorkspaces() throws IOException {
+        final Map<String, UsersWorkspaceImpl> loaded = new HashMap<>(localStorage.loadMap(new TypeToken<Map<String, UsersWorkspaceImpl>>() {}));
+        journal.replay(loaded);
+        loaded.values().forEach(this::put);
     }
 
     @PreDestroy
     public synchronized void saveWorkspaces() throws IOException {
-        localStorage.store(workspaces);
+        if (!journal.isEmpty()) {
+            journal.compact(localStorage, workspaces);
+        }
+        journal.close();
     }
 
     @Override
-    public synchronized UsersWorkspaceImpl create(UsersWorkspaceImpl workspace) throws ConflictException, ServerException {
-        if (workspaces.containsKey(workspace.getId())) {
-            throw new ConflictException("Workspace with id " + workspace.getId() + " already exists");
+    public UsersWorkspaceImpl create(UsersWorkspaceImpl workspace) throws ConflictException, ServerException {
+        final long record;
+        synchronized (this) {
+            if (workspaces.containsKey(workspace.getId())) {
+                throw new ConflictException("Workspace with id " + workspace.getId() + " already exists");
+            }
+            if (find(workspace.getName(), workspace.getOwner()).isPresent()) {
+                throw new ConflictException(format("Workspace with name %s and owner %s already exists",
+                                                   workspace.getName(),
+                                                   workspace.getOwner()));
+            }
+            workspace.setStatus(null);
+            final UsersWorkspaceImpl copy = doClone(workspace);
+            put(copy);
+            record = journal.put(workspace.getId(), copy);
         }
-        if (find(workspace.getName(), workspace.getOwner()).isPresent()) {
-            throw new ConflictException(format("Workspace with name %s and owner %s already exists",
-                                               workspace.getName(),
-                                               workspace.getOwner()));
-        }
-        workspace.setStatus(null);
-        workspaces.put(workspace.getId(), doClone(workspace));
+        sync(record);
         return workspace;
     }
 
     @Override
-    public synchronized UsersWorkspaceImpl update(UsersWorkspaceImpl workspace)
+    public UsersWorkspaceImpl update(UsersWorkspaceImpl workspace)
             throws NotFoundException, ConflictException, ServerException {
-        if (!workspaces.containsKey(workspace.getId())) {
-            throw new NotFoundException("Workspace with id " + workspace.getId() + " was not found");
+        final long record;
+        synchronized (this) {
+            if (!workspaces.containsKey(workspace.getId())) {
+                throw new NotFoundException("Workspace with id " + workspace.getId() + " was not found");
+            }
+            final Optional<UsersWorkspaceImpl> sameName = find(workspace.getName(), workspace.getOwner());
+            if (sameName.isPresent() && !sameName.get().getId().equals(workspace.getId())) {
+                throw new ConflictException(format("Workspace with name %s and owner %s already exists",
+                                                   workspace.getName(),
+                                                   workspace.getOwner()));
+            }
+            workspace.setStatus(null);
+            final UsersWorkspaceImpl copy = doClone(workspace);
+            put(copy);
+            record = journal.put(workspace.getId(), copy);
         }
-        workspace.setStatus(null);
-        workspaces.put(workspace.getId(), doClone(workspace));
+        sync(record);
         return workspace;
     }
 
     @Override
-    public synchronized void remove(String id) throws ConflictException, ServerException {
-        workspaces.remove(id);
+    public void remove(String id) throws ConflictException, ServerException {
+        final long record;
+        synchronized (this) {
+            final UsersWorkspaceImpl removed = workspaces.remove(id);
+            if (removed == null) {
+                return;
+            }
+            unindex(removed);
+            record = journal.remove(id);
+        }
+        sync(record);
     }
 
     @Override
-    public synchronized UsersWorkspaceImpl get(String id) throws NotFoundException, ServerException {
+    public UsersWorkspaceImpl get(String id) throws NotFoundException, ServerException {
         final UsersWorkspaceImpl workspace = workspaces.get(id);
         if (workspace == null) {
             throw new NotFoundException("Workspace with id " + id + " was not found");
@@ -116,7 +161,7 @@ public class LocalWorkspaceDaoImpl implements WorkspaceDao {
     }
 
     @Override
-    public synchronized UsersWorkspaceImpl get(String name, String owner) throws NotFoundException, ServerException {
+    public UsersWorkspaceImpl get(String name, String owner) throws NotFoundException, ServerException {
         final Optional<UsersWorkspaceImpl> wsOpt = find(name, owner);
         if (!wsOpt.isPresent()) {
             throw new NotFoundException(format("Workspace with name %s and owner %s was not found", name, owner));
@@ -125,19 +170,65 @@ public class LocalWorkspaceDaoImpl implements WorkspaceDao {
     }
 
     @Override
-    public synchronized List<UsersWorkspaceImpl> getByOwner(String owner) throws ServerException {
-        return workspaces.values()
-                         .stream()
-                         .filter(ws -> ws.getOwner().equals(owner))
-                         .map(this::doClone)
-                         .collect(toList());
+    public List<UsersWorkspaceImpl> getByOwner(String owner) throws ServerException {
+        final Map<String, UsersWorkspaceImpl> owned = byOwner.get(owner);
+        if (owned == null) {
+            return new ArrayList<>();
+        }
+        return owned.values()
+                    .stream()
+                    .map(this::doClone)
+                    .collect(toList());
+    }
+
+    /** Waits until change is written in journal and compacts journal if it is too big. */
+    private void sync(long record) throws ServerException {
+        try {
+            journal.sync(record);
+            if (journal.isCompactionNeeded()) {
+                synchronized (this) {
+                    if (journal.isCompactionNeeded()) {
+                        journal.compact(localStorage, workspaces);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
     }
 
     private Optional<UsersWorkspaceImpl> find(String name, String owner) {
-        return workspaces.values()
-                         .stream()
-                         .filter(ws -> ws.getName().equals(name) && ws.getOwner().equals(owner))
-                         .findFirst();
+        final Map<String, UsersWorkspaceImpl> owned = byOwnerAndName.get(owner);
+        return owned == null ? Optional.empty() : Optional.ofNullable(owned.get(name));
+    }
+
+    /** Adds or replaces workspace and updates indexes. Must be called under lock of this instance. */
+    private void put(UsersWorkspaceImpl workspace) {
+        final UsersWorkspaceImpl existed = workspaces.put(workspace.getId(), workspace);
+        if (existed != null) {
+            unindex(existed);
+        }
+        byOwner.computeIfAbsent(workspace.getOwner(), owner -> new ConcurrentHashMap<>()).put(workspace.getId(), workspace);
+        byOwnerAndName.computeIfAbsent(workspace.getOwner(), owner -> new ConcurrentHashMap<>()).put(workspace.getName(), workspace);
+    }
+
+    /** Removes workspace from indexes. Must be called under lock of this instance. */
+    private void unindex(UsersWorkspaceImpl workspace) {
+        final Map<String, UsersWorkspaceImpl> owned = byOwner.get(workspace.getOwner());
+        if (owned != null) {
+            owned.remove(workspace.getId());
+            if (owned.isEmpty()) {
+                byOwner.remove(workspace.getOwner());
+            }
+        }
+        final Map<String, UsersWorkspaceImpl> named = byOwnerAndName.get(workspace.getOwner());
+        if (named != null) {
+            // Workspaces loaded from storage may have the same name, don't remove index entry of other workspace.
+            named.remove(workspace.getName(), workspace);
+            if (named.isEmpty()) {
+                byOwnerAndName.remove(workspace.getOwner());
+            }
+        }
     }
 
     private UsersWorkspaceImpl doClone(UsersWorkspaceImpl workspace) {
@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.local.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only journal of changes of key-value storage. It is used together with {@link LocalStorage} that keeps snapshot of the
+ * whole data: every change is appended to the journal and is durable as soon as {@link #sync(long)} returns, the snapshot is
+ * rewritten only from time to time with {@link #compact(LocalStorage, Object)}. On start data is restored from the snapshot
+ * and changes that are made after it are {@link #replay(Map) replayed} from the journal.
+ * <p/>
+ * Each record is one line of JSON: <code>{"k":"key","v":value}</code> for put and <code>{"k":"key"}</code> for remove. If
+ * the last record is broken, e.g. because of crash in the middle of write, it is ignored and is cut off the journal.
+ * <p/>
+ * Writing of records is split in two steps. {@link #put(String, Object)} and {@link #remove(String)} just put record in the
+ * queue and must be called under lock of caller, that keeps order of records the same as order of changes. {@link #sync(long)}
+ * should be called after releasing of lock, it writes all queued records with single write and single fsync, so concurrent
+ * changes are committed together.
+ *
+ * @author andrew00x
+ */
+public class LocalJournal<V> implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalJournal.class);
+
+    /** Journal with more records than this should be compacted. */
+    static final int COMPACTION_THRESHOLD = 1000;
+
+    private final File         journalFile;
+    private final Type         valueType;
+    private final Gson         gson;
+    private final Object       writeLock;
+    /** Records that are not written yet. Guarded by this instance. */
+    private final List<String> pending;
+
+    /** Guarded by writeLock. */
+    private FileChannel   channel;
+    /** Sequence number of the last queued record. Guarded by this instance. */
+    private long          queued;
+    /** Number of records in journal including pending records. Guarded by this instance. */
+    private int           records;
+    /** Sequence number of the last record that is written to disk. */
+    private volatile long durable;
+
+    LocalJournal(File journalFile, Type valueType, Map<Class<?>, Object> typeAdapters) {
+        this.journalFile = journalFile;
+        this.valueType = valueType;
+        final GsonBuilder builder = new GsonBuilder();
+        for (Map.Entry<Class<?>, Object> adapter : typeAdapters.entrySet()) {
+            builder.registerTypeAdapter(adapter.getKey(), adapter.getValue());
+        }
+        gson = builder.create();
+        writeLock = new Object();
+        pending = new ArrayList<>();
+    }
+
+    /**
+     * Applies all records of journal to {@code target}. Typically {@code target} contains data loaded from snapshot. This
+     * method must be called once before any changes.
+     *
+     * @throws IOException
+     *         if journal can't be read or opened for writing
+     */
+    public void replay(Map<String, V> target) throws IOException {
+        synchronized (writeLock) {
+            int replayed = 0;
+            long validLength = 0;
+            if (journalFile.exists()) {
+                final byte[] content = Files.readAllBytes(journalFile.toPath());
+                final JsonParser parser = new JsonParser();
+                int start = 0;
+                for (int end; start < content.length && (end = indexOf(content, (byte)'\n', start)) >= 0; start = end + 1) {
+                    final String line = new String(content, start, end - start, StandardCharsets.UTF_8);
+                    try {
+                        final JsonObject record = parser.parse(line).getAsJsonObject();
+                        final String key = record.get("k").getAsString();
+                        final JsonElement value = record.get("v");
+                        if (value == null) {
+                            target.remove(key);
+                        } else {
+                            target.put(key, gson.fromJson(value, valueType));
+                        }
+                    } catch (JsonParseException | IllegalStateException | NullPointerException | UnsupportedOperationException e) {
+                        LOG.warn("Journal {} contains invalid record, it and all records after it are ignored", journalFile.getName());
+                        break;
+                    }
+                    validLength = end + 1;
+                    replayed++;
+                }
+            }
+            openChannel();
+            if (channel.size() > validLength) {
+                // Cut off broken tail, otherwise new records are appended after it and can't be read.
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+            channel.position(validLength);
+            synchronized (this) {
+                records = replayed;
+            }
+        }
+    }
+
+    /**
+     * Queues record about new or updated value. Must be called under the same lock as modification of data.
+     *
+     * @return sequence number of record that should be passed to {@link #sync(long)}
+     */
+    public synchronized long put(String key, V value) {
+        final JsonObject record = new JsonObject();
+        record.addProperty("k", key);
+        record.add("v", gson.toJsonTree(value, valueType));
+        return queue(record);
+    }
+
+    /**
+     * Queues record about removed value. Must be called under the same lock as modification of data.
+     *
+     * @return sequence number of record that should be passed to {@link #sync(long)}
+     */
+    public synchronized long remove(String key) {
+        final JsonObject record = new JsonObject();
+        record.addProperty("k", key);
+        return queue(record);
+    }
+
+    private long queue(JsonObject record) {
+        pending.add(gson.toJson(record));
+        records++;
+        return ++queued;
+    }
+
+    /**
+     * Waits until record with specified sequence number is written to disk. If record isn't written yet, writes it together
+     * with all other records that are queued at the moment.
+     *
+     * @throws IOException
+     *         if records can't be written
+     */
+    public void sync(long record) throws IOException {
+        if (durable >= record) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (durable >= record) {
+                // Written by other thread together with its own record.
+                return;
+            }
+            final List<String> batch;
+            final long last;
+            synchronized (this) {
+                batch = new ArrayList<>(pending);
+                pending.clear();
+                last = queued;
+            }
+            final StringBuilder buff = new StringBuilder();
+            for (String line : batch) {
+                buff.append(line).append('\n');
+            }
+            openChannel();
+            final long position = channel.position();
+            try {
+                final ByteBuffer bytes = ByteBuffer.wrap(buff.toString().getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                // Remove partially written records and keep them in queue, they are written with next sync or compaction.
+                try {
+                    channel.truncate(position);
+                    channel.position(position);
+                } catch (IOException ignored) {
+                }
+                synchronized (this) {
+                    pending.addAll(0, batch);
+                }
+                throw e;
+            }
+            durable = last;
+        }
+    }
+
+    /** Returns {@code true} if journal is big enough to be compacted. */
+    public synchronized boolean isCompactionNeeded() {
+        return records >= COMPACTION_THRESHOLD;
+    }
+
+    /** Returns {@code true} if journal doesn't contain any records, i.e. snapshot is up to date. */
+    public synchronized boolean isEmpty() {
+        return records == 0;
+    }
+
+    /**
+     * Stores {@code snapshot} with {@code storage} and clears journal. Must be called under the same lock as modification of
+     * data, {@code snapshot} must contain all changes that are queued in the journal.
+     *
+     * @throws IOException
+     *         if snapshot can't be stored or journal can't be cleared
+     */
+    public void compact(LocalStorage storage, Object snapshot) throws IOException {
+        synchronized (writeLock) {
+            storage.store(snapshot);
+            final long last;
+            synchronized (this) {
+                pending.clear();
+                records = 0;
+                last = queued;
+            }
+            // Even if journal is not cleared records from it are replayed over the snapshot with the same result.
+            openChannel();
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+            durable = last;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    /** Opens journal for appending records if it isn't opened yet. Must be called under writeLock. */
+    private void openChannel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte b, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -25,10 +25,14 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
 /**
  * Implementation of file system storage for model objects.
  *
@@ -61,10 +65,20 @@ public class LocalStorage {
         gson = builder.setPrettyPrinting().create();
     }
 
+    /**
+     * Stores object in json file. Content is written to temporary file which then replaces json file, so json file is never
+     * left partially written.
+     */
     public void store(Object storedObj) throws IOException {
-        try (Writer writer = Files.newWriter(storedFile, Charset.forName("UTF-8"))) {
+        final File tmpFile = new File(storedFile.getParentFile(), storedFile.getName() + ".tmp");
+        try (Writer writer = Files.newWriter(tmpFile, Charset.forName("UTF-8"))) {
             gson.toJson(storedObj, writer);
         }
+        try {
+            java.nio.file.Files.move(tmpFile.toPath(), storedFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            java.nio.file.Files.move(tmpFile.toPath(), storedFile.toPath(), REPLACE_EXISTING);
+        }
     }
 
     /**
@@ -14,7 +14,9 @@ package org.eclipse.che.api.local.storage;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Type;
 import java.util.Map;
 
 /**
@@ -56,4 +58,23 @@ public class LocalStorageFactory {
     public LocalStorage create(String fileName, Map<Class<?>, Object> typeAdapters) throws IOException {
         return new LocalStorage(pathToStorage, fileName, typeAdapters);
     }
-}
\ No newline at end of file
+
+    /**
+     * @param fileName
+     *         name of snapshot file in local storage, journal is stored in the same directory in file with suffix '.journal'.
+     * @param valueType
+     *         type of values that are stored in journal.
+     * @param typeAdapters
+     *         types and object adapters when need a special deserialization.
+     * @return instance of LocalJournal.
+     * @throws IOException
+     *         occurs when cannot create root storage directory.
+     */
+    public <V> LocalJournal<V> createJournal(String fileName, Type valueType, Map<Class<?>, Object> typeAdapters) throws IOException {
+        final File rootDir = new File(pathToStorage);
+        if (!rootDir.exists() && !rootDir.mkdirs()) {
+            throw new IOException("Impossible to create root folder for local storage");
+        }
+        return new LocalJournal<>(new File(rootDir, fileName + ".journal"), valueType, typeAdapters);
+    }
+}
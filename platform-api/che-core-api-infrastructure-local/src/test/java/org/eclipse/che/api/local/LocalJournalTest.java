@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.local;
+
+import com.google.common.reflect.TypeToken;
+
+import org.eclipse.che.api.local.storage.LocalJournal;
+import org.eclipse.che.api.local.storage.LocalStorage;
+import org.eclipse.che.api.local.storage.LocalStorageFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author andrew00x
+ */
+public class LocalJournalTest {
+    private LocalStorageFactory factory;
+    private Path                journalPath;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        assertNotNull(url);
+        final Path storageRoot = Paths.get(url.toURI()).getParent().resolve("journal_storage");
+        Files.createDirectories(storageRoot);
+        Files.deleteIfExists(storageRoot.resolve("values.json"));
+        journalPath = storageRoot.resolve("values.json.journal");
+        Files.deleteIfExists(journalPath);
+        factory = new LocalStorageFactory(storageRoot.toString());
+    }
+
+    @Test
+    public void shouldReplayChangesThatAreNotInSnapshot() throws Exception {
+        final LocalJournal<String> journal = factory.createJournal("values.json", String.class, Collections.emptyMap());
+        journal.replay(new HashMap<>());
+        journal.put("a", "1");
+        journal.put("b", "2");
+        journal.put("a", "3");
+        journal.sync(journal.remove("b"));
+        journal.close();
+
+        final Map<String, String> state = new HashMap<>();
+        state.put("b", "from snapshot");
+        factory.<String>createJournal("values.json", String.class, Collections.emptyMap()).replay(state);
+
+        assertEquals(state, Collections.singletonMap("a", "3"));
+    }
+
+    @Test
+    public void shouldIgnoreAndCutOffBrokenTail() throws Exception {
+        final LocalJournal<String> journal = factory.createJournal("values.json", String.class, Collections.emptyMap());
+        journal.replay(new HashMap<>());
+        journal.sync(journal.put("a", "1"));
+        journal.close();
+        // Record that is written partially.
+        Files.write(journalPath, "{\"k\":\"b\",\"v\":".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        final LocalJournal<String> reopened = factory.createJournal("values.json", String.class, Collections.emptyMap());
+        final Map<String, String> state = new HashMap<>();
+        reopened.replay(state);
+        reopened.sync(reopened.put("c", "2"));
+        reopened.close();
+
+        assertEquals(state, Collections.singletonMap("a", "1"));
+        final Map<String, String> replayed = new HashMap<>();
+        factory.<String>createJournal("values.json", String.class, Collections.emptyMap()).replay(replayed);
+        assertEquals(replayed.size(), 2);
+        assertEquals(replayed.get("c"), "2");
+    }
+
+    @Test
+    public void shouldStoreSnapshotAndClearJournalWhenCompacted() throws Exception {
+        final LocalStorage storage = factory.create("values.json");
+        final LocalJournal<String> journal = factory.createJournal("values.json", String.class, Collections.emptyMap());
+        journal.replay(new HashMap<>());
+        journal.put("a", "1");
+        journal.compact(storage, Collections.singletonMap("a", "1"));
+
+        assertTrue(journal.isEmpty());
+        assertEquals(Files.size(journalPath), 0);
+        assertEquals(storage.loadMap(new TypeToken<Map<String, String>>() {}), Collections.singletonMap("a", "1"));
+    }
+
+    @Test
+    public void shouldWriteAllConcurrentChanges() throws Exception {
+        final LocalJournal<String> journal = factory.createJournal("values.json", String.class, Collections.emptyMap());
+        journal.replay(new HashMap<>());
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final String key = "key" + i;
+            futures.add(executor.submit(() -> {
+                journal.sync(journal.put(key, key));
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        journal.close();
+
+        final Map<String, String> state = new HashMap<>();
+        factory.<String>createJournal("values.json", String.class, Collections.emptyMap()).replay(state);
+        assertEquals(state.size(), 200);
+        assertEquals(state.get("key199"), "key199");
+    }
+}
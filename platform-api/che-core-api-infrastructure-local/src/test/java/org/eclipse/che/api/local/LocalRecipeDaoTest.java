@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.local;
+
+import org.eclipse.che.api.local.storage.LocalStorageFactory;
+import org.eclipse.che.api.machine.server.recipe.RecipeImpl;
+import org.eclipse.che.api.machine.shared.ManagedRecipe;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author andrew00x
+ */
+public class LocalRecipeDaoTest {
+    LocalRecipeDaoImpl recipeDao;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        assertNotNull(url);
+        final Path storageRoot = Paths.get(url.toURI()).getParent().resolve("recipes");
+        Files.createDirectories(storageRoot);
+        Files.deleteIfExists(storageRoot.resolve("recipes.json"));
+        Files.deleteIfExists(storageRoot.resolve("recipes.json.journal"));
+        recipeDao = new LocalRecipeDaoImpl(new LocalStorageFactory(storageRoot.toString()));
+        recipeDao.start();
+
+        recipeDao.create(createRecipe("recipe1", "docker", "user1", "java", "maven"));
+        recipeDao.create(createRecipe("recipe2", "docker", "user1", "java"));
+        recipeDao.create(createRecipe("recipe3", "script", "user2", "java", "maven"));
+        recipeDao.create(createRecipe("recipe4", "docker", "user2", "node"));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        recipeDao.stop();
+    }
+
+    @Test
+    public void shouldSearchByTagsAndType() throws Exception {
+        assertEquals(ids(recipeDao.search(asList("java", "maven"), null, 0, 30)), asList("recipe1", "recipe3"));
+        assertEquals(ids(recipeDao.search(singletonList("java"), "docker", 0, 30)), asList("recipe1", "recipe2"));
+        assertEquals(ids(recipeDao.search(null, "script", 0, 30)), singletonList("recipe3"));
+        assertEquals(ids(recipeDao.search(null, null, 0, 30)), asList("recipe1", "recipe2", "recipe3", "recipe4"));
+        assertTrue(recipeDao.search(singletonList("unknown"), null, 0, 30).isEmpty());
+    }
+
+    @Test
+    public void shouldApplySkipAndMaxItemsToFoundRecipes() throws Exception {
+        assertEquals(recipeDao.search(null, "docker", 1, 30).size(), 2);
+        assertEquals(recipeDao.search(null, "docker", 0, 2).size(), 2);
+        assertEquals(recipeDao.getByCreator("user2", 1, 30).size(), 1);
+    }
+
+    @Test
+    public void shouldUpdateIndexesWhenRecipeIsUpdatedOrRemoved() throws Exception {
+        recipeDao.update(new RecipeImpl().withId("recipe4").withType("script").withTags(singletonList("java")));
+        recipeDao.remove("recipe3");
+
+        assertEquals(ids(recipeDao.search(null, "script", 0, 30)), singletonList("recipe4"));
+        assertEquals(ids(recipeDao.search(singletonList("java"), null, 0, 30)), asList("recipe1", "recipe2", "recipe4"));
+        assertTrue(recipeDao.search(singletonList("node"), null, 0, 30).isEmpty());
+        assertEquals(ids(recipeDao.getByCreator("user2", 0, 30)), singletonList("recipe4"));
+    }
+
+    @Test
+    public void shouldNotChangeStoredRecipeWhenReturnedRecipeIsModified() throws Exception {
+        final ManagedRecipe recipe = recipeDao.getById("recipe1");
+        recipe.getTags().clear();
+
+        assertEquals(recipeDao.getById("recipe1").getTags(), asList("java", "maven"));
+        assertEquals(ids(recipeDao.search(singletonList("maven"), null, 0, 30)), asList("recipe1", "recipe3"));
+    }
+
+    private static List<String> ids(List<ManagedRecipe> recipes) {
+        return recipes.stream().map(ManagedRecipe::getId).sorted().collect(toList());
+    }
+
+    private static RecipeImpl createRecipe(String id, String type, String creator, String... tags) {
+        return new RecipeImpl().withId(id)
+                               .withName(id)
+                               .withType(type)
+                               .withCreator(creator)
+                               .withScript("FROM codenvy/ubuntu_jdk8")
+                               .withTags(asList(tags));
+    }
+}
@@ -13,6 +13,8 @@ package org.eclipse.che.api.local;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.machine.server.model.impl.CommandImpl;
 import org.eclipse.che.api.machine.server.model.impl.LimitsImpl;
@@ -23,6 +25,7 @@ import org.eclipse.che.api.workspace.server.model.impl.EnvironmentImpl;
 import org.eclipse.che.api.workspace.server.model.impl.ProjectConfigImpl;
 import org.eclipse.che.api.workspace.server.model.impl.SourceStorageImpl;
 import org.eclipse.che.api.workspace.server.model.impl.UsersWorkspaceImpl;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -42,6 +45,7 @@ import static java.util.Collections.singletonMap;
 import static org.eclipse.che.commons.lang.NameGenerator.generate;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 
 /**
  * @author Eugene Voevodin
@@ -63,6 +67,12 @@ public class LocalWorkspaceDaoTest {
         workspaceDao = new LocalWorkspaceDaoImpl(new LocalStorageFactory(storageRoot.toString()));
     }
 
+    @AfterMethod
+    public void tearDown() throws Exception {
+        // Store snapshot and clear journal, so next test starts with clean journal.
+        workspaceDao.saveWorkspaces();
+    }
+
     @Test
     public void testWorkspaceSerialization() throws Exception {
         final UsersWorkspaceImpl workspace = createWorkspace();
@@ -84,6 +94,61 @@ public class LocalWorkspaceDaoTest {
         assertEquals(result, workspace);
     }
 
+    @Test
+    public void testWorkspaceIsRestoredFromJournal() throws Exception {
+        final UsersWorkspaceImpl workspace = createWorkspace();
+        write(workspacesPath, "{}".getBytes());
+        workspaceDao.loadWorkspaces();
+
+        workspaceDao.create(workspace);
+        // Snapshot is not stored, e.g. because of crash.
+        final LocalWorkspaceDaoImpl restoredDao = new LocalWorkspaceDaoImpl(new LocalStorageFactory(workspacesPath.getParent().toString()));
+        restoredDao.loadWorkspaces();
+
+        assertEquals(restoredDao.get(workspace.getId()), workspace);
+    }
+
+    @Test
+    public void testWorkspacesAreFoundByOwnerAndNameAfterUpdate() throws Exception {
+        final UsersWorkspaceImpl workspace1 = createWorkspace();
+        final UsersWorkspaceImpl workspace2 = createWorkspace();
+        workspace2.setName("test-workspace-name-2");
+        workspaceDao.create(workspace1);
+        workspaceDao.create(workspace2);
+
+        workspace1.setOwner("user456");
+        workspace1.setName("renamed");
+        workspaceDao.update(workspace1);
+
+        assertEquals(workspaceDao.getByOwner("user123"), singletonList(workspace2));
+        assertEquals(workspaceDao.getByOwner("user456"), singletonList(workspace1));
+        assertEquals(workspaceDao.get("renamed", "user456"), workspace1);
+        assertEquals(workspaceDao.get("test-workspace-name-2", "user123"), workspace2);
+        assertTrue(workspaceDao.getByOwner("unknown").isEmpty());
+    }
+
+    @Test(expectedExceptions = NotFoundException.class)
+    public void testWorkspaceIsNotFoundByOldName() throws Exception {
+        final UsersWorkspaceImpl workspace = createWorkspace();
+        workspaceDao.create(workspace);
+        workspace.setName("renamed");
+        workspaceDao.update(workspace);
+
+        workspaceDao.get("test-workspace-name", "user123");
+    }
+
+    @Test(expectedExceptions = ConflictException.class)
+    public void testWorkspaceCanNotBeRenamedToExistingName() throws Exception {
+        final UsersWorkspaceImpl workspace1 = createWorkspace();
+        final UsersWorkspaceImpl workspace2 = createWorkspace();
+        workspace2.setName("test-workspace-name-2");
+        workspaceDao.create(workspace1);
+        workspaceDao.create(workspace2);
+
+        workspace2.setName(workspace1.getName());
+        workspaceDao.update(workspace2);
+    }
+
     private static UsersWorkspaceImpl createWorkspace() {
         // environments
         final RecipeImpl recipe = new RecipeImpl();
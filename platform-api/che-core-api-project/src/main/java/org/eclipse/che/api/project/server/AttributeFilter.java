@@ -34,11 +34,13 @@ import java.util.Map;
 @Singleton
 public class AttributeFilter {
 
-    private final ProjectManager projectManager;
+    private final ProjectManager        projectManager;
+    private final RuntimeAttributeCache attributeCache;
 
     @Inject
-    public AttributeFilter(ProjectManager projectManager) {
+    public AttributeFilter(ProjectManager projectManager, RuntimeAttributeCache attributeCache) {
         this.projectManager = projectManager;
+        this.attributeCache = attributeCache;
     }
 
     /**
@@ -199,7 +201,7 @@ public class AttributeFilter {
 
                 List<String> value;
                 if (factory != null) {
-                    value = factory.newInstance(projectFolder).getValues(variable.getName());
+                    value = attributeCache.getValues(projectFolder, projectType.getId(), variable);
 
                     if (value == null) {
                         throw new ProjectTypeConstraintException("Value Provider must not produce NULL value of variable " +
@@ -26,6 +26,15 @@ public class Constants {
 
     public static final String LINK_REL_PROJECT_TYPES = "project types";
 
+    /** Response header that contains cursor for getting the next page of search result. */
+    public static final String SEARCH_CURSOR_HEADER = "X-Search-Cursor";
+
+    /**
+     * Response header that is set to {@code true} if search index of workspace isn't completely built yet and search result may miss
+     * some of matched items.
+     */
+    public static final String SEARCH_PARTIAL_HEADER = "X-Search-Partial";
+
     public static final String CODENVY_DIR                        = ".codenvy";
     public static final String CODENVY_MISC_FILE                  = "misc.xml";
 
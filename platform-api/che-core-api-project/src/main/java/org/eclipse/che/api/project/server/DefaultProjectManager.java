@@ -49,6 +49,7 @@ import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
 import org.eclipse.che.api.workspace.shared.dto.UsersWorkspaceDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceConfigDto;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceConfigUpdatedEvent;
 import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.Pair;
@@ -73,10 +74,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
+import static java.util.stream.Collectors.toList;
 import static org.eclipse.che.api.project.server.Constants.CODENVY_DIR;
 import static org.eclipse.che.api.project.server.notification.ProjectItemModifiedEvent.EventType.DELETED;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
@@ -93,17 +98,28 @@ public final class DefaultProjectManager implements ProjectManager {
     private static final int CACHE_MASK = CACHE_NUM - 1;
     private static final int SEG_SIZE   = 32;
 
+    /**
+     * Cached workspace is fetched again after this period even if {@link WorkspaceConfigUpdatedEvent} isn't received, e.g. if
+     * propagation of events from workspace master isn't configured.
+     */
+    private static final long WORKSPACE_REVALIDATION_PERIOD = TimeUnit.SECONDS.toMillis(30);
+
     private final Lock[]                                     miscLocks;
     private final Cache<Pair<String, String>, ProjectMisc>[] miscCaches;
-
-    private final VirtualFileSystemRegistry         fileSystemRegistry;
-    private final EventService                      eventService;
-    private final EventSubscriber<VirtualFileEvent> vfsSubscriber;
-    private final ProjectTypeRegistry               projectTypeRegistry;
-    private final ProjectHandlerRegistry            handlers;
-    private final String                            apiEndpoint;
-    private final Provider<AttributeFilter>         filterProvider;
-    private final HttpJsonRequestFactory            httpJsonRequestFactory;
+    /** Workspaces fetched from workspace master, see {@link #getCachedWorkspace(String)}. */
+    private final ConcurrentMap<String, CachedWorkspace>     workspaces;
+    private final ProjectModificationTracker                 modificationTracker;
+    private final ProjectTypeDetector                        projectTypeDetector;
+
+    private final VirtualFileSystemRegistry                    fileSystemRegistry;
+    private final EventService                                 eventService;
+    private final EventSubscriber<VirtualFileEvent>            vfsSubscriber;
+    private final EventSubscriber<WorkspaceConfigUpdatedEvent> workspaceSubscriber;
+    private final ProjectTypeRegistry                          projectTypeRegistry;
+    private final ProjectHandlerRegistry                       handlers;
+    private final String                                       apiEndpoint;
+    private final Provider<AttributeFilter>                    filterProvider;
+    private final HttpJsonRequestFactory                       httpJsonRequestFactory;
 
     @Inject
     @SuppressWarnings("unchecked")
@@ -146,6 +162,9 @@ public final class DefaultProjectManager implements ProjectManager {
                                             }
                                         }).build();
         }
+        this.workspaces = new ConcurrentHashMap<>();
+        this.modificationTracker = new ProjectModificationTracker(this);
+        this.projectTypeDetector = new ProjectTypeDetector();
 
         vfsSubscriber = new EventSubscriber<VirtualFileEvent>() {
             @Override
@@ -161,23 +180,24 @@ public final class DefaultProjectManager implements ProjectManager {
                     case DELETED:
                     case MOVED:
                     case RENAMED: {
+                        // Don't resolve projects here, it's too expensive for publisher when a lot of files are changed at once.
+                        final long date = System.currentTimeMillis();
                         final int length = path.length();
                         for (int i = 1; i < length && (i = path.indexOf('/', i)) > 0; i++) {
-                            final String projectPath = path.substring(0, i);
-                            try {
-                                final Project project = getProject(workspace, projectPath);
-                                if (project != null) {
-                                    getProjectMisc(project).setModificationDate(System.currentTimeMillis());
-                                }
-                            } catch (Exception e) {
-                                LOG.error(e.getMessage(), e);
-                            }
+                            modificationTracker.pathModified(workspace, path.substring(0, i), date);
                         }
                         break;
                     }
                 }
             }
         };
+
+        workspaceSubscriber = new EventSubscriber<WorkspaceConfigUpdatedEvent>() {
+            @Override
+            public void onEvent(WorkspaceConfigUpdatedEvent event) {
+                invalidateWorkspace(event.getWorkspaceId());
+            }
+        };
     }
 
     private static String projectPath(String path) {
@@ -191,11 +211,17 @@ public final class DefaultProjectManager implements ProjectManager {
     @PostConstruct
     void start() {
         eventService.subscribe(vfsSubscriber);
+        eventService.subscribe(workspaceSubscriber);
+        modificationTracker.start();
     }
 
     @PreDestroy
     void stop() {
         eventService.unsubscribe(vfsSubscriber);
+        modificationTracker.stop();
+        projectTypeDetector.stop();
+        eventService.unsubscribe(workspaceSubscriber);
+        workspaces.clear();
         for (int i = 0, length = miscLocks.length; i < length; i++) {
             miscLocks[i].lock();
             try {
@@ -547,6 +573,36 @@ public final class DefaultProjectManager implements ProjectManager {
     }
 
     private UsersWorkspaceDto getWorkspace(String wsId) throws ServerException {
+        return getCachedWorkspace(wsId).workspace;
+    }
+
+    /**
+     * Gets workspace from cache or fetches it from workspace master if it isn't cached yet, is invalidated with
+     * {@link #invalidateWorkspace(String)} or wasn't revalidated for {@link #WORKSPACE_REVALIDATION_PERIOD}. Configurations of
+     * projects of cached workspace are shared, they must not be modified without further update of workspace on master.
+     */
+    private CachedWorkspace getCachedWorkspace(String wsId) throws ServerException {
+        final CachedWorkspace cached = workspaces.get(wsId);
+        if (cached != null && cached.isValid()) {
+            return cached;
+        }
+        final CachedWorkspace fetched = new CachedWorkspace(fetchWorkspace(wsId));
+        // If workspace is invalidated while we fetch it, then entry is replaced and we don't cache, probably stale, result.
+        if (cached == null) {
+            workspaces.putIfAbsent(wsId, fetched);
+        } else {
+            workspaces.replace(wsId, cached, fetched);
+        }
+        return fetched;
+    }
+
+    /** Drops cached workspace, next access to it fetches it from workspace master. */
+    private void invalidateWorkspace(String wsId) {
+        // Put marker instead of removing, it makes fetches that are started before invalidation fail to update cache.
+        workspaces.put(wsId, new CachedWorkspace(null));
+    }
+
+    private UsersWorkspaceDto fetchWorkspace(String wsId) throws ServerException {
         final String href = UriBuilder.fromUri(apiEndpoint)
                                       .path(WorkspaceService.class).path(WorkspaceService.class, "getById")
                                       .build(wsId).toString();
@@ -563,20 +619,22 @@ public final class DefaultProjectManager implements ProjectManager {
 
     @Override
     public ProjectConfigDto getProjectFromWorkspace(@NotNull String wsId, @NotNull String projectPath) throws ServerException {
-        final UsersWorkspaceDto usersWorkspaceDto = getWorkspace(wsId);
+        // Callers may modify configuration before update it on workspace master, copy it to keep cached workspace unchanged.
+        final ProjectConfigDto project = getCachedProject(wsId, projectPath);
+        return project == null ? null : DtoFactory.getInstance().clone(project);
+    }
+
+    /** Gets configuration of project from cached workspace without copying it. Returned configuration must not be modified. */
+    private ProjectConfigDto getCachedProject(String wsId, String projectPath) throws ServerException {
         final String path = projectPath.startsWith("/") ? projectPath : "/" + projectPath;
-        for (ProjectConfigDto projectConfig : usersWorkspaceDto.getProjects()) {
-            if (path.equals(projectConfig.getPath())) {
-                return projectConfig;
-            }
-        }
-        return null;
+        return getCachedWorkspace(wsId).projects.get(path);
     }
 
     public List<ProjectConfigDto> getAllProjectsFromWorkspace(@NotNull String workspaceId) throws ServerException {
         UsersWorkspaceDto usersWorkspaceDto = getWorkspace(workspaceId);
 
-        return usersWorkspaceDto.getProjects();
+        // Callers may add problems to configurations, copy them to keep cached workspace unchanged.
+        return usersWorkspaceDto.getProjects().stream().map(DtoFactory.getInstance()::clone).collect(toList());
     }
 
     private void updateWorkspace(String wsId, WorkspaceConfigDto workspaceConfig) throws ServerException {
@@ -591,6 +649,8 @@ public final class DefaultProjectManager implements ProjectManager {
                                   .request();
         } catch (IOException | ApiException e) {
             throw new ServerException(e.getMessage());
+        } finally {
+            invalidateWorkspace(wsId);
         }
     }
 
@@ -618,6 +678,9 @@ public final class DefaultProjectManager implements ProjectManager {
             }
         } catch (IOException | ApiException e) {
             throw new ServerException(e.getMessage());
+        } finally {
+            // Invalidate even if update failed, workspace master might apply update partially.
+            invalidateWorkspace(wsId);
         }
     }
 
@@ -751,51 +814,34 @@ public final class DefaultProjectManager implements ProjectManager {
             throw new NotFoundException("Project Type " + projectTypeId + " not found.");
         }
 
-        final VirtualFileEntry baseFolder = getProjectsRoot(workspace).getChild(path.startsWith("/") ? path.substring(1) : path);
-        if (!baseFolder.isFolder()) {
-            throw new NotFoundException("Not a folder: " + path);
-        }
-
-        Map<String, AttributeValue> attributes = new HashMap<>();
-
-        for (Attribute attr : projectType.getAttributes()) {
-            if (attr.isVariable() && ((Variable)attr).getValueProviderFactory() != null) {
-
-                Variable var = (Variable)attr;
-                // getValue throws ValueStorageException if not valid
-                attributes.put(attr.getName(), var.getValue((FolderEntry)baseFolder));
-            }
-        }
-
-        return attributes;
+        return ProjectTypeDetector.estimate(getFolder(workspace, path), projectType);
     }
 
     // ProjectSuggestion
     public List<SourceEstimation> resolveSources(String workspace, String path, boolean transientOnly)
             throws ServerException, ForbiddenException, NotFoundException, ProjectTypeConstraintException {
-        final List<SourceEstimation> estimations = new ArrayList<>();
-        boolean isPresentPrimaryType = false;
+        final List<ProjectType> types = new ArrayList<>();
         for (ProjectType type : projectTypeRegistry.getProjectTypes(ProjectTypeRegistry.CHILD_TO_PARENT_COMPARATOR)) {
-            if (transientOnly && type.isPersisted()) {
-                continue;
+            if (!(transientOnly && type.isPersisted())) {
+                types.add(type);
             }
-
+        }
+        final List<SourceEstimation> estimations = new ArrayList<>();
+        boolean isPresentPrimaryType = false;
+        // All types are estimated concurrently against the same folder, results are in the same order as types.
+        for (Map.Entry<ProjectType, Map<String, AttributeValue>> e : projectTypeDetector.detect(getFolder(workspace, path), types)
+                                                                                        .entrySet()) {
+            final ProjectType type = e.getKey();
             final HashMap<String, List<String>> attributes = new HashMap<>();
+            for (Map.Entry<String, AttributeValue> attr : e.getValue().entrySet()) {
+                attributes.put(attr.getKey(), attr.getValue().getList());
+            }
 
-            try {
-                for (Map.Entry<String, AttributeValue> attr : estimateProject(workspace, path, type.getId()).entrySet()) {
-                    attributes.put(attr.getKey(), attr.getValue().getList());
-                }
-
-                if (!attributes.isEmpty()) {
-                    estimations.add(newDto(SourceEstimation.class).withType(type.getId()).withAttributes(attributes));
-                    ProjectType projectType = projectTypeRegistry.getProjectType(type.getId());
-                    if (projectType.isPrimaryable()) {
-                        isPresentPrimaryType = true;
-                    }
+            if (!attributes.isEmpty()) {
+                estimations.add(newDto(SourceEstimation.class).withType(type.getId()).withAttributes(attributes));
+                if (type.isPrimaryable()) {
+                    isPresentPrimaryType = true;
                 }
-            } catch (ValueStorageException e) {
-                LOG.warn(e.getLocalizedMessage(), e);
             }
         }
         if (!isPresentPrimaryType) {
@@ -805,6 +851,14 @@ public final class DefaultProjectManager implements ProjectManager {
         return estimations;
     }
 
+    private FolderEntry getFolder(String workspace, String path) throws ServerException, ForbiddenException, NotFoundException {
+        final VirtualFileEntry folder = getProjectsRoot(workspace).getChild(path.startsWith("/") ? path.substring(1) : path);
+        if (folder == null || !folder.isFolder()) {
+            throw new NotFoundException("Not a folder: " + path);
+        }
+        return (FolderEntry)folder;
+    }
+
     @Override
     public Project convertFolderToProject(String workspace, String path, ProjectConfig projectConfig) throws ConflictException,
                                                                                                              ForbiddenException,
@@ -933,7 +987,7 @@ public final class DefaultProjectManager implements ProjectManager {
 
         String pathToProject = deleteNodePath.contains("/") ? deleteNodePath.substring(0, deleteNodePath.indexOf("/")) : deleteNodePath;
 
-        ProjectConfigDto project = getProjectFromWorkspace(workspaceId, pathToProject);
+        ProjectConfigDto project = getCachedProject(workspaceId, pathToProject);
 
         if (project != null && deleteNodePath.equals(pathToProject)) {
             deleteProjectFromWorkspace(project, workspaceId);
@@ -1044,13 +1098,15 @@ public final class DefaultProjectManager implements ProjectManager {
                                   .request();
         } catch (IOException | ApiException exception) {
             throw new ServerException(exception.getLocalizedMessage(), exception);
+        } finally {
+            invalidateWorkspace(wsId);
         }
     }
 
     @Override
     public boolean isProjectFolder(FolderEntry folder) throws ServerException {
         try {
-            return getProjectFromWorkspace(folder.getWorkspace(), folder.getPath()) != null;
+            return getCachedProject(folder.getWorkspace(), folder.getPath()) != null;
         } catch (ApiException e) {
             throw new ServerException(e);
         }
@@ -1062,8 +1118,33 @@ public final class DefaultProjectManager implements ProjectManager {
 
         String[] pathToModuleParts = pathToModuleFolder.split(String.format("(?=[%s])", File.separator));
 
-        ProjectConfigDto projectFromWorkspace = getProjectFromWorkspace(folder.getWorkspace(), pathToModuleParts[0]);
+        ProjectConfigDto projectFromWorkspace = getCachedProject(folder.getWorkspace(), pathToModuleParts[0]);
 
         return projectFromWorkspace != null && projectFromWorkspace.findModule(pathToModuleFolder) != null;
     }
+
+    private static final class CachedWorkspace {
+        final UsersWorkspaceDto             workspace;
+        /** Projects of workspace by path. */
+        final Map<String, ProjectConfigDto> projects;
+        final long                          fetchTime;
+
+        CachedWorkspace(UsersWorkspaceDto workspace) {
+            this.workspace = workspace;
+            this.projects = new HashMap<>();
+            if (workspace != null) {
+                for (ProjectConfigDto projectConfig : workspace.getProjects()) {
+                    if (projectConfig.getPath() != null) {
+                        projects.putIfAbsent(projectConfig.getPath(), projectConfig);
+                    }
+                }
+            }
+            this.fetchTime = System.currentTimeMillis();
+        }
+
+        /** Returns {@code false} if workspace is invalidated or must be revalidated. */
+        boolean isValid() {
+            return workspace != null && (System.currentTimeMillis() - fetchTime) < WORKSPACE_REVALIDATION_PERIOD;
+        }
+    }
 }
@@ -24,7 +24,9 @@ import org.eclipse.che.api.project.shared.dto.AttributeDto;
 import org.eclipse.che.api.project.shared.dto.ItemReference;
 import org.eclipse.che.api.project.shared.dto.ProjectImporterDescriptor;
 import org.eclipse.che.api.project.shared.dto.ProjectTypeDto;
+import org.eclipse.che.api.project.shared.dto.SearchOccurrence;
 import org.eclipse.che.api.project.shared.dto.ValueDto;
+import org.eclipse.che.api.vfs.server.search.TextOccurrence;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.ProjectProblemDto;
 import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
@@ -35,6 +37,7 @@ import javax.ws.rs.core.UriBuilder;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 import static javax.ws.rs.HttpMethod.DELETE;
@@ -131,6 +134,14 @@ public class DtoConverter {
                                           .withLinks(generateFolderLinks(folder, uriBuilder));
     }
 
+    public static SearchOccurrence toSearchOccurrence(TextOccurrence occurrence) {
+        return newDto(SearchOccurrence.class).withLineNumber(occurrence.getLineNumber())
+                                             .withStartOffset(occurrence.getStartOffset())
+                                             .withEndOffset(occurrence.getEndOffset())
+                                             .withLineStartOffset(occurrence.getLineStartOffset())
+                                             .withLineContent(occurrence.getLineContent());
+    }
+
     /**
      * The method tries to provide as much as possible information about project.If get error then save information about error
      * with 'problems' field in ProjectConfigDto.
@@ -231,43 +242,52 @@ public class DtoConverter {
     }
 
     private static List<Link> generateFolderLinks(FolderEntry folder, UriBuilder uriBuilder) {
+        return generateFolderLinks(folder, serviceHrefs(folder.getWorkspace(), uriBuilder));
+    }
+
+    private static List<Link> generateFileLinks(FileEntry file, UriBuilder uriBuilder) throws ServerException {
+        return generateFileLinks(file, file.getMediaType(), serviceHrefs(file.getWorkspace(), uriBuilder));
+    }
+
+    /**
+     * Generates links of folder.
+     *
+     * @param hrefs
+     *         function that creates href of link from name of method of {@link ProjectService} and path of item relative to root
+     *         of workspace
+     */
+    static List<Link> generateFolderLinks(FolderEntry folder, BiFunction<String, String, String> hrefs) {
         final List<Link> links = new LinkedList<>();
-        final String workspace = folder.getWorkspace();
         final String relPath = folder.getPath().substring(1);
         //String method, String href, String produces, String rel
-        links.add(LinksHelper.createLink(GET,
-                                         uriBuilder.clone().path(ProjectService.class, "exportZip").build(workspace, relPath).toString(),
-                                         ExtMediaType.APPLICATION_ZIP, LINK_REL_EXPORT_ZIP));
-        links.add(LinksHelper.createLink(GET,
-                                         uriBuilder.clone().path(ProjectService.class, "getChildren").build(workspace, relPath).toString(),
-                                         APPLICATION_JSON, LINK_REL_CHILDREN));
-        links.add(
-                LinksHelper.createLink(GET, uriBuilder.clone().path(ProjectService.class, "getTree").build(workspace, relPath).toString(),
-                                       null, APPLICATION_JSON, LINK_REL_TREE)
-        );
-        links.add(LinksHelper.createLink(GET,
-                                         uriBuilder.clone().path(ProjectService.class, "getModules").build(workspace, relPath).toString(),
-                                         APPLICATION_JSON, LINK_REL_MODULES));
-        links.add(LinksHelper.createLink(DELETE,
-                                         uriBuilder.clone().path(ProjectService.class, "delete").build(workspace, relPath).toString(),
-                                         LINK_REL_DELETE));
+        links.add(LinksHelper.createLink(GET, hrefs.apply("exportZip", relPath), ExtMediaType.APPLICATION_ZIP, LINK_REL_EXPORT_ZIP));
+        links.add(LinksHelper.createLink(GET, hrefs.apply("getChildren", relPath), APPLICATION_JSON, LINK_REL_CHILDREN));
+        links.add(LinksHelper.createLink(GET, hrefs.apply("getTree", relPath), null, APPLICATION_JSON, LINK_REL_TREE));
+        links.add(LinksHelper.createLink(GET, hrefs.apply("getModules", relPath), APPLICATION_JSON, LINK_REL_MODULES));
+        links.add(LinksHelper.createLink(DELETE, hrefs.apply("delete", relPath), LINK_REL_DELETE));
         return links;
     }
 
-    private static List<Link> generateFileLinks(FileEntry file, UriBuilder uriBuilder) throws ServerException {
+    /**
+     * Generates links of file.
+     *
+     * @param mediaType
+     *         media type of file
+     * @param hrefs
+     *         function that creates href of link from name of method of {@link ProjectService} and path of item relative to root
+     *         of workspace
+     */
+    static List<Link> generateFileLinks(FileEntry file, String mediaType, BiFunction<String, String, String> hrefs) {
         final List<Link> links = new LinkedList<>();
-        final String workspace = file.getWorkspace();
         final String relPath = file.getPath().substring(1);
-        links.add(LinksHelper.createLink(GET, uriBuilder.clone().path(ProjectService.class, "getFile").build(workspace, relPath).toString(),
-                                         null, file.getMediaType(), LINK_REL_GET_CONTENT));
-        links.add(LinksHelper.createLink(PUT,
-                                         uriBuilder.clone().path(ProjectService.class, "updateFile").build(workspace, relPath).toString(),
-                                         MediaType.WILDCARD, null, LINK_REL_UPDATE_CONTENT));
-        links.add(LinksHelper.createLink(DELETE,
-                                         uriBuilder.clone().path(ProjectService.class, "delete").build(workspace, relPath).toString(),
-                                         LINK_REL_DELETE));
+        links.add(LinksHelper.createLink(GET, hrefs.apply("getFile", relPath), null, mediaType, LINK_REL_GET_CONTENT));
+        links.add(LinksHelper.createLink(PUT, hrefs.apply("updateFile", relPath), MediaType.WILDCARD, null, LINK_REL_UPDATE_CONTENT));
+        links.add(LinksHelper.createLink(DELETE, hrefs.apply("delete", relPath), LINK_REL_DELETE));
         return links;
     }
 
+    private static BiFunction<String, String, String> serviceHrefs(String workspace, UriBuilder uriBuilder) {
+        return (method, relPath) -> uriBuilder.clone().path(ProjectService.class, method).build(workspace, relPath).toString();
+    }
 
 }
@@ -70,7 +70,8 @@ public interface ProjectManager {
      *         id of workspace to find project
      * @param projectPath
      *         path to project in workspace
-     * @return an instance of {@link ProjectConfigDto} or {@code null} if project not found.
+     * @return an instance of {@link ProjectConfigDto} or {@code null} if project not found. Changes of returned configuration aren't
+     *         visible to other callers until it is updated in workspace.
      * @throws ServerException
      *         if some error occurs
      * @throws NullPointerException
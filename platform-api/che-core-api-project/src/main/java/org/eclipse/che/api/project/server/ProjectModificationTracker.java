@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.lang.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Updates modification date of projects in batch. Changes of files just mark path as candidate of modified project, paths are
+ * resolved to projects and modification dates are saved periodically or as soon as number of marked paths reaches threshold. So
+ * misc file of project is written at most once per flush regardless of number of changed files in project.
+ *
+ * @author andrew00x
+ */
+class ProjectModificationTracker {
+    private static final Logger LOG = LoggerFactory.getLogger(ProjectModificationTracker.class);
+
+    static final long FLUSH_PERIOD    = TimeUnit.SECONDS.toMillis(2);
+    static final int  FLUSH_THRESHOLD = 1000;
+
+    private final ProjectManager                                     projectManager;
+    private final long                                               flushPeriod;
+    private final int                                                flushThreshold;
+    /** Modified paths with the latest modification. */
+    private final ConcurrentMap<Pair<String, String>, Modification> modified;
+    private final AtomicBoolean                                      flushScheduled;
+
+    private ScheduledExecutorService executor;
+
+    ProjectModificationTracker(ProjectManager projectManager) {
+        this(projectManager, FLUSH_PERIOD, FLUSH_THRESHOLD);
+    }
+
+    ProjectModificationTracker(ProjectManager projectManager, long flushPeriod, int flushThreshold) {
+        this.projectManager = projectManager;
+        this.flushPeriod = flushPeriod;
+        this.flushThreshold = flushThreshold;
+        modified = new ConcurrentHashMap<>();
+        flushScheduled = new AtomicBoolean();
+    }
+
+    synchronized void start() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("ProjectModificationTracker-%d")
+                                                                                            .setDaemon(true)
+                                                                                            .build());
+            executor.scheduleWithFixedDelay(this::flush, flushPeriod, flushPeriod, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Stops periodical flushes and saves all collected modifications. */
+    void stop() {
+        final ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = this.executor;
+            this.executor = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    LOG.warn("Unable terminate flush of project modifications");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Marks path as modified. Path is saved as project modification if it is path of project at the moment of flush.
+     *
+     * @param workspace
+     *         id of workspace
+     * @param path
+     *         path of project or any other folder
+     * @param date
+     *         modification date
+     */
+    void pathModified(String workspace, String path, long date) {
+        // Save user context to update project on behalf of the user who modified it.
+        final Modification modification = new Modification(date, new EnvironmentContext(EnvironmentContext.getCurrent()));
+        modified.merge(Pair.of(workspace, path), modification, (a, b) -> a.date >= b.date ? a : b);
+        if (modified.size() >= flushThreshold && flushScheduled.compareAndSet(false, true)) {
+            final ScheduledExecutorService executor;
+            synchronized (this) {
+                executor = this.executor;
+            }
+            if (executor == null) {
+                flushScheduled.set(false);
+                return;
+            }
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // Stopped, all modifications are saved by stop().
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    /** Saves modification dates of all modified projects. */
+    void flush() {
+        flushScheduled.set(false);
+        final EnvironmentContext callerContext = EnvironmentContext.getCurrent();
+        for (Pair<String, String> key : modified.keySet()) {
+            final Modification modification = modified.remove(key);
+            if (modification == null) {
+                continue;
+            }
+            EnvironmentContext.setCurrent(modification.context);
+            try {
+                final Project project = projectManager.getProject(key.first, key.second);
+                if (project != null) {
+                    final ProjectMisc misc = project.getMisc();
+                    if (misc.getModificationDate() < modification.date) {
+                        misc.setModificationDate(modification.date);
+                        misc.save();
+                    }
+                }
+            } catch (Exception e) {
+                LOG.error(e.getMessage(), e);
+            } finally {
+                EnvironmentContext.setCurrent(callerContext);
+            }
+        }
+    }
+
+    private static class Modification {
+        final long               date;
+        final EnvironmentContext context;
+
+        Modification(long date, EnvironmentContext context) {
+            this.date = date;
+            this.context = context;
+        }
+    }
+}
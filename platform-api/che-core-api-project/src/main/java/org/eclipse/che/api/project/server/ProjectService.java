@@ -17,6 +17,7 @@ import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.stream.JsonWriter;
 
 import org.apache.commons.fileupload.FileItem;
 import org.eclipse.che.api.core.BadRequestException;
@@ -45,6 +46,9 @@ import org.eclipse.che.api.vfs.server.ContentStream;
 import org.eclipse.che.api.vfs.server.VirtualFile;
 import org.eclipse.che.api.vfs.server.VirtualFileSystemImpl;
 import org.eclipse.che.api.vfs.server.search.QueryExpression;
+import org.eclipse.che.api.vfs.server.search.SearchCursor;
+import org.eclipse.che.api.vfs.server.search.SearchResult;
+import org.eclipse.che.api.vfs.server.search.SearchResultEntry;
 import org.eclipse.che.api.vfs.server.search.SearcherProvider;
 import org.eclipse.che.api.vfs.shared.dto.AccessControlEntry;
 import org.eclipse.che.api.vfs.shared.dto.Principal;
@@ -54,6 +58,7 @@ import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.ws.rs.ExtMediaType;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,12 +77,17 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -1037,33 +1047,41 @@ public class ProjectService extends Service {
     @GET
     @Path("/export/{path:.*}")
     @Produces(ExtMediaType.APPLICATION_ZIP)
-    public ContentStream exportZip(@ApiParam(value = "Workspace ID", required = true)
-                                   @PathParam("ws-id") String workspace,
-                                   @ApiParam(value = "Path to resource to be imported")
-                                   @PathParam("path") String path)
+    public Response exportZip(@ApiParam(value = "Workspace ID", required = true)
+                              @PathParam("ws-id") String workspace,
+                              @ApiParam(value = "Path to resource to be imported")
+                              @PathParam("path") String path)
             throws NotFoundException, ForbiddenException, ServerException {
         final FolderEntry folder = asFolder(workspace, path);
-        return VirtualFileSystemImpl.exportZip(folder.getVirtualFile());
+        return VirtualFileSystemImpl.streamZip(folder.getVirtualFile());
     }
 
     @POST
     @Path("/export/{path:.*}")
     @Consumes(MediaType.TEXT_PLAIN)
     @Produces(ExtMediaType.APPLICATION_ZIP)
-    public Response exportDiffZip(@PathParam("ws-id") String workspace, @PathParam("path") String path, InputStream in)
-            throws NotFoundException, ForbiddenException, ServerException {
+    public Response exportDiffZip(@PathParam("ws-id") String workspace,
+                                  @PathParam("path") String path,
+                                  @DefaultValue(VirtualFileSystemImpl.DEFAULT_HASH_ALGORITHM)
+                                  @QueryParam("hashAlgorithm") String hashAlgorithm,
+                                  InputStream in)
+            throws NotFoundException, ForbiddenException, ConflictException, ServerException {
         final FolderEntry folder = asFolder(workspace, path);
-        return VirtualFileSystemImpl.exportZip(folder.getVirtualFile(), in);
+        return VirtualFileSystemImpl.exportZip(folder.getVirtualFile(), hashAlgorithm, in);
     }
 
     @POST
     @Path("/export/{path:.*}")
     @Consumes(MediaType.TEXT_PLAIN)
     @Produces(MediaType.MULTIPART_FORM_DATA)
-    public Response exportDiffZipMultipart(@PathParam("ws-id") String workspace, @PathParam("path") String path, InputStream in)
-            throws NotFoundException, ForbiddenException, ServerException {
+    public Response exportDiffZipMultipart(@PathParam("ws-id") String workspace,
+                                           @PathParam("path") String path,
+                                           @DefaultValue(VirtualFileSystemImpl.DEFAULT_HASH_ALGORITHM)
+                                           @QueryParam("hashAlgorithm") String hashAlgorithm,
+                                           InputStream in)
+            throws NotFoundException, ForbiddenException, ConflictException, ServerException {
         final FolderEntry folder = asFolder(workspace, path);
-        return VirtualFileSystemImpl.exportZipMultipart(folder.getVirtualFile(), in);
+        return VirtualFileSystemImpl.exportZipMultipart(folder.getVirtualFile(), hashAlgorithm, in);
     }
 
     @GET
@@ -1135,11 +1153,64 @@ public class ProjectService extends Service {
                                @DefaultValue("false") @QueryParam("includeFiles") boolean includeFiles)
             throws NotFoundException, ForbiddenException, ServerException {
         final FolderEntry folder = asFolder(workspace, path);
-        final UriBuilder uriBuilder = getServiceContext().getServiceUriBuilder();
-        final DtoFactory dtoFactory = DtoFactory.getInstance();
-        return dtoFactory.createDto(TreeElement.class)
-                         .withNode(DtoConverter.toItemReference(folder, uriBuilder.clone(), projectManager))
-                         .withChildren(getTree(folder, depth, includeFiles, uriBuilder, dtoFactory));
+        return new ProjectTreeWriter(projectManager, workspace, getServiceContext().getServiceUriBuilder(), includeFiles).getTree(folder,
+                                                                                                                            depth);
+    }
+
+    @ApiOperation(value = "Get trees of few folders",
+                  notes = "Get trees of few folders in one request. Trees are written to response while folders are traversed. " +
+                          "Depth is specified in a query parameter",
+                  response = TreeElement.class,
+                  responseContainer = "List",
+                  position = 22)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 400, message = "Paths of folders are not specified"),
+            @ApiResponse(code = 403, message = "User not authorized to call this operation"),
+            @ApiResponse(code = 404, message = "Not found"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    @GET
+    @Path("/trees")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getTrees(@ApiParam(value = "Workspace ID", required = true)
+                             @PathParam("ws-id") String workspace,
+                             @ApiParam(value = "Paths to folders. Can be projects or its folders", required = true)
+                             @QueryParam("path") List<String> paths,
+                             @ApiParam(value = "Tree depth. This parameter can be dropped. If not specified ?depth=1 is used by default")
+                             @DefaultValue("1") @QueryParam("depth") int depth,
+                             @ApiParam(value = "include children files (in addition to children folders). This parameter can be dropped" +
+                                               ". If not specified ?includeFiles=false is used by default")
+                             @DefaultValue("false") @QueryParam("includeFiles") boolean includeFiles,
+                             @ApiParam(value = "include links of items. This parameter can be dropped" +
+                                               ". If not specified ?includeLinks=true is used by default")
+                             @DefaultValue("true") @QueryParam("includeLinks") boolean includeLinks)
+            throws NotFoundException, ForbiddenException, ServerException, BadRequestException {
+        if (paths == null || paths.isEmpty()) {
+            throw new BadRequestException("Paths of folders are not specified. ");
+        }
+        // Check all folders before start writing response, any error after that can't be sent to client properly.
+        final List<FolderEntry> folders = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            folders.add(asFolder(workspace, path));
+        }
+        final ProjectTreeWriter treeWriter = new ProjectTreeWriter(projectManager,
+                                                                   workspace,
+                                                                   includeLinks ? getServiceContext().getServiceUriBuilder() : null,
+                                                                   includeFiles);
+        final StreamingOutput output = out -> {
+            final JsonWriter writer = JsonStreams.newWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+            try {
+                writer.beginArray();
+                for (FolderEntry folder : folders) {
+                    treeWriter.writeTree(writer, folder, depth);
+                }
+                writer.endArray();
+            } catch (ServerException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            writer.flush();
+        };
+        return Response.ok(output, MediaType.APPLICATION_JSON).build();
     }
 
     @ApiOperation(value = "Get file or folder",
@@ -1190,35 +1261,11 @@ public class ProjectService extends Service {
         return item;
     }
 
-    private List<TreeElement> getTree(FolderEntry folder, int depth, boolean includeFiles, UriBuilder uriBuilder, DtoFactory dtoFactory)
-            throws ServerException {
-        if (depth == 0) {
-            return null;
-        }
-        final List<? extends VirtualFileEntry> children;
-
-        if (includeFiles) {
-            children = folder.getChildFoldersFiles();
-        } else {
-            children = folder.getChildFolders();
-        }
-
-        final List<TreeElement> nodes = new ArrayList<>(children.size());
-        for (VirtualFileEntry child : children) {
-            if (child.isFolder()) {
-                nodes.add(dtoFactory.createDto(TreeElement.class)
-                                    .withNode(DtoConverter.toItemReference((FolderEntry)child, uriBuilder.clone(), projectManager))
-                                    .withChildren(getTree((FolderEntry)child, depth - 1, includeFiles, uriBuilder, dtoFactory)));
-            } else { // child.isFile()
-                nodes.add(dtoFactory.createDto(TreeElement.class)
-                                    .withNode(DtoConverter.toItemReference((FileEntry)child, uriBuilder.clone())));
-            }
-        }
-        return nodes;
-    }
-
     @ApiOperation(value = "Search for resources",
-                  notes = "Search for resources applying a number of search filters as query parameters",
+                  notes = "Search for resources applying a number of search filters as query parameters. If there are more items " +
+                          "than returned then response contains header " + Constants.SEARCH_CURSOR_HEADER + ", its value may be " +
+                          "sent with the same query as parameter 'cursor' to get the next page of result. If search index is " +
+                          "not built yet then response contains header " + Constants.SEARCH_PARTIAL_HEADER + " with value 'true'",
                   response = ItemReference.class,
                   responseContainer = "List",
                   position = 23)
@@ -1231,20 +1278,24 @@ public class ProjectService extends Service {
     @GET
     @Path("/search/{path:.*}")
     @Produces(MediaType.APPLICATION_JSON)
-    public List<ItemReference> search(@ApiParam(value = "Workspace ID", required = true)
-                                      @PathParam("ws-id") String workspace,
-                                      @ApiParam(value = "Path to resource, i.e. where to search?", required = true)
-                                      @PathParam("path") String path,
-                                      @ApiParam(value = "Resource name")
-                                      @QueryParam("name") String name,
-                                      @ApiParam(value = "Media type")
-                                      @QueryParam("mediatype") String mediatype,
-                                      @ApiParam(value = "Search keywords")
-                                      @QueryParam("text") String text,
-                                      @ApiParam(value = "Maximum items to display. If this parameter is dropped, there are no limits")
-                                      @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
-                                      @ApiParam(value = "Skip count")
-                                      @QueryParam("skipCount") int skipCount)
+    public Response search(@ApiParam(value = "Workspace ID", required = true)
+                           @PathParam("ws-id") String workspace,
+                           @ApiParam(value = "Path to resource, i.e. where to search?", required = true)
+                           @PathParam("path") String path,
+                           @ApiParam(value = "Resource name")
+                           @QueryParam("name") String name,
+                           @ApiParam(value = "Media type")
+                           @QueryParam("mediatype") String mediatype,
+                           @ApiParam(value = "Search keywords")
+                           @QueryParam("text") String text,
+                           @ApiParam(value = "Maximum items to display, limited by server. Use cursor to get the next items")
+                           @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
+                           @ApiParam(value = "Skip count")
+                           @QueryParam("skipCount") int skipCount,
+                           @ApiParam(value = "Cursor obtained with previous page of result, if set then 'skipCount' is ignored")
+                           @QueryParam("cursor") String cursor,
+                           @ApiParam(value = "Include line numbers and offsets of found text in result")
+                           @QueryParam("occurrences") @DefaultValue("false") boolean occurrences)
             throws NotFoundException, ForbiddenException, ConflictException, ServerException {
         // to search from workspace root path should end with "/" i.e /{ws}/search/?<query>
         final FolderEntry folder = path.isEmpty() ? projectManager.getProjectsRoot(workspace) : asFolder(workspace, path);
@@ -1252,30 +1303,57 @@ public class ProjectService extends Service {
             if (skipCount < 0) {
                 throw new ConflictException(String.format("Invalid 'skipCount' parameter: %d.", skipCount));
             }
+            SearchCursor searchCursor = null;
+            if (cursor != null) {
+                try {
+                    searchCursor = SearchCursor.valueOf(cursor);
+                } catch (IllegalArgumentException e) {
+                    throw new ConflictException(String.format("Invalid 'cursor' parameter: %s.", cursor));
+                }
+            }
             final QueryExpression query = new QueryExpression().setPath(path.startsWith("/") ? path : ('/' + path))
                                                                .setName(name)
                                                                .setText(text)
                                                                .setSkipCount(skipCount)
-                                                               .setMaxItems(maxItems);
+                                                               .setMaxItems(maxItems)
+                                                               .setCursor(searchCursor)
+                                                               .setIncludePositions(occurrences);
 
-            final String[] paths = searcherProvider.getSearcher(folder.getVirtualFile().getMountPoint(), true).search(query);
-            final List<ItemReference> items = new ArrayList<>(paths.length);
+            final SearchResult searchResult = searcherProvider.getSearcher(folder.getVirtualFile().getMountPoint(), true).search(query);
+            final List<SearchResultEntry> results = searchResult.getResults();
+            final List<ItemReference> items = new ArrayList<>(results.size());
             final FolderEntry root = projectManager.getProjectsRoot(workspace);
             final UriBuilder uriBuilder = getServiceContext().getServiceUriBuilder();
-            for (String relativePath : paths) {
+            for (SearchResultEntry result : results) {
                 VirtualFileEntry child = null;
                 try {
-                    child = root.getChild(relativePath);
+                    child = root.getChild(result.getFilePath());
                 } catch (ForbiddenException ignored) {
                     // Ignore item that user can't access
                 }
                 if (child != null && child.isFile()) {
-                    items.add(DtoConverter.toItemReference((FileEntry)child, uriBuilder.clone()));
+                    final ItemReference item = DtoConverter.toItemReference((FileEntry)child, uriBuilder.clone());
+                    if (occurrences) {
+                        item.setOccurrences(result.getOccurrences()
+                                                  .stream()
+                                                  .map(DtoConverter::toSearchOccurrence)
+                                                  .collect(Collectors.toList()));
+                    }
+                    items.add(item);
                 }
             }
-            return items;
+            final Response.ResponseBuilder response = Response.ok(new GenericEntity<List<ItemReference>>(items) {
+            });
+            if (searchResult.getNextCursor() != null) {
+                response.header(Constants.SEARCH_CURSOR_HEADER, searchResult.getNextCursor().toString());
+            }
+            if (searchResult.isPartial()) {
+                response.header(Constants.SEARCH_PARTIAL_HEADER, true);
+            }
+            return response.build();
         }
-        return Collections.emptyList();
+        return Response.ok(new GenericEntity<List<ItemReference>>(Collections.<ItemReference>emptyList()) {
+        }).build();
     }
 
     @ApiOperation(value = "Get user permissions in a project",
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.gson.stream.JsonWriter;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.project.shared.dto.ItemReference;
+import org.eclipse.che.api.project.shared.dto.TreeElement;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.dto.server.JsonSerializable;
+
+import javax.ws.rs.core.UriBuilder;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+
+/**
+ * Builds tree of project items. Each folder is listed once. Links of items are created from templates that are resolved once per
+ * instance of this class, it is much cheaper than building URI for each link of each item with {@link UriBuilder}. Links may be
+ * omitted at all. Tree may be built as DTO or may be written directly to JSON stream while folders are traversed.
+ * <p/>
+ * Instance of this class isn't thread-safe.
+ *
+ * @author andrew00x
+ */
+class ProjectTreeWriter {
+    /** Placeholder of path of item in link templates. */
+    private static final String PATH_PLACEHOLDER = "__path__";
+    private static final char[] HEX              = "0123456789ABCDEF".toCharArray();
+
+    private final ProjectManager projectManager;
+    private final String         workspace;
+    private final UriBuilder     uriBuilder;
+    private final boolean        includeFiles;
+    /** Prefix and suffix of href of link by name of method of {@link ProjectService}. */
+    private final Map<String, String[]> templates;
+
+    /**
+     * @param projectManager
+     *         project manager, is used for detecting type of folders
+     * @param workspace
+     *         id of workspace
+     * @param uriBuilder
+     *         builder of URI of {@link ProjectService}. If {@code null} then items don't have links
+     * @param includeFiles
+     *         if {@code true} then tree contains files, otherwise tree contains only folders
+     */
+    ProjectTreeWriter(ProjectManager projectManager, String workspace, @Nullable UriBuilder uriBuilder, boolean includeFiles) {
+        this.projectManager = projectManager;
+        this.workspace = workspace;
+        this.uriBuilder = uriBuilder;
+        this.includeFiles = includeFiles;
+        templates = new HashMap<>();
+    }
+
+    /** Builds tree of {@code folder} with the specified {@code depth}. */
+    TreeElement getTree(FolderEntry folder, int depth) throws ServerException {
+        return newDto(TreeElement.class).withNode(toItemReference(folder)).withChildren(getChildren(folder, depth));
+    }
+
+    private List<TreeElement> getChildren(FolderEntry folder, int depth) throws ServerException {
+        if (depth == 0) {
+            return null;
+        }
+        final List<VirtualFileEntry> children = listChildren(folder);
+        final List<TreeElement> nodes = new ArrayList<>(children.size());
+        for (VirtualFileEntry child : children) {
+            if (child.isFolder()) {
+                nodes.add(getTree((FolderEntry)child, depth - 1));
+            } else {
+                nodes.add(newDto(TreeElement.class).withNode(toItemReference(child)));
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Writes tree of {@code folder} with the specified {@code depth} to JSON stream. Format of JSON is the same as format of {@link
+     * TreeElement}. Children of folder are listed and written one by one, the whole tree is never kept in memory.
+     */
+    void writeTree(JsonWriter writer, FolderEntry folder, int depth) throws ServerException, IOException {
+        writer.beginObject();
+        writer.name("node");
+        ((JsonSerializable)toItemReference(folder)).writeTo(writer);
+        if (depth != 0) {
+            writer.name("children");
+            writer.beginArray();
+            for (VirtualFileEntry child : listChildren(folder)) {
+                if (child.isFolder()) {
+                    writeTree(writer, (FolderEntry)child, depth - 1);
+                } else {
+                    writer.beginObject();
+                    writer.name("node");
+                    ((JsonSerializable)toItemReference(child)).writeTo(writer);
+                    writer.endObject();
+                }
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
+    private List<VirtualFileEntry> listChildren(FolderEntry folder) throws ServerException {
+        if (includeFiles) {
+            return folder.getChildFoldersFiles();
+        }
+        return new ArrayList<>(folder.getChildFolders());
+    }
+
+    /** Creates item for file or folder. */
+    ItemReference toItemReference(VirtualFileEntry entry) throws ServerException {
+        final ItemReference item = newDto(ItemReference.class).withName(entry.getName())
+                                                              .withPath(entry.getPath())
+                                                              .withAttributes(entry.getAttributes())
+                                                              .withCreated(entry.getCreated())
+                                                              .withModified(entry.getModified());
+        if (entry.isFile()) {
+            final FileEntry file = (FileEntry)entry;
+            final String mediaType = file.getMediaType();
+            item.withType("file")
+                .withMediaType(mediaType)
+                .withContentLength(file.getVirtualFile().getLength());
+            if (uriBuilder != null) {
+                item.withLinks(DtoConverter.generateFileLinks(file, mediaType, this::href));
+            }
+        } else {
+            final FolderEntry folder = (FolderEntry)entry;
+            item.withType(projectManager.isProjectFolder(folder) ? "project" : projectManager.isModuleFolder(folder) ? "module" : "folder")
+                .withMediaType("text/directory");
+            if (uriBuilder != null) {
+                item.withLinks(DtoConverter.generateFolderLinks(folder, this::href));
+            }
+        }
+        return item;
+    }
+
+    private String href(String method, String relPath) {
+        String[] template = templates.get(method);
+        if (template == null) {
+            final String uri = uriBuilder.clone().path(ProjectService.class, method).build(workspace, PATH_PLACEHOLDER).toString();
+            final int i = uri.indexOf(PATH_PLACEHOLDER);
+            template = new String[]{uri.substring(0, i), uri.substring(i + PATH_PLACEHOLDER.length())};
+            templates.put(method, template);
+        }
+        final StringBuilder href = new StringBuilder(template[0].length() + relPath.length() + template[1].length());
+        href.append(template[0]);
+        encodePath(relPath, href);
+        href.append(template[1]);
+        return href.toString();
+    }
+
+    /** Encodes path in the same way as {@link UriBuilder} encodes values of path templates, '/' isn't encoded. */
+    static void encodePath(String path, StringBuilder out) {
+        for (int i = 0, length = path.length(); i < length; i++) {
+            if (!isPathChar(path.charAt(i))) {
+                for (byte b : path.substring(i).getBytes(StandardCharsets.UTF_8)) {
+                    if (b >= 0 && isPathChar((char)b)) {
+                        out.append((char)b);
+                    } else {
+                        out.append('%').append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+                    }
+                }
+                return;
+            }
+            out.append(path.charAt(i));
+        }
+    }
+
+    /** Unreserved characters, sub-delims, ':', '@' and '/' don't need encoding in path, see RFC 3986. */
+    private static boolean isPathChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || "-._~!$&'()*+,;=:@/".indexOf(c) >= 0;
+    }
+}
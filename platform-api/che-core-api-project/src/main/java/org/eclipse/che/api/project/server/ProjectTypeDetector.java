@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.ApiException;
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.model.project.type.Attribute;
+import org.eclipse.che.api.core.model.project.type.ProjectType;
+import org.eclipse.che.api.project.server.type.AttributeValue;
+import org.eclipse.che.api.project.server.type.Variable;
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Estimates which project types match folder. Estimations of all types run concurrently on a bounded pool of threads. Estimators
+ * get snapshot of the folder, so each child of folder is listed and each file is read at most once per detection regardless of
+ * number of project types that check it. Detection is limited in time, types that aren't estimated in time are skipped.
+ *
+ * @author andrew00x
+ */
+class ProjectTypeDetector {
+    private static final Logger LOG = LoggerFactory.getLogger(ProjectTypeDetector.class);
+
+    /** Default time limit of detection. */
+    static final long DETECTION_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+    /** Content of files that are bigger than this isn't kept in snapshot. */
+    static final int  MAX_CACHED_CONTENT = 1024 * 1024;
+
+    private final ExecutorService executor;
+    private final long            timeout;
+
+    ProjectTypeDetector() {
+        this(Runtime.getRuntime().availableProcessors(), DETECTION_TIMEOUT);
+    }
+
+    ProjectTypeDetector(int threads, long timeout) {
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("ProjectTypeDetector-%d")
+                                                                                        .setDaemon(true)
+                                                                                        .build());
+        this.timeout = timeout;
+    }
+
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Estimates single project type. Type matches folder if it has at least one attribute with {@link ValueProviderFactory} and
+     * values of all such attributes are calculated without {@link ValueStorageException}.
+     *
+     * @return values of attributes which are calculated with {@link ValueProviderFactory}
+     * @throws ValueStorageException
+     *         if value of any attribute can't be calculated, typically it means that type doesn't match folder
+     */
+    static Map<String, AttributeValue> estimate(FolderEntry folder, ProjectType type) throws ValueStorageException {
+        final Map<String, AttributeValue> attributes = new HashMap<>();
+        for (Attribute attr : type.getAttributes()) {
+            if (attr.isVariable() && ((Variable)attr).getValueProviderFactory() != null) {
+                // getValue throws ValueStorageException if not valid
+                attributes.put(attr.getName(), ((Variable)attr).getValue(folder));
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Estimates all specified project types against the same folder.
+     *
+     * @return estimations of types that match folder in the same order as types are specified. Types that don't match folder, fail
+     * or are not estimated in time aren't included in result.
+     * @throws ServerException
+     *         if estimation fails with error that isn't related to matching of type and folder
+     * @throws ForbiddenException
+     *         if user doesn't have access to files of folder
+     */
+    Map<ProjectType, Map<String, AttributeValue>> detect(FolderEntry folder, List<? extends ProjectType> types)
+            throws ServerException, ForbiddenException {
+        final FolderSnapshot snapshot = new FolderSnapshot(folder);
+        final Map<ProjectType, Future<Map<String, AttributeValue>>> futures = new LinkedHashMap<>();
+        for (ProjectType type : types) {
+            futures.put(type, executor.submit(ThreadLocalPropagateContext.wrap(() -> estimate(snapshot, type))));
+        }
+        final long deadline = System.currentTimeMillis() + timeout;
+        final Map<ProjectType, Map<String, AttributeValue>> estimations = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<ProjectType, Future<Map<String, AttributeValue>>> e : futures.entrySet()) {
+                final ProjectType type = e.getKey();
+                try {
+                    estimations.put(type, e.getValue().get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS));
+                } catch (TimeoutException te) {
+                    LOG.warn("Project type {} isn't estimated in {} ms against folder {}", type.getId(), timeout, folder.getPath());
+                } catch (ExecutionException ee) {
+                    final Throwable cause = ee.getCause();
+                    if (cause instanceof ValueStorageException) {
+                        LOG.warn(cause.getLocalizedMessage(), cause);
+                    } else if (cause instanceof ForbiddenException) {
+                        throw (ForbiddenException)cause;
+                    } else if (cause instanceof ServerException) {
+                        throw (ServerException)cause;
+                    } else if (cause instanceof ApiException) {
+                        throw new ServerException(((ApiException)cause).getServiceError());
+                    } else {
+                        throw new ServerException(cause.getMessage(), cause);
+                    }
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Detection of project types is interrupted. ");
+        } finally {
+            // Stop estimations that are not completed in time or are not needed anymore because of failure.
+            for (Future<Map<String, AttributeValue>> future : futures.values()) {
+                future.cancel(true);
+            }
+        }
+        return estimations;
+    }
+
+    /** Folder that lists its children and reads content of its files once and shares them between all its users. */
+    static class FolderSnapshot extends FolderEntry {
+        private final ConcurrentMap<String, VirtualFileEntry> childrenByPath;
+
+        private volatile List<VirtualFileEntry> children;
+
+        FolderSnapshot(FolderEntry folder) {
+            super(folder.getWorkspace(), folder.getVirtualFile());
+            childrenByPath = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        public VirtualFileEntry getChild(String path) throws ForbiddenException, ServerException {
+            VirtualFileEntry child = childrenByPath.get(path);
+            if (child == null) {
+                child = snapshot(super.getChild(path));
+                if (child == null) {
+                    return null;
+                }
+                final VirtualFileEntry existed = childrenByPath.putIfAbsent(path, child);
+                if (existed != null) {
+                    child = existed;
+                }
+            }
+            return child;
+        }
+
+        @Override
+        public List<VirtualFileEntry> getChildren() throws ServerException {
+            List<VirtualFileEntry> myChildren = children;
+            if (myChildren == null) {
+                final List<VirtualFileEntry> list = new ArrayList<>();
+                for (VirtualFileEntry child : super.getChildren()) {
+                    final VirtualFileEntry existed = childrenByPath.putIfAbsent(child.getName(), snapshot(child));
+                    list.add(existed == null ? childrenByPath.get(child.getName()) : existed);
+                }
+                children = myChildren = list;
+            }
+            return new ArrayList<>(myChildren);
+        }
+
+        @Override
+        public List<FileEntry> getChildFiles() throws ServerException {
+            final List<FileEntry> files = new ArrayList<>();
+            for (VirtualFileEntry child : getChildren()) {
+                if (child.isFile()) {
+                    files.add((FileEntry)child);
+                }
+            }
+            return files;
+        }
+
+        @Override
+        public List<FolderEntry> getChildFolders() throws ServerException {
+            final List<FolderEntry> folders = new ArrayList<>();
+            for (VirtualFileEntry child : getChildren()) {
+                if (child.isFolder()) {
+                    folders.add((FolderEntry)child);
+                }
+            }
+            return folders;
+        }
+
+        private static VirtualFileEntry snapshot(VirtualFileEntry entry) {
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isFile()) {
+                return new FileSnapshot((FileEntry)entry);
+            }
+            return new FolderSnapshot((FolderEntry)entry);
+        }
+    }
+
+    /** File that reads its content once, content of files bigger than {@link #MAX_CACHED_CONTENT} is read each time. */
+    static class FileSnapshot extends FileEntry {
+        private byte[] content;
+
+        FileSnapshot(FileEntry file) {
+            super(file.getWorkspace(), file.getVirtualFile());
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException, ServerException {
+            final byte[] myContent = getCachedContent();
+            return myContent == null ? super.getInputStream() : new ByteArrayInputStream(myContent);
+        }
+
+        @Override
+        public byte[] contentAsBytes() throws IOException, ServerException {
+            final byte[] myContent = getCachedContent();
+            // Copy to be sure nobody changes content that is shared.
+            return myContent == null ? super.contentAsBytes() : Arrays.copyOf(myContent, myContent.length);
+        }
+
+        private synchronized byte[] getCachedContent() throws IOException, ServerException {
+            if (content == null && getVirtualFile().getLength() <= MAX_CACHED_CONTENT) {
+                content = super.contentAsBytes();
+            }
+            return content;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.project.server.type.Variable;
+import org.eclipse.che.api.vfs.server.observation.MoveEvent;
+import org.eclipse.che.api.vfs.server.observation.RenameEvent;
+import org.eclipse.che.api.vfs.server.observation.VirtualFileEvent;
+import org.eclipse.che.commons.lang.Pair;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches values of runtime attributes of projects. Values are cached per project path, project type and attribute only if
+ * {@link ValueProviderFactory} of attribute {@link ValueProviderFactory#getDependencies() declares} files which values depend on.
+ * Cached values are dropped when any of these files is created, updated, removed, moved or renamed, or when project folder itself is
+ * removed, moved or renamed. Changes of files bypassing virtual file system are not visible for cache, so providers that read such
+ * files, e.g. git repository, must not declare dependencies.
+ *
+ * @author andrew00x
+ */
+@Singleton
+public class RuntimeAttributeCache {
+    private final EventService                      eventService;
+    private final EventSubscriber<VirtualFileEvent> vfsSubscriber;
+    private final ConcurrentMap<Key, List<String>>  values;
+    /**
+     * Dependencies of cached values and of values that are being calculated. Value is cached only if its dependencies are not
+     * changed while value is calculated, i.e. if it is still registered here with the same instance of dependencies. Modified only
+     * with lock of this instance.
+     */
+    private final ConcurrentMap<Key, Dependencies> dependencies;
+    /** Keys of cached values by workspace and absolute path of dependency. Guarded by this instance. */
+    private final Map<Pair<String, String>, Set<Key>> dependents;
+
+    @Inject
+    public RuntimeAttributeCache(EventService eventService) {
+        this.eventService = eventService;
+        values = new ConcurrentHashMap<>();
+        dependencies = new ConcurrentHashMap<>();
+        dependents = new HashMap<>();
+        vfsSubscriber = new EventSubscriber<VirtualFileEvent>() {
+            @Override
+            public void onEvent(VirtualFileEvent event) {
+                if (dependencies.isEmpty()) {
+                    return;
+                }
+                switch (event.getType()) {
+                    case CONTENT_UPDATED:
+                    case CREATED:
+                        invalidate(event.getWorkspaceId(), event.getPath(), false);
+                        break;
+                    case DELETED:
+                        invalidate(event.getWorkspaceId(), event.getPath(), event.isFolder());
+                        break;
+                    case MOVED:
+                        invalidate(event.getWorkspaceId(), ((MoveEvent)event).getOldPath(), event.isFolder());
+                        invalidate(event.getWorkspaceId(), event.getPath(), event.isFolder());
+                        break;
+                    case RENAMED:
+                        invalidate(event.getWorkspaceId(), ((RenameEvent)event).getOldPath(), event.isFolder());
+                        invalidate(event.getWorkspaceId(), event.getPath(), event.isFolder());
+                        break;
+                }
+            }
+        };
+    }
+
+    @PostConstruct
+    void start() {
+        eventService.subscribe(vfsSubscriber);
+    }
+
+    @PreDestroy
+    void stop() {
+        eventService.unsubscribe(vfsSubscriber);
+        synchronized (this) {
+            values.clear();
+            dependencies.clear();
+            dependents.clear();
+        }
+    }
+
+    /**
+     * Gets values of variable of project type. Values are taken from cache or are calculated with {@link ValueProvider} of variable.
+     *
+     * @param projectFolder
+     *         folder of project or module
+     * @param projectType
+     *         id of project type that defines variable
+     * @param variable
+     *         variable that has {@link ValueProviderFactory}
+     * @return values or {@code null} if {@link ValueProvider} produces {@code null}, such values are not cached
+     * @throws ValueStorageException
+     *         if {@link ValueProvider} fails to calculate values
+     */
+    public List<String> getValues(FolderEntry projectFolder, String projectType, Variable variable) throws ValueStorageException {
+        final ValueProviderFactory factory = variable.getValueProviderFactory();
+        final List<String> dependencyPaths = factory.getDependencies();
+        if (dependencyPaths == null || dependencyPaths.isEmpty()) {
+            return factory.newInstance(projectFolder).getValues(variable.getName());
+        }
+        final Key key = new Key(projectFolder.getWorkspace(), projectFolder.getPath(), projectType, variable.getName());
+        List<String> cached = values.get(key);
+        if (cached == null) {
+            // Values might be calculated from files that are changed during calculation. Dependencies are registered before
+            // calculation, any change of them drops registration and calculated values are not cached.
+            final Dependencies registration = register(key, dependencyPaths);
+            List<String> calculated = null;
+            try {
+                calculated = factory.newInstance(projectFolder).getValues(variable.getName());
+            } finally {
+                if (calculated == null) {
+                    unregister(key, registration);
+                }
+            }
+            if (calculated == null) {
+                return null;
+            }
+            cached = new ArrayList<>(calculated);
+            put(key, cached, registration);
+        }
+        return new ArrayList<>(cached);
+    }
+
+    private synchronized Dependencies register(Key key, List<String> dependencyPaths) {
+        final List<Pair<String, String>> paths = new ArrayList<>(dependencyPaths.size());
+        for (String dependency : dependencyPaths) {
+            paths.add(Pair.of(key.workspace, key.path + (dependency.startsWith("/") ? dependency : "/" + dependency)));
+        }
+        final Dependencies registration = new Dependencies(paths);
+        final Dependencies previous = dependencies.put(key, registration);
+        if (previous != null) {
+            unlink(key, previous);
+        }
+        for (Pair<String, String> path : paths) {
+            Set<Key> keys = dependents.get(path);
+            if (keys == null) {
+                dependents.put(path, keys = new HashSet<>());
+            }
+            keys.add(key);
+        }
+        return registration;
+    }
+
+    private synchronized void unregister(Key key, Dependencies registration) {
+        if (dependencies.remove(key, registration)) {
+            unlink(key, registration);
+        }
+    }
+
+    private synchronized void put(Key key, List<String> value, Dependencies registration) {
+        // Registration is dropped or replaced if any dependency is changed while value was calculated.
+        if (dependencies.get(key) == registration) {
+            values.put(key, value);
+        }
+    }
+
+    /**
+     * Drops values that depend on file with specified path, or on any of its parents. If {@code withChildren} is {@code true} then
+     * also drops values that depend on files inside of specified path and values of projects inside of specified path.
+     */
+    private synchronized void invalidate(String workspace, String path, boolean withChildren) {
+        final Set<Key> keys = new HashSet<>();
+        for (String parent = path; !parent.isEmpty(); parent = parent.substring(0, Math.max(parent.lastIndexOf('/'), 0))) {
+            final Set<Key> parentDependents = dependents.get(Pair.of(workspace, parent));
+            if (parentDependents != null) {
+                keys.addAll(parentDependents);
+            }
+        }
+        if (withChildren) {
+            final String prefix = path + '/';
+            for (Map.Entry<Pair<String, String>, Set<Key>> e : dependents.entrySet()) {
+                if (workspace.equals(e.getKey().first) && e.getKey().second.startsWith(prefix)) {
+                    keys.addAll(e.getValue());
+                }
+            }
+            // Projects inside of path, e.g. project folder is removed. Their values are not valid anymore even if dependencies
+            // are not changed.
+            for (Key key : dependencies.keySet()) {
+                if (workspace.equals(key.workspace) && (key.path.equals(path) || key.path.startsWith(prefix))) {
+                    keys.add(key);
+                }
+            }
+        }
+        remove(keys);
+    }
+
+    /** Drops values together with registration of their dependencies. Must be called with lock of this instance. */
+    private void remove(Collection<Key> keys) {
+        for (Key key : keys) {
+            values.remove(key);
+            final Dependencies registration = dependencies.remove(key);
+            if (registration != null) {
+                unlink(key, registration);
+            }
+        }
+    }
+
+    /** Removes key from dependents of its dependencies. Must be called with lock of this instance. */
+    private void unlink(Key key, Dependencies registration) {
+        for (Pair<String, String> path : registration.paths) {
+            final Set<Key> keys = dependents.get(path);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                dependents.remove(path);
+            }
+        }
+    }
+
+    // for test
+    synchronized int dependentsSize() {
+        return dependents.size();
+    }
+
+    /** Absolute paths of dependencies of cached value. */
+    private static final class Dependencies {
+        final List<Pair<String, String>> paths;
+
+        Dependencies(List<Pair<String, String>> paths) {
+            this.paths = paths;
+        }
+    }
+
+    private static final class Key {
+        final String workspace;
+        final String path;
+        final String projectType;
+        final String attribute;
+        final int    hashCode;
+
+        Key(String workspace, String path, String projectType, String attribute) {
+            this.workspace = workspace;
+            this.path = path;
+            this.projectType = projectType;
+            this.attribute = attribute;
+            this.hashCode = Objects.hash(workspace, path, projectType, attribute);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key)o;
+            return workspace.equals(other.workspace)
+                   && path.equals(other.path)
+                   && projectType.equals(other.projectType)
+                   && attribute.equals(other.attribute);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.eclipse.che.api.project.server;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Factory for {@link ValueProvider}.
  *
@@ -23,4 +26,16 @@ public interface ValueProviderFactory {
      * @param projectFolder
      */
     ValueProvider newInstance(FolderEntry projectFolder);
+
+    /**
+     * Gets paths of files and folders that values of provider depend on, paths are relative to the project folder, e.g. "pom.xml".
+     * If provider declares dependencies then its values are cached and calculated again only after one of these files, or any
+     * file inside of these folders, is changed. By default provider doesn't declare dependencies and its values are calculated
+     * each time when they are requested.
+     *
+     * @see RuntimeAttributeCache
+     */
+    default List<String> getDependencies() {
+        return Collections.emptyList();
+    }
 }
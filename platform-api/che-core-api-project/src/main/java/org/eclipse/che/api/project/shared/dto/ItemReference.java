@@ -89,4 +89,12 @@ public interface ItemReference extends Hyperlinks {
 
     ItemReference withContentLength(long length);
 
+    /** Get occurrences of searched text. Available only in search results if positions of text are requested. */
+    List<SearchOccurrence> getOccurrences();
+
+    /** Set occurrences of searched text. */
+    void setOccurrences(List<SearchOccurrence> occurrences);
+
+    ItemReference withOccurrences(List<SearchOccurrence> occurrences);
+
 }
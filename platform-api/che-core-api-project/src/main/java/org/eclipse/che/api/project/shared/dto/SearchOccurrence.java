@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Occurrence of searched text in file.
+ *
+ * @author andrew00x
+ */
+@DTO
+public interface SearchOccurrence {
+    /** Get number of line (starting from 1) that contains text. */
+    int getLineNumber();
+
+    void setLineNumber(int lineNumber);
+
+    SearchOccurrence withLineNumber(int lineNumber);
+
+    /** Get offset of the first character of text from the beginning of file. */
+    int getStartOffset();
+
+    void setStartOffset(int startOffset);
+
+    SearchOccurrence withStartOffset(int startOffset);
+
+    /** Get offset after the last character of text from the beginning of file. */
+    int getEndOffset();
+
+    void setEndOffset(int endOffset);
+
+    SearchOccurrence withEndOffset(int endOffset);
+
+    /** Get offset of the first character of line that contains text from the beginning of file. */
+    int getLineStartOffset();
+
+    void setLineStartOffset(int lineStartOffset);
+
+    SearchOccurrence withLineStartOffset(int lineStartOffset);
+
+    /** Get content of line that contains text. Long lines are truncated. */
+    String getLineContent();
+
+    void setLineContent(String lineContent);
+
+    SearchOccurrence withLineContent(String lineContent);
+}
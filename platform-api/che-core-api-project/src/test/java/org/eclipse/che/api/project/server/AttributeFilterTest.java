@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.project.server;
 
+import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.project.server.type.AttributeValue;
 import org.eclipse.che.api.project.server.type.ProjectTypeDef;
 import org.eclipse.che.api.project.server.type.ProjectTypeRegistry;
@@ -71,7 +72,7 @@ public class AttributeFilterTest {
                            .withType(TYPE)
                            .withName(NAME);
 
-        filter = new AttributeFilter(projectManager);
+        filter = new AttributeFilter(projectManager, new RuntimeAttributeCache(new EventService()));
     }
 
     @Test
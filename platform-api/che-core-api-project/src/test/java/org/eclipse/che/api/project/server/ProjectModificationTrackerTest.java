@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author andrew00x
+ */
+@Listeners(value = {MockitoTestNGListener.class})
+public class ProjectModificationTrackerTest {
+    private static final String WORKSPACE = "my_ws";
+
+    @Mock
+    private ProjectManager projectManager;
+    @Mock
+    private Project        project;
+    @Mock
+    private ProjectMisc    misc;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(projectManager.getProject(WORKSPACE, "/my_project")).thenReturn(project);
+        when(project.getMisc()).thenReturn(misc);
+        when(misc.getModificationDate()).thenReturn(-1L);
+    }
+
+    @Test
+    public void shouldSaveModificationDateOfProjectOncePerFlush() throws Exception {
+        final ProjectModificationTracker tracker = new ProjectModificationTracker(projectManager, 60000, 1000);
+        tracker.pathModified(WORKSPACE, "/my_project", 1);
+        tracker.pathModified(WORKSPACE, "/my_project", 3);
+        tracker.pathModified(WORKSPACE, "/my_project", 2);
+        tracker.pathModified(WORKSPACE, "/my_project/src", 3);
+
+        tracker.flush();
+
+        verify(projectManager, times(1)).getProject(WORKSPACE, "/my_project");
+        verify(projectManager, times(1)).getProject(WORKSPACE, "/my_project/src");
+        verify(misc).setModificationDate(3);
+        verify(misc, times(1)).save();
+    }
+
+    @Test
+    public void shouldNotResolveProjectsBeforeFlush() throws Exception {
+        final ProjectModificationTracker tracker = new ProjectModificationTracker(projectManager, 60000, 1000);
+        tracker.pathModified(WORKSPACE, "/my_project", 1);
+
+        verify(projectManager, never()).getProject(anyString(), anyString());
+        tracker.flush();
+        tracker.flush();
+        verify(projectManager, times(1)).getProject(WORKSPACE, "/my_project");
+    }
+
+    @Test
+    public void shouldFlushWhenThresholdIsReached() throws Exception {
+        final ProjectModificationTracker tracker = new ProjectModificationTracker(projectManager, 60000, 2);
+        tracker.start();
+        try {
+            tracker.pathModified(WORKSPACE, "/my_project", 1);
+            tracker.pathModified(WORKSPACE, "/other_project", 1);
+
+            verify(misc, timeout(5000)).save();
+        } finally {
+            tracker.stop();
+        }
+    }
+
+    @Test
+    public void shouldFlushOnStop() throws Exception {
+        final ProjectModificationTracker tracker = new ProjectModificationTracker(projectManager, 60000, 1000);
+        tracker.start();
+        tracker.pathModified(WORKSPACE, "/my_project", 1);
+        tracker.stop();
+
+        verify(misc).setModificationDate(1);
+        verify(misc).save();
+    }
+}
@@ -59,6 +59,7 @@ import org.eclipse.che.api.workspace.server.model.impl.ProjectConfigImpl;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
 import org.eclipse.che.api.workspace.shared.dto.UsersWorkspaceDto;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceConfigUpdatedEvent;
 import org.eclipse.che.commons.json.JsonHelper;
 import org.eclipse.che.commons.lang.ws.rs.ExtMediaType;
 import org.eclipse.che.commons.test.SelfReturningAnswer;
@@ -143,6 +144,7 @@ public class ProjectServiceTest {
     private ResourceLauncher        launcher;
     private ProjectImporterRegistry importerRegistry;
     private ProjectHandlerRegistry  phRegistry;
+    private EventService            eventService;
 
     private org.eclipse.che.commons.env.EnvironmentContext env;
     private HttpJsonRequest                                httpJsonRequest;
@@ -166,7 +168,7 @@ public class ProjectServiceTest {
     @BeforeMethod
     public void setUp() throws Exception {
         when(filterProvider.get()).thenReturn(filter);
-        final EventService eventService = new EventService();
+        eventService = new EventService();
         VirtualFileSystemRegistry vfsRegistry = new VirtualFileSystemRegistry();
 
         final MemoryFileSystemProvider memoryFileSystemProvider =
@@ -648,18 +650,26 @@ public class ProjectServiceTest {
         when(projectConfig.getPath()).thenReturn("my_project");
         when(projectConfig.getType()).thenReturn("my_project_type");
 
-        final ProjectConfigDto moduleConfig = mock(ProjectConfigDto.class);
-        when(moduleConfig.getPath()).thenReturn("/todel");
-        when(moduleConfig.getName()).thenReturn("todel");
-        when(moduleConfig.getType()).thenReturn("my_project_type");
+        final ProjectConfigDto moduleConfig = newDto(ProjectConfigDto.class).withPath("/todel")
+                                                                            .withName("todel")
+                                                                            .withType("my_project_type");
 
         when(projectConfig.getModules()).thenReturn(singletonList(moduleConfig));
+        // Project manager updates copy of configuration, workspace master mock applies update to configuration of my_project.
+        when(httpJsonRequest.setBody(any(ProjectConfigDto.class))).thenAnswer(invocation -> {
+            final ProjectConfigDto update = (ProjectConfigDto)invocation.getArguments()[0];
+            if ("/my_project".equals(update.getPath())) {
+                modules.clear();
+                modules.addAll(update.getModules());
+            }
+            return httpJsonRequest;
+        });
 
         pm.createProject(workspace, "project", new ProjectConfigImpl(projectConfig), null);
         pm.addModule(workspace, "my_project", moduleConfig, null);
 
         assertEquals(pm.getProject(workspace, "my_project").getConfig().getModules().size(), 1);
-        assertEquals(pm.getProject(workspace, "my_project").getConfig().getModules().iterator().next().getPath(), "/todel");
+        assertEquals(pm.getProject(workspace, "my_project").getConfig().getModules().iterator().next().getPath(), "/my_project/todel");
 
         ContainerResponse response = launcher.service(DELETE,
                                                       String.format("http://localhost:8080/api/project/%s/module/my_project?" +
@@ -671,6 +681,39 @@ public class ProjectServiceTest {
         verify(projectConfig, times(2)).getModules();
     }
 
+    @Test
+    public void testWorkspaceIsFetchedAgainOnlyAfterItIsUpdated() throws Exception {
+        final String workspaceId = "ws_to_cache";
+        final Link getWorkspaceLink = newDto(Link.class).withHref(apiEndpoint + "/workspace/" + workspaceId).withMethod(GET);
+        ((DefaultProjectManager)pm).start();
+        try {
+            assertNotNull(pm.getProjectFromWorkspace(workspaceId, "my_project"));
+            assertNotNull(pm.getProjectFromWorkspace(workspaceId, "/my_project"));
+            Assert.assertNull(pm.getProjectFromWorkspace(workspaceId, "/unknown_project"));
+            verify(httpJsonRequestFactory, times(1)).fromLink(eq(getWorkspaceLink));
+
+            eventService.publish(newDto(WorkspaceConfigUpdatedEvent.class).withWorkspaceId(workspaceId));
+
+            assertNotNull(pm.getProjectFromWorkspace(workspaceId, "my_project"));
+            verify(httpJsonRequestFactory, times(2)).fromLink(eq(getWorkspaceLink));
+        } finally {
+            ((DefaultProjectManager)pm).stop();
+        }
+    }
+
+    @Test
+    public void testProjectFromWorkspaceIsCopyOfCachedProject() throws Exception {
+        final ProjectConfigDto project = pm.getProjectFromWorkspace(workspace, "my_project");
+        project.getModules().add(newDto(ProjectConfigDto.class).withPath("/my_project/not_saved").withName("not_saved"));
+        project.setDescription("not saved");
+
+        final ProjectConfigDto cached = pm.getProjectFromWorkspace(workspace, "my_project");
+        Assert.assertNotSame(cached, project);
+        Assert.assertTrue(cached.getModules().isEmpty());
+        assertEquals(cached.getDescription(), "my test project");
+        Assert.assertTrue(modules.isEmpty());
+    }
+
     @Test
     public void testUpdateProject() throws Exception {
         Map<String, List<String>> headers = new HashMap<>();
@@ -1973,6 +2016,71 @@ public class ProjectServiceTest {
         Assert.assertFalse(names.contains("x/test.txt"));
     }
 
+    @Test
+    public void testGetTreesOfFewFolders() throws Exception {
+        Project myProject = pm.getProject(workspace, "my_project");
+        FolderEntry a = myProject.getBaseFolder().createFolder("a");
+        a.createFolder("b/c");
+        myProject.getBaseFolder().createFolder("x").createFile("test.txt", "test".getBytes());
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(GET,
+                                                      String.format(
+                                                              "http://localhost:8080/api/project/%s/trees?path=my_project/a&path=my_project/x" +
+                                                              "&depth=2&includeFiles=true",
+                                                              workspace),
+                                                      "http://localhost:8080/api", null, null, writer, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<TreeElement> trees = DtoFactory.getInstance().createListDtoFromJson(new String(writer.getBody()), TreeElement.class);
+        assertEquals(trees.size(), 2);
+
+        TreeElement aTree = trees.get(0);
+        assertEquals(aTree.getNode().getName(), "a");
+        validateFolderLinks(aTree.getNode());
+        assertEquals(aTree.getChildren().size(), 1);
+        TreeElement bTree = aTree.getChildren().get(0);
+        assertEquals(bTree.getNode().getPath(), "/my_project/a/b");
+        validateFolderLinks(bTree.getNode());
+        assertEquals(bTree.getChildren().size(), 1);
+        assertEquals(bTree.getChildren().get(0).getNode().getPath(), "/my_project/a/b/c");
+        Assert.assertTrue(bTree.getChildren().get(0).getChildren().isEmpty());
+
+        TreeElement xTree = trees.get(1);
+        assertEquals(xTree.getNode().getName(), "x");
+        assertEquals(xTree.getChildren().size(), 1);
+        ItemReference file = xTree.getChildren().get(0).getNode();
+        assertEquals(file.getType(), "file");
+        validateFileLinks(file);
+    }
+
+    @Test
+    public void testGetTreesWithoutLinks() throws Exception {
+        pm.getProject(workspace, "my_project").getBaseFolder().createFolder("a/b");
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(GET,
+                                                      String.format(
+                                                              "http://localhost:8080/api/project/%s/trees?path=my_project&includeLinks=false",
+                                                              workspace),
+                                                      "http://localhost:8080/api", null, null, writer, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<TreeElement> trees = DtoFactory.getInstance().createListDtoFromJson(new String(writer.getBody()), TreeElement.class);
+        assertEquals(trees.size(), 1);
+        assertEquals(trees.get(0).getNode().getType(), "project");
+        Assert.assertTrue(trees.get(0).getNode().getLinks().isEmpty());
+        for (TreeElement child : trees.get(0).getChildren()) {
+            Assert.assertTrue(child.getNode().getLinks().isEmpty());
+        }
+    }
+
+    @Test
+    public void testGetTreesFailsWhenAnyFolderDoesNotExist() throws Exception {
+        ContainerResponse response = launcher.service(GET,
+                                                      String.format(
+                                                              "http://localhost:8080/api/project/%s/trees?path=my_project&path=not_exists",
+                                                              workspace),
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 404);
+    }
+
     @Test
     public void testSwitchProjectVisibilityToPrivate() throws Exception {
         Project myProject = pm.getProject(workspace, "my_project");
@@ -2029,6 +2137,8 @@ public class ProjectServiceTest {
                                                                     workspace),
                                                       "http://localhost:8080/api", null, null, null);
         assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        // Index of in-memory filesystem is always complete.
+        Assert.assertNull(response.getHttpHeaders().getFirst(Constants.SEARCH_PARTIAL_HEADER));
         List<ItemReference> result = (List<ItemReference>)response.getEntity();
         assertEquals(result.size(), 2);
         Set<String> paths = new LinkedHashSet<>(2);
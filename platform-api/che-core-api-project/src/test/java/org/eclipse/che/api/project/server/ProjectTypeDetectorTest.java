@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.core.model.project.type.ProjectType;
+import org.eclipse.che.api.project.server.type.AttributeValue;
+import org.eclipse.che.api.project.server.type.ProjectTypeDef;
+import org.eclipse.che.api.vfs.server.VirtualFile;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+/**
+ * @author andrew00x
+ */
+public class ProjectTypeDetectorTest {
+    private ProjectTypeDetector detector;
+    private FolderEntry         folder;
+    private VirtualFile         virtualFolder;
+    private VirtualFile         pom;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        detector = new ProjectTypeDetector(2, 1000);
+        virtualFolder = mock(VirtualFile.class);
+        pom = mock(VirtualFile.class);
+        when(virtualFolder.isFolder()).thenReturn(true);
+        when(virtualFolder.getPath()).thenReturn("/my_project");
+        when(virtualFolder.getChild("pom.xml")).thenReturn(pom);
+        when(pom.isFile()).thenReturn(true);
+        folder = new FolderEntry("my_ws", virtualFolder);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        detector.stop();
+    }
+
+    @Test
+    public void shouldReturnEstimationsOfMatchedTypesInOrderOfTypes() throws Exception {
+        final ProjectType first = new TestProjectType("first", folder -> {
+            if (folder.getChild("pom.xml") == null) {
+                throw new ValueStorageException("not matched");
+            }
+            return Collections.singletonList("first");
+        });
+        final ProjectType notMatched = new TestProjectType("not_matched", folder -> {
+            throw new ValueStorageException("not matched");
+        });
+        final ProjectType second = new TestProjectType("second", folder -> Collections.singletonList("second"));
+
+        final Map<ProjectType, Map<String, AttributeValue>> estimations = detector.detect(folder, Arrays.asList(first, notMatched, second));
+
+        assertEquals(estimations.keySet().toArray(), new ProjectType[]{first, second});
+        assertEquals(estimations.get(first).get("value").getList(), Collections.singletonList("first"));
+        assertEquals(estimations.get(second).get("value").getList(), Collections.singletonList("second"));
+    }
+
+    @Test
+    public void shouldListChildOfFolderOnceForAllTypes() throws Exception {
+        final ProjectType first = new TestProjectType("first", folder -> {
+            folder.getChild("pom.xml");
+            return Collections.singletonList("first");
+        });
+        final ProjectType second = new TestProjectType("second", folder -> {
+            folder.getChild("pom.xml");
+            return Collections.singletonList("second");
+        });
+
+        detector.detect(folder, Arrays.asList(first, second));
+
+        verify(virtualFolder, times(1)).getChild("pom.xml");
+    }
+
+    @Test
+    public void shouldSkipTypesThatAreNotEstimatedInTime() throws Exception {
+        final CountDownLatch never = new CountDownLatch(1);
+        final ProjectType fast = new TestProjectType("fast", folder -> Collections.singletonList("fast"));
+        final ProjectType slow = new TestProjectType("slow", folder -> {
+            try {
+                never.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Collections.singletonList("slow");
+        });
+
+        final Map<ProjectType, Map<String, AttributeValue>> estimations = detector.detect(folder, Arrays.asList(slow, fast));
+
+        assertEquals(estimations.size(), 1);
+        assertSame(estimations.keySet().iterator().next(), fast);
+    }
+
+    private interface Estimator {
+        List<String> estimate(FolderEntry folder) throws Exception;
+    }
+
+    private static class TestProjectType extends ProjectTypeDef {
+        TestProjectType(String id, Estimator estimator) {
+            super(id, id, true, false);
+            addVariableDefinition("value", "value", true, projectFolder -> new ValueProvider() {
+                @Override
+                public List<String> getValues(String attributeName) throws ValueStorageException {
+                    try {
+                        return estimator.estimate(projectFolder);
+                    } catch (ValueStorageException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new ValueStorageException(e.getMessage());
+                    }
+                }
+
+                @Override
+                public void setValues(String attributeName, List<String> value) {
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.project.server.type.Variable;
+import org.eclipse.che.api.vfs.server.observation.DeleteEvent;
+import org.eclipse.che.api.vfs.server.observation.UpdateContentEvent;
+import org.eclipse.che.api.vfs.server.observation.VirtualFileEvent;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author andrew00x
+ */
+public class RuntimeAttributeCacheTest {
+    private static final String WORKSPACE = "my_ws";
+
+    private EventService          eventService;
+    private RuntimeAttributeCache cache;
+    private FolderEntry           projectFolder;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        eventService = new EventService();
+        cache = new RuntimeAttributeCache(eventService);
+        cache.start();
+        projectFolder = mock(FolderEntry.class);
+        when(projectFolder.getWorkspace()).thenReturn(WORKSPACE);
+        when(projectFolder.getPath()).thenReturn("/my_project");
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        cache.stop();
+    }
+
+    @Test
+    public void shouldCalculateValuesAgainOnlyAfterDependencyIsChanged() throws Exception {
+        final CountingValueProviderFactory factory = new CountingValueProviderFactory(Collections.singletonList("pom.xml"));
+        final Variable variable = new Variable("maven", "artifactId", "", false, factory);
+
+        assertEquals(cache.getValues(projectFolder, "maven", variable), Collections.singletonList("1"));
+        assertEquals(cache.getValues(projectFolder, "maven", variable), Collections.singletonList("1"));
+
+        eventService.publish(new UpdateContentEvent(WORKSPACE, "/my_project/src/Main.java"));
+        eventService.publish(new UpdateContentEvent("other_ws", "/my_project/pom.xml"));
+        assertEquals(cache.getValues(projectFolder, "maven", variable), Collections.singletonList("1"));
+
+        eventService.publish(new UpdateContentEvent(WORKSPACE, "/my_project/pom.xml"));
+        assertEquals(cache.getValues(projectFolder, "maven", variable), Collections.singletonList("2"));
+        assertEquals(factory.calculations.get(), 2);
+    }
+
+    @Test
+    public void shouldCalculateValuesAgainAfterProjectFolderIsRemoved() throws Exception {
+        final CountingValueProviderFactory factory = new CountingValueProviderFactory(Collections.singletonList("pom.xml"));
+        final Variable variable = new Variable("maven", "artifactId", "", false, factory);
+
+        cache.getValues(projectFolder, "maven", variable);
+        eventService.publish(new DeleteEvent(WORKSPACE, "/my_project", true));
+
+        assertEquals(cache.getValues(projectFolder, "maven", variable), Collections.singletonList("2"));
+    }
+
+    @Test
+    public void shouldCacheValuesIfOtherProjectIsChangedWhileValuesAreCalculated() throws Exception {
+        final CountingValueProviderFactory factory = new CountingValueProviderFactory(Collections.singletonList("pom.xml"),
+                                                                                      new UpdateContentEvent(WORKSPACE,
+                                                                                                             "/other_project/pom.xml"));
+        final Variable variable = new Variable("maven", "artifactId", "", false, factory);
+
+        cache.getValues(projectFolder, "maven", variable);
+
+        assertEquals(cache.getValues(projectFolder, "maven", variable), Collections.singletonList("1"));
+        assertEquals(factory.calculations.get(), 1);
+    }
+
+    @Test
+    public void shouldNotCacheValuesIfDependencyIsChangedWhileValuesAreCalculated() throws Exception {
+        final CountingValueProviderFactory factory = new CountingValueProviderFactory(Collections.singletonList("pom.xml"),
+                                                                                      new UpdateContentEvent(WORKSPACE,
+                                                                                                             "/my_project/pom.xml"));
+        final Variable variable = new Variable("maven", "artifactId", "", false, factory);
+
+        cache.getValues(projectFolder, "maven", variable);
+
+        assertEquals(cache.getValues(projectFolder, "maven", variable), Collections.singletonList("2"));
+    }
+
+    @Test
+    public void shouldRemoveDependenciesTogetherWithValuesOfRemovedProject() throws Exception {
+        final CountingValueProviderFactory factory = new CountingValueProviderFactory(Arrays.asList("pom.xml", "src/main/resources"));
+        final Variable variable = new Variable("maven", "artifactId", "", false, factory);
+        final FolderEntry moduleFolder = mock(FolderEntry.class);
+        when(moduleFolder.getWorkspace()).thenReturn(WORKSPACE);
+        when(moduleFolder.getPath()).thenReturn("/my_project/my_module");
+
+        cache.getValues(projectFolder, "maven", variable);
+        cache.getValues(moduleFolder, "maven", variable);
+        assertEquals(cache.dependentsSize(), 4);
+
+        eventService.publish(new DeleteEvent(WORKSPACE, "/my_project", true));
+
+        assertEquals(cache.dependentsSize(), 0);
+    }
+
+    @Test
+    public void shouldNotCacheValuesOfProviderWithoutDependencies() throws Exception {
+        final CountingValueProviderFactory factory = new CountingValueProviderFactory(Collections.<String>emptyList());
+        final Variable variable = new Variable("git", "vcs", "", false, factory);
+
+        cache.getValues(projectFolder, "git", variable);
+        cache.getValues(projectFolder, "git", variable);
+
+        assertEquals(factory.calculations.get(), 2);
+    }
+
+    private class CountingValueProviderFactory implements ValueProviderFactory {
+        final List<String>     dependencies;
+        final VirtualFileEvent eventOnFirstCalculation;
+        final AtomicInteger    calculations = new AtomicInteger();
+
+        CountingValueProviderFactory(List<String> dependencies) {
+            this(dependencies, null);
+        }
+
+        /**
+         * @param eventOnFirstCalculation
+         *         event that is published while values are calculated first time, imitates change of file during calculation
+         */
+        CountingValueProviderFactory(List<String> dependencies, VirtualFileEvent eventOnFirstCalculation) {
+            this.dependencies = dependencies;
+            this.eventOnFirstCalculation = eventOnFirstCalculation;
+        }
+
+        @Override
+        public ValueProvider newInstance(FolderEntry projectFolder) {
+            return new ValueProvider() {
+                @Override
+                public List<String> getValues(String attributeName) {
+                    final int calculation = calculations.incrementAndGet();
+                    if (calculation == 1 && eventOnFirstCalculation != null) {
+                        eventService.publish(eventOnFirstCalculation);
+                    }
+                    return Collections.singletonList(String.valueOf(calculation));
+                }
+
+                @Override
+                public void setValues(String attributeName, List<String> value) {
+                }
+            };
+        }
+
+        @Override
+        public List<String> getDependencies() {
+            return dependencies;
+        }
+    }
+}
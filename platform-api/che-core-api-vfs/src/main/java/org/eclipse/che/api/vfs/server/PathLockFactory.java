@@ -10,6 +10,11 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.server;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Advisory file locks. It does not prevent access to the file from other programs.
  * <p/>
@@ -30,15 +35,26 @@ package org.eclipse.che.api.vfs.server;
  *         }
  *      }
  * </pre>
+ * <p/>
+ * Locks are hierarchical. Lock of the path conflicts with locks of its ancestors and descendants obtained by other threads if
+ * at least one of them is exclusive. To avoid scanning of all held locks each path has own lock node and every lock also
+ * puts intention mark (shared or exclusive) to nodes of all ancestors of the locked path. Nodes are kept in concurrent map
+ * only while they are in use, each node is guarded by own monitor, so threads that work with unrelated paths do not
+ * contend with each other and waiting threads are notified only when node they wait for is changed.
  *
  * @author <a href="mailto:andrew00x@gmail.com">Andrey Parfonov</a>
  */
 public final class PathLockFactory {
     private static final int MAX_RECURSIVE_LOCKS = (1 << 10) - 1;
+
+    private static final int INTENT_SHARED    = 0;
+    private static final int INTENT_EXCLUSIVE = 1;
+    private static final int SHARED           = 2;
+    private static final int EXCLUSIVE        = 3;
+
     /** Max number of threads allowed to access file. */
-    private final int maxThreads;
-    // Tail of the "lock table".
-    private final Node tail = new Node(null, 0, null);
+    private final int                     maxThreads;
+    private final ConcurrentMap<Path, Node> nodes;
 
     /**
      * @param maxThreads
@@ -50,145 +66,284 @@ public final class PathLockFactory {
             throw new IllegalArgumentException();
         }
         this.maxThreads = maxThreads;
+        nodes = new ConcurrentHashMap<>();
     }
 
     public PathLock getLock(Path path, boolean exclusive) {
-        return new PathLock(path, exclusive ? maxThreads : 1);
+        return new PathLock(path, exclusive);
     }
 
-    private synchronized void acquire(Path path, int permits) {
-        while (!tryAcquire(path, permits)) {
+    /**
+     * Acquires lock for path. If {@code timeoutMilliseconds} is negative waits until lock becomes available, otherwise
+     * throws RuntimeException when timeout reached.
+     */
+    private void acquire(Path path, boolean exclusive, long timeoutMilliseconds) {
+        final long threadId = Thread.currentThread().getId();
+        final long endTime = System.currentTimeMillis() + timeoutMilliseconds;
+        final Path[] hierarchy = hierarchy(path);
+        for (; ; ) {
+            final Conflict conflict = tryAcquire(hierarchy, exclusive, threadId);
+            if (conflict == null) {
+                return;
+            }
             try {
-                wait();
+                synchronized (conflict.node) {
+                    while (conflict.node.version == conflict.version) {
+                        if (timeoutMilliseconds < 0) {
+                            conflict.node.wait();
+                        } else {
+                            final long waitTime = endTime - System.currentTimeMillis();
+                            if (waitTime <= 0) {
+                                throw new RuntimeException(String.format("Get lock timeout for '%s'. ", path));
+                            }
+                            conflict.node.wait(waitTime);
+                        }
+                    }
+                }
             } catch (InterruptedException e) {
-                notifyAll();
                 throw new RuntimeException(e);
             }
         }
     }
 
-    private synchronized void acquire(Path path, int permits, long timeoutMilliseconds) {
-        final long endTime = System.currentTimeMillis() + timeoutMilliseconds;
-        long waitTime = timeoutMilliseconds;
-        while (!tryAcquire(path, permits)) {
-            try {
-                wait(waitTime);
-            } catch (InterruptedException e) {
-                notifyAll();
-                throw new RuntimeException(e);
+    /**
+     * Tries to get lock for the last path in {@code hierarchy} and intention locks for all its ancestors. Either all locks
+     * are obtained or none of them.
+     *
+     * @return {@code null} if lock is obtained or description of node that prevents us to get lock
+     */
+    private Conflict tryAcquire(Path[] hierarchy, boolean exclusive, long threadId) {
+        final Path path = hierarchy[hierarchy.length - 1];
+        final Node existed = nodes.get(path);
+        if (existed != null) {
+            synchronized (existed) {
+                if (!existed.removed) {
+                    final Holder holder = existed.holders.get(threadId);
+                    if (holder != null && holder.depth > 0) {
+                        // Current thread already has direct lock for this path
+                        if (holder.depth > MAX_RECURSIVE_LOCKS) {
+                            throw new Error("Max number of recursive locks exceeded. ");
+                        }
+                        ++holder.depth;
+                        return null;
+                    }
+                }
+            }
+        }
+        final int intent = exclusive ? INTENT_EXCLUSIVE : INTENT_SHARED;
+        for (int i = 0; i < hierarchy.length; i++) {
+            final int mode = i == hierarchy.length - 1 ? (exclusive ? EXCLUSIVE : SHARED) : intent;
+            Conflict conflict = null;
+            for (; ; ) {
+                final Node node = nodes.computeIfAbsent(hierarchy[i], Node::new);
+                synchronized (node) {
+                    if (node.removed) {
+                        // Node was released and removed concurrently, get the new one.
+                        continue;
+                    }
+                    if (!node.tryGrant(threadId, mode, maxThreads)) {
+                        conflict = new Conflict(node, node.version);
+                    }
+                }
+                break;
             }
-            long now = System.currentTimeMillis();
-            if (now >= endTime) {
-                throw new RuntimeException(String.format("Get lock timeout for '%s'. ", path));
+            if (conflict != null) {
+                // Release everything we got so far, caller waits for changes of conflicting node.
+                for (int j = i - 1; j >= 0; j--) {
+                    revoke(hierarchy[j], threadId, intent);
+                }
+                return conflict;
             }
-            waitTime = endTime - now;
         }
+        return null;
     }
 
-    private synchronized void release(Path path, int permits) {
-        Node node = tail;
-        while (node != null) {
-            Node prev = node.prev;
-            if (prev == null) {
-                break;
+    private void release(Path path, long threadId) {
+        final Node node = nodes.get(path);
+        if (node == null) {
+            return;
+        }
+        final int mode;
+        synchronized (node) {
+            final Holder holder = node.holders.get(threadId);
+            if (holder == null || holder.depth == 0) {
+                return;
             }
-            if (prev.path.equals(path)) {
-                if (prev.threadDeep == 1) {
-                    // If last recursive lock.
-                    prev.permits += permits;
-                    if (prev.permits >= maxThreads) {
-                        // remove
-                        node.prev = prev.prev;
-                        prev.prev = null;
-                    }
-                } else {
-                    --prev.threadDeep;
-                }
+            if (--holder.depth > 0) {
+                return;
             }
-            node = node.prev;
+            // Release mode that was actually obtained by thread, it may differ from mode of lock if lock was recursive.
+            mode = holder.exclusive ? EXCLUSIVE : SHARED;
+        }
+        revoke(path, threadId, mode);
+        final int intent = mode == EXCLUSIVE ? INTENT_EXCLUSIVE : INTENT_SHARED;
+        for (Path parent = path.getParent(); parent != null; parent = parent.getParent()) {
+            revoke(parent, threadId, intent);
         }
-        notifyAll();
-        //System.err.printf(">>>>> release: %s : %d%n", path, permits);
     }
 
-    private boolean tryAcquire(Path path, int permits) {
-        //System.err.printf(">>>>> acquire: %s : %d%n", path, permits);
-        Node node = tail.prev;
-        final Thread current = Thread.currentThread();
-        while (node != null) {
-            if (node.path.equals(path)) {
-                if (node.threadId == current.getId()) {
-                    // Current thread already has direct lock for this path
-                    if (node.threadDeep > MAX_RECURSIVE_LOCKS) {
-                        throw new Error("Max number of recursive locks exceeded. ");
-                    }
-                    ++node.threadDeep;
-                    return true;
-                }
-                if (node.permits > permits) {
-                    // Lock already exists and current thread is not owner of this lock,
-                    // but lock is not exclusive and we can "share" it for other thread.
-                    node.permits -= permits; // decrement number of allowed concurrent threads
-                    return true;
-                }
-                // Lock is exclusive or max number of allowed concurrent thread is reached.
-                return false;
-            } else if ((node.path.isChild(path) || path.isChild(node.path)) && node.permits <= permits) {
-                // Found some path which already has lock that prevents us to get required permits.
-                // There is two possibilities:
-                // 1. Parent of the path we try to lock already locked
-                // 2. Child of the path we try to lock already locked
-                // Need to check is such lock obtained by current thread or not.
-                // If such lock obtained by other thread stop here immediately there is no reasons to continue.
-                if (node.threadId != current.getId()) {
-                    return false;
-                }
+    private void revoke(Path path, long threadId, int mode) {
+        final Node node = nodes.get(path);
+        synchronized (node) {
+            node.revoke(threadId, mode);
+            ++node.version;
+            node.notifyAll();
+            if (node.holders.isEmpty()) {
+                node.removed = true;
+                nodes.remove(path, node);
             }
-            node = node.prev;
         }
-        // If we are here there is no lock for path yet.
-        tail.prev = new Node(path, maxThreads - permits, tail.prev);
-        return true;
     }
 
-    public synchronized void checkClean() {
-        assert tail.prev == null;
+    /** Gets path and all its ancestors ordered from root to the path. */
+    private static Path[] hierarchy(Path path) {
+        final Path[] hierarchy = new Path[path.length() + 1];
+        Path current = path;
+        for (int i = hierarchy.length - 1; i >= 0; i--) {
+            hierarchy[i] = current;
+            current = current.getParent();
+        }
+        return hierarchy;
+    }
+
+    public void checkClean() {
+        assert nodes.isEmpty();
     }
 
    /* =============================================== */
 
+    private static class Conflict {
+        final Node node;
+        final long version;
+
+        Conflict(Node node, long version) {
+            this.node = node;
+            this.version = version;
+        }
+    }
+
+    /** Lock state of single path. All fields are guarded by monitor of node. */
     private static class Node {
-        final Path path;
-        final long threadId = Thread.currentThread().getId();
-        int  permits;
-        int  threadDeep;
-        Node prev;
+        final Path              path;
+        final Map<Long, Holder> holders;
+        int     shared;
+        int     exclusive;
+        int     intentShared;
+        int     intentExclusive;
+        long    version;
+        boolean removed;
 
-        Node(Path path, int permits, Node prev) {
+        Node(Path path) {
             this.path = path;
-            this.permits = permits;
-            this.prev = prev;
-            threadDeep = 1;
+            holders = new HashMap<>(4);
+        }
+
+        boolean tryGrant(long threadId, int mode, int maxThreads) {
+            Holder holder = holders.get(threadId);
+            if (holder == null) {
+                holder = new Holder();
+            }
+            // Locks of current thread never prevent it to get other locks.
+            final int otherShared = shared - (holder.depth > 0 && !holder.exclusive ? 1 : 0);
+            final int otherExclusive = exclusive - (holder.depth > 0 && holder.exclusive ? 1 : 0);
+            final int otherIntentShared = intentShared - holder.intentShared;
+            final int otherIntentExclusive = intentExclusive - holder.intentExclusive;
+            final boolean compatible;
+            switch (mode) {
+                case INTENT_SHARED:
+                    compatible = otherExclusive == 0;
+                    break;
+                case INTENT_EXCLUSIVE:
+                    compatible = otherExclusive == 0 && otherShared == 0;
+                    break;
+                case SHARED:
+                    compatible = otherExclusive == 0 && otherIntentExclusive == 0 && otherShared < maxThreads;
+                    break;
+                default:
+                    compatible = otherExclusive == 0 && otherShared == 0 && otherIntentExclusive == 0 && otherIntentShared == 0;
+                    break;
+            }
+            if (!compatible) {
+                return false;
+            }
+            switch (mode) {
+                case INTENT_SHARED:
+                    ++holder.intentShared;
+                    ++intentShared;
+                    break;
+                case INTENT_EXCLUSIVE:
+                    ++holder.intentExclusive;
+                    ++intentExclusive;
+                    break;
+                case SHARED:
+                    holder.depth = 1;
+                    holder.exclusive = false;
+                    ++shared;
+                    break;
+                default:
+                    holder.depth = 1;
+                    holder.exclusive = true;
+                    ++exclusive;
+                    break;
+            }
+            holders.put(threadId, holder);
+            return true;
+        }
+
+        void revoke(long threadId, int mode) {
+            final Holder holder = holders.get(threadId);
+            switch (mode) {
+                case INTENT_SHARED:
+                    --holder.intentShared;
+                    --intentShared;
+                    break;
+                case INTENT_EXCLUSIVE:
+                    --holder.intentExclusive;
+                    --intentExclusive;
+                    break;
+                case SHARED:
+                    holder.depth = 0;
+                    --shared;
+                    break;
+                default:
+                    holder.depth = 0;
+                    --exclusive;
+                    break;
+            }
+            if (holder.depth == 0 && holder.intentShared == 0 && holder.intentExclusive == 0) {
+                holders.remove(threadId);
+            }
         }
 
         @Override
         public String toString() {
             return "Node{" +
                    "path=" + path +
-                   ", threadId=" + threadId +
-                   ", permits=" + permits +
-                   ", prev=" + prev +
+                   ", shared=" + shared +
+                   ", exclusive=" + exclusive +
+                   ", intentShared=" + intentShared +
+                   ", intentExclusive=" + intentExclusive +
                    '}';
         }
     }
 
+    /** Locks of single thread for single path. */
+    private static class Holder {
+        /** Depth of recursive direct lock, zero if thread has only intention locks for path. */
+        int     depth;
+        boolean exclusive;
+        int     intentShared;
+        int     intentExclusive;
+    }
+
     public final class PathLock {
-        private final Path path;
-        private final int  permits;
+        private final Path    path;
+        private final boolean exclusive;
+        private volatile long owner;
 
-        private PathLock(Path path, int permits) {
+        private PathLock(Path path, boolean exclusive) {
             this.path = path;
-            this.permits = permits;
+            this.exclusive = exclusive;
         }
 
         /**
@@ -197,7 +352,8 @@ public final class PathLockFactory {
          * @return this PathLock instance
          */
         public PathLock acquire() {
-            PathLockFactory.this.acquire(path, permits);
+            PathLockFactory.this.acquire(path, exclusive, -1);
+            owner = Thread.currentThread().getId();
             return this;
         }
 
@@ -212,18 +368,19 @@ public final class PathLockFactory {
          *         if waiting timeout reached
          */
         public PathLock acquire(long timeoutMilliseconds) {
-            PathLockFactory.this.acquire(path, permits, timeoutMilliseconds);
+            PathLockFactory.this.acquire(path, exclusive, Math.max(0, timeoutMilliseconds));
+            owner = Thread.currentThread().getId();
             return this;
         }
 
         /** Release file permit. */
         public void release() {
-            PathLockFactory.this.release(path, permits);
+            PathLockFactory.this.release(path, owner);
         }
 
         /** Returns <code>true</code> if this lock is exclusive and <code>false</code> otherwise. */
         public boolean isExclusive() {
-            return permits == PathLockFactory.this.maxThreads;
+            return exclusive;
         }
     }
 }
@@ -11,6 +11,7 @@
 package org.eclipse.che.api.vfs.server;
 
 import com.google.common.annotations.Beta;
+import com.google.common.hash.HashFunction;
 
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
@@ -23,7 +24,9 @@ import org.eclipse.che.api.vfs.shared.dto.Property;
 import org.eclipse.che.commons.lang.Pair;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -369,6 +372,24 @@ public interface VirtualFile extends Comparable<VirtualFile> {
      */
     ContentStream zip(VirtualFileFilter filter) throws ForbiddenException, ServerException;
 
+    /**
+     * Writes zipped content of folder denoted by this VirtualFile to the specified output stream. Unlike to the method {@link
+     * #zip(VirtualFileFilter)} archive isn't stored anywhere, entries are written to the output stream while folder is traversed. All
+     * child items that user doesn't have read permission are not added in result archive. Output stream isn't closed by this method.
+     *
+     * @param out
+     *         output stream for zipped content of folder
+     * @param filter
+     *         filter of file. Only files that are matched to the filter are added in the zip archive
+     * @throws ForbiddenException
+     *         if this item doesn't denote a folder
+     * @throws ServerException
+     *         if other error occurs
+     * @throws IOException
+     *         if any i/o error occurs, e.g. when write to the output stream
+     */
+    void zip(OutputStream out, VirtualFileFilter filter) throws ForbiddenException, ServerException, IOException;
+
     /**
      * Imports ZIP content to the folder denoted by this VirtualFile.
      *
@@ -583,6 +604,17 @@ public interface VirtualFile extends Comparable<VirtualFile> {
      */
     LazyIterator<Pair<String, String>> countMd5Sums() throws ServerException;
 
+    /**
+     * Traverses recursively all files in current folder and count hash sum for each file with specified {@code hashFunction}. Result
+     * has the same structure as result of {@link #countMd5Sums()}, the only difference is that {@code pair.first} is hash sum that
+     * is counted with {@code hashFunction}.
+     *
+     * @throws ServerException
+     *         if any error occurs
+     * @see #countMd5Sums()
+     */
+    LazyIterator<Pair<String, String>> countHashSums(HashFunction hashFunction) throws ServerException;
+
     /** Returns instance of {@link java.io.File} */
     @Beta
     File getIoFile();
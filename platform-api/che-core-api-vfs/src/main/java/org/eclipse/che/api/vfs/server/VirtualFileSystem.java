@@ -859,11 +859,12 @@ public interface VirtualFileSystem {
     Item updateItem(String id, List<Property> properties, String lockToken) throws NotFoundException, ForbiddenException, ServerException;
 
     /**
-     * Export content of {@code folderId} to ZIP archive.
+     * Export content of {@code folderId} to ZIP archive. Archive is streamed to the client while folder is traversed, so response
+     * doesn't have Content-Length header.
      *
      * @param folderId
      *         folder for ZIP
-     * @return ZIP as stream
+     * @return Response with ZIPed content of folder
      * @throws NotFoundException
      *         if {@code folderId} doesn't exist
      * @throws ForbiddenException
@@ -878,7 +879,7 @@ public interface VirtualFileSystem {
     @GET
     @Path("export")
     @Produces({ExtMediaType.APPLICATION_ZIP})
-    ContentStream exportZip(String folderId) throws NotFoundException, ForbiddenException, ServerException;
+    Response exportZip(String folderId) throws NotFoundException, ForbiddenException, ServerException;
 
     /**
      * Export content of {@code folderId} to ZIP archive. Unlike to the method {@link #exportZip(String)} this method includes in the zip
@@ -907,6 +908,9 @@ public interface VirtualFileSystem {
      *
      * @param folderId
      *         folder for ZIP
+     * @param hashAlgorithm
+     *         name of hash function that caller uses instead of md5 for counting hash sums of its files, one of: md5, sha1,
+     *         murmur3_128. If not specified md5 is used
      * @param in
      *         stream, see above about its format
      * @return ZIP as stream
@@ -918,6 +922,8 @@ public interface VirtualFileSystem {
      *         <li>{@code folderId} item isn't a folder</li>
      *         <li>user which perform operation has no permissions</li>
      *         </ul>
+     * @throws ConflictException
+     *         if hash function {@code hashAlgorithm} isn't supported
      * @throws ServerException
      *         if any other errors occur
      */
@@ -925,7 +931,8 @@ public interface VirtualFileSystem {
     @Path("export")
     @Produces({ExtMediaType.APPLICATION_ZIP})
     @Consumes({MediaType.TEXT_PLAIN})
-    Response exportZip(String folderId, InputStream in) throws NotFoundException, ForbiddenException, ServerException;
+    Response exportZip(String folderId, String hashAlgorithm, InputStream in)
+            throws NotFoundException, ForbiddenException, ConflictException, ServerException;
 
     /**
      * Export content of {@code folderId} to ZIP archive. Unlike to the method {@link #exportZip(String)} this method includes in the
@@ -954,6 +961,9 @@ public interface VirtualFileSystem {
      *
      * @param folderId
      *         folder for ZIP
+     * @param hashAlgorithm
+     *         name of hash function that caller uses instead of md5 for counting hash sums of its files, one of: md5, sha1,
+     *         murmur3_128. If not specified md5 is used
      * @param in
      *         stream, see above about its format
      * @return ZIP as stream
@@ -965,6 +975,8 @@ public interface VirtualFileSystem {
      *         <li>{@code folderId} item isn't a folder</li>
      *         <li>user which perform operation has no permissions</li>
      *         </ul>
+     * @throws ConflictException
+     *         if hash function {@code hashAlgorithm} isn't supported
      * @throws ServerException
      *         if any other errors occur
      */
@@ -972,7 +984,8 @@ public interface VirtualFileSystem {
     @Path("export")
     @Produces({MediaType.MULTIPART_FORM_DATA})
     @Consumes({MediaType.TEXT_PLAIN})
-    Response exportZipMultipart(String folderId, InputStream in) throws NotFoundException, ForbiddenException, ServerException;
+    Response exportZipMultipart(String folderId, String hashAlgorithm, InputStream in)
+            throws NotFoundException, ForbiddenException, ConflictException, ServerException;
 
     /**
      * Import ZIP content.
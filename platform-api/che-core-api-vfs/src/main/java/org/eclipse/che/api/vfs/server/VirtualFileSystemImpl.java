@@ -10,11 +10,16 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.server;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.server.search.QueryExpression;
+import org.eclipse.che.api.vfs.server.search.SearchResult;
 import org.eclipse.che.api.vfs.server.search.SearcherProvider;
 import org.eclipse.che.api.vfs.server.util.LinksHelper;
 import org.eclipse.che.api.vfs.shared.ItemType;
@@ -54,6 +59,7 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
@@ -66,6 +72,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -85,6 +92,14 @@ import java.util.regex.Pattern;
 public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
     private static final Logger LOG = LoggerFactory.getLogger(VirtualFileSystemImpl.class);
 
+    /** Name of hash function that is used for detecting updated files if client doesn't specify any. */
+    public static final String DEFAULT_HASH_ALGORITHM = "md5";
+
+    /** Hash functions that client may use for counting hash sums of its files when it requests updated files. */
+    private static final Map<String, HashFunction> HASH_FUNCTIONS = ImmutableMap.of(DEFAULT_HASH_ALGORITHM, Hashing.md5(),
+                                                                                    "sha1", Hashing.sha1(),
+                                                                                    "murmur3_128", Hashing.murmur3_128());
+
     protected final String                       vfsId;
     protected final URI                          baseUri;
     protected final VirtualFileSystemUserContext userContext;
@@ -540,7 +555,8 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
                     .setSkipCount(skipCount)
                     .setMaxItems(maxItems);
 
-            final String[] result = searcherProvider.getSearcher(mountPoint, true).search(expr);
+            final SearchResult searchResult = searcherProvider.getSearcher(mountPoint, true).search(expr);
+            final String[] result = searchResult.getFilePaths();
             if (skipCount > 0) {
                 if (skipCount > result.length) {
                     throw new ConflictException("'skipCount' parameter is greater then total number of items. ");
@@ -556,7 +572,9 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
                 }
             }
 
-            return DtoFactory.getInstance().createDto(ItemList.class).withItems(items).withNumItems(result.length)
+            // Total number of items is unknown while index is not completely built.
+            return DtoFactory.getInstance().createDto(ItemList.class).withItems(items)
+                             .withNumItems(searchResult.isPartial() ? -1 : result.length)
                              .withHasMoreItems(length < result.length);
         }
         throw new ServerException("Not supported. ");
@@ -623,8 +641,8 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
 
     @Path("export/{folderId}")
     @Override
-    public ContentStream exportZip(@PathParam("folderId") String folderId) throws NotFoundException, ForbiddenException, ServerException {
-        return exportZip(mountPoint.getVirtualFileById(folderId));
+    public Response exportZip(@PathParam("folderId") String folderId) throws NotFoundException, ForbiddenException, ServerException {
+        return streamZip(mountPoint.getVirtualFileById(folderId));
     }
 
     // For usage from Project API.
@@ -632,24 +650,57 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
         return folder.zip(VirtualFileFilter.ALL);
     }
 
+    /**
+     * Creates Response that writes zipped content of folder directly to the HTTP output stream. Neither whole archive is kept in memory
+     * or temporary file nor its length is known before it is sent to the client. Is used from Project API as well.
+     */
+    public static Response streamZip(VirtualFile folder) throws ForbiddenException, ServerException {
+        if (!folder.isFolder()) {
+            throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder. ", folder.getPath()));
+        }
+        final StreamingOutput zip = output -> {
+            try {
+                folder.zip(output, VirtualFileFilter.ALL);
+            } catch (ForbiddenException | ServerException e) {
+                // Response is already started, just break it.
+                throw new IOException(e.getMessage(), e);
+            }
+        };
+        return Response
+                .ok(zip, ExtMediaType.APPLICATION_ZIP)
+                .lastModified(new Date())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + folder.getName() + ".zip\"")
+                .header(HttpHeaders.CACHE_CONTROL, "public, no-cache, no-store, no-transform")
+                .build();
+    }
+
     @Path("export/{folderId}")
     @Override
-    public Response exportZip(@PathParam("folderId") String folderId, InputStream in)
-            throws NotFoundException, ForbiddenException, ServerException {
-        return exportZip(mountPoint.getVirtualFileById(folderId), in);
+    public Response exportZip(@PathParam("folderId") String folderId,
+                              @DefaultValue(DEFAULT_HASH_ALGORITHM) @QueryParam("hashAlgorithm") String hashAlgorithm,
+                              InputStream in) throws NotFoundException, ForbiddenException, ConflictException, ServerException {
+        return exportZip(mountPoint.getVirtualFileById(folderId), hashAlgorithm, in);
     }
 
     @Path("export/{folderId}")
     @Override
-    public Response exportZipMultipart(@PathParam("folderId") String folderId, InputStream in)
-            throws NotFoundException, ForbiddenException, ServerException {
-        return exportZipMultipart(mountPoint.getVirtualFileById(folderId), in);
+    public Response exportZipMultipart(@PathParam("folderId") String folderId,
+                                       @DefaultValue(DEFAULT_HASH_ALGORITHM) @QueryParam("hashAlgorithm") String hashAlgorithm,
+                                       InputStream in) throws NotFoundException, ForbiddenException, ConflictException, ServerException {
+        return exportZipMultipart(mountPoint.getVirtualFileById(folderId), hashAlgorithm, in);
+    }
+
+    // For usage from Project API.
+    public static Response exportZipMultipart(VirtualFile folder, InputStream in)
+            throws ForbiddenException, ConflictException, ServerException {
+        return exportZipMultipart(folder, DEFAULT_HASH_ALGORITHM, in);
     }
 
     // For usage from Project API.
-    public static Response exportZipMultipart(VirtualFile folder, InputStream in) throws ForbiddenException, ServerException {
+    public static Response exportZipMultipart(VirtualFile folder, String hashAlgorithm, InputStream in)
+            throws ForbiddenException, ConflictException, ServerException {
         final List<String> deleted = new LinkedList<>();
-        final ContentStream zip = exportZip(folder, in, deleted);
+        final ContentStream zip = exportZip(folder, getHashFunction(hashAlgorithm), in, deleted);
         if (zip == null) {
             return Response.status(204).build();
         }
@@ -673,9 +724,15 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
 
 
     // For usage from Project API.
-    public static Response exportZip(VirtualFile folder, InputStream in) throws ForbiddenException, ServerException {
+    public static Response exportZip(VirtualFile folder, InputStream in) throws ForbiddenException, ConflictException, ServerException {
+        return exportZip(folder, DEFAULT_HASH_ALGORITHM, in);
+    }
+
+    // For usage from Project API.
+    public static Response exportZip(VirtualFile folder, String hashAlgorithm, InputStream in)
+            throws ForbiddenException, ConflictException, ServerException {
         final List<String> deleted = new LinkedList<>();
-        final ContentStream zip = exportZip(folder, in, deleted);
+        final ContentStream zip = exportZip(folder, getHashFunction(hashAlgorithm), in, deleted);
         if (zip == null) {
             return Response.status(204).build();
         }
@@ -697,17 +754,41 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
         return responseBuilder.build();
     }
 
+    /**
+     * Gets hash function by name. Client that requests updated files may choose hash function that it uses for counting hash sums of
+     * local files, see {@link #HASH_FUNCTIONS} for supported names.
+     *
+     * @throws ConflictException
+     *         if hash function with specified name isn't supported
+     */
+    protected static HashFunction getHashFunction(String hashAlgorithm) throws ConflictException {
+        final HashFunction hashFunction = HASH_FUNCTIONS.get(hashAlgorithm == null ? DEFAULT_HASH_ALGORITHM : hashAlgorithm);
+        if (hashFunction == null) {
+            throw new ConflictException(String.format("Hash algorithm '%s' is not supported. ", hashAlgorithm));
+        }
+        return hashFunction;
+    }
+
     // For usage from Project API.
     protected static ContentStream exportZip(VirtualFile folder, InputStream in, List<String> deleted)
             throws ForbiddenException, ServerException {
+        return exportZip(folder, Hashing.md5(), in, deleted);
+    }
+
+    protected static ContentStream exportZip(VirtualFile folder, HashFunction hashFunction, InputStream in, List<String> deleted)
+            throws ForbiddenException, ServerException {
         final List<Pair<String, String>> remote = new LinkedList<>();
         final BufferedReader reader = new BufferedReader(new InputStreamReader(in));
         String line;
         try {
             while ((line = reader.readLine()) != null) {
-                String hash = line.substring(0, 32); // 32 is length of MD-5 hash sum
-                int startPath = 33;
+                int endHash = 0;
                 int l = line.length();
+                while (endHash < l && !Character.isWhitespace(line.charAt(endHash))) {
+                    endHash++;
+                }
+                String hash = line.substring(0, endHash);
+                int startPath = endHash;
                 while (startPath < l && Character.isWhitespace(line.charAt(startPath))) {
                     startPath++;
                 }
@@ -720,12 +801,12 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
         if (remote.isEmpty()) {
             return folder.zip(VirtualFileFilter.ALL);
         }
-        final LazyIterator<Pair<String, String>> md5Sums = folder.countMd5Sums();
-        final int size = md5Sums.size();
+        final LazyIterator<Pair<String, String>> hashSums = folder.countHashSums(hashFunction);
+        final int size = hashSums.size();
         final List<Pair<String, String>> local =
                 size > 0 ? new ArrayList<Pair<String, String>>(size) : new ArrayList<Pair<String, String>>();
-        while (md5Sums.hasNext()) {
-            local.add(md5Sums.next());
+        while (hashSums.hasNext()) {
+            local.add(hashSums.next());
         }
         final Comparator<Pair<String, String>> comp = new Comparator<Pair<String, String>>() {
             @Override
@@ -737,60 +818,80 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
         Collections.sort(local, comp);
         int remoteIndex = 0;
         int localIndex = 0;
-        final List<Pair<String, org.eclipse.che.api.vfs.server.Path>> diff = new LinkedList<>();
+        final org.eclipse.che.api.vfs.server.Path folderPath = folder.getVirtualFilePath();
+        final UpdatedFilesFilter updated = new UpdatedFilesFilter();
+        final List<String> removed = new ArrayList<>();
         while (remoteIndex < remote.size() && localIndex < local.size()) {
             final Pair<String, String> remoteItem = remote.get(remoteIndex);
             final Pair<String, String> localItem = local.get(localIndex);
             // compare path
             int r = remoteItem.second.compareTo(localItem.second);
             if (r == 0) {
-                // remote and local file exist, compare md5sum
+                // remote and local file exist, compare hash sum
                 if (!remoteItem.first.equals(localItem.first)) {
-                    diff.add(Pair.of(remoteItem.second, folder.getVirtualFilePath().newPath(localItem.second)));
+                    updated.add(folderPath.newPath(localItem.second));
                 }
                 remoteIndex++;
                 localIndex++;
             } else if (r > 0) {
                 // new file
-                diff.add(Pair.of((String)null, folder.getVirtualFilePath().newPath(localItem.second)));
+                updated.add(folderPath.newPath(localItem.second));
                 localIndex++;
             } else {
                 // deleted file
-                diff.add(Pair.of(remoteItem.second, (org.eclipse.che.api.vfs.server.Path)null));
+                removed.add(remoteItem.second);
                 remoteIndex++;
             }
         }
         while (remoteIndex < remote.size()) {
-            diff.add(Pair.of(remote.get(remoteIndex++).second, (org.eclipse.che.api.vfs.server.Path)null));
+            removed.add(remote.get(remoteIndex++).second);
         }
         while (localIndex < local.size()) {
-            diff.add(Pair.of((String)null, folder.getVirtualFilePath().newPath(local.get(localIndex++).second)));
+            updated.add(folderPath.newPath(local.get(localIndex++).second));
         }
 
-        if (diff.isEmpty()) {
+        if (updated.isEmpty() && removed.isEmpty()) {
             return null;
         }
 
-        final ContentStream zip = folder.zip(new VirtualFileFilter() {
-            @Override
-            public boolean accept(VirtualFile file) {
-                for (Pair<String, org.eclipse.che.api.vfs.server.Path> pair : diff) {
-                    if (pair.second != null
-                        && (pair.second.equals(file.getVirtualFilePath()) || pair.second.isChild(file.getVirtualFilePath()))) {
-                        return true;
-                    }
-                }
-                return false;
-            }
-        });
+        final ContentStream zip = folder.zip(updated);
 
         deleted.clear();
-        for (Pair<String, org.eclipse.che.api.vfs.server.Path> pair : diff) {
-            if (pair.first != null && pair.second == null) {
-                deleted.add(pair.first);
+        deleted.addAll(removed);
+        return zip;
+    }
+
+    /**
+     * Accepts added files and all their parent folders. Paths of files are kept in trie, so check of any file costs not more than one
+     * lookup per element of its path regardless of number of added files.
+     */
+    private static class UpdatedFilesFilter implements VirtualFileFilter {
+        private final Node root = new Node();
+
+        void add(org.eclipse.che.api.vfs.server.Path path) {
+            Node node = root;
+            for (int i = 0, l = path.length(); i < l; i++) {
+                node = node.children.computeIfAbsent(path.element(i), element -> new Node());
             }
         }
-        return zip;
+
+        boolean isEmpty() {
+            return root.children.isEmpty();
+        }
+
+        @Override
+        public boolean accept(VirtualFile file) {
+            final org.eclipse.che.api.vfs.server.Path path = file.getVirtualFilePath();
+            Node node = root;
+            for (int i = 0, l = path.length(); i < l && node != null; i++) {
+                node = node.children.get(path.element(i));
+            }
+            return node != null;
+        }
+
+        private static class Node {
+            final Map<String, Node> children = new HashMap<>(4);
+        }
     }
 
     @Path("import/{parentId}")
@@ -886,13 +987,7 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
     @Path("downloadzip/{folderId}")
     @Override
     public Response downloadZip(@PathParam("folderId") String folderId) throws NotFoundException, ForbiddenException, ServerException {
-        final ContentStream zip = exportZip(folderId);
-        return Response //
-                .ok(zip.getStream(), zip.getMimeType()) //
-                .lastModified(zip.getLastModificationDate()) //
-                .header(HttpHeaders.CONTENT_LENGTH, Long.toString(zip.getLength())) //
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + zip.getFileName() + '"') //
-                .build();
+        return exportZip(folderId);
     }
 
     @Path("uploadzip/{parentId}")
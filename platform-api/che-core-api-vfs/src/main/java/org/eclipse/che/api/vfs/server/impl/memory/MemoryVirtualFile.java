@@ -56,6 +56,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -401,6 +402,11 @@ public class MemoryVirtualFile implements VirtualFile {
 
     @Override
     public LazyIterator<Pair<String, String>> countMd5Sums() throws ServerException {
+        return countHashSums(Hashing.md5());
+    }
+
+    @Override
+    public LazyIterator<Pair<String, String>> countHashSums(final HashFunction hashFunction) throws ServerException {
         checkExist();
         if (isFile()) {
             return LazyIterator.emptyIterator();
@@ -408,7 +414,6 @@ public class MemoryVirtualFile implements VirtualFile {
 
         final List<Pair<String, String>> hashes = new ArrayList<>();
         final int trimPathLength = getPath().length() + 1;
-        final HashFunction hashFunction = Hashing.md5();
         final ValueHolder<ServerException> errorHolder = new ValueHolder<>();
         accept(new VirtualFileVisitor() {
             @Override
@@ -986,37 +991,9 @@ public class MemoryVirtualFile implements VirtualFile {
 
     @Override
     public ContentStream zip(VirtualFileFilter filter) throws ForbiddenException, ServerException {
-        checkExist();
-        if (!isFolder()) {
-            throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder. ", getPath()));
-        }
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
         try {
-            final ZipOutputStream zipOut = new ZipOutputStream(out);
-            final LinkedList<VirtualFile> q = new LinkedList<>();
-            q.add(this);
-            final int rootZipPathLength = isRoot() ? 1 : (getPath().length() + 1);
-            while (!q.isEmpty()) {
-                final LazyIterator<VirtualFile> children = q.pop().getChildren(filter);
-                while (children.hasNext()) {
-                    VirtualFile current = children.next();
-                    final String zipEntryName = current.getPath().substring(rootZipPathLength);
-                    if (current.isFile()) {
-                        final ZipEntry zipEntry = new ZipEntry(zipEntryName);
-                        zipEntry.setTime(current.getLastModificationDate());
-                        zipOut.putNextEntry(zipEntry);
-                        zipOut.write(((MemoryVirtualFile)current).content);
-                        zipOut.closeEntry();
-                    } else if (current.isFolder()) {
-                        final ZipEntry zipEntry = new ZipEntry(zipEntryName + '/');
-                        zipEntry.setTime(0);
-                        zipOut.putNextEntry(zipEntry);
-                        q.add(current);
-                        zipOut.closeEntry();
-                    }
-                }
-            }
-            zipOut.close();
+            zip(out, filter);
         } catch (IOException e) {
             throw new ServerException(e.getMessage(), e);
         }
@@ -1025,6 +1002,39 @@ public class MemoryVirtualFile implements VirtualFile {
                                  new Date());
     }
 
+    @Override
+    public void zip(OutputStream out, VirtualFileFilter filter) throws ForbiddenException, ServerException, IOException {
+        checkExist();
+        if (!isFolder()) {
+            throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder. ", getPath()));
+        }
+        final ZipOutputStream zipOut = new ZipOutputStream(out);
+        final LinkedList<VirtualFile> q = new LinkedList<>();
+        q.add(this);
+        final int rootZipPathLength = isRoot() ? 1 : (getPath().length() + 1);
+        while (!q.isEmpty()) {
+            final LazyIterator<VirtualFile> children = q.pop().getChildren(filter);
+            while (children.hasNext()) {
+                VirtualFile current = children.next();
+                final String zipEntryName = current.getPath().substring(rootZipPathLength);
+                if (current.isFile()) {
+                    final ZipEntry zipEntry = new ZipEntry(zipEntryName);
+                    zipEntry.setTime(current.getLastModificationDate());
+                    zipOut.putNextEntry(zipEntry);
+                    zipOut.write(((MemoryVirtualFile)current).content);
+                    zipOut.closeEntry();
+                } else if (current.isFolder()) {
+                    final ZipEntry zipEntry = new ZipEntry(zipEntryName + '/');
+                    zipEntry.setTime(0);
+                    zipOut.putNextEntry(zipEntry);
+                    q.add(current);
+                    zipOut.closeEntry();
+                }
+            }
+        }
+        zipOut.finish();
+    }
+
     @Override
     public void unzip(InputStream zipped, boolean overwrite, int stripNumber) throws ForbiddenException, ServerException {
         checkExist();
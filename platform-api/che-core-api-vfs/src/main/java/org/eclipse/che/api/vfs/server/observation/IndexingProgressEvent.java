@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.observation;
+
+import org.eclipse.che.api.core.notification.EventOrigin;
+
+/**
+ * Notifies about progress of initial indexing of virtual filesystem.
+ *
+ * @author andrew00x
+ */
+@EventOrigin("vfs")
+public class IndexingProgressEvent {
+    private String  workspaceId;
+    private int     indexedFiles;
+    private boolean completed;
+
+    public IndexingProgressEvent(String workspaceId, int indexedFiles, boolean completed) {
+        this.workspaceId = workspaceId;
+        this.indexedFiles = indexedFiles;
+        this.completed = completed;
+    }
+
+    public IndexingProgressEvent() {
+    }
+
+    public String getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public void setWorkspaceId(String workspaceId) {
+        this.workspaceId = workspaceId;
+    }
+
+    /** Number of files added to index so far. */
+    public int getIndexedFiles() {
+        return indexedFiles;
+    }
+
+    public void setIndexedFiles(int indexedFiles) {
+        this.indexedFiles = indexedFiles;
+    }
+
+    /** Returns {@code true} if indexing is completed. */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+}
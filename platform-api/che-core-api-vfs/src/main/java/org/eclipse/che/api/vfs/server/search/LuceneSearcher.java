@@ -15,29 +15,39 @@ import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.Tokenizer;
 import org.apache.lucene.analysis.core.LowerCaseFilter;
 import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.PostingsEnum;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherLifetimeManager;
 import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.WildcardQuery;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.IOUtils;
+import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.server.LazyIterator;
 import org.eclipse.che.api.vfs.server.MountPoint;
@@ -51,29 +61,106 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * Lucene based searcher.
+ * <p/>
+ * By default index is updated synchronously in methods {@link #add(VirtualFile)}, {@link #update(VirtualFile)} and {@link
+ * #delete(String, boolean)} and index reader is refreshed before each search. If searcher is created with indexing executor then
+ * modifications of index are queued (repeated modifications of the same path are coalesced) and applied to the {@code IndexWriter}
+ * in background, index reader is refreshed periodically. Use {@link #flush()} to wait until all queued modifications are visible
+ * for search.
  *
  * @author andrew00x
  */
 public abstract class LuceneSearcher implements Searcher {
-    private static final Logger LOG          = LoggerFactory.getLogger(LuceneSearcher.class);
-    private static final int    RESULT_LIMIT = 1000;
+    private static final Logger LOG              = LoggerFactory.getLogger(LuceneSearcher.class);
+    /** Max number of documents read at once when skipping first items of result. */
+    private static final int    SKIP_FRAME_SIZE  = 1000;
+    /** Max number of items in one page of result. Is used if client doesn't limit number of items or requests more items. */
+    private static final int    RESULT_LIMIT     = 1000;
+    /**
+     * Time in seconds during which snapshot of index is kept for paging through result of search with {@link SearchCursor}.
+     * After that cursor still may be used but next page is taken from current state of index.
+     */
+    private static final int    CURSOR_MAX_AGE   = 600;
+    /** Max number of occurrences of text returned for one file. */
+    private static final int    MAX_OCCURRENCES  = 100;
+    /** Max length of content of line returned with occurrence of text. */
+    private static final int    MAX_LINE_LENGTH  = 256;
+    /** Max number of queued modifications which are applied to index at once. */
+    private static final int    INDEX_BATCH_SIZE = 100;
+
+    private static final Set<String> QUERY_OPERATORS = new HashSet<>(Arrays.asList("AND", "OR", "NOT", "&&", "||"));
+
+    /** Type of 'text' field. Stores offsets of terms to be able find positions of searched text without re-analyzing content. */
+    private static final FieldType TEXT_FIELD_TYPE = new FieldType(TextField.TYPE_NOT_STORED);
 
-    private final VirtualFileFilter filter;
+    static {
+        TEXT_FIELD_TYPE.setStoreTermVectors(true);
+        TEXT_FIELD_TYPE.setStoreTermVectorPositions(true);
+        TEXT_FIELD_TYPE.setStoreTermVectorOffsets(true);
+        TEXT_FIELD_TYPE.freeze();
+    }
+
+    private final VirtualFileFilter        filter;
+    private final ScheduledExecutorService indexExecutor;
+    private final long                     refreshPeriod;
+    /** Queued modifications of index. Key is path of file or path of folder with trailing '/'. */
+    private final LinkedHashMap<String, IndexTask> pending;
 
-    private IndexWriter     luceneIndexWriter;
-    private SearcherManager searcherManager;
-    private boolean         closed;
+    private volatile MountPoint     mountPoint;
+    private IndexWriter             luceneIndexWriter;
+    private SearcherManager         searcherManager;
+    /** Keeps snapshots of index that are referenced by search cursors. */
+    private SearcherLifetimeManager searcherLifetimeManager;
+    private ScheduledFuture<?>      refreshTask;
+    private volatile boolean        closed;
+    // All fields below are guarded by 'pending'
+    private long    submitted;
+    private long    applied;
+    private boolean draining;
 
     public LuceneSearcher() {
         this(new MediaTypeFilter());
     }
 
     public LuceneSearcher(VirtualFileFilter filter) {
+        this(filter, null, 0);
+    }
+
+    /**
+     * @param filter
+     *         filter of files which should be indexed
+     * @param indexExecutor
+     *         executor for applying index modifications and refreshing index reader in background, if {@code null} index is
+     *         updated synchronously
+     * @param refreshPeriod
+     *         period in milliseconds of refreshing of index reader, ignored if {@code indexExecutor} is {@code null}
+     */
+    public LuceneSearcher(VirtualFileFilter filter, ScheduledExecutorService indexExecutor, long refreshPeriod) {
+        if (indexExecutor != null && refreshPeriod <= 0) {
+            throw new IllegalArgumentException("Refresh period must be positive. ");
+        }
         this.filter = filter;
+        this.indexExecutor = indexExecutor;
+        this.refreshPeriod = refreshPeriod;
+        pending = new LinkedHashMap<>();
     }
 
     protected Analyzer makeAnalyzer() {
@@ -98,23 +185,40 @@ public abstract class LuceneSearcher implements Searcher {
      *         if any virtual filesystem error
      */
     public void init(MountPoint mountPoint) throws ServerException {
-        doInit();
+        doInit(mountPoint);
         addTree(mountPoint.getRoot());
     }
 
-    protected final synchronized void doInit() throws ServerException {
+    protected final synchronized void doInit(MountPoint mountPoint) throws ServerException {
+        this.mountPoint = mountPoint;
         try {
             luceneIndexWriter = new IndexWriter(makeDirectory(), new IndexWriterConfig(makeAnalyzer()));
             searcherManager = new SearcherManager(luceneIndexWriter, true, new SearcherFactory());
+            searcherLifetimeManager = new SearcherLifetimeManager();
         } catch (IOException e) {
             throw new ServerException(e);
         }
+        if (indexExecutor != null) {
+            refreshTask = indexExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        searcherManager.maybeRefresh();
+                    } catch (IOException | RuntimeException e) {
+                        LOG.error(e.getMessage(), e);
+                    }
+                }
+            }, refreshPeriod, refreshPeriod, TimeUnit.MILLISECONDS);
+        }
     }
 
     public synchronized void close() {
         if (!closed) {
+            if (refreshTask != null) {
+                refreshTask.cancel(false);
+            }
             try {
-                IOUtils.close(getIndexWriter(), getIndexWriter().getDirectory(), searcherManager);
+                IOUtils.close(getIndexWriter(), getIndexWriter().getDirectory(), searcherManager, searcherLifetimeManager);
             } catch (IOException e) {
                 LOG.error(e.getMessage(), e);
             }
@@ -127,32 +231,64 @@ public abstract class LuceneSearcher implements Searcher {
     }
 
     @Override
-    public String[] search(QueryExpression query) throws ServerException {
+    public SearchResult search(QueryExpression query) throws ConflictException, ServerException {
+        final SearchCursor cursor = query.getCursor();
         IndexSearcher luceneSearcher = null;
+        ScoreDoc after = null;
+        int offset;
         try {
-            searcherManager.maybeRefresh();
-            luceneSearcher = searcherManager.acquire();
+            if (cursor != null) {
+                // Continue with the same snapshot of index which was used for getting previous page if it is still available.
+                luceneSearcher = searcherLifetimeManager.acquire(cursor.getIndexVersion());
+            }
+            if (luceneSearcher != null) {
+                if (cursor.getDoc() < 0 || cursor.getDoc() >= luceneSearcher.getIndexReader().maxDoc()) {
+                    throw new ConflictException(String.format("Invalid search cursor '%s'. ", cursor));
+                }
+                after = new ScoreDoc(cursor.getDoc(), cursor.getScore());
+                offset = cursor.getOffset();
+            } else {
+                if (indexExecutor == null) {
+                    searcherManager.maybeRefresh();
+                }
+                luceneSearcher = searcherManager.acquire();
+                offset = cursor != null ? cursor.getOffset() : Math.max(0, query.getSkipCount());
+            }
 
             Query luceneQuery = createLuceneQuery(query);
 
-            ScoreDoc after = null;
-            final int numSkipDocs = Math.max(0, query.getSkipCount());
-            if (numSkipDocs > 0) {
-                after = skipScoreDocs(luceneSearcher, luceneQuery, numSkipDocs);
+            if (after == null && offset > 0) {
+                after = skipScoreDocs(luceneSearcher, luceneQuery, offset);
             }
 
+            // Next items may be got with cursor.
             final int numDocs = query.getMaxItems() > 0 ? Math.min(query.getMaxItems(), RESULT_LIMIT) : RESULT_LIMIT;
             final TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, numDocs);
-            final String[] result = new String[topDocs.scoreDocs.length];
-            for (int i = 0, length = result.length; i < length; i++) {
-                result[i] = luceneSearcher.doc(topDocs.scoreDocs[i].doc).getField("path").stringValue();
+            final List<Pattern> textPatterns = query.isIncludePositions() && query.getText() != null
+                                               ? createTextPatterns(query.getText())
+                                               : Collections.<Pattern>emptyList();
+            final List<SearchResultEntry> result = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                final String path = luceneSearcher.doc(scoreDoc.doc).getField("path").stringValue();
+                final List<TextOccurrence> occurrences = textPatterns.isEmpty()
+                                                         ? null
+                                                         : findOccurrences(luceneSearcher, scoreDoc.doc, path, textPatterns);
+                result.add(new SearchResultEntry(path, occurrences));
             }
-            return result;
+            SearchCursor nextCursor = null;
+            final int nextOffset = offset + topDocs.scoreDocs.length;
+            if (topDocs.scoreDocs.length > 0 && topDocs.totalHits > nextOffset) {
+                final ScoreDoc last = topDocs.scoreDocs[topDocs.scoreDocs.length - 1];
+                searcherLifetimeManager.prune(new SearcherLifetimeManager.PruneByAge(CURSOR_MAX_AGE));
+                nextCursor = new SearchCursor(searcherLifetimeManager.record(luceneSearcher), last.doc, last.score, nextOffset);
+            }
+            return new SearchResult(result, nextCursor, isIndexPartial());
         } catch (IOException e) {
             throw new ServerException(e.getMessage(), e);
         } finally {
             try {
                 if (luceneSearcher != null) {
+                    // Searchers obtained from SearcherManager and SearcherLifetimeManager are released in the same way.
                     searcherManager.release(luceneSearcher);
                 }
             } catch (IOException e) {
@@ -161,6 +297,14 @@ public abstract class LuceneSearcher implements Searcher {
         }
     }
 
+    /**
+     * Returns {@code true} if index is not completely built yet, e.g. initial indexing is running in background. By default index
+     * is built in method {@link #init(MountPoint)} and this method returns {@code false}.
+     */
+    protected boolean isIndexPartial() {
+        return false;
+    }
+
     private Query createLuceneQuery(QueryExpression query) throws ServerException {
         final BooleanQuery luceneQuery = new BooleanQuery();
         final String name = query.getName();
@@ -188,8 +332,141 @@ public abstract class LuceneSearcher implements Searcher {
         return luceneQuery;
     }
 
+    /**
+     * Creates patterns for matching terms of 'text' field against text part of query. Query syntax (operators, boosts, etc) is
+     * ignored, wildcards are supported.
+     */
+    private List<Pattern> createTextPatterns(String text) throws IOException {
+        final List<Pattern> patterns = new ArrayList<>();
+        final Analyzer analyzer = makeAnalyzer();
+        for (String token : text.split("\\s+")) {
+            if (QUERY_OPERATORS.contains(token)) {
+                continue;
+            }
+            final int colon = token.indexOf(':');
+            if (colon > 0) {
+                if (!"text".equals(token.substring(0, colon))) {
+                    continue;
+                }
+                token = token.substring(colon + 1);
+            }
+            token = token.replaceAll("^[+\\-!(\"]+|[)\"]+$|[~^][0-9.]*$", "");
+            if (token.isEmpty()) {
+                continue;
+            }
+            try (TokenStream tokenStream = analyzer.tokenStream("text", token)) {
+                final CharTermAttribute termAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+                tokenStream.reset();
+                while (tokenStream.incrementToken()) {
+                    patterns.add(Pattern.compile(wildcardToRegex(termAttribute.toString())));
+                }
+                tokenStream.end();
+            }
+        }
+        return patterns;
+    }
+
+    private static String wildcardToRegex(String term) {
+        final StringBuilder regex = new StringBuilder();
+        for (int i = 0, length = term.length(); i < length; i++) {
+            final char c = term.charAt(i);
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else if (Character.isLetterOrDigit(c)) {
+                regex.append(c);
+            } else {
+                regex.append('\\').append(c);
+            }
+        }
+        return regex.toString();
+    }
+
+    /** Finds offsets of terms that match any of {@code textPatterns} in term vector of document and resolves them to lines. */
+    private List<TextOccurrence> findOccurrences(IndexSearcher luceneSearcher, int docId, String path, List<Pattern> textPatterns)
+            throws IOException, ServerException {
+        final Terms termVector = luceneSearcher.getIndexReader().getTermVector(docId, "text");
+        if (termVector == null) {
+            return Collections.emptyList();
+        }
+        final List<int[]> offsets = new ArrayList<>();
+        final TermsEnum termsEnum = termVector.iterator();
+        PostingsEnum postings = null;
+        BytesRef term;
+        while ((term = termsEnum.next()) != null) {
+            final String termText = term.utf8ToString();
+            for (Pattern pattern : textPatterns) {
+                if (pattern.matcher(termText).matches()) {
+                    postings = termsEnum.postings(null, postings, PostingsEnum.OFFSETS);
+                    if (postings.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+                        for (int i = 0, freq = postings.freq(); i < freq; i++) {
+                            postings.nextPosition();
+                            offsets.add(new int[]{postings.startOffset(), postings.endOffset()});
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+        if (offsets.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Collections.sort(offsets, new Comparator<int[]>() {
+            @Override
+            public int compare(int[] o1, int[] o2) {
+                return Integer.compare(o1[0], o2[0]);
+            }
+        });
+        return toTextOccurrences(path, offsets.size() > MAX_OCCURRENCES ? offsets.subList(0, MAX_OCCURRENCES) : offsets);
+    }
+
+    /** Reads content of file to find lines that contain text with specified offsets. Offsets must be sorted. */
+    private List<TextOccurrence> toTextOccurrences(String path, List<int[]> offsets) throws ServerException {
+        final List<TextOccurrence> occurrences = new ArrayList<>(offsets.size());
+        final VirtualFile virtualFile;
+        try {
+            virtualFile = mountPoint.getVirtualFile(path);
+        } catch (NotFoundException | ForbiddenException e) {
+            // File was removed after it was found in index or isn't accessible for current user.
+            return occurrences;
+        }
+        // Use the same charset as for indexing, otherwise offsets don't match.
+        try (Reader reader = new BufferedReader(new InputStreamReader(virtualFile.getContent().getStream()))) {
+            final StringBuilder line = new StringBuilder();
+            int lineNumber = 1;
+            int lineStart = 0;
+            int offset = 0;
+            int next = 0;
+            while (next < offsets.size()) {
+                final int c = reader.read();
+                if (c == -1 || c == '\n') {
+                    final String lineContent = line.toString();
+                    while (next < offsets.size() && offsets.get(next)[0] <= offset) {
+                        final int[] occurrence = offsets.get(next++);
+                        occurrences.add(new TextOccurrence(lineNumber, occurrence[0], occurrence[1], lineStart, lineContent));
+                    }
+                    if (c == -1) {
+                        break;
+                    }
+                    lineNumber++;
+                    lineStart = offset + 1;
+                    line.setLength(0);
+                } else if (c != '\r' && line.length() < MAX_LINE_LENGTH) {
+                    line.append((char)c);
+                }
+                offset++;
+            }
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        }
+        return occurrences;
+    }
+
     private ScoreDoc skipScoreDocs(IndexSearcher luceneSearcher, Query luceneQuery, int numSkipDocs) throws IOException {
-        final int readFrameSize = Math.min(numSkipDocs, RESULT_LIMIT);
+        final int readFrameSize = Math.min(numSkipDocs, SKIP_FRAME_SIZE);
         ScoreDoc scoreDoc = null;
         int retrievedDocs = 0;
         TopDocs topDocs;
@@ -211,7 +488,13 @@ public abstract class LuceneSearcher implements Searcher {
 
     @Override
     public final void add(VirtualFile virtualFile) throws ServerException {
-        doAdd(virtualFile);
+        if (indexExecutor == null) {
+            doAdd(virtualFile);
+        } else if (virtualFile.isFolder()) {
+            enqueue(folderPrefix(virtualFile.getPath()), new IndexTask(IndexTask.REINDEX_TREE, virtualFile.getPath(), virtualFile));
+        } else {
+            enqueue(virtualFile.getPath(), new IndexTask(IndexTask.UPDATE_FILE, virtualFile.getPath(), virtualFile));
+        }
     }
 
     protected void doAdd(VirtualFile virtualFile) throws ServerException {
@@ -266,6 +549,16 @@ public abstract class LuceneSearcher implements Searcher {
 
     @Override
     public final void delete(String path, boolean isFile) throws ServerException {
+        if (indexExecutor == null) {
+            doDelete(path, isFile);
+        } else if (isFile) {
+            enqueue(path, new IndexTask(IndexTask.DELETE_FILE, path, null));
+        } else {
+            enqueue(folderPrefix(path), new IndexTask(IndexTask.DELETE_TREE, path, null));
+        }
+    }
+
+    protected void doDelete(String path, boolean isFile) throws ServerException {
         try {
             if (isFile) {
                 Term term = new Term("path", path);
@@ -284,7 +577,11 @@ public abstract class LuceneSearcher implements Searcher {
 
     @Override
     public final void update(VirtualFile virtualFile) throws ServerException {
-        doUpdate(new Term("path", virtualFile.getPath()), virtualFile);
+        if (indexExecutor == null) {
+            doUpdate(new Term("path", virtualFile.getPath()), virtualFile);
+        } else {
+            enqueue(virtualFile.getPath(), new IndexTask(IndexTask.UPDATE_FILE, virtualFile.getPath(), virtualFile));
+        }
     }
 
     protected void doUpdate(Term deleteTerm, VirtualFile virtualFile) throws ServerException {
@@ -308,10 +605,154 @@ public abstract class LuceneSearcher implements Searcher {
         doc.add(new StringField("path", virtualFile.getPath(), Field.Store.YES));
         doc.add(new StringField("name", virtualFile.getName(), Field.Store.YES));
         doc.add(new StringField("mediatype", getMediaType(virtualFile), Field.Store.YES));
-        doc.add(new TextField("text", inReader));
+        doc.add(new Field("text", inReader, TEXT_FIELD_TYPE));
         return doc;
     }
 
+    /**
+     * Waits until all index modifications queued before this call are applied and makes them visible for search.
+     *
+     * @throws ServerException
+     *         if an error occurs or current thread is interrupted
+     */
+    public void flush() throws ServerException {
+        if (indexExecutor != null) {
+            synchronized (pending) {
+                final long target = submitted;
+                try {
+                    while (applied < target && draining) {
+                        pending.wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ServerException("Interrupted while waiting for index modifications. ", e);
+                }
+            }
+        }
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
+    private void enqueue(String key, IndexTask task) {
+        synchronized (pending) {
+            // Remove previous modification of the same path, if any, to keep order of modifications.
+            pending.remove(key);
+            pending.put(key, task);
+            task.seq = ++submitted;
+            if (!draining) {
+                draining = true;
+                try {
+                    indexExecutor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            drain();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    draining = false;
+                    pending.notifyAll();
+                    LOG.warn("Unable apply index modifications, executor is shut down. ");
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        boolean stopped = false;
+        try {
+            for (; ; ) {
+                final List<IndexTask> batch;
+                synchronized (pending) {
+                    if (pending.isEmpty() || closed) {
+                        // Reset flag together with check of queue, otherwise modification that is queued between them is never applied.
+                        draining = false;
+                        stopped = true;
+                        pending.notifyAll();
+                        return;
+                    }
+                    batch = new ArrayList<>(Math.min(pending.size(), INDEX_BATCH_SIZE));
+                    final Iterator<IndexTask> iterator = pending.values().iterator();
+                    while (iterator.hasNext() && batch.size() < INDEX_BATCH_SIZE) {
+                        batch.add(iterator.next());
+                        iterator.remove();
+                    }
+                }
+                for (IndexTask task : batch) {
+                    try {
+                        task.apply();
+                    } catch (ServerException | RuntimeException e) {
+                        LOG.error(String.format("Unable update index for '%s'. %s", task.path, e.getMessage()), e);
+                    }
+                }
+                synchronized (pending) {
+                    applied = batch.get(batch.size() - 1).seq;
+                    pending.notifyAll();
+                }
+            }
+        } finally {
+            if (!stopped) {
+                // Failed with error, new modification must start new drain.
+                synchronized (pending) {
+                    draining = false;
+                    pending.notifyAll();
+                }
+            }
+        }
+    }
+
+    private static String folderPrefix(String path) {
+        return path.endsWith("/") ? path : path + '/';
+    }
+
+    /** Queued modification of index. */
+    private class IndexTask {
+        static final int UPDATE_FILE  = 0;
+        static final int REINDEX_TREE = 1;
+        static final int DELETE_FILE  = 2;
+        static final int DELETE_TREE  = 3;
+
+        final int         type;
+        final String      path;
+        final VirtualFile virtualFile;
+        long seq;
+
+        IndexTask(int type, String path, VirtualFile virtualFile) {
+            this.type = type;
+            this.path = path;
+            this.virtualFile = virtualFile;
+        }
+
+        void apply() throws ServerException {
+            switch (type) {
+                case UPDATE_FILE:
+                    addFile(virtualFile);
+                    break;
+                case REINDEX_TREE:
+                    // Tree may replace previously queued deletion of the same folder, so remove everything that was indexed before.
+                    deleteTree(path);
+                    addTree(virtualFile);
+                    break;
+                case DELETE_FILE:
+                    doDelete(path, true);
+                    break;
+                default:
+                    deleteTree(path);
+                    break;
+            }
+        }
+
+        private void deleteTree(String path) throws ServerException {
+            try {
+                getIndexWriter().deleteDocuments(new PrefixQuery(new Term("path", folderPrefix(path))));
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+        }
+    }
+
     /** Get virtual file media type. Any additional parameters (e.g. 'charset') are removed. */
     private String getMediaType(VirtualFile virtualFile) throws ServerException {
         String mediaType = virtualFile.getMediaType();
@@ -12,12 +12,14 @@ package org.eclipse.che.api.vfs.server.search;
 
 /** @author andrew00x */
 public class QueryExpression {
-    private String name;
-    private String path;
-    private String mediaType;
-    private String text;
-    private int    skipCount;
-    private int    maxItems;
+    private String       name;
+    private String       path;
+    private String       mediaType;
+    private String       text;
+    private int          skipCount;
+    private int          maxItems;
+    private SearchCursor cursor;
+    private boolean      includePositions;
 
     public String getPath() {
         return path;
@@ -73,6 +75,29 @@ public class QueryExpression {
         return this;
     }
 
+    public SearchCursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Sets cursor obtained from previous page of result of the same query. If cursor is set then search continues right after the
+     * last item of previous page and {@code skipCount} is ignored.
+     */
+    public QueryExpression setCursor(SearchCursor cursor) {
+        this.cursor = cursor;
+        return this;
+    }
+
+    public boolean isIncludePositions() {
+        return includePositions;
+    }
+
+    /** If {@code true} result of search contains positions of searched text in content of matched files. */
+    public QueryExpression setIncludePositions(boolean includePositions) {
+        this.includePositions = includePositions;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "QueryExpression{" +
@@ -82,6 +107,8 @@ public class QueryExpression {
                ", text='" + text + '\'' +
                ", skipCount=" + skipCount +
                ", maxItems=" + maxItems +
+               ", cursor=" + cursor +
+               ", includePositions=" + includePositions +
                '}';
     }
 }
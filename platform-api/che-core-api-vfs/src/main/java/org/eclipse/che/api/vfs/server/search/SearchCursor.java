@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in result of search. Cursor is returned with each page of result and may be passed with the same query to get the
+ * next page without re-reading of all the previous pages. Cursor is opaque for clients, use {@link #toString()} and {@link
+ * #valueOf(String)} to pass it over the wire.
+ *
+ * @author andrew00x
+ */
+public final class SearchCursor {
+    /**
+     * Parses cursor from string that was obtained with method {@link #toString()}.
+     *
+     * @throws IllegalArgumentException
+     *         if {@code cursor} is not valid
+     */
+    public static SearchCursor valueOf(String cursor) {
+        final String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Invalid search cursor '%s'. ", cursor));
+        }
+        if (parts.length != 4) {
+            throw new IllegalArgumentException(String.format("Invalid search cursor '%s'. ", cursor));
+        }
+        try {
+            return new SearchCursor(Long.parseLong(parts[0], 16),
+                                    Integer.parseInt(parts[1], 16),
+                                    Float.intBitsToFloat(Integer.parseUnsignedInt(parts[2], 16)),
+                                    Integer.parseInt(parts[3], 16));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Invalid search cursor '%s'. ", cursor));
+        }
+    }
+
+    private final long  indexVersion;
+    private final int   doc;
+    private final float score;
+    private final int   offset;
+
+    public SearchCursor(long indexVersion, int doc, float score, int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset may not be negative. ");
+        }
+        this.indexVersion = indexVersion;
+        this.doc = doc;
+        this.score = score;
+        this.offset = offset;
+    }
+
+    /** Version of index which was used for getting result. */
+    public long getIndexVersion() {
+        return indexVersion;
+    }
+
+    /** Internal id of the last document in previous page of result. */
+    public int getDoc() {
+        return doc;
+    }
+
+    /** Score of the last document in previous page of result. */
+    public float getScore() {
+        return score;
+    }
+
+    /** Number of items in all previous pages of result. */
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchCursor)) {
+            return false;
+        }
+        final SearchCursor other = (SearchCursor)o;
+        return indexVersion == other.indexVersion
+               && doc == other.doc
+               && Float.floatToIntBits(score) == Float.floatToIntBits(other.score)
+               && offset == other.offset;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 31 * hash + (int)(indexVersion ^ (indexVersion >>> 32));
+        hash = 31 * hash + doc;
+        hash = 31 * hash + Float.floatToIntBits(score);
+        hash = 31 * hash + offset;
+        return hash;
+    }
+
+    /** Gets string representation of cursor which may be parsed with method {@link #valueOf(String)}. */
+    @Override
+    public String toString() {
+        final String cursor = Long.toHexString(indexVersion) + ':'
+                              + Integer.toHexString(doc) + ':'
+                              + Integer.toHexString(Float.floatToIntBits(score)) + ':'
+                              + Integer.toHexString(offset);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+}
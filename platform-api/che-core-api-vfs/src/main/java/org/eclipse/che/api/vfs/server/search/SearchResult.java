@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.search;
+
+import java.util.List;
+
+/**
+ * Result of search in virtual filesystem.
+ *
+ * @author andrew00x
+ */
+public class SearchResult {
+    private final List<SearchResultEntry> results;
+    private final SearchCursor            nextCursor;
+    private final boolean                 partial;
+
+    public SearchResult(List<SearchResultEntry> results, SearchCursor nextCursor, boolean partial) {
+        this.results = results;
+        this.nextCursor = nextCursor;
+        this.partial = partial;
+    }
+
+    /** Matched items. */
+    public List<SearchResultEntry> getResults() {
+        return results;
+    }
+
+    /** Paths of matched items. */
+    public String[] getFilePaths() {
+        final String[] filePaths = new String[results.size()];
+        for (int i = 0; i < filePaths.length; i++) {
+            filePaths[i] = results.get(i).getFilePath();
+        }
+        return filePaths;
+    }
+
+    /**
+     * Gets cursor that points to the end of this result. Cursor may be passed to {@link QueryExpression#setCursor(SearchCursor)}
+     * to get the next page of result. Returns {@code null} if there are no more items.
+     */
+    public SearchCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Returns {@code true} if index is not completely built yet. In this case result may not contain some of items that match
+     * query.
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+}
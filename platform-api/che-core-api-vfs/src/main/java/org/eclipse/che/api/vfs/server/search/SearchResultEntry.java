@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.search;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single item in result of search.
+ *
+ * @author andrew00x
+ */
+public class SearchResultEntry {
+    private final String               filePath;
+    private final List<TextOccurrence> occurrences;
+
+    public SearchResultEntry(String filePath, List<TextOccurrence> occurrences) {
+        this.filePath = filePath;
+        this.occurrences = occurrences == null ? Collections.<TextOccurrence>emptyList() : occurrences;
+    }
+
+    /** Path of matched item. */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Occurrences of searched text in content of matched item. List is empty if positions of text were not requested with {@link
+     * QueryExpression#setIncludePositions(boolean)}.
+     */
+    public List<TextOccurrence> getOccurrences() {
+        return occurrences;
+    }
+}
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.server.search;
 
+import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.server.VirtualFile;
 
@@ -19,11 +20,13 @@ public interface Searcher {
      *
      * @param query
      *         query expression
-     * @return paths of matched items
+     * @return result of search. Number of items in result is limited, use {@link SearchResult#getNextCursor()} to get the next items
+     * @throws ConflictException
+     *         if cursor of query is not valid
      * @throws ServerException
      *         if an error occurs
      */
-    String[] search(QueryExpression query) throws ServerException;
+    SearchResult search(QueryExpression query) throws ConflictException, ServerException;
 
     /**
      * Add VirtualFile to index.
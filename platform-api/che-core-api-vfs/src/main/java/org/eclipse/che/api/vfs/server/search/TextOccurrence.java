@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.search;
+
+/**
+ * Position of searched text in content of file.
+ *
+ * @author andrew00x
+ */
+public class TextOccurrence {
+    private final int    lineNumber;
+    private final int    startOffset;
+    private final int    endOffset;
+    private final int    lineStartOffset;
+    private final String lineContent;
+
+    public TextOccurrence(int lineNumber, int startOffset, int endOffset, int lineStartOffset, String lineContent) {
+        this.lineNumber = lineNumber;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.lineStartOffset = lineStartOffset;
+        this.lineContent = lineContent;
+    }
+
+    /** Number of line (starting from 1) that contains text. */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /** Offset of the first character of text from the beginning of file. */
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    /** Offset after the last character of text from the beginning of file. */
+    public int getEndOffset() {
+        return endOffset;
+    }
+
+    /** Offset of the first character of line that contains text from the beginning of file. */
+    public int getLineStartOffset() {
+        return lineStartOffset;
+    }
+
+    /** Content of line that contains text, long lines are truncated. */
+    public String getLineContent() {
+        return lineContent;
+    }
+
+    @Override
+    public String toString() {
+        return "TextOccurrence{" +
+               "lineNumber=" + lineNumber +
+               ", startOffset=" + startOffset +
+               ", endOffset=" + endOffset +
+               ", lineStartOffset=" + lineStartOffset +
+               ", lineContent='" + lineContent + '\'' +
+               '}';
+    }
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads content of file from opened {@link FileChannel}.
+ *
+ * @author andrew00x
+ */
+public final class FileChannelInputStream extends InputStream {
+    private final FileChannel channel;
+
+    public FileChannelInputStream(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        return channel.read(ByteBuffer.wrap(b, off, len));
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        final long position = channel.position();
+        final long skipped = Math.min(n, Math.max(0, channel.size() - position));
+        channel.position(position + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int)Math.min(Integer.MAX_VALUE, Math.max(0, channel.size() - channel.position()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.util;
+
+import org.apache.commons.io.input.CountingInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * ZipInputStream that checks ZIP data while it is read. If number of uncompressed bytes exceeds {@link #ZIP_THRESHOLD} and is more
+ * than {@link #ZIP_RATIO} times bigger than number of compressed bytes, or total number of uncompressed bytes exceeds limit, then
+ * {@link ZipException} is thrown. Unlike to {@link ZipContent} this stream doesn't need to spool and read ZIP data before usage, so
+ * each entry is inflated only once, but caller must be ready to get error in the middle of reading and undo what is done so far.
+ *
+ * @author andrew00x
+ */
+public final class ZipBombDetectingInputStream extends ZipInputStream {
+    /** The threshold after that checking of ZIP ratio started. */
+    public static final long ZIP_THRESHOLD         = 1000000;
+    /** Max compression ratio. */
+    public static final int  ZIP_RATIO             = 100;
+    /** Default max number of uncompressed bytes. */
+    public static final long MAX_UNCOMPRESSED_SIZE = 10L * 1024 * 1024 * 1024; // 10G
+
+    private final CountingInputStream compressedCounter;
+    private final long                maxUncompressedSize;
+
+    private long uncompressed;
+
+    public ZipBombDetectingInputStream(InputStream in) {
+        this(new CountingInputStream(in), MAX_UNCOMPRESSED_SIZE);
+    }
+
+    public ZipBombDetectingInputStream(InputStream in, long maxUncompressedSize) {
+        this(new CountingInputStream(in), maxUncompressedSize);
+    }
+
+    private ZipBombDetectingInputStream(CountingInputStream compressedCounter, long maxUncompressedSize) {
+        super(compressedCounter);
+        this.compressedCounter = compressedCounter;
+        this.maxUncompressedSize = maxUncompressedSize;
+    }
+
+    /** All other read and skip methods of ZipInputStream use this one. */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int r = super.read(b, off, len);
+        if (r > 0) {
+            uncompressed += r;
+            checkUncompressedSize();
+        }
+        return r;
+    }
+
+    /** Returns number of uncompressed bytes that are read so far. */
+    public long getUncompressedSize() {
+        return uncompressed;
+    }
+
+    private void checkUncompressedSize() throws ZipException {
+        if (uncompressed > maxUncompressedSize) {
+            throw new ZipException(String.format("Size of unzipped data exceeds limit of %d bytes. ", maxUncompressedSize));
+        }
+        if (uncompressed > ZIP_THRESHOLD && uncompressed > (ZIP_RATIO * compressedCounter.getByteCount())) {
+            throw new ZipException("Zip bomb detected. ");
+        }
+    }
+}
@@ -10,8 +10,6 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.server.util;
 
-import org.apache.commons.io.input.CountingInputStream;
-
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
@@ -21,19 +19,16 @@ import java.io.InputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
-/** @author andrew00x */
+/**
+ * Spools ZIP stream and checks it isn't zip bomb before it is used.
+ *
+ * @author andrew00x
+ * @see ZipBombDetectingInputStream
+ */
 public final class ZipContent {
     /** Memory threshold. If zip stream over this size it spooled in file. */
-    private static final int  BUFFER        = 100 * 1024; // 100k
-    private static final int  BUFFER_SIZE   = 8 * 1024; // 8k
-    /** The threshold after that checking of ZIP ratio started. */
-    private static final long ZIP_THRESHOLD = 1000000;
-    /**
-     * Max compression ratio. If the number of bytes uncompressed data is exceed the number
-     * of bytes of compressed stream more than this ratio (and number of uncompressed data
-     * is more than threshold) then VirtualFileSystemRuntimeException is thrown.
-     */
-    private static final int  ZIP_RATIO     = 100;
+    private static final int BUFFER      = 100 * 1024; // 100k
+    private static final int BUFFER_SIZE = 8 * 1024; // 8k
 
     public static ZipContent newInstance(InputStream in) throws IOException {
         java.io.File file = null;
@@ -64,70 +59,24 @@ public final class ZipContent {
             spool = new ByteArrayInputStream(inMemory);
         }
 
-        // Counts numbers of compressed data.
-        try (CountingInputStream compressedCounter = new CountingInputStream(spool);
-             ZipInputStream zip = new ZipInputStream(compressedCounter)) {
-
-            class UncompressedCounterInputStream extends CountingInputStream {
-
-                public UncompressedCounterInputStream(InputStream in) {
-                    super(in);
-                }
-
-                @Override
-                public int read() throws IOException {
-                    int i = super.read();
-                    checkCompressionRatio();
-                    return i;
-                }
-
-                @Override
-                public int read(byte[] b, int off, int len) throws IOException {
-                    int i = super.read(b, off, len);
-                    checkCompressionRatio();
-                    return i;
-                }
-
-                @Override
-                public int read(byte[] b) throws IOException {
-                    int i = super.read(b);
-                    checkCompressionRatio();
-                    return i;
-                }
-
-                @Override
-                public long skip(long length) throws IOException {
-                    long i = super.skip(length);
-                    checkCompressionRatio();
-                    return i;
-                }
-
-                private void checkCompressionRatio() {
-                    long uncompressedBytes = getByteCount(); // number of uncompressed bytes
-                    if (uncompressedBytes > ZIP_THRESHOLD) {
-                        long compressedBytes = compressedCounter.getByteCount(); // number of compressed bytes
-                        if (uncompressedBytes > (ZIP_RATIO * compressedBytes)) {
-                            throw new RuntimeException("Zip bomb detected. ");
-                        }
+        try (ZipInputStream zip = new ZipBombDetectingInputStream(spool)) {
+            ZipEntry zipEntry;
+            while ((zipEntry = zip.getNextEntry()) != null) {
+                if (!zipEntry.isDirectory()) {
+                    while (zip.read(buff) != -1) {
+                        // Read full data from stream to be able detect zip-bomb.
                     }
                 }
             }
-
-            // Counts number of uncompressed data.
-            try (CountingInputStream uncompressedCounter = new UncompressedCounterInputStream(zip)) {
-                ZipEntry zipEntry;
-                while ((zipEntry = zip.getNextEntry()) != null) {
-                    if (!zipEntry.isDirectory()) {
-                        while (uncompressedCounter.read(buff) != -1) {
-                            // Read full data from stream to be able detect zip-bomb.
-                        }
-                    }
-                }
+        } catch (IOException e) {
+            if (file != null) {
+                file.delete();
             }
-
-            return new ZipContent(inMemory != null ? new ByteArrayInputStream(inMemory) : new DeleteOnCloseFileInputStream(file),
-                                  file == null);
+            throw e;
         }
+
+        return new ZipContent(inMemory != null ? new ByteArrayInputStream(inMemory) : new DeleteOnCloseFileInputStream(file),
+                              file == null);
     }
 
     public final InputStream zippedData;
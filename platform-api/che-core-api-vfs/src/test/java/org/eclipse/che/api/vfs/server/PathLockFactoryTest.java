@@ -236,4 +236,49 @@ public class PathLockFactoryTest extends TestCase {
         waiter.await();
         assertEquals(2, acquired.get());
     }
+
+    public void testSiblingExclusiveLocks() throws Exception {
+        final Path sibling = path.getParent().newPath("d");
+        final CountDownLatch starter = new CountDownLatch(1);
+        final CountDownLatch finisher = new CountDownLatch(1);
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                PathLockFactory.PathLock lock = pathLockFactory.getLock(path, true);
+                lock.acquire();
+                starter.countDown();
+                try {
+                    finisher.await();
+                } catch (InterruptedException ignored) {
+                } finally {
+                    lock.release();
+                }
+            }
+        };
+        new Thread(task).start();
+        starter.await();
+        try {
+            // Exclusive lock of sibling does not conflict with lock of path.
+            pathLockFactory.getLock(sibling, true).acquire(100).release();
+            try {
+                // But lock of common parent does.
+                pathLockFactory.getLock(path.getParent(), false).acquire(100);
+                fail();
+            } catch (RuntimeException e) {
+                // OK
+            }
+        } finally {
+            finisher.countDown();
+        }
+    }
+
+    public void testLockParentOfSameThreadLock() throws Exception {
+        final Path parent = path.getParent();
+        PathLockFactory.PathLock lock = pathLockFactory.getLock(path, true).acquire(100);
+        // Lock of child path obtained by current thread does not prevent to lock parent.
+        PathLockFactory.PathLock parentLock = pathLockFactory.getLock(parent, true).acquire(100);
+        parentLock.release();
+        lock.release();
+        pathLockFactory.checkClean();
+    }
 }
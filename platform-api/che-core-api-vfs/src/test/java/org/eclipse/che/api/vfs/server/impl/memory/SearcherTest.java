@@ -19,8 +19,14 @@ import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
+import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.vfs.server.VirtualFile;
 import org.eclipse.che.api.vfs.server.search.LuceneSearcher;
+import org.eclipse.che.api.vfs.server.search.QueryExpression;
+import org.eclipse.che.api.vfs.server.search.SearchCursor;
+import org.eclipse.che.api.vfs.server.search.SearchResult;
+import org.eclipse.che.api.vfs.server.search.SearchResultEntry;
+import org.eclipse.che.api.vfs.server.search.TextOccurrence;
 import org.eclipse.che.api.vfs.shared.dto.Item;
 import org.eclipse.che.api.vfs.shared.dto.ItemList;
 import org.eclipse.che.commons.lang.Pair;
@@ -128,6 +134,60 @@ public class SearcherTest extends MemoryFileSystemTest {
         }
     }
 
+    public void testSearchOccurrences() throws Exception {
+        String file = searchTestFolder.createFile("SearcherTest_Occurrences.txt",
+                                                  new ByteArrayInputStream("first line\nsecond Occurrence\r\nthird occurrence".getBytes()))
+                                      .getPath();
+        List<SearchResultEntry> result = searcher.search(new QueryExpression().setText("occurrence").setIncludePositions(true))
+                                                 .getResults();
+        assertEquals(1, result.size());
+        assertEquals(file, result.get(0).getFilePath());
+        List<TextOccurrence> occurrences = result.get(0).getOccurrences();
+        assertEquals(2, occurrences.size());
+        assertEquals(2, occurrences.get(0).getLineNumber());
+        assertEquals(18, occurrences.get(0).getStartOffset());
+        assertEquals(28, occurrences.get(0).getEndOffset());
+        assertEquals(11, occurrences.get(0).getLineStartOffset());
+        assertEquals("second Occurrence", occurrences.get(0).getLineContent());
+        assertEquals(3, occurrences.get(1).getLineNumber());
+        assertEquals("third occurrence", occurrences.get(1).getLineContent());
+
+        result = searcher.search(new QueryExpression().setText("occurrence")).getResults();
+        assertEquals(1, result.size());
+        assertTrue(result.get(0).getOccurrences().isEmpty());
+    }
+
+    public void testSearchWithCursor() throws Exception {
+        QueryExpression query = new QueryExpression().setText("to be or").setMaxItems(2);
+        SearchResult result = searcher.search(query);
+        assertEquals(2, result.getResults().size());
+        SearchCursor cursor = result.getNextCursor();
+        assertNotNull(cursor);
+        List<String> paths = new ArrayList<>(Arrays.asList(result.getFilePaths()));
+
+        // New files don't affect result until the end of paging.
+        searchTestFolder.createFile("SearcherTest_Cursor.txt", new ByteArrayInputStream("to be or not to be".getBytes()));
+
+        result = searcher.search(query.setCursor(SearchCursor.valueOf(cursor.toString())));
+        assertEquals(1, result.getResults().size());
+        assertNull(result.getNextCursor());
+        paths.addAll(Arrays.asList(result.getFilePaths()));
+        assertEquals(3, paths.size());
+        assertTrue(paths.containsAll(Arrays.asList(file1, file2, file3)));
+    }
+
+    public void testSearchWithTamperedCursor() throws Exception {
+        QueryExpression query = new QueryExpression().setText("to be or").setMaxItems(2);
+        SearchCursor cursor = searcher.search(query).getNextCursor();
+        assertNotNull(cursor);
+        SearchCursor tampered = new SearchCursor(cursor.getIndexVersion(), Integer.MAX_VALUE, cursor.getScore(), cursor.getOffset());
+        try {
+            searcher.search(query.setCursor(SearchCursor.valueOf(tampered.toString())));
+            fail("ConflictException expected");
+        } catch (ConflictException expected) {
+        }
+    }
+
     public void testDelete() throws Exception {
         searcherManager.maybeRefresh();
         IndexSearcher luceneSearcher = searcherManager.acquire();
@@ -32,6 +32,7 @@ import org.eclipse.che.api.workspace.server.model.impl.EnvironmentStateImpl;
 import org.eclipse.che.api.workspace.server.model.impl.RuntimeWorkspaceImpl;
 import org.eclipse.che.api.workspace.server.model.impl.UsersWorkspaceImpl;
 import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceConfigUpdatedEvent;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.EventType;
 import org.eclipse.che.commons.annotation.Nullable;
@@ -221,6 +222,7 @@ public class WorkspaceManager {
      *
      * <p>Replace strategy is used for workspace update, it means
      * that existing workspace data will be replaced with given {@code update}.
+     * {@link WorkspaceConfigUpdatedEvent} is published after update.
      *
      * @param workspaceId
      *         the id of the workspace which should be updated
@@ -246,6 +248,7 @@ public class WorkspaceManager {
         final UsersWorkspaceImpl updated = workspaceDao.update(new UsersWorkspaceImpl(updateConfig, workspaceId, getCurrentUserId()));
         // TODO move 'analytics' logs to the appropriate interceptors
         LOG.info("EVENT#workspace-updated# WS#{}# WS-ID#{}#", updated.getName(), updated.getId());
+        eventService.publish(newDto(WorkspaceConfigUpdatedEvent.class).withWorkspaceId(workspaceId));
         return normalizeState(updated);
     }
 
@@ -254,6 +257,7 @@ public class WorkspaceManager {
      *
      * <p>Does not remove the workspace if it has the runtime, throws {@link ConflictException} in this case.
      * Doesn't throw any exception if workspace doesn't exist.
+     * {@link WorkspaceConfigUpdatedEvent} is published after removal.
      *
      * @param workspaceId
      *         workspace id to remove workspace
@@ -272,6 +276,7 @@ public class WorkspaceManager {
         }
         workspaceDao.remove(workspaceId);
         hooks.afterRemove(workspaceId);
+        eventService.publish(newDto(WorkspaceConfigUpdatedEvent.class).withWorkspaceId(workspaceId));
         LOG.info("EVENT#workspace-remove# WS-ID#{}#", workspaceId);
     }
 
@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.shared.dto.event;
+
+import org.eclipse.che.api.core.notification.EventOrigin;
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Notifies that configuration of workspace, including configurations of its projects, is updated or workspace is removed. Components
+ * that keep copy of workspace configuration should drop it and get fresh one from the workspace master.
+ *
+ * @author andrew00x
+ */
+@EventOrigin("workspace")
+@DTO
+public interface WorkspaceConfigUpdatedEvent {
+    String getWorkspaceId();
+
+    void setWorkspaceId(String workspaceId);
+
+    WorkspaceConfigUpdatedEvent withWorkspaceId(String workspaceId);
+}
@@ -24,6 +24,7 @@ import org.eclipse.che.api.workspace.server.model.impl.UsersWorkspaceImpl;
 import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
 import org.eclipse.che.api.workspace.shared.dto.EnvironmentDto;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceConfigDto;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceConfigUpdatedEvent;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.user.User;
 import org.eclipse.che.commons.user.UserImpl;
@@ -227,6 +228,7 @@ public class WorkspaceManagerTest {
         final UsersWorkspace updated = workspaceManager.updateWorkspace(workspace.getId(), update);
 
         verify(workspaceDao).update(any(UsersWorkspaceImpl.class));
+        verify(eventService).publish(newDto(WorkspaceConfigUpdatedEvent.class).withWorkspaceId(workspace.getId()));
         assertEquals(updated.getStatus(), STOPPED);
         assertFalse(updated.isTemporary());
         assertNotNull(updated.getEnvironments()
@@ -260,6 +262,7 @@ public class WorkspaceManagerTest {
 
         verify(workspaceDao).remove(workspace.getId());
         verify(workspaceHooks).afterRemove(workspace.getId());
+        verify(eventService).publish(newDto(WorkspaceConfigUpdatedEvent.class).withWorkspaceId(workspace.getId()));
     }
 
     @Test(expectedExceptions = ConflictException.class)